@@ -0,0 +1,209 @@
+package com.mittimitra.data.repository;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.backend.model.AiModels;
+import com.mittimitra.database.MittiMitraDatabase;
+import com.mittimitra.database.entity.DueReminder;
+import com.mittimitra.database.entity.FarmTask;
+import com.mittimitra.tasks.FarmTaskTemplates;
+import com.mittimitra.tasks.TaskSuggestionEngine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for RoomTaskRepository.
+ * Tests that a bulk plan is written with its logs and reminders, that tasks repeating an
+ * open task of the same crop, stage and title are skipped however late a plan is generated
+ * again, and that due reminders are read with their tasks and marked sent in bulk.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RoomTaskRepositoryTest {
+
+    private static final String USER = "user-1";
+    private static final long DAY_MS = 24L * 60L * 60L * 1000L;
+    private static final long LEAD_MS = 6L * 60L * 60L * 1000L;
+
+    private MittiMitraDatabase database;
+    private RoomTaskRepository repository;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class).build();
+        repository = new RoomTaskRepository(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void createTasksWithReminders_writesTasksLogsAndReminders() {
+        List<Long> ids = repository.createTasksWithReminders(
+                Arrays.asList(task("Irrigation", 7), task("Weeding", 14)), LEAD_MS);
+
+        assertEquals(2, ids.size());
+        assertEquals(2, database.farmTaskDao().getAllForUser(USER).size());
+        assertEquals(2, database.taskLogDao().getLogsForUser(USER).size());
+        assertEquals(2, database.taskReminderDao().getUpcomingReminders(USER, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void createTasksWithReminders_secondCall_skipsOpenTasks() {
+        repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 7)), LEAD_MS);
+
+        List<Long> ids = repository.createTasksWithReminders(
+                Arrays.asList(task(" irrigation ", 7), task("Weeding", 14)), LEAD_MS);
+
+        assertEquals(1, ids.size());
+        assertEquals(2, database.farmTaskDao().getAllForUser(USER).size());
+        assertEquals(2, database.taskReminderDao().getUpcomingReminders(USER, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void createTasksWithReminders_repeatInList_isSkipped() {
+        List<Long> ids = repository.createTasksWithReminders(
+                Arrays.asList(task("Irrigation", 7), task("IRRIGATION", 8)), LEAD_MS);
+
+        assertEquals(1, ids.size());
+    }
+
+    @Test
+    public void createTasksWithReminders_scheduleActivityInOtherWeek_isKept() {
+        AiModels.CropScheduleData schedule = schedule("Irrigation", "Irrigation");
+
+        List<Long> ids = repository.createTasksWithReminders(
+                TaskSuggestionEngine.schedulePlan(USER, "Wheat", schedule, System.currentTimeMillis()), LEAD_MS);
+
+        assertEquals(2, ids.size());
+    }
+
+    @Test
+    public void createTasksWithReminders_schedulePlanRegeneratedLater_addsNothing() {
+        AiModels.CropScheduleData schedule = schedule("Irrigation", "Weeding", "Irrigation");
+        long now = System.currentTimeMillis();
+        repository.createTasksWithReminders(TaskSuggestionEngine.schedulePlan(USER, "Wheat", schedule, now), LEAD_MS);
+
+        List<Long> ids = repository.createTasksWithReminders(
+                TaskSuggestionEngine.schedulePlan(USER, "Wheat", schedule, now + 10 * DAY_MS), LEAD_MS);
+
+        assertTrue(ids.isEmpty());
+        assertEquals(3, database.farmTaskDao().getAllForUser(USER).size());
+    }
+
+    @Test
+    public void createTasksWithReminders_templatesRegeneratedLater_addNothing() {
+        long now = System.currentTimeMillis();
+        repository.createTasksWithReminders(FarmTaskTemplates.forCrop(USER, "Wheat", now), LEAD_MS);
+
+        List<Long> ids = repository.createTasksWithReminders(
+                FarmTaskTemplates.forCrop(USER, "Wheat", now + 10 * DAY_MS), LEAD_MS);
+
+        assertTrue(ids.isEmpty());
+    }
+
+    @Test
+    public void createTasksWithReminders_completedTask_doesNotBlock() {
+        long id = repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 7)), LEAD_MS).get(0);
+        repository.completeTask(id, System.currentTimeMillis());
+
+        List<Long> ids = repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 7)), LEAD_MS);
+
+        assertEquals(1, ids.size());
+    }
+
+    @Test
+    public void createTasksWithReminders_otherStage_isNotDuplicate() {
+        repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 7)), LEAD_MS);
+        FarmTask later = task("Irrigation", 30);
+        later.stage = "Flowering";
+
+        assertEquals(1, repository.createTasksWithReminders(Arrays.asList(later), LEAD_MS).size());
+    }
+
+    @Test
+    public void getDueReminders_joinsTaskTitleAndStatus() {
+        long done = repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 0)), 0).get(0);
+        repository.createTasksWithReminders(Arrays.asList(task("Weeding", 0)), 0);
+        repository.completeTask(done, System.currentTimeMillis());
+
+        List<DueReminder> due = repository.getDueReminders(USER, 0, Long.MAX_VALUE);
+
+        assertEquals(2, due.size());
+        for (DueReminder reminder : due) {
+            assertNotNull(reminder.taskId);
+            assertEquals(reminder.taskId == done ? "COMPLETED" : "PENDING", reminder.status);
+        }
+    }
+
+    @Test
+    public void getDueReminders_deletedTask_hasNullTask() {
+        long id = repository.createTasksWithReminders(Arrays.asList(task("Irrigation", 7)), LEAD_MS).get(0);
+        database.getOpenHelper().getWritableDatabase().execSQL("DELETE FROM farm_tasks WHERE id = ?", new Object[]{id});
+
+        List<DueReminder> due = repository.getDueReminders(USER, 0, Long.MAX_VALUE);
+
+        assertEquals(1, due.size());
+        assertNull(due.get(0).taskId);
+        assertNull(due.get(0).title);
+    }
+
+    @Test
+    public void markRemindersSent_marksAllInOneCall() {
+        List<FarmTask> plan = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            plan.add(task("Task " + i, 7));
+        }
+        repository.createTasksWithReminders(plan, LEAD_MS);
+        List<Long> ids = new ArrayList<>();
+        for (DueReminder reminder : repository.getDueReminders(USER, 0, Long.MAX_VALUE)) {
+            ids.add(reminder.reminderId);
+        }
+        assertEquals(600, ids.size());
+
+        repository.markRemindersSent(ids);
+
+        assertTrue(repository.getDueReminders(USER, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    // One schedule item per activity, in weeks 1, 2, 3...
+    private static AiModels.CropScheduleData schedule(String... activities) {
+        AiModels.CropScheduleData data = new AiModels.CropScheduleData();
+        for (int i = 0; i < activities.length; i++) {
+            AiModels.ScheduleItem item = new AiModels.ScheduleItem();
+            item.week = i + 1;
+            item.activity = activities[i];
+            data.schedule.add(item);
+        }
+        return data;
+    }
+
+    private static FarmTask task(String title, int days) {
+        long now = System.currentTimeMillis();
+        FarmTask task = new FarmTask();
+        task.userId = USER;
+        task.title = title;
+        task.cropName = "Wheat";
+        task.stage = "Vegetative";
+        task.source = "crop_schedule";
+        task.status = "PENDING";
+        task.dueAt = now + days * DAY_MS;
+        task.createdAt = now;
+        return task;
+    }
+}
@@ -0,0 +1,123 @@
+package com.mittimitra.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.database.entity.ChatMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for ChatHistory.
+ * Tests that compaction archives full blocks beyond the live window, that paging runs from live
+ * messages into the archive without gaps or repeats, and that archived messages stay searchable.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatHistoryTest {
+
+    private static final String USER = "user-1";
+    private static final String OTHER_USER = "user-2";
+    private static final long START = 1_700_000_000_000L;
+
+    private MittiMitraDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void compact_archivesFullBlocksBeyondLiveWindow() {
+        insertMessages(USER, ChatHistory.KEEP_LIVE + 2 * ChatHistory.BLOCK_SIZE + 10);
+        insertMessages(OTHER_USER, ChatHistory.KEEP_LIVE);
+
+        assertEquals(2, ChatHistory.compact(database));
+
+        assertEquals(ChatHistory.KEEP_LIVE + 10, database.chatDao().getMessageCountForUser(USER));
+        assertEquals(2, database.chatArchiveDao().getBlockCountForUser(USER));
+        assertEquals(ChatHistory.KEEP_LIVE, database.chatDao().getMessageCountForUser(OTHER_USER));
+        assertEquals(0, database.chatArchiveDao().getBlockCountForUser(OTHER_USER));
+    }
+
+    @Test
+    public void compact_again_doesNothing() {
+        insertMessages(USER, ChatHistory.KEEP_LIVE + ChatHistory.BLOCK_SIZE);
+        assertEquals(1, ChatHistory.compact(database));
+
+        assertEquals(0, ChatHistory.compact(database));
+    }
+
+    @Test
+    public void loadBefore_pagesAcrossLiveAndArchive_inOrderWithoutGaps() {
+        int total = ChatHistory.KEEP_LIVE + 2 * ChatHistory.BLOCK_SIZE + 10;
+        insertMessages(USER, total);
+        ChatHistory.compact(database);
+
+        List<ChatMessage> all = new ArrayList<>();
+        long timestamp = Long.MAX_VALUE;
+        long id = Long.MAX_VALUE;
+        while (true) {
+            List<ChatMessage> page = ChatHistory.loadBefore(database, USER, timestamp, id, 37);
+            all.addAll(page);
+            if (page.size() < 37) break;
+            ChatMessage last = page.get(page.size() - 1);
+            timestamp = last.timestamp;
+            id = last.messageId;
+        }
+
+        assertEquals(total, all.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).messageId));
+            // Newest first, one message per second
+            assertEquals(START + (total - 1 - i) * 1000L, all.get(i).timestamp);
+            assertEquals(USER, all.get(i).userId);
+        }
+    }
+
+    @Test
+    public void searchChat_findsArchivedMessages() {
+        ChatMessage old = new ChatMessage("Which fungicide for rust on wheat?", true);
+        old.userId = USER;
+        old.timestamp = START - 1000L;
+        database.chatDao().insertMessage(old);
+        insertMessages(USER, ChatHistory.KEEP_LIVE + ChatHistory.BLOCK_SIZE);
+        ChatHistory.compact(database);
+
+        List<ChatMessage> results = HistorySearch.searchChat(database, USER, "fungi rus", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("Which fungicide for rust on wheat?", results.get(0).content);
+        assertTrue(HistorySearch.searchChat(database, OTHER_USER, "fungi", 10).isEmpty());
+    }
+
+    private void insertMessages(String userId, int count) {
+        List<ChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChatMessage message = new ChatMessage("Message " + i, i % 2 == 0);
+            message.userId = userId;
+            message.timestamp = START + i * 1000L;
+            messages.add(message);
+        }
+        database.chatDao().insertMessages(messages);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mittimitra.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.database.entity.ChatMessage;
+import com.mittimitra.database.entity.PlantHealth;
+import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for HistorySearch.
+ * Tests that the full-text indexes follow inserts and deletes on their content tables,
+ * and that searches are prefix-matched, ranked and scoped to the user.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistorySearchTest {
+
+    private static final String USER = "user-1";
+    private static final String OTHER_USER = "user-2";
+
+    private MittiMitraDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void searchSoil_prefix_findsReportsOfUserOnly() {
+        insertSoil(USER, 100, "Nashik, Maharashtra", "Red Soil");
+        insertSoil(USER, 200, "Pune, Maharashtra", "Black Soil");
+        insertSoil(OTHER_USER, 300, "Nashik", "Red Soil");
+
+        List<SoilAnalysisSummary> results = HistorySearch.searchSoil(database, USER, "nas re", 0, 10);
+
+        assertEquals(1, results.size());
+        assertEquals("Nashik, Maharashtra", results.get(0).location);
+    }
+
+    @Test
+    public void searchSoil_respectsSinceCutoff() {
+        insertSoil(USER, 100, "Nashik", "Red Soil");
+        insertSoil(USER, 500, "Nashik", "Red Soil");
+
+        List<SoilAnalysisSummary> results = HistorySearch.searchSoil(database, USER, "red", 400, 10);
+
+        assertEquals(1, results.size());
+        assertEquals(500, results.get(0).timestamp);
+    }
+
+    @Test
+    public void searchSoil_afterDelete_dropsReport() {
+        long id = insertSoil(USER, 100, "Nashik", "Red Soil");
+
+        database.soilDao().deleteById(id);
+
+        assertTrue(HistorySearch.searchSoil(database, USER, "red", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchPlants_ranksStrongerMatchFirst() {
+        insertPlant(USER, 100, "Tomato", "Leaf spot on older leaves");
+        insertPlant(USER, 200, "Tomato", "Early blight; blight lesions spreading");
+
+        List<PlantHealth> results = HistorySearch.searchPlants(database, USER, "blight", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(200, results.get(0).timestamp);
+
+        List<PlantHealth> both = HistorySearch.searchPlants(database, USER, "tom", 10);
+        assertEquals(2, both.size());
+        // Equal scores: newest first
+        assertEquals(200, both.get(0).timestamp);
+    }
+
+    @Test
+    public void searchChat_findsMessagesAndFollowsClear() {
+        ChatMessage message = new ChatMessage("How much urea for wheat?", true);
+        message.userId = USER;
+        database.chatDao().insertMessage(message);
+
+        assertEquals(1, HistorySearch.searchChat(database, USER, "ure", 10).size());
+
+        database.chatDao().clearMessagesForUser(USER);
+        assertTrue(HistorySearch.searchChat(database, USER, "ure", 10).isEmpty());
+    }
+
+    @Test
+    public void search_blankText_returnsEmpty() {
+        insertSoil(USER, 100, "Nashik", "Red Soil");
+
+        assertTrue(HistorySearch.searchSoil(database, USER, "  ", 0, 10).isEmpty());
+    }
+
+    private long insertSoil(String userId, long timestamp, String location, String soil) {
+        SoilAnalysis analysis = new SoilAnalysis();
+        analysis.userId = userId;
+        analysis.timestamp = timestamp;
+        analysis.location = location;
+        analysis.detectedSoil = soil;
+        database.soilDao().insertAnalysis(analysis);
+        return database.soilDao().getLatestReportForUser(userId).analysisId;
+    }
+
+    private void insertPlant(String userId, long timestamp, String crop, String diagnosis) {
+        PlantHealth plant = new PlantHealth();
+        plant.userId = userId;
+        plant.timestamp = timestamp;
+        plant.cropName = crop;
+        plant.diagnosis = diagnosis;
+        database.plantDao().insert(plant);
+    }
+}
@@ -0,0 +1,133 @@
+package com.mittimitra.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.database.entity.SoilAnalysis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for ObservedQuery.
+ * Tests that results are re-delivered after writes to the watched table, that changes made while
+ * stopped are delivered on the next start, and that unchanged results are not delivered again.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ObservedQueryTest {
+
+    private static final String USER = "user-1";
+    private static final String OTHER_USER = "user-2";
+    private static final long TIMEOUT_MS = 2000;
+    // Long enough for an invalidation to have been delivered if one were coming
+    private static final long QUIET_MS = 500;
+
+    private MittiMitraDatabase database;
+    // Stands in for the main thread: start, stop, close and results all run here
+    private ExecutorService main;
+    private BlockingQueue<Integer> results;
+    private ObservedQuery<Integer> query;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class).build();
+        main = Executors.newSingleThreadExecutor();
+        results = new LinkedBlockingQueue<>();
+        query = new ObservedQuery<>(database, main, () -> database.soilDao().getCountForUser(USER),
+                results::add, "soil_history");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        onMain(query::close);
+        main.shutdownNow();
+        database.close();
+    }
+
+    @Test
+    public void start_deliversInitialResult() throws Exception {
+        onMain(query::start);
+
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void insert_whileStarted_deliversNewResult() throws Exception {
+        onMain(query::start);
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        insertSoil(USER);
+
+        assertEquals(Integer.valueOf(1), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void insert_whileStopped_deliversOnNextStart() throws Exception {
+        onMain(query::start);
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        onMain(query::stop);
+
+        insertSoil(USER);
+        assertNull(results.poll(QUIET_MS, TimeUnit.MILLISECONDS));
+
+        onMain(query::start);
+        assertEquals(Integer.valueOf(1), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void restart_withoutChanges_doesNotQueryAgain() throws Exception {
+        onMain(query::start);
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        onMain(query::stop);
+        onMain(query::start);
+
+        assertNull(results.poll(QUIET_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void insert_notChangingResult_isNotDelivered() throws Exception {
+        onMain(query::start);
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        insertSoil(OTHER_USER);
+
+        assertNull(results.poll(QUIET_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void close_stopsDelivery() throws Exception {
+        onMain(query::start);
+        assertEquals(Integer.valueOf(0), results.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        onMain(query::close);
+
+        insertSoil(USER);
+
+        assertNull(results.poll(QUIET_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private void insertSoil(String userId) {
+        SoilAnalysis analysis = new SoilAnalysis();
+        analysis.userId = userId;
+        analysis.timestamp = System.currentTimeMillis();
+        database.soilDao().insertAnalysis(analysis);
+    }
+
+    private void onMain(Runnable action) throws Exception {
+        main.submit(action).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+}
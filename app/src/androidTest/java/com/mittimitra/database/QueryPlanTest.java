@@ -0,0 +1,193 @@
+package com.mittimitra.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.database.dao.BlobDao;
+import com.mittimitra.database.dao.ChatArchiveDao;
+import com.mittimitra.database.dao.ChatDao;
+import com.mittimitra.database.dao.CropDao;
+import com.mittimitra.database.dao.DocumentDao;
+import com.mittimitra.database.dao.FarmTaskDao;
+import com.mittimitra.database.dao.FieldDao;
+import com.mittimitra.database.dao.PlantDao;
+import com.mittimitra.database.dao.SoilDao;
+import com.mittimitra.database.dao.SoilTrendDao;
+import com.mittimitra.database.dao.TaskLogDao;
+import com.mittimitra.database.dao.TaskReminderDao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Query plan regression tests for the hot DAO queries.
+ * Tests that each one is answered from its index with EXPLAIN QUERY PLAN: no full table scan and
+ * no separate sort step. Each test explains the SQL constant its DAO method's @Query uses, binding
+ * the named parameters in order of first appearance.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String USER = "user-1";
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long LATER = NOW + 7L * 24 * 60 * 60 * 1000;
+
+    private MittiMitraDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void soilDao_getSummariesForUser_usesUserTimestampIndex() {
+        assertIndexed(SoilDao.SUMMARIES_FOR_USER, new Object[]{USER}, "index_soil_history_user_id_timestamp");
+    }
+
+    @Test
+    public void soilDao_getSummariesSince_usesUserTimestampIndex() {
+        assertIndexed(SoilDao.SUMMARIES_SINCE, new Object[]{USER, NOW}, "index_soil_history_user_id_timestamp");
+    }
+
+    @Test
+    public void soilDao_getLatestReportForUser_usesUserTimestampIndex() {
+        assertIndexed(SoilDao.LATEST_REPORT_FOR_USER, new Object[]{USER}, "index_soil_history_user_id_timestamp");
+    }
+
+    @Test
+    public void soilDao_getSummaryPage_usesUserTimestampIndex() {
+        assertIndexed(SoilDao.SUMMARY_PAGE, new Object[]{USER, 0L, NOW, 42L, 20},
+                "index_soil_history_user_id_timestamp");
+    }
+
+    @Test
+    public void plantDao_getPageByUserId_usesUserTimestampIndex() {
+        assertIndexed(PlantDao.PAGE_BY_USER_ID, new Object[]{USER, NOW, 42L, 20},
+                "index_plant_health_user_id_timestamp");
+    }
+
+    @Test
+    public void cropDao_getPageByUserId_usesUserTimestampIndex() {
+        assertIndexed(CropDao.PAGE_BY_USER_ID, new Object[]{USER, NOW, 42L, 20},
+                "index_crop_schedules_user_id_timestamp");
+    }
+
+    @Test
+    public void chatDao_getMessagesForUser_usesUserTimestampIndex() {
+        assertIndexed(ChatDao.MESSAGES_FOR_USER, new Object[]{USER}, "index_chat_messages_user_id_timestamp");
+    }
+
+    @Test
+    public void chatDao_getPageByUserId_usesUserTimestampIndex() {
+        assertIndexed(ChatDao.PAGE_BY_USER_ID, new Object[]{USER, NOW, 10L, 30},
+                "index_chat_messages_user_id_timestamp");
+    }
+
+    @Test
+    public void chatArchiveDao_getBlockBefore_usesUserFirstMessageIndex() {
+        assertIndexed(ChatArchiveDao.BLOCK_BEFORE, new Object[]{USER, NOW, 10L},
+                "index_chat_archive_user_id_first_timestamp_first_message_id");
+    }
+
+    @Test
+    public void soilTrendDao_getRecentTrends_usesTrendKeyForRowsAndDeltas() {
+        assertIndexed(SoilTrendDao.RECENT_TRENDS, new Object[]{USER, SoilTrends.MONTH, 12},
+                "sqlite_autoindex_soil_trends_1");
+    }
+
+    @Test
+    public void documentDao_getExpiringDocumentsForUser_usesUserExpiryIndex() {
+        assertIndexed(DocumentDao.EXPIRING_DOCUMENTS_FOR_USER, new Object[]{USER, NOW, LATER},
+                "index_documents_user_id_expiry_date");
+    }
+
+    @Test
+    public void documentDao_getDocumentsForUser_usesUserExpiryIndex() {
+        assertIndexed(DocumentDao.DOCUMENTS_FOR_USER, new Object[]{USER}, "index_documents_user_id_expiry_date");
+    }
+
+    @Test
+    public void farmTaskDao_getUpcomingForUser_usesUserDueIndex() {
+        assertIndexed(FarmTaskDao.UPCOMING_FOR_USER, new Object[]{USER, NOW, LATER}, "index_farm_tasks_user_id_due_at");
+    }
+
+    @Test
+    public void farmTaskDao_getTaskTemplatesByCropStage_usesUserCropIndex() {
+        assertIndexed(FarmTaskDao.TASK_TEMPLATES_BY_CROP_STAGE, new Object[]{USER, "Wheat", "SOWING"},
+                "index_farm_tasks_user_id_crop_name_due_at");
+    }
+
+    @Test
+    public void taskReminderDao_getUpcomingReminders_usesUserSentRemindIndex() {
+        assertIndexed(TaskReminderDao.UPCOMING_REMINDERS, new Object[]{USER, NOW, LATER},
+                "index_task_reminders_user_id_is_sent_remind_at");
+    }
+
+    @Test
+    public void taskReminderDao_getDueReminders_usesUserSentRemindIndexAndTaskKey() {
+        assertIndexed(TaskReminderDao.DUE_REMINDERS, new Object[]{USER, NOW, LATER},
+                "index_task_reminders_user_id_is_sent_remind_at", "INTEGER PRIMARY KEY");
+    }
+
+    @Test
+    public void taskReminderDao_deleteForTask_usesTaskIndex() {
+        assertIndexed(TaskReminderDao.DELETE_FOR_TASK, new Object[]{1L}, "index_task_reminders_task_id");
+    }
+
+    @Test
+    public void fieldDao_getAllForUser_usesUserUpdatedIndex() {
+        assertIndexed(FieldDao.ALL_FOR_USER, new Object[]{USER}, "index_fields_user_id_updated_at");
+    }
+
+    @Test
+    public void taskLogDao_getLogsForUser_usesUserTimestampIndex() {
+        assertIndexed(TaskLogDao.LOGS_FOR_USER, new Object[]{USER}, "index_task_logs_user_id_timestamp");
+    }
+
+    @Test
+    public void blobDao_countReferences_usesPathIndexes() {
+        assertIndexed(BlobDao.COUNT_REFERENCES, new Object[]{"/blobs/a"},
+                "index_documents_internal_file_path", "index_plant_health_image_path");
+    }
+
+    private void assertIndexed(String sql, Object[] args, String... indexes) {
+        List<String> plan = explain(sql, args);
+        String text = String.join("\n", plan);
+        for (String index : indexes) {
+            assertTrue("Expected " + index + " in plan:\n" + text, text.contains(index));
+        }
+        for (String step : plan) {
+            assertFalse("Full table scan in plan:\n" + text, step.matches("SCAN (TABLE )?\\w+"));
+            assertFalse("Sort without an index in plan:\n" + text, step.contains("TEMP B-TREE"));
+        }
+    }
+
+    private List<String> explain(String sql, Object[] args) {
+        List<String> steps = new ArrayList<>();
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase()
+                .query("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                steps.add(cursor.getString(detail));
+            }
+        }
+        return steps;
+    }
+}
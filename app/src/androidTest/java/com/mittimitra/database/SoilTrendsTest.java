@@ -0,0 +1,167 @@
+package com.mittimitra.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mittimitra.database.entity.NutrientTrend;
+import com.mittimitra.database.entity.SoilAnalysis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for SoilTrends.
+ * Tests that the summary triggers keep weekly and monthly averages, extremes and deltas right
+ * through inserts, deletes and edits, per user, with buckets on the local calendar.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SoilTrendsTest {
+
+    private static final String USER = "user-1";
+    private static final String OTHER_USER = "user-2";
+    private static final double DELTA = 1e-9;
+
+    private MittiMitraDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, MittiMitraDatabase.class)
+                .addCallback(SoilTrends.CALLBACK)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void insert_aggregatesMonthsWithDeltas_newestFirst() {
+        insertSoil(USER, at(2024, Calendar.MARCH, 5), 200.0, 6.5);
+        insertSoil(USER, at(2024, Calendar.MARCH, 20), 240.0, 7.0);
+        insertSoil(USER, at(2024, Calendar.APRIL, 10), 180.0, 6.0);
+        insertSoil(OTHER_USER, at(2024, Calendar.APRIL, 11), 999.0, 9.0);
+
+        List<NutrientTrend> trends = database.soilTrendDao().getRecentTrends(USER, SoilTrends.MONTH, 12);
+
+        assertEquals(2, trends.size());
+        NutrientTrend april = trends.get(0);
+        NutrientTrend march = trends.get(1);
+        assertEquals(midnight(2024, Calendar.APRIL, 1), april.bucketStart);
+        assertEquals(midnight(2024, Calendar.MARCH, 1), march.bucketStart);
+        assertEquals(2, march.sampleCount);
+        assertEquals(220.0, march.nitrogenAvg, DELTA);
+        assertEquals(200.0, march.nitrogenMin, DELTA);
+        assertEquals(240.0, march.nitrogenMax, DELTA);
+        assertNull(march.nitrogenDelta);
+        assertEquals(-40.0, april.nitrogenDelta, DELTA);
+        assertEquals(-0.75, april.phDelta, DELTA);
+    }
+
+    @Test
+    public void insert_missingValue_isLeftOutOfThatNutrient() {
+        insertSoil(USER, at(2024, Calendar.MARCH, 5), 200.0, null);
+        insertSoil(USER, at(2024, Calendar.MARCH, 6), null, 7.0);
+
+        NutrientTrend march = database.soilTrendDao().getRecentTrends(USER, SoilTrends.MONTH, 1).get(0);
+
+        assertEquals(2, march.sampleCount);
+        assertEquals(200.0, march.nitrogenAvg, DELTA);
+        assertEquals(7.0, march.phAvg, DELTA);
+        assertNull(march.phosphorusAvg);
+        assertNull(march.potassiumMin);
+    }
+
+    @Test
+    public void delete_recomputesBucketExtremes_andDropsEmptyBucket() {
+        insertSoil(USER, at(2024, Calendar.MARCH, 5), 200.0, 6.5);
+        long highest = insertSoil(USER, at(2024, Calendar.MARCH, 20), 240.0, 7.0);
+        long only = insertSoil(USER, at(2024, Calendar.APRIL, 10), 180.0, 6.0);
+
+        database.soilDao().deleteById(highest);
+        database.soilDao().deleteById(only);
+
+        List<NutrientTrend> trends = database.soilTrendDao().getRecentTrends(USER, SoilTrends.MONTH, 12);
+        assertEquals(1, trends.size());
+        assertEquals(1, trends.get(0).sampleCount);
+        assertEquals(200.0, trends.get(0).nitrogenMax, DELTA);
+    }
+
+    @Test
+    public void update_movesReportBetweenBuckets() {
+        long id = insertSoil(USER, at(2024, Calendar.MARCH, 5), 200.0, 6.5);
+
+        database.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE soil_history SET timestamp = ?, nitrogen = ? WHERE analysis_id = ?",
+                new Object[]{at(2024, Calendar.MAY, 2), 150.0, id});
+
+        List<NutrientTrend> trends = database.soilTrendDao().getRecentTrends(USER, SoilTrends.MONTH, 12);
+        assertEquals(1, trends.size());
+        assertEquals(midnight(2024, Calendar.MAY, 1), trends.get(0).bucketStart);
+        assertEquals(150.0, trends.get(0).nitrogenAvg, DELTA);
+    }
+
+    @Test
+    public void insert_weekBucketStartsOnLocalMonday() {
+        // Sunday 10 March 2024 belongs to the week of Monday 4 March
+        insertSoil(USER, at(2024, Calendar.MARCH, 10), 200.0, 6.5);
+        insertSoil(USER, at(2024, Calendar.MARCH, 4), 100.0, 6.5);
+
+        List<NutrientTrend> trends = database.soilTrendDao().getRecentTrends(USER, SoilTrends.WEEK, 12);
+
+        assertEquals(1, trends.size());
+        assertEquals(midnight(2024, Calendar.MARCH, 4), trends.get(0).bucketStart);
+        assertEquals(150.0, trends.get(0).nitrogenAvg, DELTA);
+    }
+
+    @Test
+    public void rebuild_matchesIncrementalSummaries() {
+        insertSoil(USER, at(2024, Calendar.MARCH, 5), 200.0, 6.5);
+        insertSoil(USER, at(2024, Calendar.MARCH, 20), 240.0, null);
+        insertSoil(USER, at(2024, Calendar.APRIL, 10), null, 6.0);
+        List<NutrientTrend> incremental = database.soilTrendDao().getTrendsSince(USER, SoilTrends.WEEK, 0);
+
+        SoilTrends.rebuild(database.getOpenHelper().getWritableDatabase());
+
+        List<NutrientTrend> rebuilt = database.soilTrendDao().getTrendsSince(USER, SoilTrends.WEEK, 0);
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            assertEquals(incremental.get(i).bucketStart, rebuilt.get(i).bucketStart);
+            assertEquals(incremental.get(i).sampleCount, rebuilt.get(i).sampleCount);
+            assertEquals(incremental.get(i).nitrogenAvg, rebuilt.get(i).nitrogenAvg);
+            assertEquals(incremental.get(i).phDelta, rebuilt.get(i).phDelta);
+        }
+    }
+
+    private long insertSoil(String userId, long timestamp, Double nitrogen, Double ph) {
+        SoilAnalysis analysis = new SoilAnalysis();
+        analysis.userId = userId;
+        analysis.timestamp = timestamp;
+        analysis.nitrogen = nitrogen;
+        analysis.ph = ph;
+        return database.soilDao().insertAnalysis(analysis);
+    }
+
+    // 10:00 local time on the given day
+    private static long at(int year, int month, int day) {
+        return midnight(year, month, day) + 10L * 60 * 60 * 1000;
+    }
+
+    private static long midnight(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mittimitra;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.mittimitra.database.ChatHistory;
+import com.mittimitra.database.MittiMitraDatabase;
+
+/**
+ * Moves old chat turns out of the live chat table into compressed archive blocks.
+ * See {@link ChatHistory#compact}.
+ */
+public class ChatArchiveWorker extends Worker {
+
+    public ChatArchiveWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        int blocks = ChatHistory.compact(MittiMitraDatabase.getDatabase(getApplicationContext()));
+        if (blocks > 0) {
+            Log.d("ChatArchiveWorker", "Archived " + blocks + " chat blocks");
+        }
+        return Result.success();
+    }
+}
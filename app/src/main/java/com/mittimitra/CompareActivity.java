@@ -1,21 +1,23 @@
 package com.mittimitra;
 
 import android.os.Bundle;
-import android.util.Log;
+import android.view.Gravity;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
+import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.widget.Toolbar;
 
+import com.google.android.material.chip.ChipGroup;
 import com.mittimitra.database.MittiMitraDatabase;
-import com.mittimitra.database.entity.SoilAnalysis;
-
-import org.json.JSONObject;
+import com.mittimitra.database.SoilTrends;
+import com.mittimitra.database.entity.NutrientTrend;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -28,6 +30,8 @@ import java.util.concurrent.Executors;
 public class CompareActivity extends BaseActivity {
 
     private static final String TAG = "CompareActivity";
+    // Periods shown in the trend table, newest first
+    private static final int TREND_PERIODS = 12;
 
     private Spinner spinnerRecord1, spinnerRecord2;
     private TextView tvNitrogen1, tvNitrogen2, tvNitrogenDiff;
@@ -35,9 +39,13 @@ public class CompareActivity extends BaseActivity {
     private TextView tvPotassium1, tvPotassium2, tvPotassiumDiff;
     private TextView tvPh1, tvPh2, tvPhDiff;
     private View compareCard;
+    private View trendCard;
+    private LinearLayout trendRows;
+    private TextView tvTrendEmpty;
+    private String trendPeriod = SoilTrends.MONTH;
 
-    private List<SoilAnalysis> records = new ArrayList<>();
-    private SoilAnalysis selectedRecord1, selectedRecord2;
+    private List<SoilAnalysisSummary> records = new ArrayList<>();
+    private SoilAnalysisSummary selectedRecord1, selectedRecord2;
 
     private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
 
@@ -55,6 +63,7 @@ public class CompareActivity extends BaseActivity {
 
         initViews();
         loadRecords();
+        loadTrends();
     }
 
     private void initViews() {
@@ -90,6 +99,15 @@ public class CompareActivity extends BaseActivity {
 
         spinnerRecord1.setOnItemSelectedListener(listener);
         spinnerRecord2.setOnItemSelectedListener(listener);
+
+        trendCard = findViewById(R.id.trend_card);
+        trendRows = findViewById(R.id.trend_rows);
+        tvTrendEmpty = findViewById(R.id.tv_trend_empty);
+        ChipGroup chipGroupTrend = findViewById(R.id.chip_group_trend);
+        chipGroupTrend.setOnCheckedChangeListener((group, checkedId) -> {
+            trendPeriod = checkedId == R.id.chip_trend_week ? SoilTrends.WEEK : SoilTrends.MONTH;
+            loadTrends();
+        });
     }
 
     private void loadRecords() {
@@ -101,7 +119,7 @@ public class CompareActivity extends BaseActivity {
         }
 
         dbExecutor.execute(() -> {
-            records = MittiMitraDatabase.getDatabase(this).soilDao().getAnalysisForUser(userId);
+            records = MittiMitraDatabase.getDatabase(this).soilDao().getSummariesForUser(userId);
             runOnUiThread(() -> {
                 if (records == null || records.isEmpty()) {
                     compareCard.setVisibility(View.GONE);
@@ -110,7 +128,7 @@ public class CompareActivity extends BaseActivity {
 
                 List<String> labels = new ArrayList<>();
                 SimpleDateFormat sdf = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
-                for (SoilAnalysis record : records) {
+                for (SoilAnalysisSummary record : records) {
                     labels.add(sdf.format(new Date(record.timestamp)));
                 }
 
@@ -134,6 +152,68 @@ public class CompareActivity extends BaseActivity {
         });
     }
 
+    // Reads the pre-aggregated summaries, a dozen rows however many reports there are
+    private void loadTrends() {
+        String userId = UserIdentityResolver.getActiveUserId(this);
+        if (userId == null || userId.trim().isEmpty()) {
+            trendCard.setVisibility(View.GONE);
+            return;
+        }
+
+        String period = trendPeriod;
+        dbExecutor.execute(() -> {
+            List<NutrientTrend> trends = MittiMitraDatabase.getDatabase(this).soilTrendDao()
+                    .getRecentTrends(userId, period, TREND_PERIODS);
+            runOnUiThread(() -> showTrends(period, trends));
+        });
+    }
+
+    private void showTrends(String period, List<NutrientTrend> trends) {
+        // A newer chip selection is already loading
+        if (!period.equals(trendPeriod)) return;
+
+        // Keep the header row
+        trendRows.removeViews(1, trendRows.getChildCount() - 1);
+        if (trends.isEmpty()) {
+            trendCard.setVisibility(View.GONE);
+            tvTrendEmpty.setVisibility(View.VISIBLE);
+            return;
+        }
+        tvTrendEmpty.setVisibility(View.GONE);
+        trendCard.setVisibility(View.VISIBLE);
+
+        SimpleDateFormat sdf = new SimpleDateFormat(
+                SoilTrends.WEEK.equals(period) ? "MMM d" : "MMM yyyy", Locale.getDefault());
+        int padding = Math.round(8 * getResources().getDisplayMetrics().density);
+        for (NutrientTrend trend : trends) {
+            LinearLayout row = new LinearLayout(this);
+            row.setOrientation(LinearLayout.HORIZONTAL);
+            row.setPadding(0, padding, 0, padding);
+            row.addView(trendCell(sdf.format(new Date(trend.bucketStart)), Gravity.START));
+            row.addView(trendCell(formatTrend(trend.nitrogenAvg, trend.nitrogenDelta), Gravity.CENTER));
+            row.addView(trendCell(formatTrend(trend.phosphorusAvg, trend.phosphorusDelta), Gravity.CENTER));
+            row.addView(trendCell(formatTrend(trend.potassiumAvg, trend.potassiumDelta), Gravity.CENTER));
+            row.addView(trendCell(formatTrend(trend.phAvg, trend.phDelta), Gravity.CENTER));
+            trendRows.addView(row);
+        }
+    }
+
+    private TextView trendCell(String text, int gravity) {
+        TextView cell = new TextView(this);
+        cell.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        cell.setGravity(gravity);
+        cell.setText(text);
+        return cell;
+    }
+
+    // Period average, with its change from the previous period underneath
+    private String formatTrend(Double average, Double delta) {
+        if (average == null) return "N/A";
+        String text = String.format(Locale.getDefault(), "%.1f", average);
+        if (delta == null) return text;
+        return text + "\n" + (delta >= 0 ? "+" : "") + String.format(Locale.getDefault(), "%.1f", delta);
+    }
+
     private void updateComparison() {
         int pos1 = spinnerRecord1.getSelectedItemPosition();
         int pos2 = spinnerRecord2.getSelectedItemPosition();
@@ -151,8 +231,8 @@ public class CompareActivity extends BaseActivity {
         selectedRecord1 = records.get(pos1);
         selectedRecord2 = records.get(pos2);
 
-        String[] vals1 = parseValues(selectedRecord1.soilReportJson);
-        String[] vals2 = parseValues(selectedRecord2.soilReportJson);
+        String[] vals1 = formatValues(selectedRecord1);
+        String[] vals2 = formatValues(selectedRecord2);
 
         tvNitrogen1.setText(vals1[0]);
         tvNitrogen2.setText(vals2[0]);
@@ -171,19 +251,17 @@ public class CompareActivity extends BaseActivity {
         tvPhDiff.setText(calculateDiff(vals1[3], vals2[3]));
     }
 
-    private String[] parseValues(String json) {
-        // Keys match what ScanActivity writes: "N", "P", "K", "pH"
-        String[] values = {"N/A", "N/A", "N/A", "N/A"};
-        try {
-            JSONObject obj = new JSONObject(json);
-            if (obj.has("N"))   values[0] = obj.getString("N");
-            if (obj.has("P"))   values[1] = obj.getString("P");
-            if (obj.has("K"))   values[2] = obj.getString("K");
-            if (obj.has("pH"))  values[3] = obj.getString("pH");
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to parse soil JSON for comparison", e);
-        }
-        return values;
+    private String[] formatValues(SoilAnalysisSummary record) {
+        return new String[]{
+                formatValue(record.nitrogen),
+                formatValue(record.phosphorus),
+                formatValue(record.potassium),
+                formatValue(record.ph)
+        };
+    }
+
+    private String formatValue(Double value) {
+        return value != null ? String.valueOf(value) : "N/A";
     }
 
     private String calculateDiff(String val1, String val2) {
@@ -6,14 +6,17 @@ import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.button.MaterialButton;
 import com.mittimitra.database.entity.Document;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class DocumentAdapter extends RecyclerView.Adapter<DocumentAdapter.DocumentViewHolder> {
 
-    private final List<Document> documentList;
+    private List<Document> documentList;
     private final OnDocumentClickListener listener;
 
     // Interface for handling clicks
@@ -27,6 +30,37 @@ public class DocumentAdapter extends RecyclerView.Adapter<DocumentAdapter.Docume
         this.listener = listener;
     }
 
+    /**
+     * Show {@code documents}, rebinding only the rows that were added, removed or renamed.
+     */
+    public void update(List<Document> documents) {
+        List<Document> oldList = documentList;
+        List<Document> newList = documents != null ? documents : new ArrayList<>();
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return oldList.get(oldPosition).documentId == newList.get(newPosition).documentId;
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return Objects.equals(oldList.get(oldPosition).documentName, newList.get(newPosition).documentName);
+            }
+        });
+        documentList = newList;
+        diff.dispatchUpdatesTo(this);
+    }
+
     @NonNull
     @Override
     public DocumentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -29,12 +29,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.mittimitra.database.MittiMitraDatabase;
+import com.mittimitra.database.ObservedQuery;
 import com.mittimitra.database.entity.Document;
+import com.mittimitra.utils.BlobStore;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -52,7 +53,7 @@ public class DocumentsActivity extends BaseActivity {
     private MittiMitraDatabase db;
     private ExecutorService databaseExecutor;
     private Handler mainThreadHandler;
-    private List<Document> documentList;
+    private ObservedQuery<List<Document>> documentsQuery;
 
     // File Picker
     private final ActivityResultLauncher<String[]> filePickerLauncher =
@@ -76,6 +77,14 @@ public class DocumentsActivity extends BaseActivity {
         databaseExecutor = Executors.newSingleThreadExecutor();
         mainThreadHandler = new Handler(Looper.getMainLooper());
 
+        // Clear out files left behind by abandoned or cleared documents
+        databaseExecutor.execute(() -> {
+            int deleted = BlobStore.getInstance(this).collectGarbage(db.blobDao().getReferencedPaths());
+            if (deleted > 0) {
+                Log.i(TAG, "Deleted " + deleted + " unreferenced files");
+            }
+        });
+
         // --- Find Views ---
         recyclerView = findViewById(R.id.recycler_view_documents);
         tvEmptyDocs = findViewById(R.id.tv_empty_docs);
@@ -85,26 +94,45 @@ public class DocumentsActivity extends BaseActivity {
         btnAddDocument.setOnClickListener(v -> {
             filePickerLauncher.launch(new String[]{"*/*"});
         });
+
+        adapter = new DocumentAdapter(new ArrayList<>(), new DocumentAdapter.OnDocumentClickListener() {
+            @Override
+            public void onViewClick(Document document) {
+                viewDocument(document);
+            }
+            @Override
+            public void onDeleteClick(Document document) {
+                confirmDelete(document);
+            }
+        });
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        recyclerView.setAdapter(adapter);
+
+        // Re-runs only when documents are added or deleted, not on every resume
+        documentsQuery = new ObservedQuery<>(db, mainThreadHandler::post, this::loadDocuments,
+                this::showDocuments, "documents");
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadDocuments();
+    protected void onStart() {
+        super.onStart();
+        documentsQuery.start();
     }
 
-    private void loadDocuments() {
-        String userId = UserIdentityResolver.getActiveUserId(this);
-        if (userId == null || userId.trim().isEmpty()) return;
+    @Override
+    protected void onStop() {
+        super.onStop();
+        documentsQuery.stop();
+    }
 
-        databaseExecutor.execute(() -> {
-            documentList = db.documentDao().getDocumentsForUser(userId);
-            mainThreadHandler.post(this::setupRecyclerView);
-        });
+    private List<Document> loadDocuments() {
+        String userId = UserIdentityResolver.getActiveUserId(this);
+        if (userId == null || userId.trim().isEmpty()) return new ArrayList<>();
+        return db.documentDao().getDocumentsForUser(userId);
     }
 
-    private void setupRecyclerView() {
-        if (documentList == null || documentList.isEmpty()) {
+    private void showDocuments(List<Document> documents) {
+        if (documents == null || documents.isEmpty()) {
             tvEmptyDocs.setText(R.string.msg_no_documents);
             tvEmptyDocs.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
@@ -112,27 +140,13 @@ public class DocumentsActivity extends BaseActivity {
             tvEmptyDocs.setVisibility(View.GONE);
             recyclerView.setVisibility(View.VISIBLE);
         }
-
-        adapter = new DocumentAdapter(documentList != null ? documentList : new java.util.ArrayList<>(),
-                new DocumentAdapter.OnDocumentClickListener() {
-            @Override
-            public void onViewClick(Document document) {
-                viewDocument(document);
-            }
-            @Override
-            public void onDeleteClick(Document document) {
-                confirmDelete(document);
-            }
-        });
-        if (recyclerView.getLayoutManager() == null) {
-            recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        }
-        recyclerView.setAdapter(adapter);
+        adapter.update(documents);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        documentsQuery.close();
         databaseExecutor.shutdownNow();
     }
 
@@ -147,27 +161,16 @@ public class DocumentsActivity extends BaseActivity {
             String fileName = getFileName(uri);
             String fileType = getMimeType(uri);
 
-            File docsDir = new File(getFilesDir(), "documents");
-            if (!docsDir.exists()) {
-                docsDir.mkdirs();
-            }
-
-            File localFile = new File(docsDir, System.currentTimeMillis() + "_" + fileName);
-
-            try (InputStream in = getContentResolver().openInputStream(uri);
-                 OutputStream out = new FileOutputStream(localFile)) {
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
 
                 if (in == null) throw new IOException("Cannot open input stream for URI");
-                byte[] buf = new byte[4096];
-                int len;
-                while ((len = in.read(buf)) > 0) {
-                    out.write(buf, 0, len);
-                }
+                // Re-adding the same file points the new row at the copy already stored
+                BlobStore.Blob blob = BlobStore.getInstance(this).put(in);
 
                 Document newDoc = new Document();
                 newDoc.documentName = fileName;
                 newDoc.documentType = fileType;
-                newDoc.internalFilePath = localFile.getAbsolutePath();
+                newDoc.internalFilePath = blob.file.getAbsolutePath();
                 newDoc.userId = userId;
 
                 // ASK FOR EXPIRY DATE (Optional)
@@ -209,7 +212,6 @@ public class DocumentsActivity extends BaseActivity {
 
         databaseExecutor.execute(() -> {
             db.documentDao().insertDocument(doc);
-            mainThreadHandler.post(this::loadDocuments);
         });
     }
 
@@ -220,12 +222,14 @@ public class DocumentsActivity extends BaseActivity {
             return;
         }
 
+        // Stored files are named by content hash; viewers that save or share the file get the
+        // original name, extension included, as the URI's display name instead
         Uri fileUri = FileProvider.getUriForFile(this,
                 getApplicationContext().getPackageName() + ".provider",
-                file);
+                file, document.documentName);
 
         Intent intent = new Intent(Intent.ACTION_VIEW);
-        intent.setDataAndType(fileUri, document.documentType);
+        intent.setDataAndType(fileUri, viewerMimeType(document));
         intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
 
         try {
@@ -246,14 +250,11 @@ public class DocumentsActivity extends BaseActivity {
 
     private void deleteDocument(Document document) {
         databaseExecutor.execute(() -> {
-            File file = new File(document.internalFilePath);
-            if (file.exists() && !file.delete()) {
-                Log.w(TAG, "Failed to delete file: " + document.internalFilePath);
-            }
-
             db.documentDao().deleteDocument(document);
 
-            mainThreadHandler.post(this::loadDocuments);
+            // Other documents or plant diagnoses may share the same stored file
+            String path = document.internalFilePath;
+            BlobStore.getInstance(this).release(path, db.blobDao().countReferences(path));
         });
     }
 
@@ -287,6 +288,21 @@ public class DocumentsActivity extends BaseActivity {
         return result;
     }
 
+    // The type recorded when picked, or one guessed from the original name's extension when the
+    // picker did not report one
+    private static String viewerMimeType(Document document) {
+        String type = document.documentType;
+        if ((type == null || "*/*".equals(type)) && document.documentName != null) {
+            int dot = document.documentName.lastIndexOf('.');
+            if (dot >= 0) {
+                String guessed = MimeTypeMap.getSingleton().getMimeTypeFromExtension(
+                        document.documentName.substring(dot + 1).toLowerCase(java.util.Locale.ROOT));
+                if (guessed != null) return guessed;
+            }
+        }
+        return type != null ? type : "*/*";
+    }
+
     private String getMimeType(Uri uri) {
         String mimeType;
         if (ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
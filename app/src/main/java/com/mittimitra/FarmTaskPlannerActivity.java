@@ -18,6 +18,7 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.mittimitra.data.repository.RoomTaskRepository;
 import com.mittimitra.database.MittiMitraDatabase;
+import com.mittimitra.database.ObservedQuery;
 import com.mittimitra.database.entity.FarmTask;
 import com.mittimitra.database.entity.TaskReminder;
 import com.mittimitra.ui.adapters.FarmTaskAdapter;
@@ -36,6 +37,7 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
 
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private RoomTaskRepository taskRepository;
+    private ObservedQuery<List<FarmTask>> tasksQuery;
     private String userId;
 
     @Override
@@ -53,7 +55,8 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
         String resolvedUserId = UserIdentityResolver.getActiveUserIdOrCreateGuest(this);
 
         userId = resolvedUserId;
-        taskRepository = new RoomTaskRepository(MittiMitraDatabase.getDatabase(this));
+        MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
+        taskRepository = new RoomTaskRepository(db);
 
         recyclerTasks = findViewById(R.id.recycler_farm_tasks);
         tvEmptyTasks = findViewById(R.id.tv_empty_tasks);
@@ -65,24 +68,38 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
 
         fabAddTask.setOnClickListener(v -> showCreateTaskDialog());
 
-        loadTasks();
+        // Re-runs whenever tasks are written, here or by the suggestion engine
+        tasksQuery = new ObservedQuery<>(db, this::runOnUiThread, this::loadTasks, this::showTasks, "farm_tasks");
     }
 
-    private void loadTasks() {
-        executor.execute(() -> {
-            try {
-                List<FarmTask> tasks = taskRepository.getTasksForUser(userId);
-                runOnUiThread(() -> {
-                    adapter.update(tasks);
-                    boolean hasItems = tasks != null && !tasks.isEmpty();
-                    recyclerTasks.setVisibility(hasItems ? View.VISIBLE : View.GONE);
-                    tvEmptyTasks.setVisibility(hasItems ? View.GONE : View.VISIBLE);
-                });
-            } catch (Exception e) {
-                android.util.Log.e("FarmTaskPlanner", "Failed to load tasks", e);
-                runOnUiThread(() -> Toast.makeText(this, R.string.alert_data_unavailable, Toast.LENGTH_SHORT).show());
-            }
-        });
+    @Override
+    protected void onStart() {
+        super.onStart();
+        tasksQuery.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        tasksQuery.stop();
+    }
+
+    private List<FarmTask> loadTasks() {
+        try {
+            return taskRepository.getTasksForUser(userId);
+        } catch (Exception e) {
+            android.util.Log.e("FarmTaskPlanner", "Failed to load tasks", e);
+            runOnUiThread(() -> Toast.makeText(this, R.string.alert_data_unavailable, Toast.LENGTH_SHORT).show());
+            return null;
+        }
+    }
+
+    private void showTasks(List<FarmTask> tasks) {
+        if (tasks == null) return;
+        adapter.update(tasks);
+        boolean hasItems = !tasks.isEmpty();
+        recyclerTasks.setVisibility(hasItems ? View.VISIBLE : View.GONE);
+        tvEmptyTasks.setVisibility(hasItems ? View.GONE : View.VISIBLE);
     }
 
     private void showCreateTaskDialog() {
@@ -134,7 +151,6 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
 
                 runOnUiThread(() -> {
                     dialog.dismiss();
-                    loadTasks();
                     Toast.makeText(this, R.string.task_saved, Toast.LENGTH_SHORT).show();
                 });
             });
@@ -169,10 +185,7 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
         executor.execute(() -> {
             try {
                 taskRepository.completeTask(task.id, System.currentTimeMillis());
-                runOnUiThread(() -> {
-                    Toast.makeText(this, R.string.task_completed, Toast.LENGTH_SHORT).show();
-                    loadTasks();
-                });
+                runOnUiThread(() -> Toast.makeText(this, R.string.task_completed, Toast.LENGTH_SHORT).show());
             } catch (Exception e) {
                 android.util.Log.e("FarmTaskPlanner", "Failed to mark task complete", e);
                 runOnUiThread(() -> Toast.makeText(this, R.string.alert_data_unavailable, Toast.LENGTH_SHORT).show());
@@ -183,6 +196,7 @@ public class FarmTaskPlannerActivity extends BaseActivity implements FarmTaskAda
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        tasksQuery.close();
         executor.shutdownNow();
     }
 
@@ -23,8 +23,16 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.snackbar.Snackbar;
+import com.mittimitra.database.HistorySearch;
 import com.mittimitra.database.MittiMitraDatabase;
-import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.database.TableWatcher;
+import com.mittimitra.database.entity.CropSchedule;
+import com.mittimitra.database.entity.PlantHealth;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
+import com.mittimitra.ui.adapters.CropHistoryAdapter;
+import com.mittimitra.ui.adapters.PlantHistoryAdapter;
+import com.mittimitra.utils.HistoryThumbnails;
+import com.mittimitra.utils.KeysetPager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,13 +41,36 @@ import java.util.concurrent.Executors;
 
 public class HistoryActivity extends BaseActivity {
 
+    // Rows fetched per query; each section loads its next page as it nears the bottom
+    private static final int PAGE_SIZE = 20;
+    // Rows left below the last visible one when a section asks for its next page
+    private static final int PREFETCH_DISTANCE = 5;
+    // Best matches shown per section while searching
+    private static final int SEARCH_LIMIT = 50;
+
     private RecyclerView recyclerHistory;
+    private RecyclerView recyclerPlant;
+    private RecyclerView recyclerCrop;
+    private View[] sections;
     private SwipeRefreshLayout swipeRefreshLayout;
     private TextView tvEmpty;
     private EditText etSearch;
     private ChipGroup chipGroupFilter;
-    private List<SoilAnalysis> historyList = new ArrayList<>();
+    private List<SoilAnalysisSummary> historyList = new ArrayList<>();
     private RecentAnalysisAdapter adapter;
+    private PlantHistoryAdapter plantAdapter;
+    private CropHistoryAdapter cropAdapter;
+    private KeysetPager<SoilAnalysisSummary> soilPager;
+    private KeysetPager<PlantHealth> plantPager;
+    private KeysetPager<CropSchedule> cropPager;
+    private String userId;
+    // Soil date filter from the chips; 0 means all time
+    private long soilSince = 0L;
+    // Trimmed search box text; while non-empty, soil and plant sections show ranked matches
+    private String searchText = "";
+    // Bumped per search so results of a query the user has already changed are dropped
+    private int searchGeneration;
+    private final List<TableWatcher> watchers = new ArrayList<>();
     private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
 
     @Override
@@ -56,6 +87,8 @@ public class HistoryActivity extends BaseActivity {
         }
 
         recyclerHistory = findViewById(R.id.recycler_history);
+        recyclerPlant = findViewById(R.id.recycler_plant_history);
+        recyclerCrop = findViewById(R.id.recycler_crop_history);
         swipeRefreshLayout = findViewById(R.id.swipe_refresh_history);
         if (swipeRefreshLayout != null) {
             swipeRefreshLayout.setColorSchemeResources(R.color.brand_green);
@@ -65,11 +98,30 @@ public class HistoryActivity extends BaseActivity {
         // Initialize tvEmpty to soil empty view to keep existing logic working
         tvEmpty = findViewById(R.id.tv_empty_soil);
 
+        setupPagers();
+        watchTables();
+
         if (recyclerHistory != null) {
             recyclerHistory.setLayoutManager(new LinearLayoutManager(this));
+            adapter = new RecentAnalysisAdapter(historyList);
+            recyclerHistory.setAdapter(adapter);
+            pageOnScroll(recyclerHistory, soilPager);
             setupSwipeToDelete();
-            loadHistory();
         }
+        if (recyclerPlant != null) {
+            recyclerPlant.setLayoutManager(new LinearLayoutManager(this));
+            plantAdapter = new PlantHistoryAdapter(this, new ArrayList<>());
+            recyclerPlant.setAdapter(plantAdapter);
+            pageOnScroll(recyclerPlant, plantPager);
+        }
+        if (recyclerCrop != null) {
+            recyclerCrop.setLayoutManager(new LinearLayoutManager(this));
+            cropAdapter = new CropHistoryAdapter(new ArrayList<>());
+            recyclerCrop.setAdapter(cropAdapter);
+            pageOnScroll(recyclerCrop, cropPager);
+        }
+        setupSections();
+        loadHistory();
 
         // Search bar
         etSearch = findViewById(R.id.et_search_history);
@@ -79,7 +131,16 @@ public class HistoryActivity extends BaseActivity {
                 @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
                 @Override
                 public void afterTextChanged(Editable s) {
-                    if (adapter != null) adapter.filterByText(s.toString());
+                    String text = s.toString().trim();
+                    if (text.equals(searchText)) return;
+                    searchText = text;
+                    if (text.isEmpty()) {
+                        // Back to the paged history
+                        searchGeneration++;
+                        refreshSearchableSections();
+                    } else {
+                        runSearch();
+                    }
                 }
             });
         }
@@ -99,74 +160,131 @@ public class HistoryActivity extends BaseActivity {
         }
     }
 
+    private void setupPagers() {
+        MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
+
+        soilPager = new KeysetPager<>((after, limit) -> db.soilDao().getSummaryPage(userId, soilSince,
+                after != null ? after.timestamp : Long.MAX_VALUE,
+                after != null ? after.analysisId : Long.MAX_VALUE, limit),
+                PAGE_SIZE, dbExecutor, this::runOnUiThread, this::onSoilPageLoaded);
+
+        plantPager = new KeysetPager<>((after, limit) -> {
+            List<PlantHealth> page = db.plantDao().getPageByUserId(userId,
+                    after != null ? after.timestamp : Long.MAX_VALUE,
+                    after != null ? after.id : Long.MAX_VALUE, limit);
+            List<String> plantImagePaths = new ArrayList<>();
+            for (PlantHealth plant : page) {
+                plantImagePaths.add(plant.imagePath);
+            }
+            HistoryThumbnails.ensure(this, plantImagePaths);
+            return page;
+        }, PAGE_SIZE, dbExecutor, this::runOnUiThread, this::onPlantPageLoaded);
+
+        cropPager = new KeysetPager<>((after, limit) -> db.cropDao().getPageByUserId(userId,
+                after != null ? after.timestamp : Long.MAX_VALUE,
+                after != null ? after.id : Long.MAX_VALUE, limit),
+                PAGE_SIZE, dbExecutor, this::runOnUiThread, this::onCropPageLoaded);
+    }
+
+    /**
+     * Reloads a section only when its table was written to, e.g. by a scan saved while this
+     * screen was in the background or a swipe-delete here. The reload covers every page already
+     * loaded, so the list keeps its length and scroll position.
+     */
+    private void watchTables() {
+        MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
+        watchers.add(new TableWatcher(db, this::runOnUiThread, () -> {
+            if (!searchText.isEmpty()) {
+                runSearch();
+            } else if (userId != null && !userId.trim().isEmpty()) {
+                soilPager.reload();
+            }
+        }, "soil_history"));
+        watchers.add(new TableWatcher(db, this::runOnUiThread, () -> {
+            if (!searchText.isEmpty()) {
+                runSearch();
+            } else if (userId != null && !userId.trim().isEmpty()) {
+                plantPager.reload();
+            }
+        }, "plant_health"));
+        watchers.add(new TableWatcher(db, this::runOnUiThread, () -> {
+            if (userId != null && !userId.trim().isEmpty()) {
+                cropPager.reload();
+            }
+        }, "crop_schedules"));
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        for (TableWatcher watcher : watchers) watcher.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        for (TableWatcher watcher : watchers) watcher.stop();
+    }
+
     private void loadHistory() {
-        String userId = UserIdentityResolver.getActiveUserId(this);
+        userId = UserIdentityResolver.getActiveUserId(this);
+        if (userId == null || userId.trim().isEmpty()) {
+            if (swipeRefreshLayout != null) swipeRefreshLayout.setRefreshing(false);
+            return;
+        }
+
+        refreshSearchableSections();
+        cropPager.refresh();
+    }
+
+    /**
+     * Reloads the soil and plant sections: the current search results, or their first pages.
+     */
+    private void refreshSearchableSections() {
         if (userId == null || userId.trim().isEmpty()) return;
+        if (!searchText.isEmpty()) {
+            runSearch();
+            return;
+        }
+        soilPager.refresh();
+        plantPager.refresh();
+    }
 
+    /**
+     * Replaces the soil and plant sections with the best full-text matches for the search box.
+     */
+    private void runSearch() {
+        if (userId == null || userId.trim().isEmpty()) return;
+        final int generation = ++searchGeneration;
+        final String text = searchText;
+        final long since = soilSince;
+        final String searchUserId = userId;
         dbExecutor.execute(() -> {
             MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
-
-            // 1. Soil Analysis
-            List<SoilAnalysis> soilHistory = db.soilDao().getAnalysisForUser(userId);
-
-            // 2. Plant Analysis (All)
-            List<com.mittimitra.database.entity.PlantHealth> plantHistory = 
-                    db.plantDao().getAllByUserId(userId);
-
-            // 3. Crop Calendar (All)
-            List<com.mittimitra.database.entity.CropSchedule> cropHistory = 
-                    db.cropDao().getAllByUserId(userId);
+            List<SoilAnalysisSummary> soilMatches = HistorySearch.searchSoil(db, searchUserId, text, since, SEARCH_LIMIT);
+            List<PlantHealth> plantMatches = HistorySearch.searchPlants(db, searchUserId, text, SEARCH_LIMIT);
+            List<String> plantImagePaths = new ArrayList<>();
+            for (PlantHealth plant : plantMatches) {
+                plantImagePaths.add(plant.imagePath);
+            }
+            HistoryThumbnails.ensure(this, plantImagePaths);
 
             runOnUiThread(() -> {
-                // Stop refresh animation
+                if (generation != searchGeneration) return;
                 if (swipeRefreshLayout != null) {
                     swipeRefreshLayout.setRefreshing(false);
                 }
-                
-                // --- Soil Analysis ---
-                historyList.clear();
-                TextView tvEmptySoil = findViewById(R.id.tv_empty_soil);
-                if (soilHistory != null && !soilHistory.isEmpty()) {
-                    historyList.addAll(soilHistory);
-                    adapter = new RecentAnalysisAdapter(historyList);
-                    recyclerHistory.setAdapter(adapter);
-                    if (tvEmptySoil != null) tvEmptySoil.setVisibility(View.GONE);
-                } else {
-                    if (tvEmptySoil != null) tvEmptySoil.setVisibility(View.VISIBLE);
-                }
-
-                // --- Plant Doctor ---
-                RecyclerView recyclerPlant = findViewById(R.id.recycler_plant_history);
-                TextView tvEmptyPlant = findViewById(R.id.tv_empty_plant);
-                if (recyclerPlant != null) {
-                    recyclerPlant.setLayoutManager(new LinearLayoutManager(this));
-                    if (plantHistory != null && !plantHistory.isEmpty()) {
-                        com.mittimitra.ui.adapters.PlantHistoryAdapter plantAdapter = 
-                                new com.mittimitra.ui.adapters.PlantHistoryAdapter(this, plantHistory);
-                        recyclerPlant.setAdapter(plantAdapter);
-                        recyclerPlant.setVisibility(View.VISIBLE);
-                        if (tvEmptyPlant != null) tvEmptyPlant.setVisibility(View.GONE);
-                    } else {
-                        recyclerPlant.setVisibility(View.GONE);
-                        if (tvEmptyPlant != null) tvEmptyPlant.setVisibility(View.VISIBLE);
+                if (adapter != null) {
+                    historyList.clear();
+                    historyList.addAll(soilMatches);
+                    adapter.updateList(soilMatches);
+                    if (tvEmpty != null) {
+                        tvEmpty.setVisibility(soilMatches.isEmpty() ? View.VISIBLE : View.GONE);
                     }
                 }
-
-                // --- Crop Calendar ---
-                RecyclerView recyclerCrop = findViewById(R.id.recycler_crop_history);
-                TextView tvEmptyCrop = findViewById(R.id.tv_empty_crop);
-                if (recyclerCrop != null) {
-                    recyclerCrop.setLayoutManager(new LinearLayoutManager(this));
-                    if (cropHistory != null && !cropHistory.isEmpty()) {
-                        com.mittimitra.ui.adapters.CropHistoryAdapter cropAdapter = 
-                                new com.mittimitra.ui.adapters.CropHistoryAdapter(cropHistory);
-                        recyclerCrop.setAdapter(cropAdapter);
-                        recyclerCrop.setVisibility(View.VISIBLE);
-                        if (tvEmptyCrop != null) tvEmptyCrop.setVisibility(View.GONE);
-                    } else {
-                        recyclerCrop.setVisibility(View.GONE);
-                        if (tvEmptyCrop != null) tvEmptyCrop.setVisibility(View.VISIBLE);
-                    }
+                if (plantAdapter != null) {
+                    plantAdapter.replaceItems(plantMatches);
+                    showSection(recyclerPlant, R.id.tv_empty_plant, !plantMatches.isEmpty());
                 }
             });
         });
@@ -177,40 +295,140 @@ public class HistoryActivity extends BaseActivity {
      * since == 0 means "all time". Plants and crop sections are unaffected.
      */
     private void loadHistorySince(long since) {
-        String userId = UserIdentityResolver.getActiveUserId(this);
+        soilSince = since;
         if (userId == null || userId.trim().isEmpty()) return;
+        if (!searchText.isEmpty()) {
+            runSearch();
+        } else {
+            soilPager.refresh();
+        }
+    }
 
-        dbExecutor.execute(() -> {
-            MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
-            List<SoilAnalysis> soilHistory = (since > 0)
-                    ? db.soilDao().getAnalysisSince(userId, since)
-                    : db.soilDao().getAnalysisForUser(userId);
-            final List<SoilAnalysis> result =
-                    (soilHistory != null) ? soilHistory : new ArrayList<>();
+    private void onSoilPageLoaded(List<SoilAnalysisSummary> page, boolean firstPage, boolean hasMore) {
+        // Stop refresh animation
+        if (swipeRefreshLayout != null) {
+            swipeRefreshLayout.setRefreshing(false);
+        }
+        // A search started after this page was requested owns the list now
+        if (adapter == null || !searchText.isEmpty()) return;
+
+        if (firstPage) {
+            historyList.clear();
+            historyList.addAll(page);
+            adapter.updateList(page);
+        } else {
+            historyList.addAll(page);
+            adapter.appendItems(page);
+        }
 
-            runOnUiThread(() -> {
-                historyList.clear();
-                historyList.addAll(result);
+        if (tvEmpty != null) {
+            tvEmpty.setVisibility(historyList.isEmpty() ? View.VISIBLE : View.GONE);
+        }
+        recyclerHistory.post(() -> loadMoreIfNearEnd(recyclerHistory, soilPager));
+    }
 
-                if (adapter != null) {
-                    adapter.updateList(result);
-                    // Re-apply any active text search
-                    if (etSearch != null && etSearch.getText() != null) {
-                        adapter.filterByText(etSearch.getText().toString());
-                    }
-                } else if (!result.isEmpty()) {
-                    adapter = new RecentAnalysisAdapter(new ArrayList<>(result));
-                    recyclerHistory.setAdapter(adapter);
-                }
+    private void onPlantPageLoaded(List<PlantHealth> page, boolean firstPage, boolean hasMore) {
+        if (plantAdapter == null || !searchText.isEmpty()) return;
+        if (firstPage) {
+            plantAdapter.replaceItems(page);
+        } else {
+            plantAdapter.appendItems(page);
+        }
+        showSection(recyclerPlant, R.id.tv_empty_plant, plantAdapter.getItemCount() > 0);
+        recyclerPlant.post(() -> loadMoreIfNearEnd(recyclerPlant, plantPager));
+    }
+
+    private void onCropPageLoaded(List<CropSchedule> page, boolean firstPage, boolean hasMore) {
+        if (cropAdapter == null) return;
+        if (firstPage) {
+            cropAdapter.replaceItems(page);
+        } else {
+            cropAdapter.appendItems(page);
+        }
+        showSection(recyclerCrop, R.id.tv_empty_crop, cropAdapter.getItemCount() > 0);
+        recyclerCrop.post(() -> loadMoreIfNearEnd(recyclerCrop, cropPager));
+    }
+
+    private void showSection(RecyclerView recycler, int emptyViewId, boolean hasItems) {
+        recycler.setVisibility(hasItems ? View.VISIBLE : View.GONE);
+        TextView tvEmptySection = findViewById(emptyViewId);
+        if (tvEmptySection != null) {
+            tvEmptySection.setVisibility(hasItems ? View.GONE : View.VISIBLE);
+        }
+    }
 
-                TextView tvEmptySoil = findViewById(R.id.tv_empty_soil);
-                if (tvEmptySoil != null) {
-                    tvEmptySoil.setVisibility(result.isEmpty() ? View.VISIBLE : View.GONE);
+    /**
+     * Shows one section at a time, picked by the section chips. Each list fills the screen and
+     * scrolls itself, so only the rows on screen are bound.
+     */
+    private void setupSections() {
+        sections = new View[] {
+                findViewById(R.id.section_soil),
+                findViewById(R.id.section_plant),
+                findViewById(R.id.section_crop)
+        };
+        ChipGroup chipGroupSection = findViewById(R.id.chip_group_section);
+        if (chipGroupSection != null) {
+            chipGroupSection.setOnCheckedChangeListener((group, checkedId) -> {
+                if (checkedId == R.id.chip_section_plant) {
+                    showOnly(R.id.section_plant, recyclerPlant, plantPager);
+                } else if (checkedId == R.id.chip_section_crop) {
+                    showOnly(R.id.section_crop, recyclerCrop, cropPager);
+                } else {
+                    showOnly(R.id.section_soil, recyclerHistory, soilPager);
                 }
             });
+        }
+        if (swipeRefreshLayout != null) {
+            // The lists sit inside a plain frame, so ask the one on screen whether it can scroll up
+            swipeRefreshLayout.setOnChildScrollUpCallback((parent, child) -> {
+                RecyclerView shown = visibleRecycler();
+                return shown != null && shown.canScrollVertically(-1);
+            });
+        }
+    }
+
+    private void showOnly(int sectionId, RecyclerView recycler, KeysetPager<?> pager) {
+        for (View section : sections) {
+            if (section != null) {
+                section.setVisibility(section.getId() == sectionId ? View.VISIBLE : View.GONE);
+            }
+        }
+        // A page may have arrived while the section was hidden and left it short of the screen
+        if (recycler != null) recycler.post(() -> loadMoreIfNearEnd(recycler, pager));
+    }
+
+    private RecyclerView visibleRecycler() {
+        for (RecyclerView recycler : new RecyclerView[] {recyclerHistory, recyclerPlant, recyclerCrop}) {
+            if (recycler != null && recycler.isShown()) return recycler;
+        }
+        return null;
+    }
+
+    /**
+     * Loads the list's next page as it scrolls near its last row.
+     */
+    private void pageOnScroll(RecyclerView recycler, KeysetPager<?> pager) {
+        recycler.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) loadMoreIfNearEnd(recyclerView, pager);
+            }
         });
     }
 
+    private void loadMoreIfNearEnd(RecyclerView recycler, KeysetPager<?> pager) {
+        if (isFinishing() || isDestroyed() || !recycler.isShown()) return;
+        // Search results are a single ranked list, not pages; crops are not searched
+        if (pager != cropPager && !searchText.isEmpty()) return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recycler.getLayoutManager();
+        if (layoutManager == null || recycler.getAdapter() == null) return;
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= recycler.getAdapter().getItemCount() - 1 - PREFETCH_DISTANCE) {
+            pager.loadMore();
+        }
+    }
+
     private void setupSwipeToDelete() {
         ItemTouchHelper.SimpleCallback swipeCallback = new ItemTouchHelper.SimpleCallback(0, ItemTouchHelper.LEFT) {
             private final ColorDrawable background = new ColorDrawable(Color.parseColor("#FF5252"));
@@ -227,17 +445,11 @@ public class HistoryActivity extends BaseActivity {
                 int position = viewHolder.getAdapterPosition();
                 if (position < 0 || adapter == null) return;
 
-                SoilAnalysis deletedItem = adapter.getItem(position);
-                String activeQuery = (etSearch != null && etSearch.getText() != null)
-                        ? etSearch.getText().toString()
-                        : "";
+                SoilAnalysisSummary deletedItem = adapter.getItem(position);
 
                 // Remove from adapter display list and keep historyList in sync
                 historyList.remove(deletedItem);
                 adapter.removeItem(position);
-                if (!activeQuery.trim().isEmpty()) {
-                    adapter.filterByText(activeQuery);
-                }
 
                 if (historyList.isEmpty() && tvEmpty != null) {
                     tvEmpty.setVisibility(View.VISIBLE);
@@ -247,9 +459,6 @@ public class HistoryActivity extends BaseActivity {
                 snackbar.setAction(R.string.undo, v -> {
                     historyList.add(deletedItem);
                     adapter.restoreItem(deletedItem);
-                    if (!activeQuery.trim().isEmpty()) {
-                        adapter.filterByText(activeQuery);
-                    }
                     if (tvEmpty != null) tvEmpty.setVisibility(View.GONE);
                 });
                 snackbar.addCallback(new Snackbar.Callback() {
@@ -260,7 +469,7 @@ public class HistoryActivity extends BaseActivity {
                             dbExecutor.execute(() ->
                                 MittiMitraDatabase.getDatabase(HistoryActivity.this)
                                     .soilDao()
-                                    .deleteAnalysis(deletedItem));
+                                    .deleteById(deletedItem.analysisId));
                         }
                     }
                 });
@@ -313,32 +522,27 @@ public class HistoryActivity extends BaseActivity {
             return;
         }
 
+        // Only the loaded pages are in historyList; export every row for the date filter
+        final String exportUserId = userId;
+        final long exportSince = soilSince;
         dbExecutor.execute(() -> {
             try {
+                List<SoilAnalysisSummary> rows = MittiMitraDatabase.getDatabase(this)
+                        .soilDao().getSummariesSince(exportUserId, exportSince);
                 java.io.File exportDir = new java.io.File(getExternalFilesDir(null), "exports");
                 if (!exportDir.exists()) exportDir.mkdirs();
 
                 String fileName = "MittiMitra_History_" + new java.text.SimpleDateFormat("yyyyMMdd_HHmmss", java.util.Locale.getDefault()).format(new java.util.Date()) + ".csv";
                 java.io.File csvFile = new java.io.File(exportDir, fileName);
 
-                // Keys match ScanActivity report: "N", "P", "K", "pH", "location"
                 try (java.io.FileWriter writer = new java.io.FileWriter(csvFile)) {
                     writer.write("Date,Location,Nitrogen,Phosphorus,Potassium,pH,Notes\n");
 
-                    for (SoilAnalysis analysis : historyList) {
+                    for (SoilAnalysisSummary analysis : rows) {
                         String date = new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault()).format(new java.util.Date(analysis.timestamp));
-                        String location = "N/A";
-                        String n = "N/A", p = "N/A", k = "N/A", ph = "N/A";
-                        try {
-                            org.json.JSONObject json = new org.json.JSONObject(analysis.soilReportJson);
-                            if (json.has("location")) location = json.getString("location");
-                            if (json.has("N"))        n        = json.getString("N");
-                            if (json.has("P"))        p        = json.getString("P");
-                            if (json.has("K"))        k        = json.getString("K");
-                            if (json.has("pH"))       ph       = json.getString("pH");
-                        } catch (Exception e) {
-                            android.util.Log.e("HistoryActivity", "Failed to parse soil JSON for id=" + analysis.analysisId, e);
-                        }
+                        String location = analysis.location != null ? analysis.location : "N/A";
+                        String n = orNa(analysis.nitrogen), p = orNa(analysis.phosphorus),
+                                k = orNa(analysis.potassium), ph = orNa(analysis.ph);
                         writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"\"\n", date, location, n, p, k, ph));
                     }
                 }
@@ -358,9 +562,14 @@ public class HistoryActivity extends BaseActivity {
         });
     }
 
+    private static String orNa(Double value) {
+        return value != null ? String.valueOf(value) : "N/A";
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        for (TableWatcher watcher : watchers) watcher.close();
         dbExecutor.shutdownNow();
     }
 
@@ -18,8 +18,8 @@ import androidx.core.content.ContextCompat;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.mittimitra.database.MittiMitraDatabase;
+import com.mittimitra.utils.BlobStore;
 
-import java.io.File;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -95,17 +95,15 @@ public class ManageDataActivity extends BaseActivity {
 
         databaseExecutor.execute(() -> {
             java.util.List<com.mittimitra.database.entity.Document> docs = db.documentDao().getDocumentsForUser(user.getUid());
+            db.documentDao().clearDocumentsForUser(user.getUid());
+            // Files are shared by content, so only those nothing else points at are deleted
+            BlobStore blobStore = BlobStore.getInstance(this);
             if (docs != null) {
                 for (com.mittimitra.database.entity.Document doc : docs) {
-                    if (doc.internalFilePath == null) continue;
-                    File file = new File(doc.internalFilePath);
-                    if (file.exists()) {
-                        //noinspection ResultOfMethodCallIgnored
-                        file.delete();
-                    }
+                    String path = doc.internalFilePath;
+                    blobStore.release(path, path != null ? db.blobDao().countReferences(path) : 0);
                 }
             }
-            db.documentDao().clearDocumentsForUser(user.getUid());
             mainThreadHandler.post(() -> {
                 Toast.makeText(this, R.string.toast_documents_cleared, Toast.LENGTH_SHORT).show();
             });
@@ -8,7 +8,11 @@ import com.google.firebase.appcheck.debug.DebugAppCheckProviderFactory;
 import com.google.firebase.appcheck.playintegrity.PlayIntegrityAppCheckProviderFactory;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.mittimitra.ml.PlantPrescreenEngine;
+import com.mittimitra.ml.SoilClassifierEngine;
 import com.mittimitra.utils.AnalyticsHelper;
+import com.mittimitra.utils.ImagePipeline;
+import androidx.work.Constraints;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 import java.util.concurrent.TimeUnit;
@@ -70,5 +74,24 @@ public class MittiMitraApp extends Application {
                 "DailyAlerts",
                 ExistingPeriodicWorkPolicy.KEEP,
                 notifRequest);
+
+        // 6. Archive old chat turns once a day
+        PeriodicWorkRequest chatArchiveRequest = new PeriodicWorkRequest.Builder(ChatArchiveWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(new Constraints.Builder().setRequiresBatteryNotLow(true).build())
+                .build();
+
+        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
+                "ChatArchive",
+                ExistingPeriodicWorkPolicy.KEEP,
+                chatArchiveRequest);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Drop the cached TFLite interpreters and pooled bitmaps under memory pressure; both are rebuilt on demand
+        SoilClassifierEngine.trimMemory(level);
+        PlantPrescreenEngine.trimMemory(level);
+        ImagePipeline.trimMemory(level);
     }
 }
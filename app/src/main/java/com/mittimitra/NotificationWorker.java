@@ -23,12 +23,12 @@ import com.google.gson.reflect.TypeToken;
 import com.mittimitra.data.repository.RoomTaskRepository;
 import com.mittimitra.database.MittiMitraDatabase;
 import com.mittimitra.database.entity.Document;
-import com.mittimitra.database.entity.FarmTask;
-import com.mittimitra.database.entity.TaskReminder;
+import com.mittimitra.database.entity.DueReminder;
 import com.mittimitra.network.RetrofitClient;
 
 import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -124,23 +124,25 @@ public class NotificationWorker extends Worker {
         long now = System.currentTimeMillis();
         long nextDay = now + (24 * 60 * 60 * 1000L);
 
+        // One joined read and one batched write, however many reminders are due
         RoomTaskRepository taskRepository = new RoomTaskRepository(MittiMitraDatabase.getDatabase(context));
-        List<TaskReminder> reminders = taskRepository.getUpcomingReminders(userId, now, nextDay);
+        List<DueReminder> reminders = taskRepository.getDueReminders(userId, now, nextDay);
         if (reminders == null || reminders.isEmpty()) return;
 
-        for (TaskReminder reminder : reminders) {
-            FarmTask task = MittiMitraDatabase.getDatabase(context).farmTaskDao().getById(reminder.taskId);
-            if (task == null || "COMPLETED".equalsIgnoreCase(task.status)) {
-                MittiMitraDatabase.getDatabase(context).taskReminderDao().markSent(reminder.id);
+        List<Long> handled = new ArrayList<>(reminders.size());
+        for (DueReminder reminder : reminders) {
+            handled.add(reminder.reminderId);
+            // Task deleted or already done: drop the reminder silently
+            if (reminder.taskId == null || "COMPLETED".equalsIgnoreCase(reminder.status)) {
                 continue;
             }
 
-            int id = (int) ((reminder.id % 100000) + 2000);
+            int id = (int) ((reminder.reminderId % 100000) + 2000);
             triggerNotification(id,
                     context.getString(R.string.task_reminder_title),
-                    context.getString(R.string.task_reminder_body, task.title));
-            MittiMitraDatabase.getDatabase(context).taskReminderDao().markSent(reminder.id);
+                    context.getString(R.string.task_reminder_body, reminder.title));
         }
+        taskRepository.markRemindersSent(handled);
     }
 
     private void checkWeatherAndNotify(Context context) {
@@ -2,7 +2,6 @@ package com.mittimitra;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
@@ -26,21 +25,25 @@ import com.google.android.material.card.MaterialCardView;
 import com.mittimitra.backend.ApiEnvelope;
 import com.mittimitra.backend.BackendCallback;
 import com.mittimitra.backend.model.AiModels;
-import com.mittimitra.config.AppConstants;
 import com.mittimitra.data.repository.FirebasePredictionRepository;
 import com.mittimitra.database.MittiMitraDatabase;
 import com.mittimitra.database.entity.PlantHealth;
 import com.mittimitra.domain.repository.PredictionRepository;
+import com.mittimitra.ml.PlantPrescreenEngine;
+import com.mittimitra.ml.PrescreenPolicy;
 import com.mittimitra.tasks.TaskSuggestionEngine;
+import com.mittimitra.utils.AdaptiveImageEncoder;
 import com.mittimitra.utils.BitmapUtils;
+import com.mittimitra.utils.HistoryThumbnails;
+import com.mittimitra.utils.ImagePipeline;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Locale;
 import java.util.concurrent.ExecutorService;
@@ -62,13 +65,13 @@ public class PlantScanActivity extends BaseActivity {
     private Uri cameraImageUri;
     private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
     private final PredictionRepository predictionRepository = new FirebasePredictionRepository();
+    private PlantPrescreenEngine prescreenEngine;
 
     private final ActivityResultLauncher<Uri> cameraLauncher =
             registerForActivityResult(new ActivityResultContracts.TakePicture(), success -> {
                 if (!success || cameraImageUri == null) return;
                 try {
-                    currentBitmap = decodeSampledBitmap(cameraImageUri, 1024);
-                    ivPreview.setImageBitmap(currentBitmap);
+                    showImage(ImagePipeline.decode(this, cameraImageUri, 1024, Bitmap.Config.ARGB_8888));
                     resetUI();
                 } catch (IOException e) {
                     Log.e(TAG, "Failed to load camera image", e);
@@ -79,8 +82,7 @@ public class PlantScanActivity extends BaseActivity {
             registerForActivityResult(new ActivityResultContracts.PickVisualMedia(), result -> {
                 if (result == null) return;
                 try {
-                    currentBitmap = decodeSampledBitmap(result, 1024);
-                    ivPreview.setImageBitmap(currentBitmap);
+                    showImage(ImagePipeline.decode(this, result, 1024, Bitmap.Config.ARGB_8888));
                     resetUI();
                 } catch (IOException e) {
                     Log.e(TAG, "Failed to load gallery image", e);
@@ -93,6 +95,10 @@ public class PlantScanActivity extends BaseActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_plant_scan);
 
+        // Optional on-device screen; loads in the background while the user picks a photo
+        prescreenEngine = PlantPrescreenEngine.getInstance(this);
+        prescreenEngine.warmUp();
+
         Toolbar toolbar = findViewById(R.id.plant_toolbar);
         setSupportActionBar(toolbar);
         if (getSupportActionBar() != null) {
@@ -130,20 +136,16 @@ public class PlantScanActivity extends BaseActivity {
         }
     }
 
-    private Bitmap decodeSampledBitmap(Uri uri, int maxDim) throws IOException {
-        BitmapFactory.Options bounds = new BitmapFactory.Options();
-        bounds.inJustDecodeBounds = true;
-        try (InputStream in = getContentResolver().openInputStream(uri)) {
-            BitmapFactory.decodeStream(in, null, bounds);
-        }
-        int largest = Math.max(bounds.outWidth, bounds.outHeight);
-        int sampleSize = 1;
-        while (largest / (sampleSize * 2) >= maxDim) sampleSize *= 2;
-
-        BitmapFactory.Options opts = new BitmapFactory.Options();
-        opts.inSampleSize = sampleSize;
-        try (InputStream in = getContentResolver().openInputStream(uri)) {
-            return BitmapFactory.decodeStream(in, null, opts);
+    /**
+     * Displays a newly decoded photo and hands the previous one back to the decode pool once
+     * any diagnosis still reading it has finished.
+     */
+    private void showImage(Bitmap bitmap) {
+        Bitmap previous = currentBitmap;
+        currentBitmap = bitmap;
+        ivPreview.setImageBitmap(bitmap);
+        if (previous != null && previous != bitmap) {
+            dbExecutor.execute(() -> ImagePipeline.release(previous));
         }
     }
 
@@ -182,8 +184,29 @@ public class PlantScanActivity extends BaseActivity {
 
         dbExecutor.execute(() -> {
             try {
-                // Base64 conversion is CPU/memory heavy; keep it off the main thread.
-                String imageBase64 = BitmapUtils.bitmapToBase64DataUrl(bitmapSnapshot, AppConstants.JPEG_QUALITY_HIGH);
+                // Confident healthy / not-a-plant answers skip the upload entirely
+                float[] screen = prescreenEngine.screen(bitmapSnapshot);
+                PrescreenPolicy.Outcome outcome = PrescreenPolicy.decide(screen);
+                if (outcome == PrescreenPolicy.Outcome.HEALTHY) {
+                    AiModels.PlantDiagnosisData local = buildLocalHealthyResult(screen[PrescreenPolicy.CLASS_HEALTHY]);
+                    runOnUiThread(() -> {
+                        progressBar.setVisibility(View.GONE);
+                        btnAnalyze.setEnabled(true);
+                        showResult(local);
+                    });
+                    return;
+                }
+                if (outcome == PrescreenPolicy.Outcome.NOT_A_PLANT) {
+                    runOnUiThread(() -> {
+                        progressBar.setVisibility(View.GONE);
+                        btnAnalyze.setEnabled(true);
+                        tvStatus.setText(R.string.plant_prescreen_not_a_plant);
+                    });
+                    return;
+                }
+
+                // Encoding to the connection's byte budget is CPU heavy; keep it off the main thread.
+                String imageBase64 = AdaptiveImageEncoder.encodeForUpload(this, bitmapSnapshot).toDataUrl();
                 AppPreferences prefs = new AppPreferences(this);
 
                 AiModels.PlantDiagnosisRequest request = new AiModels.PlantDiagnosisRequest();
@@ -226,6 +249,15 @@ public class PlantScanActivity extends BaseActivity {
         });
     }
 
+    private AiModels.PlantDiagnosisData buildLocalHealthyResult(float healthyProbability) {
+        AiModels.PlantDiagnosisData data = new AiModels.PlantDiagnosisData();
+        data.healthStatus = "Healthy";
+        data.confidence = Math.round(healthyProbability * 100);
+        data.issuesDetected = Collections.singletonList(getString(R.string.plant_prescreen_no_issues));
+        data.recommendations = Collections.singletonList(getString(R.string.plant_prescreen_keep_monitoring));
+        return data;
+    }
+
     private void showResult(AiModels.PlantDiagnosisData data) {
         resultCard.setVisibility(View.VISIBLE);
 
@@ -277,12 +309,13 @@ public class PlantScanActivity extends BaseActivity {
 
         dbExecutor.execute(() -> {
             try {
-                String imageFileName = "plant_" + System.currentTimeMillis() + ".jpg";
-                String imagePath = BitmapUtils.saveBitmapToInternalStorage(this, bitmapSnapshot, imageFileName);
+                String imagePath = BitmapUtils.saveBitmapToBlobStore(this, bitmapSnapshot);
                 if (imagePath == null || imagePath.trim().isEmpty()) {
                     Log.e(TAG, "Failed to persist diagnosis image");
                     return;
                 }
+                // History lists show this instead of decoding the full photo
+                HistoryThumbnails.save(bitmapSnapshot, imagePath);
 
                 PlantHealth entry = new PlantHealth();
                 entry.userId = resolvedUserId;
@@ -30,8 +30,13 @@ import com.mittimitra.backend.BackendCallback;
 import com.mittimitra.backend.model.AccountModels;
 import com.mittimitra.data.repository.FirebaseUserProfileRepository;
 import com.mittimitra.database.MittiMitraDatabase;
-import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.database.ObservedQuery;
+import com.mittimitra.database.entity.CropSchedule;
+import com.mittimitra.database.entity.PlantHealth;
 import com.mittimitra.domain.repository.UserProfileRepository;
+import com.mittimitra.ui.adapters.CropHistoryAdapter;
+import com.mittimitra.ui.adapters.PlantHistoryAdapter;
+import com.mittimitra.utils.HistoryThumbnails;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -43,8 +48,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
@@ -64,9 +67,14 @@ public class ProfileActivity extends BaseActivity {
     private TextView tvName, tvPhone, tvEmail, tvJoinDate;
     private CircleImageView imgProfile;
     private String currentPhone = "";
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private UserProfileRepository userProfileRepository;
 
+    // Recent history, refreshed by the observed queries when a scan or plan is saved elsewhere
+    private RecentAnalysisAdapter recentAdapter;
+    private PlantHistoryAdapter recentPlantAdapter;
+    private CropHistoryAdapter recentCropAdapter;
+    private final List<ObservedQuery<?>> observedQueries = new ArrayList<>();
+
     // Image Picker Launcher
     private final ActivityResultLauncher<String> pickImageLauncher = registerForActivityResult(
             new ActivityResultContracts.GetContent(),
@@ -135,19 +143,22 @@ public class ProfileActivity extends BaseActivity {
         }
 
         recyclerRecent.setLayoutManager(new LinearLayoutManager(this));
-        recyclerRecent.setAdapter(new RecentAnalysisAdapter(new ArrayList<>()));
+        recentAdapter = new RecentAnalysisAdapter(new ArrayList<>());
+        recyclerRecent.setAdapter(recentAdapter);
         RecyclerView recyclerPlant = findViewById(R.id.recycler_plant_history);
         if (recyclerPlant != null) {
             recyclerPlant.setLayoutManager(new LinearLayoutManager(this));
-            recyclerPlant.setAdapter(new com.mittimitra.ui.adapters.PlantHistoryAdapter(this, new ArrayList<>()));
+            recentPlantAdapter = new PlantHistoryAdapter(this, new ArrayList<>());
+            recyclerPlant.setAdapter(recentPlantAdapter);
         }
         RecyclerView recyclerCrop = findViewById(R.id.recycler_crop_history);
         if (recyclerCrop != null) {
             recyclerCrop.setLayoutManager(new LinearLayoutManager(this));
-            recyclerCrop.setAdapter(new com.mittimitra.ui.adapters.CropHistoryAdapter(new ArrayList<>()));
+            recentCropAdapter = new CropHistoryAdapter(new ArrayList<>());
+            recyclerCrop.setAdapter(recentCropAdapter);
         }
-        loadRecentHistory();
         loadFarmStats();
+        observeRecentHistory();
 
         // Listeners
         fabEdit.setOnClickListener(v -> showEditDialog());
@@ -503,73 +514,70 @@ public class ProfileActivity extends BaseActivity {
         return userProfileRepository;
     }
 
-    private void loadRecentHistory() {
+    /**
+     * Shows the latest rows of each history section and keeps them current: each section
+     * re-queries only when its own table is written to.
+     */
+    private void observeRecentHistory() {
         String userId = UserIdentityResolver.getActiveUserId(this);
         if (userId == null || userId.trim().isEmpty()) return;
-        
-        executor.execute(() -> {
-            MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
-
-            // 1. Soil Analysis
-            List<SoilAnalysis> soilHistory = db.soilDao().getAnalysisForUser(userId);
-            
-            // 2. Plant Analysis (Fetch last 5)
-            List<com.mittimitra.database.entity.PlantHealth> plantHistory = 
-                    db.plantDao().getRecentByUserId(userId, 5);
-
-            // 3. Crop Calendar (Fetch last 5)
-            List<com.mittimitra.database.entity.CropSchedule> cropHistory = 
-                    db.cropDao().getRecentByUserId(userId, 5);
-
-            runOnUiThread(() -> {
-                // Soil
-                if (soilHistory != null && !soilHistory.isEmpty()) {
-                    int size = Math.min(soilHistory.size(), 2);
-                    List<SoilAnalysis> recentItems = soilHistory.subList(0, size);
-                    RecentAnalysisAdapter adapter = new RecentAnalysisAdapter(recentItems);
-                    recyclerRecent.setAdapter(adapter);
-                    recyclerRecent.setVisibility(View.VISIBLE);
-                    tvNoHistory.setVisibility(View.GONE);
-                } else {
-                    recyclerRecent.setVisibility(View.GONE);
-                    tvNoHistory.setVisibility(View.VISIBLE);
+        MittiMitraDatabase db = MittiMitraDatabase.getDatabase(this);
+
+        // 1. Soil Analysis (the card shows the last 2)
+        observedQueries.add(new ObservedQuery<>(db, this::runOnUiThread,
+                () -> db.soilDao().getRecentSummariesForUser(userId, 2),
+                soilHistory -> {
+                    boolean hasItems = soilHistory != null && !soilHistory.isEmpty();
+                    recentAdapter.updateList(hasItems ? soilHistory : new ArrayList<>());
+                    recyclerRecent.setVisibility(hasItems ? View.VISIBLE : View.GONE);
+                    tvNoHistory.setVisibility(hasItems ? View.GONE : View.VISIBLE);
+                }, "soil_history"));
+
+        // 2. Plant Analysis (last 5)
+        if (recentPlantAdapter != null) {
+            observedQueries.add(new ObservedQuery<>(db, this::runOnUiThread, () -> {
+                List<PlantHealth> plantHistory = db.plantDao().getRecentByUserId(userId, 5);
+                List<String> plantImagePaths = new ArrayList<>();
+                for (PlantHealth plant : plantHistory) {
+                    plantImagePaths.add(plant.imagePath);
                 }
+                HistoryThumbnails.ensure(this, plantImagePaths);
+                return plantHistory;
+            }, plantHistory -> showRecent(recentPlantAdapter, plantHistory,
+                    R.id.recycler_plant_history, R.id.tv_no_plant_history), "plant_health"));
+        }
 
-                // Plant
-                RecyclerView recyclerPlant = findViewById(R.id.recycler_plant_history);
-                TextView tvNoPlant = findViewById(R.id.tv_no_plant_history);
-                if (recyclerPlant != null) {
-                    recyclerPlant.setLayoutManager(new LinearLayoutManager(this));
-                    if (plantHistory != null && !plantHistory.isEmpty()) {
-                        com.mittimitra.ui.adapters.PlantHistoryAdapter adapter = 
-                                new com.mittimitra.ui.adapters.PlantHistoryAdapter(this, plantHistory);
-                        recyclerPlant.setAdapter(adapter);
-                        recyclerPlant.setVisibility(View.VISIBLE);
-                        tvNoPlant.setVisibility(View.GONE);
-                    } else {
-                        recyclerPlant.setVisibility(View.GONE);
-                        tvNoPlant.setVisibility(View.VISIBLE);
-                    }
-                }
+        // 3. Crop Calendar (last 5)
+        if (recentCropAdapter != null) {
+            observedQueries.add(new ObservedQuery<>(db, this::runOnUiThread,
+                    () -> db.cropDao().getRecentByUserId(userId, 5),
+                    cropHistory -> showRecent(recentCropAdapter, cropHistory,
+                            R.id.recycler_crop_history, R.id.tv_no_crop_history), "crop_schedules"));
+        }
 
-                // Crop
-                RecyclerView recyclerCrop = findViewById(R.id.recycler_crop_history);
-                TextView tvNoCrop = findViewById(R.id.tv_no_crop_history);
-                if (recyclerCrop != null) {
-                    recyclerCrop.setLayoutManager(new LinearLayoutManager(this));
-                    if (cropHistory != null && !cropHistory.isEmpty()) {
-                        com.mittimitra.ui.adapters.CropHistoryAdapter adapter = 
-                                new com.mittimitra.ui.adapters.CropHistoryAdapter(cropHistory);
-                        recyclerCrop.setAdapter(adapter);
-                        recyclerCrop.setVisibility(View.VISIBLE);
-                        tvNoCrop.setVisibility(View.GONE);
-                    } else {
-                        recyclerCrop.setVisibility(View.GONE);
-                        tvNoCrop.setVisibility(View.VISIBLE);
-                    }
-                }
-            });
-        });
+        // Badge from the scan count; an unchanged count is not delivered again
+        observedQueries.add(new ObservedQuery<>(db, this::runOnUiThread,
+                () -> db.soilDao().getCountForUser(userId),
+                scanCount -> updateBadge(scanCount != null ? scanCount : 0), "soil_history"));
+    }
+
+    private void showRecent(PlantHistoryAdapter adapter, List<PlantHealth> rows, int recyclerId, int emptyId) {
+        boolean hasItems = rows != null && !rows.isEmpty();
+        adapter.replaceItems(hasItems ? rows : new ArrayList<>());
+        showRecentSection(hasItems, recyclerId, emptyId);
+    }
+
+    private void showRecent(CropHistoryAdapter adapter, List<CropSchedule> rows, int recyclerId, int emptyId) {
+        boolean hasItems = rows != null && !rows.isEmpty();
+        adapter.replaceItems(hasItems ? rows : new ArrayList<>());
+        showRecentSection(hasItems, recyclerId, emptyId);
+    }
+
+    private void showRecentSection(boolean hasItems, int recyclerId, int emptyId) {
+        View recycler = findViewById(recyclerId);
+        View empty = findViewById(emptyId);
+        if (recycler != null) recycler.setVisibility(hasItems ? View.VISIBLE : View.GONE);
+        if (empty != null) empty.setVisibility(hasItems ? View.GONE : View.VISIBLE);
     }
 
     private void loadFarmStats() {
@@ -586,17 +594,8 @@ public class ProfileActivity extends BaseActivity {
             tvCropName.setText(getString(R.string.status_none));
         }
 
-        // 2. Load Badge based on Scan History Count
-        executor.execute(() -> {
-            String userId = UserIdentityResolver.getActiveUserId(this);
-            int scanCount = 0;
-            if (userId != null && !userId.trim().isEmpty()) {
-                scanCount = MittiMitraDatabase.getDatabase(this)
-                        .soilDao().getCountForUser(userId);
-            }
-            final int badgeCount = scanCount;
-            runOnUiThread(() -> updateBadge(badgeCount));
-        });
+        // 2. Badge starts at zero scans; observeRecentHistory() keeps it at the real count
+        updateBadge(0);
     }
 
     private void updateBadge(int scanCount) {
@@ -632,10 +631,22 @@ public class ProfileActivity extends BaseActivity {
         return masked + suffix;
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        for (ObservedQuery<?> query : observedQueries) query.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        for (ObservedQuery<?> query : observedQueries) query.stop();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        executor.shutdownNow();
+        for (ObservedQuery<?> query : observedQueries) query.close();
     }
 
     @Override
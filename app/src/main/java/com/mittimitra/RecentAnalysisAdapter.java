@@ -1,7 +1,6 @@
 package com.mittimitra;
 
 import android.content.Intent;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,9 +9,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.mittimitra.database.entity.SoilAnalysis;
-
-import org.json.JSONObject;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -22,82 +19,50 @@ import java.util.Locale;
 
 public class RecentAnalysisAdapter extends RecyclerView.Adapter<RecentAnalysisAdapter.ViewHolder> {
 
-    private static final String TAG = "RecentAnalysisAdapter";
     private static final SimpleDateFormat DATE_FORMAT =
             new SimpleDateFormat("dd MMM yyyy • hh:mm a", Locale.getDefault());
 
-    /** Full dataset — used as source for text filtering. */
-    private final List<SoilAnalysis> fullList;
-    /** Currently displayed dataset (may be a text-filtered subset of fullList). */
-    private final List<SoilAnalysis> list;
+    private final List<SoilAnalysisSummary> list;
 
-    public RecentAnalysisAdapter(List<SoilAnalysis> data) {
-        this.fullList = new ArrayList<>(data);
+    public RecentAnalysisAdapter(List<SoilAnalysisSummary> data) {
         this.list = new ArrayList<>(data);
     }
 
     // ── Dataset update methods ────────────────────────────────────────────────
 
     /**
-     * Replace the complete dataset (e.g. after a date-range DB reload).
-     * Clears any active text filter.
+     * Replace the complete dataset (e.g. after a date-range DB reload or a search).
      */
-    public void updateList(List<SoilAnalysis> newData) {
-        fullList.clear();
-        fullList.addAll(newData);
+    public void updateList(List<SoilAnalysisSummary> newData) {
         list.clear();
         list.addAll(newData);
         notifyDataSetChanged();
     }
 
     /**
-     * Filter the displayed list by matching {@code query} against
-     * the location and detected_soil fields embedded in the JSON.
-     * Pass null or empty string to reset to the full dataset.
+     * Append the next page of history.
      */
-    public void filterByText(String query) {
-        list.clear();
-        if (query == null || query.trim().isEmpty()) {
-            list.addAll(fullList);
-        } else {
-            String lower = query.trim().toLowerCase(Locale.getDefault());
-            for (SoilAnalysis item : fullList) {
-                if (matchesQuery(item, lower)) {
-                    list.add(item);
-                }
-            }
-        }
-        notifyDataSetChanged();
-    }
-
-    private boolean matchesQuery(SoilAnalysis item, String lower) {
-        try {
-            JSONObject json = new JSONObject(item.soilReportJson);
-            String location = json.optString("location", "").toLowerCase(Locale.getDefault());
-            String soilType = json.optString("detected_soil", "").toLowerCase(Locale.getDefault());
-            return location.contains(lower) || soilType.contains(lower);
-        } catch (Exception e) {
-            return false;
-        }
+    public void appendItems(List<SoilAnalysisSummary> page) {
+        int start = list.size();
+        list.addAll(page);
+        notifyItemRangeInserted(start, page.size());
     }
 
     // ── Swipe-to-delete helpers ────────────────────────────────────────────────
 
-    /** Returns the item at the given adapter position (filtered list). */
-    public SoilAnalysis getItem(int position) {
+    /** Returns the item at the given adapter position. */
+    public SoilAnalysisSummary getItem(int position) {
         return list.get(position);
     }
 
-    /** Removes the item at the given adapter position from both lists. */
+    /** Removes the item at the given adapter position. */
     public void removeItem(int position) {
-        SoilAnalysis removed = list.remove(position);
-        fullList.remove(removed);
+        list.remove(position);
         notifyItemRemoved(position);
     }
 
-    /** Restores a previously removed item at the end of both lists. */
-    public void restoreItem(SoilAnalysis item) {
-        fullList.add(item);
+    /** Restores a previously removed item at the end of the list. */
+    public void restoreItem(SoilAnalysisSummary item) {
         list.add(item);
         notifyItemInserted(list.size() - 1);
     }
@@ -114,29 +79,23 @@ public class RecentAnalysisAdapter extends RecyclerView.Adapter<RecentAnalysisAd
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        SoilAnalysis item = list.get(position);
+        SoilAnalysisSummary item = list.get(position);
 
         // 1. Format date
         holder.tvDate.setText(DATE_FORMAT.format(new Date(item.timestamp)));
 
-        // 2. Parse JSON for location & NPK summary
-        try {
-            JSONObject json = new JSONObject(item.soilReportJson);
-
-            String loc = json.optString("location", "Unknown Location");
+        // 2. Location & NPK summary
+        if (item.nitrogen != null || item.location != null) {
+            String loc = item.location != null ? item.location : "Unknown Location";
             if (loc.contains("(")) {
                 loc = loc.substring(0, loc.indexOf("(")).trim();
             }
             holder.tvLocation.setText(loc);
 
-            int n = json.optInt("N");
-            int p = json.optInt("P");
-            int k = json.optInt("K");
-            holder.tvSummary.setText(
-                    String.format(Locale.US, "N: %d  |  P: %d  |  K: %d", n, p, k));
-
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to parse soil report JSON for id=" + item.analysisId, e);
+            holder.tvSummary.setText(String.format(Locale.US, "N: %d  |  P: %d  |  K: %d",
+                    truncate(item.nitrogen), truncate(item.phosphorus), truncate(item.potassium)));
+        } else {
+            // Report saved without readable values
             holder.tvLocation.setText("Analysis #" + item.analysisId);
             holder.tvSummary.setText(
                     holder.itemView.getContext().getString(R.string.data_error));
@@ -150,6 +109,10 @@ public class RecentAnalysisAdapter extends RecyclerView.Adapter<RecentAnalysisAd
         });
     }
 
+    private static int truncate(Double value) {
+        return value != null ? value.intValue() : 0;
+    }
+
     @Override
     public int getItemCount() {
         return list.size();
@@ -33,7 +33,6 @@ import com.mittimitra.domain.repository.PredictionRepository;
 import com.mittimitra.tasks.TaskSuggestionEngine;
 import com.mittimitra.utils.NetworkUtils;
 import org.json.JSONArray;
-import org.json.JSONObject;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.SimpleDateFormat;
@@ -136,15 +135,14 @@ public class RecommendationActivity extends BaseActivity implements TextToSpeech
     }
     private void populateForm(SoilAnalysis analysis) {
         try {
-            JSONObject json = new JSONObject(analysis.soilReportJson);
             // UPDATED DATE LOGIC: Use timestamp if valid (>0), else use current time
             long reportTime = analysis.timestamp > 0 ? analysis.timestamp : System.currentTimeMillis();
             tvDate.setText(new SimpleDateFormat("dd MMM yyyy", Locale.getDefault()).format(new Date(reportTime)));
-            tvLocation.setText(json.optString("location", "Unknown Location"));
-            int n = json.optInt("N");
-            int p = json.optInt("P");
-            int k = json.optInt("K");
-            double ph = json.optDouble("pH", 6.5);
+            tvLocation.setText(analysis.location != null ? analysis.location : "Unknown Location");
+            int n = analysis.nitrogen != null ? analysis.nitrogen.intValue() : 0;
+            int p = analysis.phosphorus != null ? analysis.phosphorus.intValue() : 0;
+            int k = analysis.potassium != null ? analysis.potassium.intValue() : 0;
+            double ph = analysis.ph != null ? analysis.ph : 6.5;
             setRow(valN, ratN, n, 280, 560, "kg/ha");
             setRow(valP, ratP, p, 10, 25, "kg/ha");
             setRow(valK, ratK, k, 108, 280, "kg/ha");
@@ -178,11 +176,12 @@ public class RecommendationActivity extends BaseActivity implements TextToSpeech
             tvHealthStatus.setText(statusText);
             tvHealthStatus.setTextColor(statusColor);
             // -----------------------------------
-            String userNotes = json.optString("user_notes", "None");
-            String weather = json.optString("weather", "N/A");
-            String moisture = json.optString("soil_dynamic", "N/A");
-            // Prefer the JSON data, but fallback to intent data if needed
-            String detectedSoil = json.optString("detected_soil", passedSoilType != null ? passedSoilType : "Not Scanned");
+            String userNotes = analysis.userNotes != null ? analysis.userNotes : "None";
+            String weather = analysis.weather != null ? analysis.weather : "N/A";
+            String moisture = analysis.moisture != null ? analysis.moisture : "N/A";
+            // Prefer the saved report, but fallback to intent data if needed
+            String detectedSoil = analysis.detectedSoil != null ? analysis.detectedSoil
+                    : (passedSoilType != null ? passedSoilType : "Not Scanned");
             String contextText = String.format("Input: %s | Weather: %s | Type: %s", userNotes, weather, detectedSoil);
             tvAiContext.setText(contextText);
             fetchProfessionalAdvice(n, p, k, ph, userNotes, weather, moisture, detectedSoil);
@@ -8,9 +8,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
-import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.location.Address;
 import android.location.Geocoder;
 import android.net.Uri;
@@ -42,23 +40,26 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.mittimitra.config.AppConstants;
+import com.mittimitra.data.repository.FirebasePredictionRepository;
 import com.mittimitra.database.MittiMitraDatabase;
 import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.ml.ImageStatistics;
+import com.mittimitra.ml.ImageStatisticsAnalyzer;
+import com.mittimitra.ml.PhotoQuality;
+import com.mittimitra.ml.SoilCascade;
+import com.mittimitra.ml.SoilCascadeRouter;
+import com.mittimitra.ml.SoilClassifierEngine;
+import com.mittimitra.ml.SoilTensorPreprocessor;
 import com.mittimitra.network.RetrofitClient;
+import com.mittimitra.utils.ImagePipeline;
 import com.mittimitra.utils.SoilDataManager;
 import com.mittimitra.utils.SoilNutrientMapper;
 
 import org.json.JSONObject;
-import org.tensorflow.lite.Interpreter;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -81,7 +82,6 @@ import com.google.android.material.snackbar.Snackbar;
 public class ScanActivity extends BaseActivity implements SensorEventListener {
 
     private static final String TAG = "ScanActivity";
-    private static final String MODEL_PATH = "soil_classifier.tflite";
 
     private static final String[] SOIL_LABELS = {
             "Alluvial", "Black", "Clay", "Red", "Sandy",
@@ -118,7 +118,9 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     private double finalK = 0;
     private double finalpH = 0;
 
-    private Bitmap currentImageBitmap = null;
+    private Bitmap currentImageBitmap = null; // classifier resolution, see onPhotoSelected
+    private Uri currentImageUri;
+    private Bitmap previewBitmap; // screen-sized, decoded only when the view needs it
 
     // Sensors
     private SensorManager sensorManager;
@@ -127,6 +129,10 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
 
     // Background executor for TFLite inference (keeps main thread unblocked)
     private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor();
+    // Separate so a preview decode never delays analysis
+    private final ExecutorService previewExecutor = Executors.newSingleThreadExecutor();
+    private SoilClassifierEngine classifierEngine;
+    private SoilCascade soilCascade;
 
     // URI for full-resolution camera capture via FileProvider
     private Uri cameraImageUri;
@@ -136,26 +142,14 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     private final ActivityResultLauncher<Uri> cameraLauncher =
             registerForActivityResult(new ActivityResultContracts.TakePicture(), success -> {
                 if (success && cameraImageUri != null) {
-                    try {
-                        currentImageBitmap = decodeSampledBitmap(cameraImageUri, 1024);
-                        imageViewPlaceholder.setImageBitmap(currentImageBitmap);
-                        onImageSuccess();
-                    } catch (IOException e) {
-                        Log.e(TAG, "Failed to load camera image", e);
-                    }
+                    onPhotoSelected(cameraImageUri);
                 }
             });
 
     private final ActivityResultLauncher<PickVisualMediaRequest> galleryLauncher =
             registerForActivityResult(new ActivityResultContracts.PickVisualMedia(), result -> {
                 if (result != null) {
-                    imageViewPlaceholder.setImageURI(result);
-                    try {
-                        currentImageBitmap = decodeSampledBitmap(result, 1024);
-                    } catch (IOException e) {
-                        Log.e(TAG, "Failed to load gallery image", e);
-                    }
-                    onImageSuccess();
+                    onPhotoSelected(result);
                 }
             });
 
@@ -178,6 +172,11 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
         }
 
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
+
+        // Prepare the interpreter while the user frames the photo
+        classifierEngine = SoilClassifierEngine.getInstance(this);
+        classifierEngine.warmUp();
+        soilCascade = new SoilCascade(this, new FirebasePredictionRepository());
         
         // Sensor Setup
         sensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
@@ -460,6 +459,7 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     // --- ANALYSIS (TFLite) ---
     private void startAnalysis() {
         final Bitmap bitmapSnapshot = currentImageBitmap;
+        final Uri uriSnapshot = currentImageUri;
         if (bitmapSnapshot == null) {
             Toast.makeText(this, R.string.scan_image_required, Toast.LENGTH_SHORT).show();
             return;
@@ -472,7 +472,43 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
         btnAnalyze.setText(getString(R.string.scan_btn_analyzing));
         progressAnalysis.setVisibility(View.VISIBLE);
         // TFLite inference runs on background thread to prevent ANR
-        analysisExecutor.execute(() -> runLocalInference(bitmapSnapshot, userNotes));
+        analysisExecutor.execute(() -> {
+            // One pass gives both the quality gate and the brightness used by smart corrections
+            ImageStatistics stats = analyzePhoto(bitmapSnapshot);
+            PhotoQuality.Verdict verdict = stats != null ? PhotoQuality.assess(stats) : PhotoQuality.Verdict.OK;
+            if (verdict != PhotoQuality.Verdict.OK) {
+                runOnUiThread(() -> rejectPhoto(verdict));
+                return;
+            }
+            runLocalInference(uriSnapshot, bitmapSnapshot, stats, userNotes);
+        });
+    }
+
+    private ImageStatistics analyzePhoto(Bitmap bitmap) {
+        try {
+            return ImageStatisticsAnalyzer.analyze(bitmap);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.e(TAG, "Image statistics failed", e);
+        }
+        return null;
+    }
+
+    private void rejectPhoto(PhotoQuality.Verdict verdict) {
+        progressAnalysis.setVisibility(View.GONE);
+        btnAnalyze.setEnabled(true);
+        btnAnalyze.setText(getString(R.string.scan_btn_analyze));
+        int message;
+        switch (verdict) {
+            case TOO_DARK:
+                message = R.string.scan_photo_too_dark; break;
+            case TOO_BRIGHT:
+                message = R.string.scan_photo_too_bright; break;
+            default:
+                message = R.string.scan_photo_blurry; break;
+        }
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
     }
 
     /**
@@ -492,87 +528,95 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     }
 
     /**
-     * Decodes a URI into a Bitmap, sampling down to avoid OOM on high-res photos.
-     * maxDim controls the maximum width/height of the returned Bitmap.
+     * Decodes a new photo straight to classifier resolution, which is all analysis needs, and
+     * shows it at once. A sharper screen-sized preview follows only if the view is larger.
      */
-    private Bitmap decodeSampledBitmap(Uri uri, int maxDim) throws IOException {
-        BitmapFactory.Options bounds = new BitmapFactory.Options();
-        bounds.inJustDecodeBounds = true;
-        try (InputStream in = getContentResolver().openInputStream(uri)) {
-            BitmapFactory.decodeStream(in, null, bounds);
-        }
-        int largest = Math.max(bounds.outWidth, bounds.outHeight);
-        int sampleSize = 1;
-        while (largest / (sampleSize * 2) >= maxDim) sampleSize *= 2;
-
-        BitmapFactory.Options opts = new BitmapFactory.Options();
-        opts.inSampleSize = sampleSize;
-        try (InputStream in = getContentResolver().openInputStream(uri)) {
-            return BitmapFactory.decodeStream(in, null, opts);
+    private void onPhotoSelected(Uri uri) {
+        Bitmap analysisBitmap;
+        try {
+            analysisBitmap = SoilTensorPreprocessor.decodeSource(this, uri);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to load image", e);
+            return;
         }
+        showImage(uri, analysisBitmap);
+        onImageSuccess();
+        // After layout, so the view has its final size
+        imageViewPlaceholder.post(() -> loadPreview(uri));
     }
 
-    private MappedByteBuffer loadModelFile() throws IOException {
-        try (AssetFileDescriptor fileDescriptor = this.getAssets().openFd(MODEL_PATH);
-             FileInputStream inputStream = new FileInputStream(fileDescriptor.getFileDescriptor());
-             FileChannel fileChannel = inputStream.getChannel()) {
-            return fileChannel.map(FileChannel.MapMode.READ_ONLY, fileDescriptor.getStartOffset(), fileDescriptor.getDeclaredLength());
-        }
+    /**
+     * Displays a newly decoded photo and hands the previous one (and its preview) back to the
+     * decode pool once any analysis still reading it has finished.
+     */
+    private void showImage(Uri uri, Bitmap bitmap) {
+        Bitmap previous = currentImageBitmap;
+        Bitmap previousPreview = previewBitmap;
+        currentImageUri = uri;
+        currentImageBitmap = bitmap;
+        previewBitmap = null;
+        imageViewPlaceholder.setImageBitmap(bitmap);
+        analysisExecutor.execute(() -> {
+            if (previous != bitmap) ImagePipeline.release(previous);
+            ImagePipeline.release(previousPreview);
+        });
     }
 
-    private void runLocalInference(Bitmap bitmap, String userNotes) {
-        Bitmap resizedBitmap = null;
-        try (Interpreter interpreter = new Interpreter(loadModelFile())) {
-            resizedBitmap = Bitmap.createScaledBitmap(bitmap, 224, 224, true);
-            ByteBuffer inputBuffer = ByteBuffer.allocateDirect(4 * 224 * 224 * 3);
-            inputBuffer.order(ByteOrder.nativeOrder());
-
-            int[] intValues = new int[224 * 224];
-            resizedBitmap.getPixels(intValues, 0, 224, 0, 0, 224, 224);
-
-            int pixel = 0;
-            for (int i = 0; i < 224; ++i) {
-                for (int j = 0; j < 224; ++j) {
-                    int val = intValues[pixel++];
-                    inputBuffer.putFloat(((val >> 16) & 0xFF) / 255.0f);
-                    inputBuffer.putFloat(((val >> 8) & 0xFF) / 255.0f);
-                    inputBuffer.putFloat((val & 0xFF) / 255.0f);
-                }
+    private void loadPreview(Uri uri) {
+        Bitmap shown = currentImageBitmap;
+        int width = imageViewPlaceholder.getWidth();
+        int height = imageViewPlaceholder.getHeight();
+        if (shown == null || !uri.equals(currentImageUri)) return;
+        // The analysis bitmap already fills the centre-cropped view
+        if (shown.getWidth() >= width && shown.getHeight() >= height) return;
+
+        previewExecutor.execute(() -> {
+            Bitmap preview;
+            try {
+                // Display only, so 16 bits per pixel
+                preview = ImagePipeline.decodeCovering(this, uri, width, height, Bitmap.Config.RGB_565);
+            } catch (IOException e) {
+                Log.w(TAG, "Preview decode failed; showing the analysis image", e);
+                return;
             }
+            runOnUiThread(() -> {
+                if (isDestroyed() || currentImageBitmap != shown || previewBitmap != null) {
+                    ImagePipeline.release(preview);
+                    return;
+                }
+                previewBitmap = preview;
+                imageViewPlaceholder.setImageBitmap(preview);
+            });
+        });
+    }
 
-            float[][] output = new float[1][10];
-            interpreter.run(inputBuffer, output);
+    private void runLocalInference(Uri imageUri, Bitmap bitmap, ImageStatistics stats, String userNotes) {
+        try {
+            // Several crops/mirrors in one batched call; single view on slow devices.
+            // Re-analysing the same photo returns the cached result without inference.
+            long start = System.nanoTime();
+            float[] probabilities = classifierEngine.classifyCached(bitmap, AppConstants.TTA_VIEW_COUNT);
 
-            int maxIndex = getMaxIndex(output[0]);
-            String detectedSoil = (maxIndex < SOIL_LABELS.length) ? SOIL_LABELS[maxIndex] : "Unknown";
+            // Confident local answers are kept; uncertain ones are checked by the backend
+            SoilCascadeRouter.Decision decision =
+                    soilCascade.classify(imageUri, bitmap, probabilities, SOIL_LABELS, System.nanoTime() - start);
 
-            generateSmartReport(detectedSoil, userNotes);
+            generateSmartReport(decision.label, stats, userNotes);
 
         } catch (Exception e) {
             Log.e(TAG, "Inference Error", e);
-            generateSmartReport("Analysis Error", userNotes);
-        } finally {
-            if (resizedBitmap != null && resizedBitmap != bitmap && !resizedBitmap.isRecycled()) {
-                resizedBitmap.recycle();
-            }
+            generateSmartReport("Analysis Error", stats, userNotes);
         }
     }
 
-    private int getMaxIndex(float[] probabilities) {
-        int maxIndex = 0;
-        for (int i = 1; i < probabilities.length; i++) {
-            if (probabilities[i] > probabilities[maxIndex]) maxIndex = i;
-        }
-        return maxIndex;
-    }
-
-    private void generateSmartReport(String detectedSoilType, String userNotes) {
+    private void generateSmartReport(String detectedSoilType, ImageStatistics stats, String userNotes) {
         analysisExecutor.execute(() -> {
             try {
                 // 🧠 INTELLIGENT ADJUSTMENT
                 // Correct satellite properties using the local visual evidence
-                applySmartCorrections(detectedSoilType);
+                applySmartCorrections(detectedSoilType, stats);
 
+                String notes = userNotes.isEmpty() ? "No notes added" : userNotes;
                 JSONObject report = new JSONObject();
                 report.put("N", finalN);
                 report.put("P", finalP);
@@ -582,11 +626,20 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
                 report.put("soil_dynamic", soilDynamic);
                 report.put("location", locationName);
                 report.put("detected_soil", detectedSoilType);
-                report.put("user_notes", userNotes.isEmpty() ? "No notes added" : userNotes);
+                report.put("user_notes", notes);
 
                 SoilAnalysis analysis = new SoilAnalysis();
                 analysis.timestamp = System.currentTimeMillis();
                 analysis.soilReportJson = report.toString();
+                analysis.nitrogen = finalN;
+                analysis.phosphorus = finalP;
+                analysis.potassium = finalK;
+                analysis.ph = finalpH;
+                analysis.detectedSoil = detectedSoilType;
+                analysis.location = locationName;
+                analysis.weather = weatherSummary;
+                analysis.moisture = soilDynamic;
+                analysis.userNotes = notes;
                 
                 // Save User ID for data isolation (Firebase user or local guest session)
                 String userId = UserIdentityResolver.getActiveUserId(this);
@@ -634,6 +687,8 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     @Override
     protected void onResume() {
         super.onResume();
+        // No-op when already warm; reloads the model if it was trimmed while we were away
+        classifierEngine.warmUp();
         if (sensorManager != null && lightSensor != null) {
             sensorManager.registerListener(this, lightSensor, SensorManager.SENSOR_DELAY_NORMAL);
         }
@@ -651,10 +706,11 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
     protected void onDestroy() {
         super.onDestroy();
         analysisExecutor.shutdownNow();
+        previewExecutor.shutdownNow();
     }
 
     // --- INTELLIGENCE LAYER ---
-    private void applySmartCorrections(String detectedSoilType) {
+    private void applySmartCorrections(String detectedSoilType, ImageStatistics stats) {
         // 1. Soil Type Factors (Heuristics based on Indian Soil physics)
         double nFactor = 1.0, pFactor = 1.0, kFactor = 1.0;
 
@@ -674,16 +730,13 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
         }
 
         // 2. Visual Brightness Factor (Darker = More Organic Carbon = More Nitrogen)
-        if (currentImageBitmap != null) {
-            try {
-                double brightness = calculateBrightness(currentImageBitmap);
-                if (brightness < 100) { // Dark soil
-                    nFactor += 0.15; // +15% Nitrogen boost
-                } else if (brightness > 180) { // Very light soil
-                    nFactor -= 0.15; // -15% Nitrogen penalty
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Brightness Calc Error", e);
+        // Mean luminance of the whole photo, from the statistics pass in startAnalysis
+        if (stats != null) {
+            double brightness = stats.meanLuma;
+            if (brightness < 100) { // Dark soil
+                nFactor += 0.15; // +15% Nitrogen boost
+            } else if (brightness > 180) { // Very light soil
+                nFactor -= 0.15; // -15% Nitrogen penalty
             }
         }
 
@@ -698,35 +751,6 @@ public class ScanActivity extends BaseActivity implements SensorEventListener {
         if (finalK < 0) finalK = 0;
     }
 
-    private double calculateBrightness(Bitmap bitmap) {
-        long r = 0, g = 0, b = 0;
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-        
-        // Safety check
-        if(width < 50 || height < 50) return 128;
-
-        // Sample center for speed/relevance (50x50 area)
-        int centerX = width / 2;
-        int centerY = height / 2;
-        int sampleSize = 50; 
-        int startX = Math.max(0, centerX - 25);
-        int startY = Math.max(0, centerY - 25);
-
-        int[] pixels = new int[sampleSize * sampleSize];
-        bitmap.getPixels(pixels, 0, sampleSize, startX, startY, sampleSize, sampleSize);
-
-        for (int pixel : pixels) {
-            r += (pixel >> 16) & 0xFF;
-            g += (pixel >> 8) & 0xFF;
-            b += pixel & 0xFF;
-        }
-        
-        long count = pixels.length;
-        // Standard formula for relative luminance/brightness
-        return (double) (r + g + b) / (3 * count);
-    }
-
     @Override
     public void onSensorChanged(SensorEvent event) {
         if (event.sensor.getType() == Sensor.TYPE_LIGHT) {
@@ -31,11 +31,13 @@ import com.mittimitra.backend.ApiEnvelope;
 import com.mittimitra.backend.BackendCallback;
 import com.mittimitra.backend.model.AiModels;
 import com.mittimitra.data.repository.FirebasePredictionRepository;
+import com.mittimitra.database.ChatHistory;
 import com.mittimitra.database.MittiMitraDatabase;
 import com.mittimitra.database.dao.ChatDao;
 import com.mittimitra.database.entity.SoilAnalysis;
 import com.mittimitra.domain.repository.PredictionRepository;
 import com.mittimitra.ui.adapter.ChatAdapter;
+import com.mittimitra.utils.KeysetPager;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -51,6 +53,10 @@ import java.util.concurrent.Executors;
 
 public class TipActivity extends BaseActivity {
 
+    private static final int PAGE_SIZE = 30;
+    // Older history starts loading when the top visible message is this close to the first loaded
+    private static final int PREFETCH_DISTANCE = 5;
+
     private RecyclerView recyclerViewChat;
     private EditText etChatMessage;
     private FloatingActionButton btnSendChat;
@@ -63,6 +69,9 @@ public class TipActivity extends BaseActivity {
     private MittiMitraDatabase db;
     private ChatDao chatDao;
     private ExecutorService databaseExecutor;
+    private KeysetPager<com.mittimitra.database.entity.ChatMessage> historyPager;
+    // Messages waiting for the next batched insert; guarded by itself
+    private final List<com.mittimitra.database.entity.ChatMessage> pendingWrites = new ArrayList<>();
     private FusedLocationProviderClient fusedLocationClient;
     private Location lastKnownLocation;
     private volatile String lastSoilReportJson;
@@ -151,7 +160,8 @@ public class TipActivity extends BaseActivity {
     protected void onDestroy() {
         super.onDestroy();
         if (speechRecognizer != null) speechRecognizer.destroy();
-        if (databaseExecutor != null) databaseExecutor.shutdownNow();
+        // Let queued message writes finish
+        if (databaseExecutor != null) databaseExecutor.shutdown();
     }
 
     private void startListening() {
@@ -388,19 +398,40 @@ public class TipActivity extends BaseActivity {
         String userId = UserIdentityResolver.getActiveUserId(this);
         if (userId == null || userId.trim().isEmpty()) return;
 
-        databaseExecutor.execute(() -> {
-            List<com.mittimitra.database.entity.ChatMessage> savedMessages = chatDao.getMessagesForUser(userId);
-            if (savedMessages == null || savedMessages.isEmpty()) return;
+        // History is everything from before the screen opened; newer messages are added as they are sent
+        long openedAt = System.currentTimeMillis();
+        historyPager = new KeysetPager<>((after, limit) -> ChatHistory.loadBefore(db, userId,
+                after != null ? after.timestamp : openedAt,
+                after != null ? after.messageId : 0L, limit),
+                PAGE_SIZE, databaseExecutor, this::runOnUiThread, this::onHistoryPageLoaded);
 
-            runOnUiThread(() -> {
-                for (com.mittimitra.database.entity.ChatMessage msg : savedMessages) {
-                    ChatMessage.Type type = msg.isUser ? ChatMessage.Type.USER : ChatMessage.Type.BOT;
-                    messageList.add(new ChatMessage(msg.content, type));
+        recyclerViewChat.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy >= 0) return;
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    historyPager.loadMore();
                 }
-                chatAdapter.notifyDataSetChanged();
-                recyclerViewChat.scrollToPosition(messageList.size() - 1);
-            });
+            }
         });
+        historyPager.refresh();
+    }
+
+    private void onHistoryPageLoaded(List<com.mittimitra.database.entity.ChatMessage> page,
+                                     boolean firstPage, boolean hasMore) {
+        if (page.isEmpty()) return;
+        // Pages arrive newest first; the chat shows the oldest message at the top
+        List<ChatMessage> older = new ArrayList<>(page.size());
+        for (int i = page.size() - 1; i >= 0; i--) {
+            com.mittimitra.database.entity.ChatMessage msg = page.get(i);
+            older.add(new ChatMessage(msg.content, msg.isUser ? ChatMessage.Type.USER : ChatMessage.Type.BOT));
+        }
+        messageList.addAll(0, older);
+        chatAdapter.notifyItemRangeInserted(0, older.size());
+        if (firstPage) {
+            recyclerViewChat.scrollToPosition(messageList.size() - 1);
+        }
     }
 
     private void addMessage(String message, ChatMessage.Type type) {
@@ -415,12 +446,29 @@ public class TipActivity extends BaseActivity {
         String userId = UserIdentityResolver.getActiveUserId(this);
         if (userId == null || userId.trim().isEmpty()) return;
 
-        databaseExecutor.execute(() -> {
-            com.mittimitra.database.entity.ChatMessage dbMessage =
-                    new com.mittimitra.database.entity.ChatMessage(message, type == ChatMessage.Type.USER);
-            dbMessage.userId = userId;
-            chatDao.insertMessage(dbMessage);
-        });
+        com.mittimitra.database.entity.ChatMessage dbMessage =
+                new com.mittimitra.database.entity.ChatMessage(message, type == ChatMessage.Type.USER);
+        dbMessage.userId = userId;
+        boolean flushQueued;
+        synchronized (pendingWrites) {
+            flushQueued = !pendingWrites.isEmpty();
+            pendingWrites.add(dbMessage);
+        }
+        // Messages added before the queued flush runs, e.g. a reply and its caveat, share its insert
+        if (!flushQueued) {
+            databaseExecutor.execute(this::flushPendingWrites);
+        }
+    }
+
+    private void flushPendingWrites() {
+        List<com.mittimitra.database.entity.ChatMessage> batch;
+        synchronized (pendingWrites) {
+            batch = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+        if (!batch.isEmpty()) {
+            chatDao.insertMessages(batch);
+        }
     }
 
     private void setLoading(boolean isLoading) {
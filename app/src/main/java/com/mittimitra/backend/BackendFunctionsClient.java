@@ -86,6 +86,12 @@ public class BackendFunctionsClient {
                 envelopeType(AiModels.SoilAdvisoryData.class), callback);
     }
 
+    public void getSoilClassification(@NonNull AiModels.SoilClassificationRequest request,
+                                      @NonNull BackendCallback<AiModels.SoilClassificationData> callback) {
+        callEndpoint("getSoilClassification", request,
+                envelopeType(AiModels.SoilClassificationData.class), callback);
+    }
+
     public void getPlantDiagnosis(@NonNull AiModels.PlantDiagnosisRequest request,
                                   @NonNull BackendCallback<AiModels.PlantDiagnosisData> callback) {
         callEndpoint("getPlantDiagnosis", request,
@@ -124,7 +130,10 @@ public class BackendFunctionsClient {
                                   @NonNull Object payload,
                                   @NonNull Type envelopeType,
                                   @NonNull BackendCallback<T> callback) {
-        Object callablePayload = toCallablePayload(payload);
+        // Image requests supply their own map so the data URL is not copied through a Gson tree
+        Object callablePayload = payload instanceof CallablePayload
+                ? ((CallablePayload) payload).toCallableMap()
+                : toCallablePayload(payload);
         functions.getHttpsCallable(endpoint).call(callablePayload)
                 .addOnSuccessListener(result -> {
                     ApiEnvelope<T> envelope = parseEnvelope(result, envelopeType);
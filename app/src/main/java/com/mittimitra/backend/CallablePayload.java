@@ -0,0 +1,19 @@
+package com.mittimitra.backend;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * Request that builds its own callable payload map.
+ * Image requests implement this so their multi-megabyte data URL is handed to Firebase as-is
+ * instead of going through a Gson tree conversion first.
+ */
+public interface CallablePayload {
+
+    /**
+     * Fields to send, as a map of primitives. Null fields are left out, as Gson would.
+     */
+    @NonNull
+    Map<String, Object> toCallableMap();
+}
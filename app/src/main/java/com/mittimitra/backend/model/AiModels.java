@@ -1,6 +1,11 @@
 package com.mittimitra.backend.model;
 
+import androidx.annotation.NonNull;
+
+import com.mittimitra.backend.CallablePayload;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,10 +35,48 @@ public final class AiModels {
         public Map<String, Object> metadata;
     }
 
-    public static class PlantDiagnosisRequest {
+    public static class SoilClassificationRequest implements CallablePayload {
+        public String imageBase64DataUrl;
+        public String localLabel;
+        public Float localConfidence;
+        // Classes the app can show; the backend must answer with one of them
+        public List<String> labels;
+        public String languageCode;
+        public String location;
+
+        @NonNull
+        @Override
+        public Map<String, Object> toCallableMap() {
+            Map<String, Object> map = new HashMap<>();
+            putIfPresent(map, "imageBase64DataUrl", imageBase64DataUrl);
+            putIfPresent(map, "localLabel", localLabel);
+            putIfPresent(map, "localConfidence", localConfidence != null ? localConfidence.doubleValue() : null);
+            putIfPresent(map, "labels", labels);
+            putIfPresent(map, "languageCode", languageCode);
+            putIfPresent(map, "location", location);
+            return map;
+        }
+    }
+
+    public static class SoilClassificationData {
+        public String soilType;
+        public Integer confidence;
+    }
+
+    public static class PlantDiagnosisRequest implements CallablePayload {
         public String imageBase64DataUrl;
         public String languageCode;
         public String location;
+
+        @NonNull
+        @Override
+        public Map<String, Object> toCallableMap() {
+            Map<String, Object> map = new HashMap<>();
+            putIfPresent(map, "imageBase64DataUrl", imageBase64DataUrl);
+            putIfPresent(map, "languageCode", languageCode);
+            putIfPresent(map, "location", location);
+            return map;
+        }
     }
 
     public static class PlantDiagnosisData {
@@ -86,4 +129,8 @@ public final class AiModels {
         public Integer confidence;
         public String uncertaintyMessage;
     }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) map.put(key, value);
+    }
 }
@@ -25,6 +25,11 @@ public final class ApiConfig {
 
     // ========== LOCAL ML MODELS ==========
     public static final String TFLITE_SOIL_CLASSIFIER = "soil_classifier.tflite";
+    // Optional uint8/int8 variant, bundled or downloaded via the model manifest; used when
+    // present and faster on the device
+    public static final String TFLITE_SOIL_CLASSIFIER_QUANTIZED = "soil_classifier_quant.tflite";
+    // Optional healthy / unhealthy / not-a-plant screen run before the cloud plant diagnosis
+    public static final String TFLITE_PLANT_PRESCREEN = "plant_prescreen.tflite";
 
     // ========== NETWORK TIMEOUTS (seconds) ==========
     public static final int CONNECT_TIMEOUT = 30;
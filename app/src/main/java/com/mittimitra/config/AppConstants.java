@@ -48,4 +48,30 @@ public final class AppConstants {
     public static final int IMAGE_CLASSIFICATION_SIZE = 224;
     public static final int JPEG_QUALITY_HIGH = 90;
     public static final int JPEG_QUALITY_MEDIUM = 70;
+    // History list thumbnails: 48dp rows at up to xxxhdpi, and the most disk all of them may use
+    public static final int HISTORY_THUMBNAIL_PX = 192;
+    public static final long HISTORY_THUMBNAIL_MAX_BYTES = 8L * 1024 * 1024;
+
+    // Test-time augmentation for soil classification: views per batch and the inference
+    // time above which we fall back to a single view
+    public static final int TTA_VIEW_COUNT = 6;
+    public static final long TTA_LATENCY_BUDGET_MS = 800;
+    // Soil photos whose classifier result is remembered for repeat analysis
+    public static final int SOIL_RESULT_CACHE_SIZE = 32;
+
+    // Local/cloud soil cascade: local answers at or above this calibrated confidence are kept;
+    // the temperature softens the model's over-confident softmax before comparing
+    public static final float SOIL_CASCADE_MIN_CONFIDENCE = 0.70f;
+    public static final float SOIL_CASCADE_TEMPERATURE = 1.5f;
+    // Total time for local + cloud classification, and the least remaining time worth a backend call
+    public static final long SOIL_CASCADE_BUDGET_MS = 8000;
+    public static final long SOIL_CASCADE_MIN_CLOUD_MS = 1500;
+
+    // Upload encoding: payload budgets per connection type, the quality range searched, and the
+    // smallest long side that still shows lesions and soil texture clearly enough to diagnose
+    public static final int UPLOAD_BUDGET_WIFI_BYTES = 600 * 1024;
+    public static final int UPLOAD_BUDGET_CELLULAR_BYTES = 250 * 1024;
+    public static final int UPLOAD_BUDGET_WEAK_BYTES = 120 * 1024;
+    public static final int UPLOAD_MIN_QUALITY = 50;
+    public static final int UPLOAD_MIN_DIMENSION = 640;
 }
@@ -50,6 +50,12 @@ public class FirebasePredictionRepository implements PredictionRepository {
         functionsClient.getSoilAdvisory(request, callback);
     }
 
+    @Override
+    public void fetchSoilClassification(@NonNull AiModels.SoilClassificationRequest request,
+                                        @NonNull BackendCallback<AiModels.SoilClassificationData> callback) {
+        functionsClient.getSoilClassification(request, callback);
+    }
+
     @Override
     public void fetchPlantDiagnosis(@NonNull AiModels.PlantDiagnosisRequest request,
                                     @NonNull BackendCallback<AiModels.PlantDiagnosisData> callback) {
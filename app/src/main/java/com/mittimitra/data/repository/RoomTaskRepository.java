@@ -4,16 +4,26 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.mittimitra.database.MittiMitraDatabase;
+import com.mittimitra.database.entity.DueReminder;
 import com.mittimitra.database.entity.FarmTask;
 import com.mittimitra.database.entity.Field;
 import com.mittimitra.database.entity.TaskLog;
 import com.mittimitra.database.entity.TaskReminder;
 import com.mittimitra.domain.repository.TaskRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class RoomTaskRepository implements TaskRepository {
 
+    // Stays under SQLite's 999 bound-argument limit on older devices
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
     private final MittiMitraDatabase database;
 
     public RoomTaskRepository(@NonNull MittiMitraDatabase database) {
@@ -32,6 +42,68 @@ public class RoomTaskRepository implements TaskRepository {
         return taskId;
     }
 
+    @Override
+    @NonNull
+    public List<Long> createTasksWithReminders(@NonNull List<FarmTask> tasks, long reminderLeadMillis) {
+        // One transaction for the whole plan: a single commit instead of three per task
+        return database.runInTransaction(() -> {
+            List<FarmTask> newTasks = withoutDuplicates(tasks);
+            if (newTasks.isEmpty()) return new ArrayList<Long>();
+
+            List<Long> taskIds = database.farmTaskDao().insertAll(newTasks);
+            long now = System.currentTimeMillis();
+            List<TaskLog> logs = new ArrayList<>(newTasks.size());
+            List<TaskReminder> reminders = new ArrayList<>(newTasks.size());
+            for (int i = 0; i < newTasks.size(); i++) {
+                FarmTask task = newTasks.get(i);
+                long taskId = taskIds.get(i);
+                logs.add(newLog(task.userId, taskId, "CREATED", task.title, now));
+
+                TaskReminder reminder = new TaskReminder();
+                reminder.taskId = taskId;
+                reminder.userId = task.userId;
+                reminder.remindAt = Math.max(task.dueAt - reminderLeadMillis, now + (60L * 1000L));
+                reminder.channel = "app_notification";
+                reminder.isSent = false;
+                reminder.createdAt = now;
+                reminders.add(reminder);
+            }
+            database.taskLogDao().insertAll(logs);
+            database.taskReminderDao().upsertAll(reminders);
+            return taskIds;
+        });
+    }
+
+    /**
+     * Drops tasks that repeat an open task of the same crop and stage, or an earlier one in
+     * {@code tasks}, by title. Due times are not compared since they count from when the plan
+     * was generated; plans that repeat an activity give each occurrence its own stage. Call
+     * inside the transaction so the check and insert are atomic.
+     */
+    private List<FarmTask> withoutDuplicates(List<FarmTask> tasks) {
+        Map<String, Set<String>> titlesByGroup = new HashMap<>();
+        List<FarmTask> unique = new ArrayList<>(tasks.size());
+        for (FarmTask task : tasks) {
+            String group = task.userId + '\n' + task.cropName + '\n' + task.stage;
+            Set<String> titles = titlesByGroup.get(group);
+            if (titles == null) {
+                titles = new HashSet<>();
+                for (String title : database.farmTaskDao().getOpenTaskTitles(task.userId, task.cropName, task.stage)) {
+                    titles.add(titleKey(title));
+                }
+                titlesByGroup.put(group, titles);
+            }
+            if (titles.add(titleKey(task.title))) {
+                unique.add(task);
+            }
+        }
+        return unique;
+    }
+
+    private static String titleKey(String title) {
+        return title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public void updateTask(@NonNull FarmTask task) {
         database.farmTaskDao().update(task);
@@ -69,6 +141,23 @@ public class RoomTaskRepository implements TaskRepository {
         return database.taskReminderDao().getUpcomingReminders(userId, now, until);
     }
 
+    @Override
+    @NonNull
+    public List<DueReminder> getDueReminders(@NonNull String userId, long now, long until) {
+        return database.taskReminderDao().getDueReminders(userId, now, until);
+    }
+
+    @Override
+    public void markRemindersSent(@NonNull List<Long> reminderIds) {
+        if (reminderIds.isEmpty()) return;
+        database.runInTransaction(() -> {
+            for (int from = 0; from < reminderIds.size(); from += MAX_IDS_PER_STATEMENT) {
+                int to = Math.min(from + MAX_IDS_PER_STATEMENT, reminderIds.size());
+                database.taskReminderDao().markAllSent(reminderIds.subList(from, to));
+            }
+        });
+    }
+
     @Override
     @NonNull
     public List<FarmTask> getTaskTemplatesByCropStage(@NonNull String cropName, @Nullable String stage, @NonNull String userId) {
@@ -76,12 +165,16 @@ public class RoomTaskRepository implements TaskRepository {
     }
 
     private void log(String userId, long taskId, String action, String notes) {
+        database.taskLogDao().insert(newLog(userId, taskId, action, notes, System.currentTimeMillis()));
+    }
+
+    private static TaskLog newLog(String userId, long taskId, String action, String notes, long timestamp) {
         TaskLog log = new TaskLog();
         log.userId = userId;
         log.taskId = taskId;
         log.action = action;
         log.notes = notes;
-        log.timestamp = System.currentTimeMillis();
-        database.taskLogDao().insert(log);
+        log.timestamp = timestamp;
+        return log;
     }
 }
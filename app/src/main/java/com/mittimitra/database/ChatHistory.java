@@ -0,0 +1,145 @@
+package com.mittimitra.database;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.mittimitra.database.entity.ChatArchive;
+import com.mittimitra.database.entity.ChatMessage;
+import com.mittimitra.utils.ChatArchiveCodec;
+import com.mittimitra.utils.FtsQuery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A user's chat history, split between live messages and compressed archive blocks.
+ *
+ * The newest messages stay in {@code chat_messages}; {@link #compact} moves older ones,
+ * {@link #BLOCK_SIZE} at a time, into {@code chat_archive} as one gzip block each, so the live
+ * table and its indexes stay small however long someone has been chatting. Paging and search
+ * carry on into the archive transparently. Call off the main thread.
+ */
+public final class ChatHistory {
+
+    private static final String TAG = "ChatHistory";
+
+    // Messages each user keeps live after compaction
+    static final int KEEP_LIVE = 500;
+    // Messages per archive block
+    static final int BLOCK_SIZE = 100;
+
+    private ChatHistory() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Up to {@code limit} messages strictly before (beforeTimestamp, beforeId), newest first,
+     * reading into the archive once the live messages run out.
+     */
+    @NonNull
+    public static List<ChatMessage> loadBefore(@NonNull MittiMitraDatabase db, @NonNull String userId,
+                                               long beforeTimestamp, long beforeId, int limit) {
+        List<ChatMessage> page = new ArrayList<>(db.chatDao().getPageByUserId(userId, beforeTimestamp, beforeId, limit));
+        long timestamp = beforeTimestamp;
+        long id = beforeId;
+        if (!page.isEmpty()) {
+            ChatMessage oldest = page.get(page.size() - 1);
+            timestamp = oldest.timestamp;
+            id = oldest.messageId;
+        }
+        // Archived messages are all older than live ones
+        while (page.size() < limit) {
+            ChatArchive block = db.chatArchiveDao().getBlockBefore(userId, timestamp, id);
+            if (block == null) break;
+            List<ChatMessage> messages = decode(block);
+            for (int i = messages.size() - 1; i >= 0 && page.size() < limit; i--) {
+                ChatMessage message = messages.get(i);
+                if (message.timestamp < timestamp || (message.timestamp == timestamp && message.messageId < id)) {
+                    page.add(message);
+                }
+            }
+            timestamp = block.firstTimestamp;
+            id = block.firstMessageId;
+        }
+        return page;
+    }
+
+    /**
+     * Archives every user's oldest messages beyond {@link #KEEP_LIVE}, in full blocks.
+     *
+     * @return number of blocks written
+     */
+    public static int compact(@NonNull MittiMitraDatabase db) {
+        int blocks = 0;
+        for (String userId : db.chatDao().getUsersWithAtLeast(KEEP_LIVE + BLOCK_SIZE)) {
+            while (db.runInTransaction(() -> archiveOldestBlock(db, userId))) {
+                blocks++;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Archived messages containing every word of {@code text} as a prefix, from the best-ranked
+     * blocks first and newest first within a block.
+     */
+    @NonNull
+    static List<ChatMessage> searchArchive(@NonNull MittiMitraDatabase db, @NonNull String userId,
+                                           @NonNull String text, @NonNull String match, int limit) {
+        List<Long> blockIds = FtsQuery.rank(db.searchDao().matchChatArchive(userId, match), Integer.MAX_VALUE);
+        if (blockIds.isEmpty()) return Collections.emptyList();
+        List<ChatMessage> results = new ArrayList<>();
+        // A block holds every word somewhere, not necessarily in one message, so filter each one
+        for (int b = 0; b < blockIds.size() && results.size() < limit; b++) {
+            ChatArchive block = db.chatArchiveDao().getById(blockIds.get(b));
+            if (block == null) continue;
+            List<ChatMessage> messages = decode(block);
+            for (int i = messages.size() - 1; i >= 0 && results.size() < limit; i--) {
+                if (FtsQuery.matchesPrefixes(messages.get(i).content, text)) {
+                    results.add(messages.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
+    // One block per transaction, so messages are never both live and archived, or neither
+    private static boolean archiveOldestBlock(MittiMitraDatabase db, String userId) {
+        if (db.chatDao().getMessageCountForUser(userId) < KEEP_LIVE + BLOCK_SIZE) return false;
+        List<ChatMessage> messages = db.chatDao().getOldestMessages(userId, BLOCK_SIZE);
+        if (messages.isEmpty()) return false;
+
+        ChatMessage first = messages.get(0);
+        ChatMessage last = messages.get(messages.size() - 1);
+        ChatArchive block = new ChatArchive();
+        block.userId = userId;
+        block.firstMessageId = first.messageId;
+        block.firstTimestamp = first.timestamp;
+        block.lastMessageId = last.messageId;
+        block.lastTimestamp = last.timestamp;
+        block.messageCount = messages.size();
+        block.payload = ChatArchiveCodec.encode(messages);
+        block.keywords = ChatArchiveCodec.keywords(messages);
+        db.chatArchiveDao().insert(block);
+
+        List<Long> ids = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            ids.add(message.messageId);
+        }
+        db.chatDao().deleteByIds(ids);
+        return true;
+    }
+
+    private static List<ChatMessage> decode(ChatArchive block) {
+        if (block.payload == null) return Collections.emptyList();
+        try {
+            return ChatArchiveCodec.decode(block.payload, block.userId);
+        } catch (IOException e) {
+            Log.e(TAG, "Unreadable chat archive block " + block.id, e);
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mittimitra.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.database.entity.ChatMessage;
+import com.mittimitra.database.entity.PlantHealth;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
+import com.mittimitra.utils.FtsQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ranked prefix search over a user's soil reports, plant diagnoses and chat history.
+ *
+ * Each search is one lookup in the section's full-text index and one primary-key fetch of the
+ * best {@code limit} rows, so it costs the same however much history there is. Call off the
+ * main thread.
+ */
+public final class HistorySearch {
+
+    private HistorySearch() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Soil reports matching {@code text}, no older than {@code since} (0 for all time).
+     */
+    @NonNull
+    public static List<SoilAnalysisSummary> searchSoil(@NonNull MittiMitraDatabase db, @NonNull String userId,
+                                                       @Nullable String text, long since, int limit) {
+        String match = FtsQuery.prefixMatch(text);
+        if (match == null) return Collections.emptyList();
+        List<Long> ids = FtsQuery.rank(db.searchDao().matchSoil(userId, match, since), limit);
+        if (ids.isEmpty()) return Collections.emptyList();
+        return inRankOrder(ids, db.soilDao().getSummariesByIds(ids), row -> row.analysisId);
+    }
+
+    /**
+     * Plant diagnoses whose crop name or diagnosis matches {@code text}.
+     */
+    @NonNull
+    public static List<PlantHealth> searchPlants(@NonNull MittiMitraDatabase db, @NonNull String userId,
+                                                 @Nullable String text, int limit) {
+        String match = FtsQuery.prefixMatch(text);
+        if (match == null) return Collections.emptyList();
+        List<Long> ids = FtsQuery.rank(db.searchDao().matchPlants(userId, match), limit);
+        if (ids.isEmpty()) return Collections.emptyList();
+        return inRankOrder(ids, db.plantDao().getByIds(ids), row -> row.id);
+    }
+
+    /**
+     * Chat messages, from the user or the assistant, containing {@code text}. Live messages come
+     * first; archived ones fill the rest of {@code limit}, unpacking only the matching blocks.
+     */
+    @NonNull
+    public static List<ChatMessage> searchChat(@NonNull MittiMitraDatabase db, @NonNull String userId,
+                                               @Nullable String text, int limit) {
+        String match = FtsQuery.prefixMatch(text);
+        if (match == null) return Collections.emptyList();
+        List<ChatMessage> results = new ArrayList<>();
+        List<Long> ids = FtsQuery.rank(db.searchDao().matchChat(userId, match), limit);
+        if (!ids.isEmpty()) {
+            results.addAll(inRankOrder(ids, db.chatDao().getMessagesByIds(ids), row -> row.messageId));
+        }
+        if (results.size() < limit) {
+            results.addAll(ChatHistory.searchArchive(db, userId, text, match, limit - results.size()));
+        }
+        return results;
+    }
+
+    // IN (...) returns rows in table order; put them back in rank order
+    private static <T> List<T> inRankOrder(List<Long> ids, List<T> rows, ToLongFunction<T> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.applyAsLong(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) ordered.add(row);
+        }
+        return ordered;
+    }
+}
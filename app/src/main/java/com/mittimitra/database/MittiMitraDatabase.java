@@ -1,6 +1,8 @@
 package com.mittimitra.database;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.room.Database;
@@ -8,26 +10,44 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
 
+import com.mittimitra.database.dao.BlobDao;
+import com.mittimitra.database.dao.ChatArchiveDao;
 import com.mittimitra.database.dao.ChatDao;
 import com.mittimitra.database.dao.CropDao;
 import com.mittimitra.database.dao.DocumentDao;
 import com.mittimitra.database.dao.FarmTaskDao;
 import com.mittimitra.database.dao.FieldDao;
 import com.mittimitra.database.dao.PlantDao;
+import com.mittimitra.database.dao.SearchDao;
 import com.mittimitra.database.dao.SoilDao;
+import com.mittimitra.database.dao.SoilTrendDao;
 import com.mittimitra.database.dao.TaskLogDao;
 import com.mittimitra.database.dao.TaskReminderDao;
+import com.mittimitra.database.entity.ChatArchive;
+import com.mittimitra.database.entity.ChatArchiveFts;
 import com.mittimitra.database.entity.ChatMessage;
+import com.mittimitra.database.entity.ChatMessageFts;
 import com.mittimitra.database.entity.CropSchedule;
 import com.mittimitra.database.entity.Document;
 import com.mittimitra.database.entity.FarmTask;
 import com.mittimitra.database.entity.Field;
 import com.mittimitra.database.entity.PlantHealth;
+import com.mittimitra.database.entity.PlantHealthFts;
 import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.database.entity.SoilAnalysisFts;
+import com.mittimitra.database.entity.SoilTrend;
 import com.mittimitra.database.entity.TaskLog;
 import com.mittimitra.database.entity.TaskReminder;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Room Database for MittiMitra app.
  *
@@ -39,6 +59,11 @@ import com.mittimitra.database.entity.TaskReminder;
  * - v5 -> v6: Added crop_schedules table
  * - v6 -> v7: Added plant_health table
  * - v7 -> v8: Added farm planner tables (fields, farm_tasks, task_reminders, task_logs)
+ * - v8 -> v9: Added typed report columns to soil_history, backfilled from soil_report_json
+ * - v9 -> v10: Added indexes for the user-scoped queries (user_id plus their sort column)
+ * - v10 -> v11: Added FTS4 indexes over soil_history, plant_health and chat_messages
+ * - v11 -> v12: Added chat_archive (compressed blocks of old chat messages) and its FTS4 index
+ * - v12 -> v13: Added soil_trends (weekly/monthly nutrient summaries kept by triggers), backfilled
  */
 @Database(
         entities = {
@@ -50,23 +75,39 @@ import com.mittimitra.database.entity.TaskReminder;
                 Field.class,
                 FarmTask.class,
                 TaskReminder.class,
-                TaskLog.class
+                TaskLog.class,
+                SoilAnalysisFts.class,
+                PlantHealthFts.class,
+                ChatMessageFts.class,
+                ChatArchive.class,
+                ChatArchiveFts.class,
+                SoilTrend.class
         },
-        version = 8,
+        version = 13,
         exportSchema = false
 )
 public abstract class MittiMitraDatabase extends RoomDatabase {
 
+    private static final String TAG = "MittiMitraDatabase";
+
     public abstract SoilDao soilDao();
 
+    public abstract SoilTrendDao soilTrendDao();
+
     public abstract DocumentDao documentDao();
 
     public abstract ChatDao chatDao();
 
+    public abstract ChatArchiveDao chatArchiveDao();
+
     public abstract CropDao cropDao();
 
     public abstract PlantDao plantDao();
 
+    public abstract BlobDao blobDao();
+
+    public abstract SearchDao searchDao();
+
     public abstract FieldDao fieldDao();
 
     public abstract FarmTaskDao farmTaskDao();
@@ -184,6 +225,199 @@ public abstract class MittiMitraDatabase extends RoomDatabase {
         }
     };
 
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `nitrogen` REAL");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `phosphorus` REAL");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `potassium` REAL");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `ph` REAL");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `detected_soil` TEXT");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `location` TEXT");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `weather` TEXT");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `moisture` TEXT");
+            database.execSQL("ALTER TABLE `soil_history` ADD COLUMN `user_notes` TEXT");
+            backfillSoilColumns(database);
+        }
+    };
+
+    private static final int BACKFILL_BATCH_SIZE = 200;
+
+    /**
+     * Copies the fields of each stored report JSON into the typed columns. Rows are read in
+     * batches keyed on analysis_id so the cursor window stays small however long the history.
+     */
+    private static void backfillSoilColumns(SupportSQLiteDatabase database) {
+        SupportSQLiteStatement update = database.compileStatement("UPDATE `soil_history` SET "
+                + "`nitrogen` = ?, `phosphorus` = ?, `potassium` = ?, `ph` = ?, `detected_soil` = ?, "
+                + "`location` = ?, `weather` = ?, `moisture` = ?, `user_notes` = ? "
+                + "WHERE `analysis_id` = ?");
+        try {
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                List<Long> ids = new ArrayList<>();
+                List<String> reports = new ArrayList<>();
+                try (Cursor cursor = database.query("SELECT `analysis_id`, `soil_report_json` FROM `soil_history` "
+                        + "WHERE `analysis_id` > ? ORDER BY `analysis_id` LIMIT " + BACKFILL_BATCH_SIZE,
+                        new Object[]{lastId})) {
+                    while (cursor.moveToNext()) {
+                        ids.add(cursor.getLong(0));
+                        reports.add(cursor.isNull(1) ? null : cursor.getString(1));
+                    }
+                }
+                if (ids.isEmpty()) break;
+
+                for (int i = 0; i < ids.size(); i++) {
+                    lastId = ids.get(i);
+                    JSONObject report;
+                    try {
+                        report = reports.get(i) != null ? new JSONObject(reports.get(i)) : null;
+                    } catch (JSONException e) {
+                        Log.w(TAG, "Skipping unreadable soil report id=" + lastId);
+                        continue;
+                    }
+                    if (report == null) continue;
+
+                    update.clearBindings();
+                    bindDouble(update, 1, report, "N");
+                    bindDouble(update, 2, report, "P");
+                    bindDouble(update, 3, report, "K");
+                    bindDouble(update, 4, report, "pH");
+                    bindString(update, 5, report, "detected_soil");
+                    bindString(update, 6, report, "location");
+                    bindString(update, 7, report, "weather");
+                    bindString(update, 8, report, "soil_dynamic");
+                    bindString(update, 9, report, "user_notes");
+                    update.bindLong(10, lastId);
+                    update.executeUpdateDelete();
+                }
+            }
+        } finally {
+            closeQuietly(update);
+        }
+    }
+
+    private static void closeQuietly(SupportSQLiteStatement statement) {
+        try {
+            statement.close();
+        } catch (IOException ignored) {
+            // Nothing to recover
+        }
+    }
+
+    private static void bindDouble(SupportSQLiteStatement statement, int index, JSONObject report, String key) {
+        double value = report.optDouble(key);
+        if (Double.isNaN(value)) {
+            statement.bindNull(index);
+        } else {
+            statement.bindDouble(index, value);
+        }
+    }
+
+    private static void bindString(SupportSQLiteStatement statement, int index, JSONObject report, String key) {
+        if (report.isNull(key)) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, report.optString(key));
+        }
+    }
+
+    // Index names follow Room's index_<table>_<columns> so the schema check on open matches
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_chat_messages_user_id_timestamp` ON `chat_messages` (`user_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_crop_schedules_user_id_timestamp` ON `crop_schedules` (`user_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_documents_user_id_expiry_date` ON `documents` (`user_id`, `expiry_date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_documents_internal_file_path` ON `documents` (`internal_file_path`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_farm_tasks_user_id_due_at` ON `farm_tasks` (`user_id`, `due_at`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_farm_tasks_user_id_crop_name_due_at` ON `farm_tasks` (`user_id`, `crop_name`, `due_at`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_fields_user_id_updated_at` ON `fields` (`user_id`, `updated_at`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_plant_health_user_id_timestamp` ON `plant_health` (`user_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_plant_health_image_path` ON `plant_health` (`image_path`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_soil_history_user_id_timestamp` ON `soil_history` (`user_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_task_logs_user_id_timestamp` ON `task_logs` (`user_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_task_reminders_user_id_is_sent_remind_at` ON `task_reminders` (`user_id`, `is_sent`, `remind_at`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_task_reminders_task_id` ON `task_reminders` (`task_id`)");
+        }
+    };
+
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            createContentIndex(database, "soil_history_fts", "soil_history", "location", "detected_soil", "user_notes");
+            createContentIndex(database, "plant_health_fts", "plant_health", "crop_name", "diagnosis");
+            createContentIndex(database, "chat_messages_fts", "chat_messages", "content");
+        }
+    };
+
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `chat_archive` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`user_id` TEXT, "
+                    + "`first_message_id` INTEGER NOT NULL, "
+                    + "`last_message_id` INTEGER NOT NULL, "
+                    + "`first_timestamp` INTEGER NOT NULL, "
+                    + "`last_timestamp` INTEGER NOT NULL, "
+                    + "`message_count` INTEGER NOT NULL, "
+                    + "`payload` BLOB, "
+                    + "`keywords` TEXT)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_chat_archive_user_id_first_timestamp_first_message_id` "
+                    + "ON `chat_archive` (`user_id`, `first_timestamp`, `first_message_id`)");
+            createContentIndex(database, "chat_archive_fts", "chat_archive", "keywords");
+        }
+    };
+
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `soil_trends` ("
+                    + "`user_id` TEXT NOT NULL, "
+                    + "`period` TEXT NOT NULL, "
+                    + "`bucket_start` INTEGER NOT NULL, "
+                    + "`sample_count` INTEGER NOT NULL, "
+                    + "`n_count` INTEGER NOT NULL, `n_sum` REAL NOT NULL, `n_min` REAL, `n_max` REAL, "
+                    + "`p_count` INTEGER NOT NULL, `p_sum` REAL NOT NULL, `p_min` REAL, `p_max` REAL, "
+                    + "`k_count` INTEGER NOT NULL, `k_sum` REAL NOT NULL, `k_min` REAL, `k_max` REAL, "
+                    + "`ph_count` INTEGER NOT NULL, `ph_sum` REAL NOT NULL, `ph_min` REAL, `ph_max` REAL, "
+                    + "PRIMARY KEY(`user_id`, `period`, `bucket_start`))");
+            SoilTrends.installTriggers(database);
+            SoilTrends.rebuild(database);
+        }
+    };
+
+    /**
+     * Creates an external-content FTS4 table over {@code columns} of {@code contentTable}, with the
+     * same definition and sync triggers Room generates for a new install, and indexes the
+     * existing rows.
+     */
+    private static void createContentIndex(SupportSQLiteDatabase database, String ftsTable,
+                                           String contentTable, String... columns) {
+        StringBuilder definitions = new StringBuilder();
+        StringBuilder names = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            definitions.append('`').append(column).append("` TEXT, ");
+            names.append(", `").append(column).append('`');
+            values.append(", NEW.`").append(column).append('`');
+        }
+        database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `" + ftsTable + "` USING FTS4("
+                + definitions + "tokenize=unicode61, content=`" + contentTable + "`)");
+
+        String delete = " BEGIN DELETE FROM `" + ftsTable + "` WHERE `docid`=OLD.`rowid`; END";
+        String insert = " BEGIN INSERT INTO `" + ftsTable + "`(`docid`" + names + ") VALUES (NEW.`rowid`"
+                + values + "); END";
+        String trigger = "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_" + ftsTable + "_";
+        database.execSQL(trigger + "BEFORE_UPDATE BEFORE UPDATE ON `" + contentTable + "`" + delete);
+        database.execSQL(trigger + "BEFORE_DELETE BEFORE DELETE ON `" + contentTable + "`" + delete);
+        database.execSQL(trigger + "AFTER_UPDATE AFTER UPDATE ON `" + contentTable + "`" + insert);
+        database.execSQL(trigger + "AFTER_INSERT AFTER INSERT ON `" + contentTable + "`" + insert);
+
+        database.execSQL("INSERT INTO `" + ftsTable + "`(`" + ftsTable + "`) VALUES('rebuild')");
+    }
+
     public static MittiMitraDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (MittiMitraDatabase.class) {
@@ -196,7 +430,13 @@ public abstract class MittiMitraDatabase extends RoomDatabase {
                                     MIGRATION_4_5,
                                     MIGRATION_5_6,
                                     MIGRATION_6_7,
-                                    MIGRATION_7_8)
+                                    MIGRATION_7_8,
+                                    MIGRATION_8_9,
+                                    MIGRATION_9_10,
+                                    MIGRATION_10_11,
+                                    MIGRATION_11_12,
+                                    MIGRATION_12_13)
+                            .addCallback(SoilTrends.CALLBACK)
                             .build();
                 }
             }
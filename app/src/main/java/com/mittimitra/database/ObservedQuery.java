@@ -0,0 +1,103 @@
+package com.mittimitra.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.RoomDatabase;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * A query whose result is delivered again whenever its tables change.
+ *
+ * The query runs on Room's query executor on the first {@link #start()} and after each change
+ * reported by its {@link TableWatcher}. Changes that arrive while it is running are folded into
+ * one more run. A result {@code equals} to the last one delivered is not delivered again; that
+ * only catches value results such as an unchanged count, since entities compare by identity and a
+ * list of them is delivered after every run. Listeners showing such lists should diff them by
+ * content, as DocumentAdapter and FarmTaskAdapter do. Results arrive on the main executor. Call
+ * start, stop and close from the main thread.
+ */
+public final class ObservedQuery<T> {
+
+    /**
+     * Reads the current result. Called on Room's query executor.
+     */
+    public interface Query<T> {
+        @Nullable
+        T run();
+    }
+
+    public interface Listener<T> {
+        /**
+         * Called on the main executor with each new result.
+         */
+        void onResult(@Nullable T result);
+    }
+
+    private final Executor background;
+    private final Executor main;
+    private final Query<T> query;
+    private final Listener<T> listener;
+    private final TableWatcher watcher;
+
+    private boolean loaded;
+    private boolean running;
+    // A change arrived while the query was running, so its result may already be stale
+    private boolean rerun;
+    private boolean closed;
+    private boolean delivered;
+    private T lastResult;
+
+    public ObservedQuery(@NonNull RoomDatabase database, @NonNull Executor main, @NonNull Query<T> query,
+                         @NonNull Listener<T> listener, @NonNull String... tables) {
+        this.background = database.getQueryExecutor();
+        this.main = main;
+        this.query = query;
+        this.listener = listener;
+        this.watcher = new TableWatcher(database, main, this::load, tables);
+    }
+
+    public void start() {
+        watcher.start();
+        if (!loaded) load();
+    }
+
+    public void stop() {
+        watcher.stop();
+    }
+
+    public void close() {
+        closed = true;
+        watcher.close();
+    }
+
+    private void load() {
+        if (closed) return;
+        loaded = true;
+        if (running) {
+            rerun = true;
+            return;
+        }
+        running = true;
+        background.execute(() -> {
+            watcher.register();
+            T result = query.run();
+            main.execute(() -> deliver(result));
+        });
+    }
+
+    private void deliver(T result) {
+        running = false;
+        if (closed) return;
+        if (rerun) {
+            rerun = false;
+            load();
+            return;
+        }
+        if (delivered && Objects.equals(result, lastResult)) return;
+        delivered = true;
+        lastResult = result;
+        listener.onResult(result);
+    }
+}
@@ -0,0 +1,149 @@
+package com.mittimitra.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Keeps {@code soil_trends}, the weekly and monthly nutrient summaries of each user's soil
+ * reports, in step with {@code soil_history}.
+ *
+ * SQLite triggers do the work, so every write path is covered: an insert adds the report to its
+ * week and month buckets in place, while a delete or an edit to a report's time or nutrients
+ * recomputes just the buckets involved, since a minimum or maximum cannot be taken back out.
+ * Buckets follow the device's local calendar; weeks start on Monday.
+ */
+public final class SoilTrends {
+
+    public static final String WEEK = "week";
+    public static final String MONTH = "month";
+
+    private static final String[] PERIODS = {WEEK, MONTH};
+    // Column prefix in soil_trends, and the soil_history column it summarises
+    private static final String[][] NUTRIENTS = {
+            {"n", "nitrogen"}, {"p", "phosphorus"}, {"k", "potassium"}, {"ph", "ph"}
+    };
+
+    /**
+     * Installs the triggers on a fresh install; {@link MittiMitraDatabase#MIGRATION_12_13} does
+     * it for upgrades.
+     */
+    public static final RoomDatabase.Callback CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            installTriggers(db);
+        }
+    };
+
+    private SoilTrends() {
+        // Prevent instantiation
+    }
+
+    static void installTriggers(@NonNull SupportSQLiteDatabase db) {
+        StringBuilder insert = new StringBuilder("CREATE TRIGGER IF NOT EXISTS soil_trends_after_insert"
+                + " AFTER INSERT ON soil_history WHEN NEW.user_id IS NOT NULL BEGIN ");
+        StringBuilder update = new StringBuilder("CREATE TRIGGER IF NOT EXISTS soil_trends_after_update"
+                + " AFTER UPDATE OF user_id, timestamp, nitrogen, phosphorus, potassium, ph ON soil_history BEGIN ");
+        StringBuilder delete = new StringBuilder("CREATE TRIGGER IF NOT EXISTS soil_trends_after_delete"
+                + " AFTER DELETE ON soil_history BEGIN ");
+        for (String period : PERIODS) {
+            addReport(insert, period);
+            recomputeBucket(update, period, "OLD");
+            recomputeBucket(update, period, "NEW");
+            recomputeBucket(delete, period, "OLD");
+        }
+        db.execSQL(insert.append("END").toString());
+        db.execSQL(update.append("END").toString());
+        db.execSQL(delete.append("END").toString());
+    }
+
+    /**
+     * Recomputes every bucket from {@code soil_history}.
+     */
+    static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM soil_trends");
+        for (String period : PERIODS) {
+            db.execSQL("INSERT INTO soil_trends (" + columns() + ") SELECT user_id, '" + period + "', "
+                    + bucketStart(period, "timestamp") + " AS bucket, " + aggregates()
+                    + " FROM soil_history WHERE user_id IS NOT NULL GROUP BY user_id, bucket");
+        }
+    }
+
+    // Creates the bucket if needed, then folds NEW into its counts, sums and extremes
+    private static void addReport(StringBuilder sql, String period) {
+        String bucket = bucketStart(period, "NEW.timestamp");
+        sql.append("INSERT OR IGNORE INTO soil_trends (").append(columns()).append(") VALUES (NEW.user_id, '")
+                .append(period).append("', ").append(bucket).append(", 0");
+        for (int i = 0; i < NUTRIENTS.length; i++) {
+            sql.append(", 0, 0, NULL, NULL");
+        }
+        sql.append("); UPDATE soil_trends SET sample_count = sample_count + 1");
+        for (String[] nutrient : NUTRIENTS) {
+            String prefix = nutrient[0];
+            String value = "NEW." + nutrient[1];
+            sql.append(", ").append(prefix).append("_count = ").append(prefix).append("_count + (")
+                    .append(value).append(" IS NOT NULL)")
+                    .append(", ").append(prefix).append("_sum = ").append(prefix).append("_sum + IFNULL(")
+                    .append(value).append(", 0)")
+                    .append(", ").append(prefix).append("_min = CASE WHEN ").append(value).append(" IS NULL OR ")
+                    .append(prefix).append("_min <= ").append(value).append(" THEN ").append(prefix)
+                    .append("_min ELSE ").append(value).append(" END")
+                    .append(", ").append(prefix).append("_max = CASE WHEN ").append(value).append(" IS NULL OR ")
+                    .append(prefix).append("_max >= ").append(value).append(" THEN ").append(prefix)
+                    .append("_max ELSE ").append(value).append(" END");
+        }
+        sql.append(" WHERE user_id = NEW.user_id AND period = '").append(period)
+                .append("' AND bucket_start = ").append(bucket).append("; ");
+    }
+
+    // Replaces the bucket holding row's report with one aggregated from the reports left in it
+    private static void recomputeBucket(StringBuilder sql, String period, String row) {
+        String bucket = bucketStart(period, row + ".timestamp");
+        sql.append("DELETE FROM soil_trends WHERE user_id = ").append(row).append(".user_id AND period = '")
+                .append(period).append("' AND bucket_start = ").append(bucket).append("; ")
+                .append("INSERT INTO soil_trends (").append(columns()).append(") SELECT user_id, '")
+                .append(period).append("', ").append(bucket).append(", ").append(aggregates())
+                .append(" FROM soil_history WHERE user_id = ").append(row).append(".user_id")
+                .append(" AND timestamp >= ").append(bucket)
+                .append(" AND timestamp < ").append(bucketEnd(period, row + ".timestamp"))
+                .append(" GROUP BY user_id; ");
+    }
+
+    private static String columns() {
+        StringBuilder columns = new StringBuilder("user_id, period, bucket_start, sample_count");
+        for (String[] nutrient : NUTRIENTS) {
+            String prefix = nutrient[0];
+            columns.append(", ").append(prefix).append("_count, ").append(prefix).append("_sum, ")
+                    .append(prefix).append("_min, ").append(prefix).append("_max");
+        }
+        return columns.toString();
+    }
+
+    private static String aggregates() {
+        StringBuilder aggregates = new StringBuilder("COUNT(*)");
+        for (String[] nutrient : NUTRIENTS) {
+            String column = nutrient[1];
+            aggregates.append(", COUNT(").append(column).append("), TOTAL(").append(column)
+                    .append("), MIN(").append(column).append("), MAX(").append(column).append(")");
+        }
+        return aggregates.toString();
+    }
+
+    // Epoch millis of the local midnight starting the week (Monday) or month holding timestamp
+    private static String bucketStart(String period, String timestamp) {
+        return localTime(timestamp, WEEK.equals(period)
+                ? "'weekday 0', '-6 days', 'start of day'"
+                : "'start of month'");
+    }
+
+    private static String bucketEnd(String period, String timestamp) {
+        return localTime(timestamp, WEEK.equals(period)
+                ? "'weekday 0', '-6 days', 'start of day', '+7 days'"
+                : "'start of month', '+1 month'");
+    }
+
+    private static String localTime(String timestamp, String modifiers) {
+        return "(CAST(strftime('%s', " + timestamp + " / 1000, 'unixepoch', 'localtime', " + modifiers
+                + ", 'utc') AS INTEGER) * 1000)";
+    }
+}
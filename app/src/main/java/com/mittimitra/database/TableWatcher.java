@@ -0,0 +1,103 @@
+package com.mittimitra.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Tells a screen when the tables it shows have been written to, using Room's
+ * {@link InvalidationTracker}, so it reloads only when something changed instead of on every
+ * resume.
+ *
+ * Changes are reported on the main executor while the watcher is started. Changes made while it
+ * is stopped, e.g. a scan saved from another screen, are reported once on the next
+ * {@link #start()}. Call start, stop and close from the main thread.
+ */
+public final class TableWatcher {
+
+    private final RoomDatabase database;
+    private final Executor main;
+    private final Runnable onChanged;
+    private final InvalidationTracker.Observer observer;
+
+    private final Object registration = new Object();
+    // Guarded by registration
+    private boolean registered;
+    private volatile boolean closed;
+
+    private boolean registerRequested;
+    private boolean started;
+    private boolean changed;
+
+    public TableWatcher(@NonNull RoomDatabase database, @NonNull Executor main,
+                        @NonNull Runnable onChanged, @NonNull String... tables) {
+        this.database = database;
+        this.main = main;
+        this.onChanged = onChanged;
+        this.observer = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> invalidated) {
+                TableWatcher.this.main.execute(TableWatcher.this::onInvalidated);
+            }
+        };
+    }
+
+    public void start() {
+        if (closed) return;
+        started = true;
+        if (!registerRequested) {
+            registerRequested = true;
+            database.getQueryExecutor().execute(this::register);
+        }
+        if (changed) {
+            changed = false;
+            onChanged.run();
+        }
+    }
+
+    public void stop() {
+        started = false;
+    }
+
+    /**
+     * Stops watching for good. Call from onDestroy; the tracker would otherwise keep the screen.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        started = false;
+        database.getQueryExecutor().execute(() -> {
+            synchronized (registration) {
+                if (registered) {
+                    database.getInvalidationTracker().removeObserver(observer);
+                    registered = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts tracking writes now if that has not happened yet. Adding an observer may install
+     * triggers, so call off the main thread; a query that calls this before reading cannot miss a
+     * write made after its read.
+     */
+    void register() {
+        synchronized (registration) {
+            if (closed || registered) return;
+            database.getInvalidationTracker().addObserver(observer);
+            registered = true;
+        }
+    }
+
+    private void onInvalidated() {
+        if (closed) return;
+        if (started) {
+            onChanged.run();
+        } else {
+            changed = true;
+        }
+    }
+}
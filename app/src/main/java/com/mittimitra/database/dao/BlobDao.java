@@ -0,0 +1,23 @@
+package com.mittimitra.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import java.util.List;
+
+/**
+ * Reference counts for files in the BlobStore. The rows pointing at a file are its references,
+ * so there is no separate count to keep in sync.
+ */
+@Dao
+public interface BlobDao {
+
+    String COUNT_REFERENCES = "SELECT (SELECT COUNT(*) FROM documents WHERE internal_file_path = :path)"
+            + " + (SELECT COUNT(*) FROM plant_health WHERE image_path = :path)";
+
+    @Query(COUNT_REFERENCES)
+    int countReferences(String path);
+
+    @Query("SELECT internal_file_path FROM documents WHERE internal_file_path IS NOT NULL"
+            + " UNION SELECT image_path FROM plant_health WHERE image_path IS NOT NULL")
+    List<String> getReferencedPaths();
+}
@@ -0,0 +1,26 @@
+package com.mittimitra.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import com.mittimitra.database.entity.ChatArchive;
+
+@Dao
+public interface ChatArchiveDao {
+    @Insert
+    long insert(ChatArchive block);
+
+    // Newest block starting strictly before (beforeTimestamp, beforeId): the one holding the messages just older than that point
+    String BLOCK_BEFORE = "SELECT * FROM chat_archive WHERE user_id = :userId AND first_timestamp <= :beforeTimestamp"
+            + " AND (first_timestamp < :beforeTimestamp OR first_message_id < :beforeId)"
+            + " ORDER BY first_timestamp DESC, first_message_id DESC LIMIT 1";
+
+    @Query(BLOCK_BEFORE)
+    ChatArchive getBlockBefore(String userId, long beforeTimestamp, long beforeId);
+
+    @Query("SELECT * FROM chat_archive WHERE id = :id")
+    ChatArchive getById(long id);
+
+    @Query("SELECT COUNT(*) FROM chat_archive WHERE user_id = :userId")
+    int getBlockCountForUser(String userId);
+}
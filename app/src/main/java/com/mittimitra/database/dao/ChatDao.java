@@ -11,15 +11,40 @@ public interface ChatDao {
     @Insert
     void insertMessage(ChatMessage message);
 
+    @Insert
+    void insertMessages(List<ChatMessage> messages);
+
     @Query("SELECT * FROM chat_messages ORDER BY timestamp ASC")
     List<ChatMessage> getAllMessages();
 
     @Query("SELECT * FROM chat_messages ORDER BY timestamp DESC LIMIT :limit")
     List<ChatMessage> getRecentMessages(int limit);
 
-    @Query("SELECT * FROM chat_messages WHERE user_id = :userId ORDER BY timestamp ASC")
+    String MESSAGES_FOR_USER = "SELECT * FROM chat_messages WHERE user_id = :userId ORDER BY timestamp ASC";
+
+    @Query(MESSAGES_FOR_USER)
     List<ChatMessage> getMessagesForUser(String userId);
 
+    // Keyset page: messages strictly after (beforeTimestamp, beforeId) in newest-first order
+    String PAGE_BY_USER_ID = "SELECT * FROM chat_messages WHERE user_id = :userId AND timestamp <= :beforeTimestamp"
+            + " AND (timestamp < :beforeTimestamp OR message_id < :beforeId)"
+            + " ORDER BY timestamp DESC, message_id DESC LIMIT :limit";
+
+    @Query(PAGE_BY_USER_ID)
+    List<ChatMessage> getPageByUserId(String userId, long beforeTimestamp, long beforeId, int limit);
+
+    @Query("SELECT * FROM chat_messages WHERE user_id = :userId ORDER BY timestamp ASC, message_id ASC LIMIT :limit")
+    List<ChatMessage> getOldestMessages(String userId, int limit);
+
+    @Query("SELECT user_id FROM chat_messages WHERE user_id IS NOT NULL GROUP BY user_id HAVING COUNT(*) >= :minCount")
+    List<String> getUsersWithAtLeast(int minCount);
+
+    @Query("SELECT * FROM chat_messages WHERE message_id IN (:ids)")
+    List<ChatMessage> getMessagesByIds(List<Long> ids);
+
+    @Query("DELETE FROM chat_messages WHERE message_id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
     @Query("DELETE FROM chat_messages")
     void clearAllMessages();
 
@@ -15,8 +15,13 @@ public interface CropDao {
     @Delete
     void delete(CropSchedule schedule);
 
-    @Query("SELECT * FROM crop_schedules WHERE user_id = :userId ORDER BY timestamp DESC")
-    List<CropSchedule> getAllByUserId(String userId);
+    // Keyset page: rows strictly after (beforeTimestamp, beforeId) in newest-first order
+    String PAGE_BY_USER_ID = "SELECT * FROM crop_schedules WHERE user_id = :userId AND timestamp <= :beforeTimestamp"
+            + " AND (timestamp < :beforeTimestamp OR id < :beforeId)"
+            + " ORDER BY timestamp DESC, id DESC LIMIT :limit";
+
+    @Query(PAGE_BY_USER_ID)
+    List<CropSchedule> getPageByUserId(String userId, long beforeTimestamp, long beforeId, int limit);
 
     @Query("SELECT * FROM crop_schedules WHERE user_id = :userId ORDER BY timestamp DESC LIMIT :limit")
     List<CropSchedule> getRecentByUserId(String userId, int limit);
@@ -19,7 +19,9 @@ public interface DocumentDao {
     @Query("SELECT * FROM documents")
     List<Document> getAllDocuments();
 
-    @Query("SELECT * FROM documents WHERE user_id = :userId")
+    String DOCUMENTS_FOR_USER = "SELECT * FROM documents WHERE user_id = :userId";
+
+    @Query(DOCUMENTS_FOR_USER)
     List<Document> getDocumentsForUser(String userId);
 
     // --- NEW ---
@@ -33,6 +35,8 @@ public interface DocumentDao {
     @Query("SELECT * FROM documents WHERE expiry_date BETWEEN :now AND :threshold")
     List<Document> getExpiringDocuments(long now, long threshold);
 
-    @Query("SELECT * FROM documents WHERE user_id = :userId AND expiry_date BETWEEN :now AND :threshold")
+    String EXPIRING_DOCUMENTS_FOR_USER = "SELECT * FROM documents WHERE user_id = :userId AND expiry_date BETWEEN :now AND :threshold";
+
+    @Query(EXPIRING_DOCUMENTS_FOR_USER)
     List<Document> getExpiringDocumentsForUser(String userId, long now, long threshold);
 }
@@ -14,6 +14,9 @@ public interface FarmTaskDao {
     @Insert
     long insert(FarmTask task);
 
+    @Insert
+    List<Long> insertAll(List<FarmTask> tasks);
+
     @Update
     void update(FarmTask task);
 
@@ -23,12 +26,19 @@ public interface FarmTaskDao {
     @Query("SELECT * FROM farm_tasks WHERE user_id = :userId ORDER BY due_at ASC")
     List<FarmTask> getAllForUser(String userId);
 
-    @Query("SELECT * FROM farm_tasks WHERE user_id = :userId AND status != 'COMPLETED' AND due_at BETWEEN :now AND :until ORDER BY due_at ASC")
+    String UPCOMING_FOR_USER = "SELECT * FROM farm_tasks WHERE user_id = :userId AND status != 'COMPLETED' AND due_at BETWEEN :now AND :until ORDER BY due_at ASC";
+
+    @Query(UPCOMING_FOR_USER)
     List<FarmTask> getUpcomingForUser(String userId, long now, long until);
 
     @Query("UPDATE farm_tasks SET status = 'COMPLETED', completed_at = :completedAt WHERE id = :taskId")
     void markCompleted(long taskId, long completedAt);
 
-    @Query("SELECT * FROM farm_tasks WHERE user_id = :userId AND crop_name = :cropName AND (:stage IS NULL OR stage = :stage) ORDER BY due_at ASC")
+    String TASK_TEMPLATES_BY_CROP_STAGE = "SELECT * FROM farm_tasks WHERE user_id = :userId AND crop_name = :cropName AND (:stage IS NULL OR stage = :stage) ORDER BY due_at ASC";
+
+    @Query(TASK_TEMPLATES_BY_CROP_STAGE)
     List<FarmTask> getTaskTemplatesByCropStage(String userId, String cropName, String stage);
+
+    @Query("SELECT title FROM farm_tasks WHERE user_id = :userId AND crop_name IS :cropName AND stage IS :stage AND status != 'COMPLETED'")
+    List<String> getOpenTaskTitles(String userId, String cropName, String stage);
 }
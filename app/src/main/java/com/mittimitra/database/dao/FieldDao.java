@@ -21,7 +21,9 @@ public interface FieldDao {
     @Delete
     void delete(Field field);
 
-    @Query("SELECT * FROM fields WHERE user_id = :userId ORDER BY updated_at DESC")
+    String ALL_FOR_USER = "SELECT * FROM fields WHERE user_id = :userId ORDER BY updated_at DESC";
+
+    @Query(ALL_FOR_USER)
     List<Field> getAllForUser(String userId);
 
     @Query("SELECT * FROM fields WHERE id = :id")
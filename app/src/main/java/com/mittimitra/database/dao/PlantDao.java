@@ -15,12 +15,20 @@ public interface PlantDao {
     @Delete
     void delete(PlantHealth health);
 
-    @Query("SELECT * FROM plant_health WHERE user_id = :userId ORDER BY timestamp DESC")
-    List<PlantHealth> getAllByUserId(String userId);
+    // Keyset page: rows strictly after (beforeTimestamp, beforeId) in newest-first order
+    String PAGE_BY_USER_ID = "SELECT * FROM plant_health WHERE user_id = :userId AND timestamp <= :beforeTimestamp"
+            + " AND (timestamp < :beforeTimestamp OR id < :beforeId)"
+            + " ORDER BY timestamp DESC, id DESC LIMIT :limit";
+
+    @Query(PAGE_BY_USER_ID)
+    List<PlantHealth> getPageByUserId(String userId, long beforeTimestamp, long beforeId, int limit);
 
     @Query("SELECT * FROM plant_health WHERE user_id = :userId ORDER BY timestamp DESC LIMIT :limit")
     List<PlantHealth> getRecentByUserId(String userId, int limit);
 
     @Query("SELECT * FROM plant_health WHERE id = :id")
     PlantHealth getById(long id);
+
+    @Query("SELECT * FROM plant_health WHERE id IN (:ids)")
+    List<PlantHealth> getByIds(List<Long> ids);
 }
@@ -0,0 +1,40 @@
+package com.mittimitra.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.mittimitra.database.entity.SearchMatch;
+import java.util.List;
+
+/**
+ * Full-text lookups. {@code match} is an FTS4 MATCH expression, normally built by
+ * {@link com.mittimitra.utils.FtsQuery#prefixMatch}; results are unordered and ranked by the
+ * caller from their match info.
+ */
+@Dao
+public interface SearchDao {
+
+    @Query("SELECT s.analysis_id AS id, s.timestamp AS timestamp,"
+            + " matchinfo(soil_history_fts, 'pcnalx') AS matchInfo"
+            + " FROM soil_history_fts JOIN soil_history s ON s.analysis_id = soil_history_fts.rowid"
+            + " WHERE soil_history_fts MATCH :match AND s.user_id = :userId AND s.timestamp >= :since")
+    List<SearchMatch> matchSoil(String userId, String match, long since);
+
+    @Query("SELECT p.id AS id, p.timestamp AS timestamp,"
+            + " matchinfo(plant_health_fts, 'pcnalx') AS matchInfo"
+            + " FROM plant_health_fts JOIN plant_health p ON p.id = plant_health_fts.rowid"
+            + " WHERE plant_health_fts MATCH :match AND p.user_id = :userId")
+    List<SearchMatch> matchPlants(String userId, String match);
+
+    @Query("SELECT m.message_id AS id, m.timestamp AS timestamp,"
+            + " matchinfo(chat_messages_fts, 'pcnalx') AS matchInfo"
+            + " FROM chat_messages_fts JOIN chat_messages m ON m.message_id = chat_messages_fts.rowid"
+            + " WHERE chat_messages_fts MATCH :match AND m.user_id = :userId")
+    List<SearchMatch> matchChat(String userId, String match);
+
+    // Matches archived chat blocks, not single messages; timestamp is the block's newest message
+    @Query("SELECT a.id AS id, a.last_timestamp AS timestamp,"
+            + " matchinfo(chat_archive_fts, 'pcnalx') AS matchInfo"
+            + " FROM chat_archive_fts JOIN chat_archive a ON a.id = chat_archive_fts.rowid"
+            + " WHERE chat_archive_fts MATCH :match AND a.user_id = :userId")
+    List<SearchMatch> matchChatArchive(String userId, String match);
+}
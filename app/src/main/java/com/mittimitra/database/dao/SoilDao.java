@@ -5,12 +5,13 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
 import com.mittimitra.database.entity.SoilAnalysis;
+import com.mittimitra.database.entity.SoilAnalysisSummary;
 import java.util.List;
 
 @Dao
 public interface SoilDao {
     @Insert
-    void insertAnalysis(SoilAnalysis analysis);
+    long insertAnalysis(SoilAnalysis analysis);
 
     @Delete
     void deleteAnalysis(SoilAnalysis analysis);
@@ -21,18 +22,45 @@ public interface SoilDao {
     @Query("SELECT * FROM soil_history ORDER BY timestamp DESC LIMIT 1")
     SoilAnalysis getLatestReport();
 
-    @Query("SELECT * FROM soil_history WHERE user_id = :userId ORDER BY timestamp DESC LIMIT 1")
+    String LATEST_REPORT_FOR_USER = "SELECT * FROM soil_history WHERE user_id = :userId ORDER BY timestamp DESC LIMIT 1";
+
+    @Query(LATEST_REPORT_FOR_USER)
     SoilAnalysis getLatestReportForUser(String userId);
 
     // NEW: Fetch specific report by ID
     @Query("SELECT * FROM soil_history WHERE analysis_id = :id")
     SoilAnalysis getAnalysisById(int id);
 
-    @Query("SELECT * FROM soil_history WHERE user_id = :userId ORDER BY timestamp DESC")
-    List<SoilAnalysis> getAnalysisForUser(String userId);
+    // List screens read these columns only, so binding a row never parses the report JSON
+    String SUMMARY_COLUMNS = "analysis_id, timestamp, location, detected_soil, nitrogen, phosphorus, potassium, ph";
+
+    String SUMMARIES_FOR_USER = "SELECT " + SUMMARY_COLUMNS + " FROM soil_history WHERE user_id = :userId ORDER BY timestamp DESC";
+
+    @Query(SUMMARIES_FOR_USER)
+    List<SoilAnalysisSummary> getSummariesForUser(String userId);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM soil_history WHERE user_id = :userId ORDER BY timestamp DESC LIMIT :limit")
+    List<SoilAnalysisSummary> getRecentSummariesForUser(String userId, int limit);
+
+    String SUMMARIES_SINCE = "SELECT " + SUMMARY_COLUMNS + " FROM soil_history WHERE user_id=:uid AND timestamp >= :since ORDER BY timestamp DESC";
+
+    @Query(SUMMARIES_SINCE)
+    List<SoilAnalysisSummary> getSummariesSince(String uid, long since);
+
+    // Keyset page: rows strictly after (beforeTimestamp, beforeId) in newest-first order, no older than since
+    String SUMMARY_PAGE = "SELECT " + SUMMARY_COLUMNS + " FROM soil_history WHERE user_id = :userId"
+            + " AND timestamp >= :since AND timestamp <= :beforeTimestamp"
+            + " AND (timestamp < :beforeTimestamp OR analysis_id < :beforeId)"
+            + " ORDER BY timestamp DESC, analysis_id DESC LIMIT :limit";
+
+    @Query(SUMMARY_PAGE)
+    List<SoilAnalysisSummary> getSummaryPage(String userId, long since, long beforeTimestamp, long beforeId, int limit);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM soil_history WHERE analysis_id IN (:ids)")
+    List<SoilAnalysisSummary> getSummariesByIds(List<Long> ids);
 
-    @Query("SELECT * FROM soil_history WHERE user_id=:uid AND timestamp >= :since ORDER BY timestamp DESC")
-    List<SoilAnalysis> getAnalysisSince(String uid, long since);
+    @Query("DELETE FROM soil_history WHERE analysis_id = :id")
+    void deleteById(long id);
 
     @Query("DELETE FROM soil_history")
     void clearAllHistory();
@@ -0,0 +1,40 @@
+package com.mittimitra.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.mittimitra.database.entity.NutrientTrend;
+import java.util.List;
+
+@Dao
+public interface SoilTrendDao {
+
+    // Earlier buckets of the same user and period as bucket t
+    String PREVIOUS = " FROM soil_trends prev WHERE prev.user_id = t.user_id AND prev.period = t.period"
+            + " AND prev.bucket_start < t.bucket_start";
+
+    // Average, extremes and change since the last earlier bucket with a value, per nutrient
+    String TREND_COLUMNS = "t.bucket_start, t.sample_count"
+            + ", t.n_sum / t.n_count AS n_avg, t.n_min, t.n_max"
+            + ", t.n_sum / t.n_count - (SELECT prev.n_sum / prev.n_count" + PREVIOUS
+            + " AND prev.n_count > 0 ORDER BY prev.bucket_start DESC LIMIT 1) AS n_delta"
+            + ", t.p_sum / t.p_count AS p_avg, t.p_min, t.p_max"
+            + ", t.p_sum / t.p_count - (SELECT prev.p_sum / prev.p_count" + PREVIOUS
+            + " AND prev.p_count > 0 ORDER BY prev.bucket_start DESC LIMIT 1) AS p_delta"
+            + ", t.k_sum / t.k_count AS k_avg, t.k_min, t.k_max"
+            + ", t.k_sum / t.k_count - (SELECT prev.k_sum / prev.k_count" + PREVIOUS
+            + " AND prev.k_count > 0 ORDER BY prev.bucket_start DESC LIMIT 1) AS k_delta"
+            + ", t.ph_sum / t.ph_count AS ph_avg, t.ph_min, t.ph_max"
+            + ", t.ph_sum / t.ph_count - (SELECT prev.ph_sum / prev.ph_count" + PREVIOUS
+            + " AND prev.ph_count > 0 ORDER BY prev.bucket_start DESC LIMIT 1) AS ph_delta";
+
+    // Newest first; period is SoilTrends.WEEK or SoilTrends.MONTH
+    String RECENT_TRENDS = "SELECT " + TREND_COLUMNS + " FROM soil_trends t WHERE t.user_id = :userId AND t.period = :period"
+            + " ORDER BY t.bucket_start DESC LIMIT :limit";
+
+    @Query(RECENT_TRENDS)
+    List<NutrientTrend> getRecentTrends(String userId, String period, int limit);
+
+    @Query("SELECT " + TREND_COLUMNS + " FROM soil_trends t WHERE t.user_id = :userId AND t.period = :period"
+            + " AND t.bucket_start >= :since ORDER BY t.bucket_start ASC")
+    List<NutrientTrend> getTrendsSince(String userId, String period, long since);
+}
@@ -13,6 +13,11 @@ public interface TaskLogDao {
     @Insert
     long insert(TaskLog taskLog);
 
-    @Query("SELECT * FROM task_logs WHERE user_id = :userId ORDER BY timestamp DESC")
+    @Insert
+    void insertAll(List<TaskLog> taskLogs);
+
+    String LOGS_FOR_USER = "SELECT * FROM task_logs WHERE user_id = :userId ORDER BY timestamp DESC";
+
+    @Query(LOGS_FOR_USER)
     List<TaskLog> getLogsForUser(String userId);
 }
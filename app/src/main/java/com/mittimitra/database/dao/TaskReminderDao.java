@@ -5,6 +5,7 @@ import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
+import com.mittimitra.database.entity.DueReminder;
 import com.mittimitra.database.entity.TaskReminder;
 
 import java.util.List;
@@ -14,12 +15,30 @@ public interface TaskReminderDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long upsert(TaskReminder reminder);
 
-    @Query("SELECT * FROM task_reminders WHERE user_id = :userId AND is_sent = 0 AND remind_at BETWEEN :now AND :until ORDER BY remind_at ASC")
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<TaskReminder> reminders);
+
+    String UPCOMING_REMINDERS = "SELECT * FROM task_reminders WHERE user_id = :userId AND is_sent = 0 AND remind_at BETWEEN :now AND :until ORDER BY remind_at ASC";
+
+    @Query(UPCOMING_REMINDERS)
     List<TaskReminder> getUpcomingReminders(String userId, long now, long until);
 
+    String DUE_REMINDERS = "SELECT r.id AS reminder_id, t.id AS task_id, t.title, t.status FROM task_reminders r "
+            + "LEFT JOIN farm_tasks t ON t.id = r.task_id "
+            + "WHERE r.user_id = :userId AND r.is_sent = 0 AND r.remind_at BETWEEN :now AND :until "
+            + "ORDER BY r.remind_at ASC";
+
+    @Query(DUE_REMINDERS)
+    List<DueReminder> getDueReminders(String userId, long now, long until);
+
     @Query("UPDATE task_reminders SET is_sent = 1 WHERE id = :reminderId")
     void markSent(long reminderId);
 
-    @Query("DELETE FROM task_reminders WHERE task_id = :taskId")
+    @Query("UPDATE task_reminders SET is_sent = 1 WHERE id IN (:reminderIds)")
+    void markAllSent(List<Long> reminderIds);
+
+    String DELETE_FOR_TASK = "DELETE FROM task_reminders WHERE task_id = :taskId";
+
+    @Query(DELETE_FOR_TASK)
     void deleteForTask(long taskId);
 }
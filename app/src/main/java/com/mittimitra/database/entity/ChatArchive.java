@@ -0,0 +1,46 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A block of a user's older chat messages, compacted out of {@code chat_messages} into one
+ * compressed payload (see {@link com.mittimitra.utils.ChatArchiveCodec}). The first and last
+ * message keys let history paging carry on from the live table into the archive.
+ */
+@Entity(tableName = "chat_archive",
+        indices = @Index(value = {"user_id", "first_timestamp", "first_message_id"}))
+public class ChatArchive {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    public long id;
+
+    @ColumnInfo(name = "user_id")
+    public String userId;
+
+    @ColumnInfo(name = "first_message_id")
+    public long firstMessageId;
+
+    @ColumnInfo(name = "last_message_id")
+    public long lastMessageId;
+
+    @ColumnInfo(name = "first_timestamp")
+    public long firstTimestamp;
+
+    @ColumnInfo(name = "last_timestamp")
+    public long lastTimestamp;
+
+    @ColumnInfo(name = "message_count")
+    public int messageCount;
+
+    // Gzip block of the messages, oldest first
+    @ColumnInfo(name = "payload")
+    public byte[] payload;
+
+    // Distinct words of the messages, for chat_archive_fts
+    @ColumnInfo(name = "keywords")
+    public String keywords;
+}
@@ -0,0 +1,18 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the words of archived chat blocks, kept in step with
+ * {@code chat_archive} by Room's triggers.
+ */
+@Fts4(contentEntity = ChatArchive.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "chat_archive_fts")
+public class ChatArchiveFts {
+
+    @ColumnInfo(name = "keywords")
+    public String keywords;
+}
@@ -2,10 +2,12 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.Ignore;
 
-@Entity(tableName = "chat_messages")
+@Entity(tableName = "chat_messages",
+        indices = @Index(value = {"user_id", "timestamp"}))
 public class ChatMessage {
 
     @PrimaryKey(autoGenerate = true)
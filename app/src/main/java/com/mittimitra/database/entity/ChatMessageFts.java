@@ -0,0 +1,18 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over chat message text, kept in step with {@code chat_messages} by Room's
+ * triggers.
+ */
+@Fts4(contentEntity = ChatMessage.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "chat_messages_fts")
+public class ChatMessageFts {
+
+    @ColumnInfo(name = "content")
+    public String content;
+}
@@ -2,9 +2,11 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "crop_schedules")
+@Entity(tableName = "crop_schedules",
+        indices = @Index(value = {"user_id", "timestamp"}))
 public class CropSchedule {
     @PrimaryKey(autoGenerate = true)
     public long id;
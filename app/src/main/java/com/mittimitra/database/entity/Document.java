@@ -2,10 +2,15 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 // UPDATED: Removed the foreignKey and user ID
-@Entity(tableName = "documents")
+@Entity(tableName = "documents",
+        indices = {
+                @Index(value = {"user_id", "expiry_date"}),
+                @Index(value = {"internal_file_path"})
+        })
 public class Document {
 
     @PrimaryKey(autoGenerate = true)
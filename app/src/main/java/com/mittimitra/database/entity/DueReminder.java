@@ -0,0 +1,22 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * An unsent reminder joined with the task it is for. {@code taskId}, {@code title} and
+ * {@code status} are null when the task has been deleted.
+ */
+public class DueReminder {
+
+    @ColumnInfo(name = "reminder_id")
+    public long reminderId;
+
+    @ColumnInfo(name = "task_id")
+    public Long taskId;
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "status")
+    public String status;
+}
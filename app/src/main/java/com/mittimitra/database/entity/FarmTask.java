@@ -2,9 +2,14 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "farm_tasks")
+@Entity(tableName = "farm_tasks",
+        indices = {
+                @Index(value = {"user_id", "due_at"}),
+                @Index(value = {"user_id", "crop_name", "due_at"})
+        })
 public class FarmTask {
     @PrimaryKey(autoGenerate = true)
     public long id;
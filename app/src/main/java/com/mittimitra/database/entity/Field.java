@@ -2,9 +2,11 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "fields")
+@Entity(tableName = "fields",
+        indices = @Index(value = {"user_id", "updated_at"}))
 public class Field {
     @PrimaryKey(autoGenerate = true)
     public long id;
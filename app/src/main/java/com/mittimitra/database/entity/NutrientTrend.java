@@ -0,0 +1,65 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Nutrient averages, extremes and changes for one week or month of a user's soil reports.
+ * Each delta is the change in average since the latest earlier period with a value for that
+ * nutrient. A value is null when no report in the period, or before it for deltas, had one.
+ */
+public class NutrientTrend {
+
+    @ColumnInfo(name = "bucket_start")
+    public long bucketStart;
+
+    @ColumnInfo(name = "sample_count")
+    public int sampleCount;
+
+    @ColumnInfo(name = "n_avg")
+    public Double nitrogenAvg;
+
+    @ColumnInfo(name = "n_min")
+    public Double nitrogenMin;
+
+    @ColumnInfo(name = "n_max")
+    public Double nitrogenMax;
+
+    @ColumnInfo(name = "n_delta")
+    public Double nitrogenDelta;
+
+    @ColumnInfo(name = "p_avg")
+    public Double phosphorusAvg;
+
+    @ColumnInfo(name = "p_min")
+    public Double phosphorusMin;
+
+    @ColumnInfo(name = "p_max")
+    public Double phosphorusMax;
+
+    @ColumnInfo(name = "p_delta")
+    public Double phosphorusDelta;
+
+    @ColumnInfo(name = "k_avg")
+    public Double potassiumAvg;
+
+    @ColumnInfo(name = "k_min")
+    public Double potassiumMin;
+
+    @ColumnInfo(name = "k_max")
+    public Double potassiumMax;
+
+    @ColumnInfo(name = "k_delta")
+    public Double potassiumDelta;
+
+    @ColumnInfo(name = "ph_avg")
+    public Double phAvg;
+
+    @ColumnInfo(name = "ph_min")
+    public Double phMin;
+
+    @ColumnInfo(name = "ph_max")
+    public Double phMax;
+
+    @ColumnInfo(name = "ph_delta")
+    public Double phDelta;
+}
@@ -2,9 +2,14 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "plant_health")
+@Entity(tableName = "plant_health",
+        indices = {
+                @Index(value = {"user_id", "timestamp"}),
+                @Index(value = {"image_path"})
+        })
 public class PlantHealth {
     @PrimaryKey(autoGenerate = true)
     public long id;
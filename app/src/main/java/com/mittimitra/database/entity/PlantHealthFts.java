@@ -0,0 +1,21 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the crop name and diagnosis of {@code plant_health}, kept in step with
+ * the content table by Room's triggers.
+ */
+@Fts4(contentEntity = PlantHealth.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "plant_health_fts")
+public class PlantHealthFts {
+
+    @ColumnInfo(name = "crop_name")
+    public String cropName;
+
+    @ColumnInfo(name = "diagnosis")
+    public String diagnosis;
+}
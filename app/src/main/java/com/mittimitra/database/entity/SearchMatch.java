@@ -0,0 +1,15 @@
+package com.mittimitra.database.entity;
+
+/**
+ * One full-text match: the matching row's id and time, and SQLite's {@code matchinfo} blob
+ * for ranking it.
+ */
+public class SearchMatch {
+
+    public long id;
+
+    public long timestamp;
+
+    // matchinfo(..., 'pcnalx'), native-endian 32-bit ints
+    public byte[] matchInfo;
+}
@@ -2,10 +2,12 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 // UPDATED: Removed the foreignKey and user ID
-@Entity(tableName = "soil_history")
+@Entity(tableName = "soil_history",
+        indices = @Index(value = {"user_id", "timestamp"}))
 public class SoilAnalysis {
 
     @PrimaryKey(autoGenerate = true)
@@ -15,9 +17,37 @@ public class SoilAnalysis {
     @ColumnInfo(name = "timestamp")
     public long timestamp;
 
+    // Full report as saved by ScanActivity; the typed columns below are copies of its fields
     @ColumnInfo(name = "soil_report_json")
     public String soilReportJson;
     
     @ColumnInfo(name = "user_id")
     public String userId;
-}
\ No newline at end of file
+
+    @ColumnInfo(name = "nitrogen")
+    public Double nitrogen; // kg/ha, null if the report had no value
+
+    @ColumnInfo(name = "phosphorus")
+    public Double phosphorus;
+
+    @ColumnInfo(name = "potassium")
+    public Double potassium;
+
+    @ColumnInfo(name = "ph")
+    public Double ph;
+
+    @ColumnInfo(name = "detected_soil")
+    public String detectedSoil;
+
+    @ColumnInfo(name = "location")
+    public String location;
+
+    @ColumnInfo(name = "weather")
+    public String weather;
+
+    @ColumnInfo(name = "moisture")
+    public String moisture;
+
+    @ColumnInfo(name = "user_notes")
+    public String userNotes;
+}
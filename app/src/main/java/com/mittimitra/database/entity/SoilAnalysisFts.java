@@ -0,0 +1,24 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable text of {@code soil_history}. The rows live in the content
+ * table; Room's triggers keep this index in step with every insert, update and delete.
+ */
+@Fts4(contentEntity = SoilAnalysis.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "soil_history_fts")
+public class SoilAnalysisFts {
+
+    @ColumnInfo(name = "location")
+    public String location;
+
+    @ColumnInfo(name = "detected_soil")
+    public String detectedSoil;
+
+    @ColumnInfo(name = "user_notes")
+    public String userNotes;
+}
@@ -0,0 +1,34 @@
+package com.mittimitra.database.entity;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * The columns of a soil report that history lists, comparison and CSV export need, read without
+ * the report JSON.
+ */
+public class SoilAnalysisSummary {
+
+    @ColumnInfo(name = "analysis_id")
+    public long analysisId;
+
+    @ColumnInfo(name = "timestamp")
+    public long timestamp;
+
+    @ColumnInfo(name = "location")
+    public String location;
+
+    @ColumnInfo(name = "detected_soil")
+    public String detectedSoil;
+
+    @ColumnInfo(name = "nitrogen")
+    public Double nitrogen;
+
+    @ColumnInfo(name = "phosphorus")
+    public Double phosphorus;
+
+    @ColumnInfo(name = "potassium")
+    public Double potassium;
+
+    @ColumnInfo(name = "ph")
+    public Double ph;
+}
@@ -0,0 +1,79 @@
+package com.mittimitra.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * One week's or month's summary of a user's soil reports, maintained by triggers on
+ * {@code soil_history} (see {@link com.mittimitra.database.SoilTrends}). Each nutrient keeps a
+ * count of reports that had a value, their sum and extremes, so adding a report never needs the
+ * others. Read through {@link NutrientTrend}.
+ */
+@Entity(tableName = "soil_trends", primaryKeys = {"user_id", "period", "bucket_start"})
+public class SoilTrend {
+
+    @NonNull
+    @ColumnInfo(name = "user_id")
+    public String userId = "";
+
+    // SoilTrends.WEEK or SoilTrends.MONTH
+    @NonNull
+    @ColumnInfo(name = "period")
+    public String period = "";
+
+    // Local midnight starting the week (Monday) or month, epoch millis
+    @ColumnInfo(name = "bucket_start")
+    public long bucketStart;
+
+    @ColumnInfo(name = "sample_count")
+    public int sampleCount;
+
+    @ColumnInfo(name = "n_count")
+    public int nitrogenCount;
+
+    @ColumnInfo(name = "n_sum")
+    public double nitrogenSum;
+
+    @ColumnInfo(name = "n_min")
+    public Double nitrogenMin;
+
+    @ColumnInfo(name = "n_max")
+    public Double nitrogenMax;
+
+    @ColumnInfo(name = "p_count")
+    public int phosphorusCount;
+
+    @ColumnInfo(name = "p_sum")
+    public double phosphorusSum;
+
+    @ColumnInfo(name = "p_min")
+    public Double phosphorusMin;
+
+    @ColumnInfo(name = "p_max")
+    public Double phosphorusMax;
+
+    @ColumnInfo(name = "k_count")
+    public int potassiumCount;
+
+    @ColumnInfo(name = "k_sum")
+    public double potassiumSum;
+
+    @ColumnInfo(name = "k_min")
+    public Double potassiumMin;
+
+    @ColumnInfo(name = "k_max")
+    public Double potassiumMax;
+
+    @ColumnInfo(name = "ph_count")
+    public int phCount;
+
+    @ColumnInfo(name = "ph_sum")
+    public double phSum;
+
+    @ColumnInfo(name = "ph_min")
+    public Double phMin;
+
+    @ColumnInfo(name = "ph_max")
+    public Double phMax;
+}
@@ -2,9 +2,11 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "task_logs")
+@Entity(tableName = "task_logs",
+        indices = @Index(value = {"user_id", "timestamp"}))
 public class TaskLog {
     @PrimaryKey(autoGenerate = true)
     public long id;
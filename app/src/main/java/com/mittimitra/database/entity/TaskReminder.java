@@ -2,9 +2,14 @@ package com.mittimitra.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "task_reminders")
+@Entity(tableName = "task_reminders",
+        indices = {
+                @Index(value = {"user_id", "is_sent", "remind_at"}),
+                @Index(value = {"task_id"})
+        })
 public class TaskReminder {
     @PrimaryKey(autoGenerate = true)
     public long id;
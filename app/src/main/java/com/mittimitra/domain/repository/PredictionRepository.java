@@ -9,6 +9,9 @@ public interface PredictionRepository {
     void fetchSoilAdvisory(@NonNull AiModels.SoilAdvisoryRequest request,
                            @NonNull BackendCallback<AiModels.SoilAdvisoryData> callback);
 
+    void fetchSoilClassification(@NonNull AiModels.SoilClassificationRequest request,
+                                 @NonNull BackendCallback<AiModels.SoilClassificationData> callback);
+
     void fetchPlantDiagnosis(@NonNull AiModels.PlantDiagnosisRequest request,
                              @NonNull BackendCallback<AiModels.PlantDiagnosisData> callback);
 
@@ -3,6 +3,7 @@ package com.mittimitra.domain.repository;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.mittimitra.database.entity.DueReminder;
 import com.mittimitra.database.entity.FarmTask;
 import com.mittimitra.database.entity.Field;
 import com.mittimitra.database.entity.TaskReminder;
@@ -14,6 +15,16 @@ public interface TaskRepository {
 
     long createTask(@NonNull FarmTask task);
 
+    /**
+     * Creates a whole plan in one transaction: each task, its CREATED log and a reminder
+     * {@code reminderLeadMillis} before it is due. Tasks whose crop, stage and title match an
+     * open task (or an earlier task in the list) are skipped.
+     *
+     * @return ids of the tasks created
+     */
+    @NonNull
+    List<Long> createTasksWithReminders(@NonNull List<FarmTask> tasks, long reminderLeadMillis);
+
     void updateTask(@NonNull FarmTask task);
 
     void completeTask(long taskId, long completedAt);
@@ -29,6 +40,18 @@ public interface TaskRepository {
     @NonNull
     List<TaskReminder> getUpcomingReminders(@NonNull String userId, long now, long until);
 
+    /**
+     * Unsent reminders due between {@code now} and {@code until}, each with its task's title and
+     * status, in one query.
+     */
+    @NonNull
+    List<DueReminder> getDueReminders(@NonNull String userId, long now, long until);
+
+    /**
+     * Marks all of {@code reminderIds} sent in one transaction.
+     */
+    void markRemindersSent(@NonNull List<Long> reminderIds);
+
     @NonNull
     List<FarmTask> getTaskTemplatesByCropStage(@NonNull String cropName, @Nullable String stage, @NonNull String userId);
 }
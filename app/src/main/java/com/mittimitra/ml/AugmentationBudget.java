@@ -0,0 +1,57 @@
+package com.mittimitra.ml;
+
+/**
+ * Decides whether test-time augmentation fits in the latency budget on this device.
+ *
+ * Keeps exponential moving averages of single-view and batched inference latency. Until a batch
+ * has been measured, its cost is estimated pessimistically as linear in the number of views.
+ * Pure Java so the policy can be unit-tested off-device.
+ */
+public final class AugmentationBudget {
+
+    private static final double SMOOTHING = 0.3;
+
+    private final long budgetNanos;
+    private long singleNanos = -1;
+    private long batchNanos = -1;
+    private int batchViews;
+
+    public AugmentationBudget(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public synchronized void recordSingle(long nanos) {
+        singleNanos = smooth(singleNanos, nanos);
+    }
+
+    public synchronized void recordBatch(int views, long nanos) {
+        if (views != batchViews) {
+            batchViews = views;
+            batchNanos = nanos;
+        } else {
+            batchNanos = smooth(batchNanos, nanos);
+        }
+    }
+
+    /**
+     * Number of views to run: {@code requested} if the expected batch latency fits the budget
+     * (or nothing is known yet), otherwise 1.
+     */
+    public synchronized int viewsFor(int requested) {
+        if (requested <= 1) return 1;
+        long estimate;
+        if (batchViews == requested && batchNanos >= 0) {
+            estimate = batchNanos;
+        } else if (singleNanos >= 0) {
+            estimate = singleNanos * requested;
+        } else {
+            return requested;
+        }
+        return estimate <= budgetNanos ? requested : 1;
+    }
+
+    private static long smooth(long previous, long sample) {
+        if (previous < 0) return sample;
+        return Math.round(previous + SMOOTHING * (sample - previous));
+    }
+}
@@ -0,0 +1,78 @@
+package com.mittimitra.ml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Crops and mirrors of one photo used for test-time augmentation.
+ * Pure Java so the geometry can be unit-tested off-device.
+ */
+public final class AugmentationPlan {
+
+    /** Maximum number of distinct views {@link #create(int, int, int)} can produce. */
+    public static final int MAX_VIEWS = 8;
+
+    // Side of the centre and corner crops relative to the shorter image edge
+    private static final float CROP_FRACTION = 0.8f;
+
+    /**
+     * One view of the source image: a source rectangle, optionally mirrored horizontally.
+     */
+    public static final class View {
+        public final int left;
+        public final int top;
+        public final int right;
+        public final int bottom;
+        public final boolean mirrored;
+
+        View(int left, int top, int right, int bottom, boolean mirrored) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.mirrored = mirrored;
+        }
+    }
+
+    private AugmentationPlan() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Shortest source edge at which even the crops still have {@code inputSize} pixels per side;
+     * decoding a photo any larger only costs memory.
+     */
+    public static int minSourceSide(int inputSize) {
+        return (int) Math.ceil(inputSize / CROP_FRACTION);
+    }
+
+    /**
+     * Returns up to {@code count} views, most informative first: the full frame, its mirror,
+     * the centre crop, the four corner crops and the mirrored centre crop.
+     */
+    public static List<View> create(int width, int height, int count) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid image size " + width + "x" + height);
+        }
+        int views = Math.max(1, Math.min(count, MAX_VIEWS));
+        if (views == 1) {
+            return Collections.singletonList(new View(0, 0, width, height, false));
+        }
+
+        int side = Math.max(1, Math.round(Math.min(width, height) * CROP_FRACTION));
+        int centreLeft = (width - side) / 2;
+        int centreTop = (height - side) / 2;
+
+        List<View> all = new ArrayList<>(MAX_VIEWS);
+        all.add(new View(0, 0, width, height, false));
+        all.add(new View(0, 0, width, height, true));
+        all.add(new View(centreLeft, centreTop, centreLeft + side, centreTop + side, false));
+        all.add(new View(0, 0, side, side, false));
+        all.add(new View(width - side, 0, width, side, false));
+        all.add(new View(0, height - side, side, height, false));
+        all.add(new View(width - side, height - side, width, height, false));
+        all.add(new View(centreLeft, centreTop, centreLeft + side, centreTop + side, true));
+        return all.subList(0, views);
+    }
+}
@@ -0,0 +1,182 @@
+package com.mittimitra.ml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Photo statistics gathered in a single pass over packed ARGB pixels: luminance histogram,
+ * mean brightness and Laplacian-variance sharpness.
+ *
+ * The image is split into horizontal tiles that can be processed in parallel. Each tile keeps a
+ * rolling window of three luminance rows so every pixel's luminance is computed once, and
+ * tiles only produce integer sums, so the merged result does not depend on the tile count.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class ImageStatistics {
+
+    public static final int LEVELS = 256;
+
+    /** Pixel count per luminance level (BT.601, 0-255). */
+    public final int[] lumaHistogram;
+    public final int pixelCount;
+    public final double meanLuma;
+    /** Variance of the 4-neighbour Laplacian of luminance; low values mean a blurry photo. */
+    public final double sharpness;
+
+    private ImageStatistics(Partial total) {
+        this.lumaHistogram = total.histogram;
+        this.pixelCount = total.pixels;
+        double n = Math.max(1, total.pixels);
+        this.meanLuma = total.lumaSum / n;
+        double edges = Math.max(1, total.laplacianCount);
+        double laplacianMean = total.laplacianSum / edges;
+        this.sharpness = Math.max(0, total.laplacianSquares / edges - laplacianMean * laplacianMean);
+    }
+
+    /**
+     * Computes statistics on the calling thread.
+     */
+    public static ImageStatistics compute(int[] argb, int width, int height) {
+        check(argb, width, height);
+        return new ImageStatistics(new Tile(argb, width, height, 0, height).call());
+    }
+
+    /**
+     * Computes statistics by splitting the image into {@code tiles} strips run on {@code executor}.
+     * Blocks until every strip has finished.
+     */
+    public static ImageStatistics compute(int[] argb, int width, int height,
+                                          ExecutorService executor, int tiles) throws InterruptedException {
+        check(argb, width, height);
+        int strips = Math.max(1, Math.min(tiles, height));
+        if (strips == 1) return compute(argb, width, height);
+
+        List<Tile> work = new ArrayList<>(strips);
+        for (int i = 0; i < strips; i++) {
+            work.add(new Tile(argb, width, height, height * i / strips, height * (i + 1) / strips));
+        }
+        Partial total = new Partial();
+        try {
+            for (Future<Partial> future : executor.invokeAll(work)) {
+                total.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Image statistics tile failed", e.getCause());
+        }
+        return new ImageStatistics(total);
+    }
+
+    /**
+     * Share of pixels with luminance strictly below {@code level}.
+     */
+    public double fractionBelow(int level) {
+        long count = 0;
+        for (int i = 0; i < Math.min(level, LEVELS); i++) count += lumaHistogram[i];
+        return pixelCount == 0 ? 0 : (double) count / pixelCount;
+    }
+
+    /**
+     * Share of pixels with luminance strictly above {@code level}.
+     */
+    public double fractionAbove(int level) {
+        long count = 0;
+        for (int i = Math.max(0, level + 1); i < LEVELS; i++) count += lumaHistogram[i];
+        return pixelCount == 0 ? 0 : (double) count / pixelCount;
+    }
+
+    private static void check(int[] argb, int width, int height) {
+        if (width <= 0 || height <= 0 || argb.length < width * height) {
+            throw new IllegalArgumentException("Invalid image " + width + "x" + height);
+        }
+    }
+
+    // ITU-R BT.601 weights, scaled to integers
+    static int luma(int argb) {
+        return (((argb >> 16) & 0xFF) * 299 + ((argb >> 8) & 0xFF) * 587 + (argb & 0xFF) * 114) / 1000;
+    }
+
+    /** Integer sums for part of the image; exact, so merge order does not matter. */
+    private static final class Partial {
+        final int[] histogram = new int[LEVELS];
+        int pixels;
+        long lumaSum;
+        long laplacianSum;
+        long laplacianSquares;
+        long laplacianCount;
+
+        void add(Partial other) {
+            for (int i = 0; i < LEVELS; i++) histogram[i] += other.histogram[i];
+            pixels += other.pixels;
+            lumaSum += other.lumaSum;
+            laplacianSum += other.laplacianSum;
+            laplacianSquares += other.laplacianSquares;
+            laplacianCount += other.laplacianCount;
+        }
+    }
+
+    /** Rows [startRow, endRow) of the image. */
+    private static final class Tile implements Callable<Partial> {
+        private final int[] argb;
+        private final int width;
+        private final int height;
+        private final int startRow;
+        private final int endRow;
+
+        Tile(int[] argb, int width, int height, int startRow, int endRow) {
+            this.argb = argb;
+            this.width = width;
+            this.height = height;
+            this.startRow = startRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        public Partial call() {
+            Partial partial = new Partial();
+            int[] above = new int[width];
+            int[] current = new int[width];
+            int[] below = new int[width];
+            if (startRow > 0) lumaRow(startRow - 1, above);
+            lumaRow(startRow, current);
+
+            for (int y = startRow; y < endRow; y++) {
+                boolean hasBelow = y + 1 < height;
+                if (hasBelow) lumaRow(y + 1, below);
+
+                for (int x = 0; x < width; x++) {
+                    int l = current[x];
+                    partial.histogram[l]++;
+                    partial.lumaSum += l;
+                }
+
+                // Laplacian only where all four neighbours exist
+                if (y > 0 && hasBelow) {
+                    for (int x = 1; x < width - 1; x++) {
+                        int laplacian = above[x] + below[x] + current[x - 1] + current[x + 1] - 4 * current[x];
+                        partial.laplacianSum += laplacian;
+                        partial.laplacianSquares += (long) laplacian * laplacian;
+                        partial.laplacianCount++;
+                    }
+                }
+
+                int[] recycled = above;
+                above = current;
+                current = below;
+                below = recycled;
+            }
+            partial.pixels = (endRow - startRow) * width;
+            return partial;
+        }
+
+        private void lumaRow(int y, int[] out) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                out[x] = luma(argb[offset + x]);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mittimitra.ml;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs {@link ImageStatistics} over a downsampled copy of a bitmap, splitting the pass across
+ * cores on multi-core devices.
+ */
+public final class ImageStatisticsAnalyzer {
+
+    // Enough detail for blur and exposure checks while keeping the pass to a few milliseconds
+    private static final int ANALYSIS_MAX_DIMENSION = 256;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService TILE_EXECUTOR =
+            CORES > 1 ? Executors.newFixedThreadPool(Math.min(CORES, 4)) : null;
+
+    private ImageStatisticsAnalyzer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Computes statistics for {@code bitmap}. Blocking; call off the main thread.
+     */
+    @NonNull
+    public static ImageStatistics analyze(@NonNull Bitmap bitmap) throws InterruptedException {
+        Bitmap sample = downsample(bitmap);
+        int width = sample.getWidth();
+        int height = sample.getHeight();
+        int[] pixels = new int[width * height];
+        sample.getPixels(pixels, 0, width, 0, 0, width, height);
+        if (sample != bitmap) {
+            sample.recycle();
+        }
+
+        if (TILE_EXECUTOR == null) {
+            return ImageStatistics.compute(pixels, width, height);
+        }
+        return ImageStatistics.compute(pixels, width, height, TILE_EXECUTOR, Math.min(CORES, 4));
+    }
+
+    private static Bitmap downsample(Bitmap bitmap) {
+        int largest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (largest <= ANALYSIS_MAX_DIMENSION) return bitmap;
+        float scale = (float) ANALYSIS_MAX_DIMENSION / largest;
+        int width = Math.max(1, Math.round(bitmap.getWidth() * scale));
+        int height = Math.max(1, Math.round(bitmap.getHeight() * scale));
+        return Bitmap.createScaledBitmap(bitmap, width, height, true);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mittimitra.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks thread count and XNNPACK setting for the soil classifier by measuring p50/p95 latency
+ * of each candidate on the device. Runs once per device, app version and model variant; the
+ * winner is cached alongside the model variant choice.
+ */
+final class InferenceAutoTuner {
+
+    private static final String TAG = "InferenceAutoTuner";
+    private static final String KEY_CONFIG_PREFIX = "inference_config_";
+    private static final String KEY_TUNED_FOR_PREFIX = "inference_tuned_for_";
+
+    private static final int TUNING_RUNS = 8;
+    // Beyond this the big.LITTLE efficiency cores only add scheduling overhead
+    private static final int MAX_THREADS = 8;
+
+    private final Context appContext;
+
+    InferenceAutoTuner(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Returns the cached configuration for {@code variant}, tuning against {@code model} if
+     * there is none. Takes a few seconds on first launch; call off the main thread.
+     */
+    @NonNull
+    InferenceConfig select(@NonNull ModelVariant variant, @NonNull ByteBuffer model) {
+        SharedPreferences prefs = appContext.getSharedPreferences(ModelVariantSelector.PREF_NAME, Context.MODE_PRIVATE);
+        String deviceKey = ModelVariantSelector.calibrationKey(appContext);
+        if (deviceKey.equals(prefs.getString(KEY_TUNED_FOR_PREFIX + variant.name(), null))) {
+            InferenceConfig cached = InferenceConfig.decode(prefs.getString(KEY_CONFIG_PREFIX + variant.name(), null));
+            if (cached != null) return cached;
+        }
+
+        InferenceConfig best = tune(model, Runtime.getRuntime().availableProcessors());
+        prefs.edit()
+                .putString(KEY_CONFIG_PREFIX + variant.name(), best.encode())
+                .putString(KEY_TUNED_FOR_PREFIX + variant.name(), deviceKey)
+                .apply();
+        return best;
+    }
+
+    private InferenceConfig tune(ByteBuffer model, int cores) {
+        InferenceConfig best = InferenceConfig.DEFAULT;
+        LatencyStats bestStats = null;
+        for (InferenceConfig candidate : candidates(cores)) {
+            try {
+                LatencyStats stats = InterpreterBenchmark.measure(model, candidate, TUNING_RUNS);
+                Log.d(TAG, candidate + " -> " + stats);
+                if (stats.isBetterThan(bestStats)) {
+                    best = candidate;
+                    bestStats = stats;
+                }
+            } catch (Exception e) {
+                // e.g. XNNPACK unsupported for an op in this model; skip the candidate
+                Log.w(TAG, "Skipping " + candidate, e);
+            }
+        }
+        Log.i(TAG, "Selected " + best + (bestStats != null ? " (" + bestStats + ")" : ""));
+        return best;
+    }
+
+    /**
+     * Thread counts of 1, 2, 4 and all cores (capped), each with and without XNNPACK.
+     */
+    @NonNull
+    static List<InferenceConfig> candidates(int cores) {
+        int maxThreads = Math.max(1, Math.min(cores, MAX_THREADS));
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        if (!threadCounts.contains(maxThreads)) {
+            threadCounts.add(maxThreads);
+        }
+
+        List<InferenceConfig> candidates = new ArrayList<>();
+        for (boolean xnnpack : new boolean[]{true, false}) {
+            for (int threads : threadCounts) {
+                candidates.add(new InferenceConfig(threads, xnnpack));
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mittimitra.ml;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.tensorflow.lite.Interpreter;
+
+import java.util.Locale;
+
+/**
+ * CPU execution settings for the soil classifier interpreter.
+ */
+public final class InferenceConfig {
+
+    /**
+     * What {@code new Interpreter(model)} did before tuning: runtime-chosen threads, XNNPACK on.
+     */
+    public static final InferenceConfig DEFAULT = new InferenceConfig(-1, true);
+
+    public final int numThreads;
+    public final boolean useXnnpack;
+
+    public InferenceConfig(int numThreads, boolean useXnnpack) {
+        this.numThreads = numThreads;
+        this.useXnnpack = useXnnpack;
+    }
+
+    @NonNull
+    public Interpreter.Options toOptions() {
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(numThreads);
+        options.setUseXNNPACK(useXnnpack);
+        return options;
+    }
+
+    /**
+     * Compact form for preferences, e.g. {@code "4,1"}.
+     */
+    @NonNull
+    public String encode() {
+        return numThreads + "," + (useXnnpack ? 1 : 0);
+    }
+
+    @Nullable
+    public static InferenceConfig decode(@Nullable String encoded) {
+        if (encoded == null) return null;
+        String[] parts = encoded.split(",");
+        // Older builds stored a third, always-off buffer-handle flag; it is ignored.
+        if (parts.length != 2 && parts.length != 3) return null;
+        try {
+            return new InferenceConfig(Integer.parseInt(parts[0]), "1".equals(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InferenceConfig)) return false;
+        InferenceConfig other = (InferenceConfig) o;
+        return numThreads == other.numThreads && useXnnpack == other.useXnnpack;
+    }
+
+    @Override
+    public int hashCode() {
+        return numThreads * 31 + (useXnnpack ? 1 : 0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "threads=%d xnnpack=%b", numThreads, useXnnpack);
+    }
+}
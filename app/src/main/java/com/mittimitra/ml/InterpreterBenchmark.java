@@ -0,0 +1,45 @@
+package com.mittimitra.ml;
+
+import androidx.annotation.NonNull;
+
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Times single inferences of a model on a zero-filled input. Shared by the model variant
+ * selector and the inference auto-tuner.
+ */
+final class InterpreterBenchmark {
+
+    private InterpreterBenchmark() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Runs one untimed inference (tensor allocation, delegate preparation) followed by
+     * {@code runs} timed ones.
+     */
+    @NonNull
+    static LatencyStats measure(@NonNull ByteBuffer model, @NonNull InferenceConfig config, int runs) {
+        try (Interpreter interpreter = new Interpreter(model, config.toOptions())) {
+            ByteBuffer input = ByteBuffer.allocateDirect(interpreter.getInputTensor(0).numBytes());
+            Tensor output = interpreter.getOutputTensor(0);
+            Object outputHolder = ModelVariantSelector.isQuantized(output.dataType())
+                    ? new byte[1][output.shape()[1]]
+                    : new float[1][output.shape()[1]];
+
+            interpreter.run(input, outputHolder);
+
+            long[] samples = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                input.rewind();
+                long start = System.nanoTime();
+                interpreter.run(input, outputHolder);
+                samples[i] = System.nanoTime() - start;
+            }
+            return LatencyStats.of(samples);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mittimitra.ml;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Percentile summary of a set of latency samples (nanoseconds).
+ * Uses the nearest-rank method, so every reported value is an observed sample.
+ */
+public final class LatencyStats {
+
+    public final long p50Nanos;
+    public final long p95Nanos;
+    public final int sampleCount;
+
+    private LatencyStats(long p50Nanos, long p95Nanos, int sampleCount) {
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * Summarizes {@code samples}. The array is sorted in place.
+     */
+    public static LatencyStats of(long[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("No latency samples");
+        }
+        Arrays.sort(samples);
+        return new LatencyStats(percentile(samples, 50), percentile(samples, 95), samples.length);
+    }
+
+    /**
+     * Nearest-rank percentile of an already sorted array.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * True if this result should be preferred over {@code other}: lower tail latency first,
+     * then lower median.
+     */
+    public boolean isBetterThan(LatencyStats other) {
+        if (other == null) return true;
+        if (p95Nanos != other.p95Nanos) return p95Nanos < other.p95Nanos;
+        return p50Nanos < other.p50Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "p50=%.1fms p95=%.1fms n=%d",
+                p50Nanos / 1e6, p95Nanos / 1e6, sampleCount);
+    }
+}
@@ -0,0 +1,204 @@
+package com.mittimitra.ml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches model updates described by a JSON manifest into a {@link ModelStore}.
+ *
+ * The manifest looks like
+ * <pre>
+ * {"models": [{"name": "FLOAT", "version": 3, "url": "float-3.tflite",
+ *              "sha256": "...", "size": 2345678}]}
+ * </pre>
+ * where {@code url} may be relative to the manifest but may not downgrade it from HTTPS. Entries
+ * whose name is not a model this app loads are skipped, since the name picks the directory the
+ * download is written to. Only versions newer than the cached one are downloaded, and a download
+ * is activated only if its size and SHA-256 match.
+ * Kept free of Android types so it can be tested against a local stand-in server.
+ */
+public final class ModelDownloader {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * One model entry from the manifest.
+     */
+    static final class Entry {
+        final String name;
+        final int version;
+        final HttpUrl url;
+        final String sha256;
+        final long size; // -1 when the manifest does not say
+
+        Entry(String name, int version, HttpUrl url, String sha256, long size) {
+            this.name = name;
+            this.version = version;
+            this.url = url;
+            this.sha256 = sha256;
+            this.size = size;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final HttpUrl manifestUrl;
+
+    public ModelDownloader(OkHttpClient client, String manifestUrl) {
+        this.client = client;
+        this.manifestUrl = HttpUrl.parse(manifestUrl);
+        if (this.manifestUrl == null) {
+            throw new IllegalArgumentException("Invalid manifest URL: " + manifestUrl);
+        }
+    }
+
+    /**
+     * Downloads every manifest entry newer than what {@code store} already holds.
+     * Blocking; call off the main thread.
+     *
+     * @return names of the models that were updated
+     */
+    public List<String> update(ModelStore store) throws IOException {
+        List<String> updated = new ArrayList<>();
+        IOException firstFailure = null;
+        for (Entry entry : fetchManifest()) {
+            if (entry.version <= store.activeVersion(entry.name)) continue;
+            try {
+                download(entry, store);
+                updated.add(entry.name);
+            } catch (IOException e) {
+                // Keep going so one bad entry does not block the others
+                if (firstFailure == null) firstFailure = e;
+            }
+        }
+        if (firstFailure != null && updated.isEmpty()) {
+            throw firstFailure;
+        }
+        return updated;
+    }
+
+    List<Entry> fetchManifest() throws IOException {
+        Request request = new Request.Builder().url(manifestUrl).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Manifest request failed: HTTP " + response.code());
+            }
+            return parseManifest(response.body().string());
+        }
+    }
+
+    List<Entry> parseManifest(String json) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            JsonArray models = JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("models");
+            if (models == null) return entries;
+            for (JsonElement element : models) {
+                JsonObject model = element.getAsJsonObject();
+                String name = model.get("name").getAsString();
+                if (!isKnownModel(name)) continue;
+                HttpUrl url = manifestUrl.resolve(model.get("url").getAsString());
+                if (url == null) {
+                    throw new IOException("Invalid model URL in manifest: " + model.get("url"));
+                }
+                if (manifestUrl.isHttps() && !url.isHttps()) {
+                    throw new IOException("Insecure model URL in manifest: " + url);
+                }
+                entries.add(new Entry(
+                        name,
+                        model.get("version").getAsInt(),
+                        url,
+                        model.get("sha256").getAsString().toLowerCase(Locale.ROOT),
+                        model.has("size") ? model.get("size").getAsLong() : -1));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed model manifest", e);
+        }
+        return entries;
+    }
+
+    /**
+     * Whether {@code name} is a model the app opens through {@link ModelProvider}.
+     */
+    static boolean isKnownModel(String name) {
+        if (PlantPrescreenEngine.MODEL_NAME.equals(name)) return true;
+        for (ModelVariant variant : ModelVariant.values()) {
+            if (variant.name().equals(name)) return true;
+        }
+        return false;
+    }
+
+    private void download(Entry entry, ModelStore store) throws IOException {
+        File staged = store.stagingFile(entry.name, entry.version);
+        Request request = new Request.Builder().url(entry.url).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Model download failed: HTTP " + response.code());
+            }
+            ResponseBody body = response.body();
+            MessageDigest digest = sha256();
+            long written = 0;
+            // Hash while streaming so the file is never read back
+            try (InputStream in = new DigestInputStream(body.byteStream(), digest);
+                 OutputStream out = new FileOutputStream(staged)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+
+            if (entry.size >= 0 && written != entry.size) {
+                throw new IOException(entry.name + " v" + entry.version + ": expected "
+                        + entry.size + " bytes, got " + written);
+            }
+            String actual = toHex(digest.digest());
+            if (!actual.equals(entry.sha256)) {
+                throw new IOException(entry.name + " v" + entry.version + ": checksum mismatch");
+            }
+            store.activate(entry.name, entry.version, staged);
+        } finally {
+            if (staged.exists()) {
+                //noinspection ResultOfMethodCallIgnored
+                staged.delete();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            hex[2 * i] = Character.forDigit(b >>> 4, 16);
+            hex[2 * i + 1] = Character.forDigit(b & 0x0F, 16);
+        }
+        return new String(hex);
+    }
+}
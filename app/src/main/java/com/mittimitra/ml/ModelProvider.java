@@ -0,0 +1,163 @@
+package com.mittimitra.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.mittimitra.BuildConfig;
+import com.mittimitra.config.ApiConfig;
+import com.mittimitra.utils.NetworkUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Supplies memory-mapped TFLite model files, preferring a downloaded version over the one
+ * bundled in the APK.
+ *
+ * New model versions are published through the manifest at {@code BuildConfig.MODEL_MANIFEST_URL}
+ * and fetched by {@link #refreshAsync()} at most once a day while online. Downloads are verified
+ * before use, so when the device is offline, or a download fails, the last good cached model
+ * or the bundled asset is used. An empty manifest URL disables remote updates.
+ */
+public final class ModelProvider {
+
+    private static final String TAG = "ModelProvider";
+    private static final String MODEL_DIR = "models";
+    private static final String KEY_LAST_CHECK = "model_manifest_checked_at";
+    private static final long CHECK_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private static volatile ModelProvider INSTANCE;
+
+    private final Context appContext;
+    private final ModelStore store;
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
+    private ModelProvider(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+        // Re-downloadable, so keep it out of backups
+        this.store = new ModelStore(new File(appContext.getNoBackupFilesDir(), MODEL_DIR));
+    }
+
+    public static ModelProvider getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (ModelProvider.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ModelProvider(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Maps the newest available build of {@code variant}: the cached download if there is one,
+     * otherwise the bundled asset.
+     *
+     * @throws IOException if neither is available
+     */
+    @NonNull
+    public MappedByteBuffer open(@NonNull ModelVariant variant) throws IOException {
+        return open(variant.name(), variant.assetPath);
+    }
+
+    /**
+     * Maps the newest available build of the model published as {@code name} in the manifest,
+     * falling back to {@code assetPath} in the APK.
+     *
+     * @throws IOException if neither is available
+     */
+    @NonNull
+    public MappedByteBuffer open(@NonNull String name, @NonNull String assetPath) throws IOException {
+        File cached = store.activeFile(name);
+        if (cached != null) {
+            try {
+                return mapFile(cached);
+            } catch (IOException e) {
+                Log.w(TAG, "Cached " + name + " model unreadable, using bundled copy", e);
+            }
+        }
+        return mapAsset(appContext, assetPath);
+    }
+
+    /**
+     * Identifies which model builds are in use, so cached benchmark results can be invalidated
+     * when a new version arrives.
+     */
+    @NonNull
+    public String versionTag() {
+        StringBuilder tag = new StringBuilder();
+        for (ModelVariant variant : ModelVariant.values()) {
+            if (tag.length() > 0) tag.append(',');
+            int version = store.activeVersion(variant.name());
+            tag.append(variant.name()).append(':').append(version < 0 ? "bundled" : version);
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Checks the manifest for newer models in the background if it is configured, the device is
+     * online and the last check was long enough ago. The classifiers pick up a new model on their
+     * next use.
+     */
+    public void refreshAsync() {
+        String manifestUrl = BuildConfig.MODEL_MANIFEST_URL;
+        if (manifestUrl == null || manifestUrl.isEmpty()) return;
+        if (!manifestUrl.startsWith("https://")) {
+            // Models are executable input; never fetch them over plain HTTP
+            Log.w(TAG, "Ignoring non-HTTPS model manifest URL");
+            return;
+        }
+
+        refreshExecutor.execute(() -> {
+            SharedPreferences prefs = appContext.getSharedPreferences(ModelVariantSelector.PREF_NAME, Context.MODE_PRIVATE);
+            long now = System.currentTimeMillis();
+            if (now - prefs.getLong(KEY_LAST_CHECK, 0) < CHECK_INTERVAL_MS) return;
+            if (!NetworkUtils.isNetworkAvailable(appContext)) return;
+
+            try {
+                OkHttpClient client = new OkHttpClient.Builder()
+                        .connectTimeout(ApiConfig.CONNECT_TIMEOUT, TimeUnit.SECONDS)
+                        .readTimeout(ApiConfig.READ_TIMEOUT, TimeUnit.SECONDS)
+                        .build();
+                List<String> updated = new ModelDownloader(client, manifestUrl).update(store);
+                prefs.edit().putLong(KEY_LAST_CHECK, now).apply();
+                if (!updated.isEmpty()) {
+                    Log.i(TAG, "Downloaded model updates: " + updated);
+                    SoilClassifierEngine.modelsUpdated();
+                    PlantPrescreenEngine.modelsUpdated();
+                }
+            } catch (Exception e) {
+                // Retried on the next refresh; the current model stays in use
+                Log.w(TAG, "Model update check failed", e);
+            }
+        });
+    }
+
+    private static MappedByteBuffer mapFile(@NonNull File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file);
+             FileChannel fileChannel = inputStream.getChannel()) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
+    }
+
+    private static MappedByteBuffer mapAsset(@NonNull Context context, @NonNull String assetPath) throws IOException {
+        try (AssetFileDescriptor fileDescriptor = context.getAssets().openFd(assetPath);
+             FileInputStream inputStream = new FileInputStream(fileDescriptor.getFileDescriptor());
+             FileChannel fileChannel = inputStream.getChannel()) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, fileDescriptor.getStartOffset(), fileDescriptor.getDeclaredLength());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mittimitra.ml;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk cache of downloaded model versions.
+ *
+ * Layout is {@code <root>/<name>/<version>.tflite} plus an {@code ACTIVE} file naming the
+ * version in use. Downloads are staged to a {@code .part} file and only become active once
+ * verified, and the pointer is replaced with a rename, so a crash mid-update leaves the previous
+ * model in place. Kept free of Android types so it can be unit-tested on the JVM.
+ */
+public final class ModelStore {
+
+    private static final String ACTIVE_FILE = "ACTIVE";
+    private static final String MODEL_SUFFIX = ".tflite";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final File root;
+
+    public ModelStore(File root) {
+        this.root = root;
+    }
+
+    /**
+     * The active model file for {@code name}, or null if none has been downloaded.
+     */
+    public synchronized File activeFile(String name) {
+        int version = activeVersion(name);
+        if (version < 0) return null;
+        File file = modelFile(name, version);
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * The active version for {@code name}, or -1 if none has been downloaded.
+     */
+    public synchronized int activeVersion(String name) {
+        File pointer = new File(directory(name), ACTIVE_FILE);
+        if (!pointer.isFile()) return -1;
+        try {
+            String text = new String(Files.readAllBytes(pointer.toPath()), StandardCharsets.UTF_8).trim();
+            return Integer.parseInt(text);
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Where a download of {@code version} should be written before it is verified.
+     */
+    public synchronized File stagingFile(String name, int version) throws IOException {
+        File dir = directory(name);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        return new File(dir, version + MODEL_SUFFIX + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * Moves a verified staging file into place, points {@code name} at it and deletes every
+     * other cached version.
+     */
+    public synchronized File activate(String name, int version, File staged) throws IOException {
+        File dir = directory(name);
+        File target = modelFile(name, version);
+        if (!staged.renameTo(target)) {
+            throw new IOException("Cannot move " + staged + " to " + target);
+        }
+
+        File tempPointer = new File(dir, ACTIVE_FILE + PARTIAL_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(tempPointer)) {
+            out.write(Integer.toString(version).getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        if (!tempPointer.renameTo(new File(dir, ACTIVE_FILE))) {
+            throw new IOException("Cannot update active model pointer in " + dir);
+        }
+
+        // An interpreter may still be reading an older mapping; unlinking keeps it valid
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(MODEL_SUFFIX) && !file.equals(target)) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+        return target;
+    }
+
+    // Names become directory names under root, so they may not contain separators or dots
+    private File directory(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid model name: " + name);
+        }
+        return new File(root, name);
+    }
+
+    private File modelFile(String name, int version) {
+        return new File(directory(name), version + MODEL_SUFFIX);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mittimitra.ml;
+
+import com.mittimitra.config.ApiConfig;
+
+/**
+ * Soil classifier model builds shipped with the app.
+ */
+public enum ModelVariant {
+    FLOAT(ApiConfig.TFLITE_SOIL_CLASSIFIER),
+    QUANTIZED(ApiConfig.TFLITE_SOIL_CLASSIFIER_QUANTIZED);
+
+    public final String assetPath;
+
+    ModelVariant(String assetPath) {
+        this.assetPath = assetPath;
+    }
+}
@@ -0,0 +1,106 @@
+package com.mittimitra.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.mittimitra.BuildConfig;
+
+import org.tensorflow.lite.DataType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Chooses between the float and quantized soil models with a short on-device benchmark.
+ *
+ * The benchmark runs once per device, app version and model version; the result is cached in preferences so
+ * later launches go straight to the chosen model.
+ */
+final class ModelVariantSelector {
+
+    private static final String TAG = "ModelVariantSelector";
+    static final String PREF_NAME = "soil_classifier_prefs";
+    private static final String KEY_VARIANT = "model_variant";
+    private static final String KEY_CALIBRATED_FOR = "calibrated_for";
+
+    private static final int CALIBRATION_RUNS = 5;
+    // The quantized model also needs a quarter of the memory, so it wins near-ties
+    private static final double QUANTIZED_TOLERANCE = 1.10;
+
+    private final Context appContext;
+
+    ModelVariantSelector(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Returns the cached choice for this device, benchmarking both models if there is none.
+     * May take a few hundred milliseconds on first launch; call off the main thread.
+     */
+    @NonNull
+    ModelVariant select() {
+        SharedPreferences prefs = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        String deviceKey = calibrationKey(appContext);
+        if (deviceKey.equals(prefs.getString(KEY_CALIBRATED_FOR, null))) {
+            try {
+                return ModelVariant.valueOf(prefs.getString(KEY_VARIANT, ModelVariant.FLOAT.name()));
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Ignoring unknown cached model variant", e);
+            }
+        }
+
+        ModelVariant chosen = calibrate();
+        prefs.edit()
+                .putString(KEY_VARIANT, chosen.name())
+                .putString(KEY_CALIBRATED_FOR, deviceKey)
+                .apply();
+        return chosen;
+    }
+
+    private ModelVariant calibrate() {
+        long quantizedNanos = benchmark(ModelVariant.QUANTIZED);
+        if (quantizedNanos < 0) return ModelVariant.FLOAT; // Not bundled or not loadable
+        long floatNanos = benchmark(ModelVariant.FLOAT);
+        if (floatNanos < 0) return ModelVariant.QUANTIZED;
+
+        ModelVariant chosen = quantizedNanos <= floatNanos * QUANTIZED_TOLERANCE
+                ? ModelVariant.QUANTIZED
+                : ModelVariant.FLOAT;
+        Log.i(TAG, "Calibration: float=" + floatNanos / 1_000_000 + "ms, quantized="
+                + quantizedNanos / 1_000_000 + "ms -> " + chosen);
+        return chosen;
+    }
+
+    /**
+     * Median single-inference latency in nanoseconds with default options, or -1 if the model
+     * cannot be run.
+     */
+    private long benchmark(ModelVariant variant) {
+        try {
+            ByteBuffer model = ModelProvider.getInstance(appContext).open(variant);
+            return InterpreterBenchmark.measure(model, InferenceConfig.DEFAULT, CALIBRATION_RUNS).p50Nanos;
+        } catch (IOException e) {
+            Log.i(TAG, variant + " model not available: " + e.getMessage());
+            return -1;
+        } catch (Exception e) {
+            Log.e(TAG, "Benchmark failed for " + variant, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Identifies the device, app build and model versions a cached calibration result belongs to.
+     */
+    static String calibrationKey(@NonNull Context context) {
+        return Build.FINGERPRINT + "#" + BuildConfig.VERSION_CODE + "#"
+                + ModelProvider.getInstance(context).versionTag();
+    }
+
+    static boolean isQuantized(DataType type) {
+        return type == DataType.UINT8 || type == DataType.INT8;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mittimitra.ml;
+
+/**
+ * 64-bit difference hash (dHash) of an image, used to recognise repeat scans of the same photo.
+ *
+ * The image is box-averaged down to a 9x8 grayscale grid and each bit records whether a cell is
+ * darker than its right-hand neighbour. Re-decoding or re-compressing a photo leaves the hash
+ * unchanged or within a bit or two, while different photos differ in many bits. Because dHash
+ * only sees brightness, {@link #meanColor} supplies a colour signature to check alongside it.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class PerceptualHash {
+
+    public static final int GRID_WIDTH = 9;
+    public static final int GRID_HEIGHT = 8;
+
+    private PerceptualHash() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Hashes a packed ARGB image of at least {@link #GRID_WIDTH} x {@link #GRID_HEIGHT} pixels.
+     *
+     * @param argb   row-major pixels, as returned by {@code Bitmap.getPixels}
+     * @param width  image width in pixels
+     * @param height image height in pixels
+     */
+    public static long dHash(int[] argb, int width, int height) {
+        if (width < GRID_WIDTH || height < GRID_HEIGHT || argb.length < width * height) {
+            throw new IllegalArgumentException("Need at least a " + GRID_WIDTH + "x" + GRID_HEIGHT + " image");
+        }
+        long[] cells = new long[GRID_WIDTH * GRID_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * GRID_HEIGHT];
+        for (int y = 0; y < height; y++) {
+            int rowCell = (y * GRID_HEIGHT / height) * GRID_WIDTH;
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int cell = rowCell + x * GRID_WIDTH / width;
+                cells[cell] += luma(argb[offset + x]);
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        for (int row = 0; row < GRID_HEIGHT; row++) {
+            for (int col = 0; col < GRID_WIDTH - 1; col++) {
+                int left = row * GRID_WIDTH + col;
+                // Compare averages without dividing: a/ca < b/cb  <=>  a*cb < b*ca
+                boolean darker = cells[left] * counts[left + 1] < cells[left + 1] * counts[left];
+                hash = (hash << 1) | (darker ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Mean colour of a packed ARGB image as {@code 0xRRGGBB}. Re-encoding a photo moves each
+     * channel by a step or two, while soils that hash alike (e.g. black and red with the same
+     * texture) differ by far more.
+     */
+    public static int meanColor(int[] argb, int width, int height) {
+        int pixels = width * height;
+        if (pixels <= 0 || argb.length < pixels) {
+            throw new IllegalArgumentException("Need a non-empty image");
+        }
+        long red = 0, green = 0, blue = 0;
+        for (int i = 0; i < pixels; i++) {
+            int pixel = argb[i];
+            red += (pixel >> 16) & 0xFF;
+            green += (pixel >> 8) & 0xFF;
+            blue += pixel & 0xFF;
+        }
+        return (int) (red / pixels) << 16 | (int) (green / pixels) << 8 | (int) (blue / pixels);
+    }
+
+    /**
+     * Largest per-channel difference between two {@link #meanColor} values.
+     */
+    public static int colorDistance(int a, int b) {
+        int red = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+        int green = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+        int blue = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(red, Math.max(green, blue));
+    }
+
+    /**
+     * Number of differing bits between two hashes.
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // ITU-R BT.601 weights, scaled to integers
+    private static int luma(int argb) {
+        return (((argb >> 16) & 0xFF) * 299 + ((argb >> 8) & 0xFF) * 587 + (argb & 0xFF) * 114) / 1000;
+    }
+}
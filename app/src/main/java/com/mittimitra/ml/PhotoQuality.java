@@ -0,0 +1,43 @@
+package com.mittimitra.ml;
+
+/**
+ * Decides from {@link ImageStatistics} whether a photo is usable for analysis.
+ * Thresholds are deliberately loose: only photos that are clearly too dark, washed out or
+ * out of focus are rejected, since a retake costs the farmer more than a slightly worse estimate.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class PhotoQuality {
+
+    public enum Verdict {
+        OK,
+        TOO_DARK,
+        TOO_BRIGHT,
+        BLURRY
+    }
+
+    private static final double MIN_MEAN_LUMA = 30;
+    private static final double MAX_MEAN_LUMA = 235;
+    // Share of near-black / near-white pixels beyond which the exposure is unrecoverable
+    private static final double MAX_CLIPPED_FRACTION = 0.85;
+    private static final int DARK_LEVEL = 20;
+    private static final int BRIGHT_LEVEL = 245;
+    // Laplacian variance at the analysis resolution; even smooth clay stays well above this
+    private static final double MIN_SHARPNESS = 12;
+
+    private PhotoQuality() {
+        // Prevent instantiation
+    }
+
+    public static Verdict assess(ImageStatistics stats) {
+        if (stats.meanLuma < MIN_MEAN_LUMA || stats.fractionBelow(DARK_LEVEL) > MAX_CLIPPED_FRACTION) {
+            return Verdict.TOO_DARK;
+        }
+        if (stats.meanLuma > MAX_MEAN_LUMA || stats.fractionAbove(BRIGHT_LEVEL) > MAX_CLIPPED_FRACTION) {
+            return Verdict.TOO_BRIGHT;
+        }
+        if (stats.sharpness < MIN_SHARPNESS) {
+            return Verdict.BLURRY;
+        }
+        return Verdict.OK;
+    }
+}
@@ -0,0 +1,193 @@
+package com.mittimitra.ml;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.config.ApiConfig;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Application-scoped holder for the optional plant pre-screen model (healthy / unhealthy /
+ * not-a-plant), run before a photo is uploaded for cloud diagnosis.
+ *
+ * The model is optional: when it is neither bundled nor downloaded through {@link ModelProvider},
+ * or its tensors do not match what this class expects, {@link #screen(Bitmap)} returns null and
+ * callers go straight to the backend. Input is prepared with the same pooled
+ * {@link SoilTensorPreprocessor} as the soil classifier.
+ */
+public final class PlantPrescreenEngine {
+
+    private static final String TAG = "PlantPrescreenEngine";
+    static final String MODEL_NAME = "PLANT_PRESCREEN";
+
+    private static volatile PlantPrescreenEngine INSTANCE;
+
+    private final Context appContext;
+    private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor();
+
+    // Guarded by "this"
+    private Interpreter interpreter;
+    private SoilTensorPreprocessor preprocessor;
+    private float[][] outputScores;
+    private byte[][] quantizedScores; // null for float output
+    private float outputScale;
+    private int outputZeroPoint;
+    private boolean outputSigned;
+    private boolean unavailable;
+
+    private PlantPrescreenEngine(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static PlantPrescreenEngine getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (PlantPrescreenEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PlantPrescreenEngine(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Forwards a trim callback to the engine if it was ever created.
+     */
+    public static void trimMemory(int level) {
+        PlantPrescreenEngine engine = INSTANCE;
+        if (engine != null && (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)) {
+            engine.release();
+        }
+    }
+
+    /**
+     * Called after a new model version has been downloaded; the next screen loads it.
+     */
+    static void modelsUpdated() {
+        PlantPrescreenEngine engine = INSTANCE;
+        if (engine != null) {
+            synchronized (engine) {
+                engine.release();
+                engine.unavailable = false;
+            }
+        }
+    }
+
+    /**
+     * Loads the model on a background thread so the first Analyze tap does not pay for it.
+     */
+    public void warmUp() {
+        warmUpExecutor.execute(() -> {
+            synchronized (this) {
+                ensureInterpreter();
+            }
+        });
+    }
+
+    /**
+     * Returns healthy / unhealthy / not-a-plant probabilities in {@link PrescreenPolicy} order,
+     * or null when no usable pre-screen model is available or inference fails.
+     * Blocks until any in-flight warm-up has finished.
+     */
+    @Nullable
+    public synchronized float[] screen(@NonNull Bitmap bitmap) {
+        if (ensureInterpreter() == null) return null;
+        SoilTensorPreprocessor.InputTensor input = preprocessor.acquire(bitmap);
+        try {
+            if (quantizedScores != null) {
+                interpreter.run(input.buffer, quantizedScores);
+                TensorNormalizer.dequantize(quantizedScores[0], outputScale, outputZeroPoint, outputSigned, outputScores[0]);
+            } else {
+                interpreter.run(input.buffer, outputScores);
+            }
+            float[] probabilities = new float[PrescreenPolicy.CLASS_COUNT];
+            ScoreMath.toProbabilities(outputScores[0], probabilities);
+            return probabilities;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Plant pre-screen failed", e);
+            return null;
+        } finally {
+            preprocessor.recycle(input);
+        }
+    }
+
+    public synchronized void release() {
+        if (interpreter != null) {
+            interpreter.close();
+            interpreter = null;
+        }
+        if (preprocessor != null) {
+            preprocessor.close();
+            preprocessor = null;
+        }
+    }
+
+    private Interpreter ensureInterpreter() {
+        if (interpreter != null || unavailable) return interpreter;
+        try {
+            Interpreter loaded = new Interpreter(
+                    ModelProvider.getInstance(appContext).open(MODEL_NAME, ApiConfig.TFLITE_PLANT_PRESCREEN),
+                    InferenceConfig.DEFAULT.toOptions());
+            if (!configureTensors(loaded)) {
+                loaded.close();
+                unavailable = true;
+                return null;
+            }
+            interpreter = loaded;
+        } catch (IOException e) {
+            // Not bundled and not downloaded yet: every photo goes to the backend
+            Log.i(TAG, "Plant pre-screen model not available: " + e.getMessage());
+            unavailable = true;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Plant pre-screen model could not be loaded", e);
+            unavailable = true;
+        }
+        return interpreter;
+    }
+
+    private boolean configureTensors(Interpreter ready) {
+        Tensor input = ready.getInputTensor(0);
+        int[] shape = input.shape();
+        Tensor output = ready.getOutputTensor(0);
+        int[] outputShape = output.shape();
+        if (shape.length != 4 || shape[1] != SoilTensorPreprocessor.INPUT_SIZE
+                || shape[2] != SoilTensorPreprocessor.INPUT_SIZE
+                || outputShape.length != 2 || outputShape[1] != PrescreenPolicy.CLASS_COUNT) {
+            Log.w(TAG, "Unexpected pre-screen tensor shapes; disabling pre-screen");
+            return false;
+        }
+
+        if (ModelVariantSelector.isQuantized(input.dataType())) {
+            Tensor.QuantizationParams params = input.quantizationParams();
+            float scale = params.getScale() > 0f ? params.getScale() : 1f / 255f;
+            preprocessor = new SoilTensorPreprocessor(TensorNormalizer.quantizationTable(
+                    scale, params.getZeroPoint(), input.dataType() == DataType.INT8));
+        } else {
+            preprocessor = new SoilTensorPreprocessor();
+        }
+
+        outputScores = new float[1][PrescreenPolicy.CLASS_COUNT];
+        if (ModelVariantSelector.isQuantized(output.dataType())) {
+            quantizedScores = new byte[1][PrescreenPolicy.CLASS_COUNT];
+            outputScale = output.quantizationParams().getScale();
+            outputZeroPoint = output.quantizationParams().getZeroPoint();
+            outputSigned = output.dataType() == DataType.INT8;
+        } else {
+            quantizedScores = null;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mittimitra.ml;
+
+/**
+ * Decides from the plant pre-screen model's probabilities whether a photo can be answered on
+ * the device or needs the cloud diagnosis.
+ *
+ * Only confident "healthy" and "not a plant" results are answered locally; anything unhealthy
+ * or uncertain is escalated, since a missed disease costs far more than an upload.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class PrescreenPolicy {
+
+    /** Output order of the pre-screen model. */
+    public static final int CLASS_HEALTHY = 0;
+    public static final int CLASS_UNHEALTHY = 1;
+    public static final int CLASS_NOT_A_PLANT = 2;
+    public static final int CLASS_COUNT = 3;
+
+    public enum Outcome {
+        HEALTHY,
+        NOT_A_PLANT,
+        ESCALATE
+    }
+
+    static final float MIN_HEALTHY_CONFIDENCE = 0.85f;
+    static final float MIN_NOT_A_PLANT_CONFIDENCE = 0.90f;
+
+    private PrescreenPolicy() {
+        // Prevent instantiation
+    }
+
+    public static Outcome decide(float[] probabilities) {
+        if (probabilities == null || probabilities.length < CLASS_COUNT) {
+            return Outcome.ESCALATE;
+        }
+        if (probabilities[CLASS_NOT_A_PLANT] >= MIN_NOT_A_PLANT_CONFIDENCE) {
+            return Outcome.NOT_A_PLANT;
+        }
+        if (probabilities[CLASS_HEALTHY] >= MIN_HEALTHY_CONFIDENCE) {
+            return Outcome.HEALTHY;
+        }
+        return Outcome.ESCALATE;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mittimitra.ml;
+
+/**
+ * Helpers for turning classifier output scores into probabilities.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class ScoreMath {
+
+    // Outputs summing to 1 within this tolerance are treated as already being softmax output
+    private static final float PROBABILITY_SUM_TOLERANCE = 0.02f;
+
+    private ScoreMath() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Writes probabilities for {@code scores} into {@code out}. Scores that already form a
+     * distribution are copied unchanged; anything else is treated as logits and softmaxed.
+     */
+    public static void toProbabilities(float[] scores, float[] out) {
+        if (out.length < scores.length) {
+            throw new IllegalArgumentException("Output too small for " + scores.length + " scores");
+        }
+        if (isDistribution(scores)) {
+            System.arraycopy(scores, 0, out, 0, scores.length);
+            return;
+        }
+        float max = Float.NEGATIVE_INFINITY;
+        for (float score : scores) max = Math.max(max, score);
+        float sum = 0f;
+        for (int i = 0; i < scores.length; i++) {
+            out[i] = (float) Math.exp(scores[i] - max);
+            sum += out[i];
+        }
+        for (int i = 0; i < scores.length; i++) {
+            out[i] /= sum;
+        }
+    }
+
+    /**
+     * Averages the probabilities of the first {@code rows} rows of a batched output.
+     *
+     * @param scratch working array at least as long as one row
+     */
+    public static void averageProbabilities(float[][] batchScores, int rows, float[] scratch, float[] out) {
+        if (rows <= 0 || rows > batchScores.length) {
+            throw new IllegalArgumentException("Invalid row count " + rows);
+        }
+        int classes = batchScores[0].length;
+        for (int c = 0; c < classes; c++) out[c] = 0f;
+        for (int r = 0; r < rows; r++) {
+            toProbabilities(batchScores[r], scratch);
+            for (int c = 0; c < classes; c++) {
+                out[c] += scratch[c];
+            }
+        }
+        for (int c = 0; c < classes; c++) {
+            out[c] /= rows;
+        }
+    }
+
+    /**
+     * Index of the highest score; the first one wins ties.
+     */
+    public static int argMax(float[] scores) {
+        int maxIndex = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[maxIndex]) maxIndex = i;
+        }
+        return maxIndex;
+    }
+
+    private static boolean isDistribution(float[] scores) {
+        float sum = 0f;
+        for (float score : scores) {
+            if (score < 0f || score > 1f) return false;
+            sum += score;
+        }
+        return Math.abs(sum - 1f) <= PROBABILITY_SUM_TOLERANCE;
+    }
+}
@@ -0,0 +1,148 @@
+package com.mittimitra.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.AppPreferences;
+import com.mittimitra.BuildConfig;
+import com.mittimitra.backend.ApiEnvelope;
+import com.mittimitra.backend.BackendCallback;
+import com.mittimitra.backend.model.AiModels;
+import com.mittimitra.config.AppConstants;
+import com.mittimitra.domain.repository.PredictionRepository;
+import com.mittimitra.utils.AnalyticsHelper;
+import com.mittimitra.utils.AdaptiveImageEncoder;
+import com.mittimitra.utils.ImageCompressor;
+import com.mittimitra.utils.ImagePipeline;
+import com.mittimitra.utils.NetworkUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs {@link SoilCascadeRouter} for a soil photo, escalating uncertain local results to the
+ * {@code getSoilClassification} backend endpoint when {@code BuildConfig.ENABLE_SOIL_CLOUD_ESCALATION}
+ * is set, and records how often each path is taken and
+ * how long it took (per-path counters in preferences plus an analytics event).
+ */
+public final class SoilCascade {
+
+    private static final String TAG = "SoilCascade";
+    private static final String PREF_NAME = "soil_cascade_stats";
+    private static final String KEY_COUNT_PREFIX = "count_";
+    private static final String KEY_TOTAL_MS_PREFIX = "total_ms_";
+
+    private final Context appContext;
+    private final PredictionRepository repository;
+    private final SoilCascadeRouter router = new SoilCascadeRouter(
+            AppConstants.SOIL_CASCADE_TEMPERATURE,
+            AppConstants.SOIL_CASCADE_MIN_CONFIDENCE,
+            TimeUnit.MILLISECONDS.toNanos(AppConstants.SOIL_CASCADE_BUDGET_MS),
+            TimeUnit.MILLISECONDS.toNanos(AppConstants.SOIL_CASCADE_MIN_CLOUD_MS));
+
+    public SoilCascade(@NonNull Context context, @NonNull PredictionRepository repository) {
+        this.appContext = context.getApplicationContext();
+        this.repository = repository;
+    }
+
+    /**
+     * Picks the final label for {@code bitmap}. Blocks for at most the remaining latency budget
+     * when the backend is consulted; call off the main thread.
+     *
+     * @param imageUri      original photo; the backend gets an upload-sized encode of it rather
+     *                      than the classifier-resolution {@code bitmap}. May be null.
+     * @param probabilities local classifier output, in {@code labels} order
+     * @param localNanos    time the local classification took
+     */
+    @NonNull
+    public SoilCascadeRouter.Decision classify(@Nullable Uri imageUri, @NonNull Bitmap bitmap,
+                                               @NonNull float[] probabilities,
+                                               @NonNull String[] labels, long localNanos) {
+        boolean online = NetworkUtils.isNetworkAvailable(appContext);
+        SoilCascadeRouter.CloudClassifier cloud = BuildConfig.ENABLE_SOIL_CLOUD_ESCALATION
+                ? timeoutMillis -> classifyInCloud(imageUri, bitmap, probabilities, labels, timeoutMillis)
+                : null;
+        SoilCascadeRouter.Decision decision = router.route(probabilities, labels, localNanos, online, cloud);
+        record(decision);
+        return decision;
+    }
+
+    private String classifyInCloud(Uri imageUri, Bitmap bitmap, float[] probabilities, String[] labels,
+                                   long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int best = ScoreMath.argMax(probabilities);
+
+        AiModels.SoilClassificationRequest request = new AiModels.SoilClassificationRequest();
+        request.imageBase64DataUrl = encodeForUpload(imageUri, bitmap);
+        request.localLabel = best < labels.length ? labels[best] : null;
+        request.localConfidence = probabilities[best];
+        request.labels = Arrays.asList(labels);
+        request.languageCode = new AppPreferences(appContext).getLanguage();
+        request.location = appContext.getSharedPreferences(AppConstants.PREF_SCAN_CACHE, Context.MODE_PRIVATE)
+                .getString("loc", "");
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> label = new AtomicReference<>();
+        repository.fetchSoilClassification(request, new BackendCallback<AiModels.SoilClassificationData>() {
+            @Override
+            public void onSuccess(@NonNull ApiEnvelope<AiModels.SoilClassificationData> envelope) {
+                if (envelope.data != null) label.set(envelope.data.soilType);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(@NonNull ApiEnvelope<AiModels.SoilClassificationData> envelope, Throwable throwable) {
+                Log.w(TAG, "Cloud soil classification failed: " + envelope.code, throwable);
+                done.countDown();
+            }
+        });
+        // Encoding counted against the budget too; a late answer is simply ignored
+        done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        return label.get();
+    }
+
+    private String encodeForUpload(Uri imageUri, Bitmap bitmap) {
+        if (imageUri != null) {
+            Bitmap upload = null;
+            try {
+                // Only re-encoded, so 16 bits per pixel is enough
+                upload = ImagePipeline.decode(appContext, imageUri, ImageCompressor.MAX_DIMENSION_DEFAULT,
+                        Bitmap.Config.RGB_565);
+                return AdaptiveImageEncoder.encodeForUpload(appContext, upload).toDataUrl();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not re-read photo; uploading the analysis image", e);
+            } finally {
+                ImagePipeline.release(upload);
+            }
+        }
+        return AdaptiveImageEncoder.encodeForUpload(appContext, bitmap).toDataUrl();
+    }
+
+    private void record(SoilCascadeRouter.Decision decision) {
+        long localMs = TimeUnit.NANOSECONDS.toMillis(decision.localNanos);
+        long cloudMs = TimeUnit.NANOSECONDS.toMillis(decision.cloudNanos);
+        String path = decision.path.name();
+
+        SharedPreferences prefs = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        int count = prefs.getInt(KEY_COUNT_PREFIX + path, 0) + 1;
+        long totalMs = prefs.getLong(KEY_TOTAL_MS_PREFIX + path, 0) + localMs + cloudMs;
+        prefs.edit()
+                .putInt(KEY_COUNT_PREFIX + path, count)
+                .putLong(KEY_TOTAL_MS_PREFIX + path, totalMs)
+                .apply();
+
+        AnalyticsHelper.logSoilCascadeRouted(path, localMs, cloudMs);
+        Log.i(TAG, path + " -> " + decision.label + " (confidence " + decision.localConfidence
+                + ", local " + localMs + "ms, cloud " + cloudMs + "ms; " + count + " times, avg "
+                + totalMs / count + "ms)");
+    }
+}
@@ -0,0 +1,156 @@
+package com.mittimitra.ml;
+
+import java.util.Locale;
+
+/**
+ * Decides whether the on-device soil classification is good enough or should be escalated to
+ * the backend, within an overall latency budget.
+ *
+ * The local probabilities are temperature-scaled into a calibrated confidence. Confident answers
+ * are accepted immediately; uncertain ones go to the cloud only when escalation is enabled, the
+ * device is online and enough of the budget is left, and the local answer is kept if the cloud fails or times out.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class SoilCascadeRouter {
+
+    /** How a classification was reached. */
+    public enum Path {
+        /** Local answer was confident enough. */
+        LOCAL,
+        /** Uncertain, but escalating to the backend is switched off. */
+        LOCAL_CLOUD_DISABLED,
+        /** Local answer was uncertain and the backend answered in time. */
+        CLOUD,
+        /** Uncertain, but the device was offline. */
+        LOCAL_OFFLINE,
+        /** Uncertain, but too little of the latency budget was left to try the backend. */
+        LOCAL_NO_BUDGET,
+        /** Uncertain; the backend failed, timed out or returned an unknown label. */
+        LOCAL_CLOUD_FAILED
+    }
+
+    /**
+     * Blocking call to the cloud classifier.
+     */
+    public interface CloudClassifier {
+        /**
+         * @return the cloud's soil label, or null if it did not answer within {@code timeoutMillis}
+         */
+        String classify(long timeoutMillis) throws Exception;
+    }
+
+    public static final class Decision {
+        public final String label;
+        public final Path path;
+        /** Calibrated confidence of the local answer, 0-1. */
+        public final float localConfidence;
+        public final long localNanos;
+        public final long cloudNanos; // 0 when the backend was not asked
+
+        Decision(String label, Path path, float localConfidence, long localNanos, long cloudNanos) {
+            this.label = label;
+            this.path = path;
+            this.localConfidence = localConfidence;
+            this.localNanos = localNanos;
+            this.cloudNanos = cloudNanos;
+        }
+    }
+
+    private final float temperature;
+    private final float minConfidence;
+    private final long budgetNanos;
+    private final long minCloudNanos;
+
+    /**
+     * @param temperature   softmax temperature applied to the local probabilities; above 1
+     *                      softens an over-confident model
+     * @param minConfidence calibrated confidence at or above which the local answer is accepted
+     * @param budgetNanos   total time allowed for local plus cloud classification
+     * @param minCloudNanos least remaining budget worth spending on a backend call
+     */
+    public SoilCascadeRouter(float temperature, float minConfidence, long budgetNanos, long minCloudNanos) {
+        if (!(temperature > 0f)) {
+            throw new IllegalArgumentException("Temperature must be positive: " + temperature);
+        }
+        this.temperature = temperature;
+        this.minConfidence = minConfidence;
+        this.budgetNanos = budgetNanos;
+        this.minCloudNanos = minCloudNanos;
+    }
+
+    /**
+     * Routes one classification.
+     *
+     * @param probabilities local class probabilities, in {@code labels} order
+     * @param localNanos    time already spent on the local classification
+     * @param online        whether a backend call can be attempted
+     * @param cloud         backend classifier, or null when escalation is disabled
+     */
+    public Decision route(float[] probabilities, String[] labels, long localNanos,
+                          boolean online, CloudClassifier cloud) {
+        int best = ScoreMath.argMax(probabilities);
+        String localLabel = best < labels.length ? labels[best] : "Unknown";
+        float confidence = calibratedConfidence(probabilities, temperature);
+
+        if (confidence >= minConfidence) {
+            return new Decision(localLabel, Path.LOCAL, confidence, localNanos, 0);
+        }
+        if (cloud == null) {
+            return new Decision(localLabel, Path.LOCAL_CLOUD_DISABLED, confidence, localNanos, 0);
+        }
+        if (!online) {
+            return new Decision(localLabel, Path.LOCAL_OFFLINE, confidence, localNanos, 0);
+        }
+        long remaining = budgetNanos - localNanos;
+        if (remaining < minCloudNanos) {
+            return new Decision(localLabel, Path.LOCAL_NO_BUDGET, confidence, localNanos, 0);
+        }
+
+        long start = System.nanoTime();
+        String cloudLabel;
+        try {
+            cloudLabel = matchLabel(cloud.classify(remaining / 1_000_000L), labels);
+        } catch (Exception e) {
+            cloudLabel = null;
+        }
+        long cloudNanos = System.nanoTime() - start;
+        if (cloudLabel == null) {
+            return new Decision(localLabel, Path.LOCAL_CLOUD_FAILED, confidence, localNanos, cloudNanos);
+        }
+        return new Decision(cloudLabel, Path.CLOUD, confidence, localNanos, cloudNanos);
+    }
+
+    /**
+     * Highest class probability after re-normalizing {@code p^(1/T)}, which is the same as
+     * dividing the underlying logits by {@code temperature}.
+     */
+    public static float calibratedConfidence(float[] probabilities, float temperature) {
+        double exponent = 1.0 / temperature;
+        double sum = 0;
+        double max = 0;
+        for (float p : probabilities) {
+            double scaled = Math.pow(Math.max(p, 0f), exponent);
+            sum += scaled;
+            max = Math.max(max, scaled);
+        }
+        return sum > 0 ? (float) (max / sum) : 0f;
+    }
+
+    /**
+     * Maps a backend label such as "Black Soil" or "black" onto one of {@code labels}, or null
+     * if it matches none.
+     */
+    static String matchLabel(String cloudLabel, String[] labels) {
+        if (cloudLabel == null) return null;
+        String normalized = normalize(cloudLabel);
+        for (String label : labels) {
+            if (normalize(label).equals(normalized)) return label;
+        }
+        return null;
+    }
+
+    private static String normalize(String label) {
+        String lower = label.trim().toLowerCase(Locale.ROOT);
+        return lower.endsWith(" soil") ? lower.substring(0, lower.length() - " soil".length()).trim() : lower;
+    }
+}
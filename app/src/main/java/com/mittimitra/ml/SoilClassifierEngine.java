@@ -0,0 +1,387 @@
+package com.mittimitra.ml;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.mittimitra.BuildConfig;
+import com.mittimitra.config.AppConstants;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Application-scoped holder for the soil classifier interpreter.
+ *
+ * The model is memory-mapped once through {@link ModelProvider}, which prefers a downloaded
+ * version over the bundled asset, and a single {@link Interpreter} is reused for every scan.
+ * {@link #warmUp()} prepares the interpreter in the background so the first Analyze tap does not
+ * pay for mmap, graph preparation and tensor allocation. Memory is handed back on trim.
+ *
+ * Float and quantized model builds are both supported; {@link ModelVariantSelector} picks one
+ * per device and quantized outputs are dequantized before they are returned. Thread count and
+ * XNNPACK use come from {@link InferenceAutoTuner} unless overridden with
+ * {@link #setInferenceConfig(InferenceConfig)}.
+ *
+ * {@link #classifyAugmented(Bitmap, int)} runs several crops and mirrors of a photo as one
+ * batched call and averages their probabilities, falling back to a single view when the batch
+ * would not fit the latency budget. {@link #classifyCached(Bitmap, int)} adds a persistent
+ * perceptual-hash cache in front of it so re-analysing the same photo skips inference.
+ */
+public final class SoilClassifierEngine {
+
+    private static final String TAG = "SoilClassifierEngine";
+
+    private static final String RESULT_CACHE_FILE = "soil_result_cache.json";
+    // Hash input size: 10x the dHash grid so box-averaging smooths out JPEG noise
+    private static final int HASH_SAMPLE_WIDTH = PerceptualHash.GRID_WIDTH * 10;
+    private static final int HASH_SAMPLE_HEIGHT = PerceptualHash.GRID_HEIGHT * 10;
+
+    private static volatile SoilClassifierEngine INSTANCE;
+
+    private final Context appContext;
+    // Warm-up runs here so callers never block on model loading unless they classify first.
+    private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor();
+    private final AugmentationBudget augmentationBudget =
+            new AugmentationBudget(AppConstants.TTA_LATENCY_BUDGET_MS * 1_000_000L);
+    private final SoilResultCache resultCache;
+
+    // Guarded by itself; hashing must not wait for an in-flight inference
+    private final Bitmap hashBitmap =
+            Bitmap.createBitmap(HASH_SAMPLE_WIDTH, HASH_SAMPLE_HEIGHT, Bitmap.Config.ARGB_8888);
+    private final Canvas hashCanvas = new Canvas(hashBitmap);
+    private final Rect hashRect = new Rect(0, 0, HASH_SAMPLE_WIDTH, HASH_SAMPLE_HEIGHT);
+    private final Paint hashPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final int[] hashPixels = new int[HASH_SAMPLE_WIDTH * HASH_SAMPLE_HEIGHT];
+
+    // Guarded by "this"
+    private ModelVariant variant;
+    private InferenceConfig inferenceConfig;
+    private boolean inferenceConfigPinned;
+    private MappedByteBuffer modelBuffer;
+    private Interpreter interpreter;
+    private SoilTensorPreprocessor preprocessor;
+    private int[] inputShape;
+    private int batchSize = 1;
+    private boolean batchingSupported = true;
+    private float[][] outputScores; // one row per batch entry
+    private byte[][] quantizedScores; // null for float output
+    private float[] probabilityScratch;
+    private float outputScale;
+    private int outputZeroPoint;
+    private boolean outputSigned;
+
+    private SoilClassifierEngine(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+        this.resultCache = new SoilResultCache(
+                new File(appContext.getFilesDir(), RESULT_CACHE_FILE), AppConstants.SOIL_RESULT_CACHE_SIZE);
+    }
+
+    public static SoilClassifierEngine getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (SoilClassifierEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SoilClassifierEngine(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Forwards a trim callback to the engine if it was ever created. Safe to call from
+     * {@code Application.onTrimMemory} without forcing the engine into existence.
+     */
+    public static void trimMemory(int level) {
+        SoilClassifierEngine engine = INSTANCE;
+        if (engine != null) {
+            engine.onTrimMemory(level);
+        }
+    }
+
+    /**
+     * Loads the model and runs one throwaway inference on a background thread.
+     * Idempotent: returns immediately if the interpreter is already prepared.
+     */
+    public void warmUp() {
+        ModelProvider.getInstance(appContext).refreshAsync();
+        warmUpExecutor.execute(() -> {
+            try {
+                synchronized (this) {
+                    if (interpreter != null) return;
+                    Interpreter prepared = ensureInterpreter();
+                    runInference(ByteBuffer.allocateDirect(prepared.getInputTensor(0).numBytes()));
+                }
+                Log.d(TAG, "Soil classifier warmed up (" + variant + ")");
+            } catch (Exception e) {
+                Log.e(TAG, "Soil classifier warm-up failed", e);
+            }
+        });
+    }
+
+    /**
+     * Scales and converts {@code bitmap} through the pooled preprocessing stage, runs the
+     * classifier and returns a copy of the output scores.
+     * Blocks until any in-flight warm-up has finished.
+     */
+    @NonNull
+    public synchronized float[] classify(@NonNull Bitmap bitmap) throws IOException {
+        ensureInterpreter();
+        SoilTensorPreprocessor.InputTensor input = preprocessor.acquire(bitmap);
+        try {
+            long start = System.nanoTime();
+            float[] scores = runInference(input.buffer);
+            augmentationBudget.recordSingle(System.nanoTime() - start);
+            return scores;
+        } finally {
+            preprocessor.recycle(input);
+        }
+    }
+
+    /**
+     * Classifies up to {@code views} crops and mirrors of {@code bitmap} in one batched
+     * interpreter call and returns their averaged probabilities. Runs a single view when the
+     * model cannot be batched or the batch is expected to exceed the latency budget.
+     */
+    @NonNull
+    public synchronized float[] classifyAugmented(@NonNull Bitmap bitmap, int views) throws IOException {
+        ensureInterpreter();
+        float[] probabilities = new float[probabilityScratch.length];
+        int count = batchingSupported ? augmentationBudget.viewsFor(views) : 1;
+        if (count > 1) {
+            List<AugmentationPlan.View> plan = AugmentationPlan.create(bitmap.getWidth(), bitmap.getHeight(), count);
+            if (trySetBatchSize(plan.size())) {
+                SoilTensorPreprocessor.InputTensor input = preprocessor.acquireBatch(bitmap, plan);
+                long start = System.nanoTime();
+                runBatch(input.buffer);
+                augmentationBudget.recordBatch(plan.size(), System.nanoTime() - start);
+                ScoreMath.averageProbabilities(outputScores, plan.size(), probabilityScratch, probabilities);
+                return probabilities;
+            }
+        }
+        ScoreMath.toProbabilities(classify(bitmap), probabilities);
+        return probabilities;
+    }
+
+    /**
+     * Like {@link #classifyAugmented(Bitmap, int)}, but returns the stored probabilities straight
+     * away when the same photo (by perceptual hash and mean colour) was already classified by the
+     * current model. Results are kept in a bounded LRU that persists across restarts.
+     */
+    @NonNull
+    public float[] classifyCached(@NonNull Bitmap bitmap, int views) throws IOException {
+        long hash;
+        int color;
+        synchronized (hashBitmap) {
+            hashCanvas.drawBitmap(bitmap, null, hashRect, hashPaint);
+            hashBitmap.getPixels(hashPixels, 0, HASH_SAMPLE_WIDTH, 0, 0, HASH_SAMPLE_WIDTH, HASH_SAMPLE_HEIGHT);
+            hash = PerceptualHash.dHash(hashPixels, HASH_SAMPLE_WIDTH, HASH_SAMPLE_HEIGHT);
+            color = PerceptualHash.meanColor(hashPixels, HASH_SAMPLE_WIDTH, HASH_SAMPLE_HEIGHT);
+        }
+        String modelTag = BuildConfig.VERSION_CODE + "#" + ModelProvider.getInstance(appContext).versionTag();
+        float[] cached = resultCache.get(modelTag, hash, color);
+        if (cached != null) {
+            Log.d(TAG, "Result cache hit for " + Long.toHexString(hash));
+            return cached;
+        }
+
+        float[] probabilities = classifyAugmented(bitmap, views);
+        try {
+            resultCache.put(modelTag, hash, color, probabilities);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not persist soil result cache", e);
+        }
+        return probabilities;
+    }
+
+    /**
+     * Runs the classifier on a prepared input tensor and returns a copy of the output scores.
+     * The buffer must match the active model's input type (see {@link #getActiveVariant()}).
+     * Blocks until any in-flight warm-up has finished.
+     */
+    @NonNull
+    public synchronized float[] classify(@NonNull ByteBuffer input) throws IOException {
+        ensureInterpreter();
+        return runInference(input);
+    }
+
+    /**
+     * The model build in use, or null if nothing has been loaded yet.
+     */
+    public synchronized ModelVariant getActiveVariant() {
+        return variant;
+    }
+
+    /**
+     * The interpreter settings in use, or null if nothing has been loaded yet.
+     */
+    public synchronized InferenceConfig getInferenceConfig() {
+        return inferenceConfig;
+    }
+
+    /**
+     * Overrides the tuned interpreter settings for this process, or returns to the tuned
+     * settings when {@code config} is null. The interpreter is rebuilt on next use.
+     */
+    public synchronized void setInferenceConfig(InferenceConfig config) {
+        inferenceConfig = config;
+        inferenceConfigPinned = config != null;
+        if (interpreter != null) {
+            interpreter.close();
+            interpreter = null;
+        }
+    }
+
+    /**
+     * Releases the interpreter and drops the model mapping. The next call to
+     * {@link #warmUp()} or {@link #classify(Bitmap)} reloads it.
+     */
+    public synchronized void release() {
+        if (interpreter != null) {
+            interpreter.close();
+            interpreter = null;
+            Log.d(TAG, "Soil classifier released");
+        }
+        if (preprocessor != null) {
+            preprocessor.close();
+            preprocessor = null;
+        }
+        modelBuffer = null;
+        outputScores = null;
+        quantizedScores = null;
+    }
+
+    /**
+     * Called after a new model version has been downloaded. Drops the loaded model and the
+     * variant choice so the next use benchmarks and loads the new build.
+     */
+    static void modelsUpdated() {
+        SoilClassifierEngine engine = INSTANCE;
+        if (engine != null) {
+            synchronized (engine) {
+                engine.release();
+                engine.variant = null;
+            }
+        }
+    }
+
+    void onTrimMemory(int level) {
+        // UI_HIDDEN fires while the camera app is in front, which is exactly when we want
+        // to keep the warm interpreter, so only give it up under real memory pressure.
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            release();
+        }
+    }
+
+    private synchronized Interpreter ensureInterpreter() throws IOException {
+        if (interpreter == null) {
+            if (variant == null) {
+                // Benchmarks once per device, then reads the cached choice
+                variant = new ModelVariantSelector(appContext).select();
+            }
+            if (modelBuffer == null) {
+                modelBuffer = ModelProvider.getInstance(appContext).open(variant);
+            }
+            if (!inferenceConfigPinned) {
+                inferenceConfig = new InferenceAutoTuner(appContext).select(variant, modelBuffer);
+            }
+            interpreter = new Interpreter(modelBuffer, inferenceConfig.toOptions());
+            configureTensors(interpreter);
+        }
+        return interpreter;
+    }
+
+    private void configureTensors(Interpreter ready) {
+        if (preprocessor != null) {
+            preprocessor.close();
+        }
+        Tensor input = ready.getInputTensor(0);
+        if (ModelVariantSelector.isQuantized(input.dataType())) {
+            Tensor.QuantizationParams params = input.quantizationParams();
+            float scale = params.getScale() > 0f ? params.getScale() : 1f / 255f;
+            preprocessor = new SoilTensorPreprocessor(TensorNormalizer.quantizationTable(
+                    scale, params.getZeroPoint(), input.dataType() == DataType.INT8));
+        } else {
+            preprocessor = new SoilTensorPreprocessor();
+        }
+
+        inputShape = input.shape();
+        batchSize = 1;
+
+        Tensor output = ready.getOutputTensor(0);
+        int classes = output.shape()[1];
+        outputScores = new float[1][classes];
+        probabilityScratch = new float[classes];
+        if (ModelVariantSelector.isQuantized(output.dataType())) {
+            quantizedScores = new byte[1][classes];
+            outputScale = output.quantizationParams().getScale();
+            outputZeroPoint = output.quantizationParams().getZeroPoint();
+            outputSigned = output.dataType() == DataType.INT8;
+        } else {
+            quantizedScores = null;
+        }
+    }
+
+    private float[] runInference(ByteBuffer input) {
+        setBatchSize(1);
+        runBatch(input);
+        return outputScores[0].clone();
+    }
+
+    private void runBatch(ByteBuffer input) {
+        input.rewind();
+        if (quantizedScores != null) {
+            interpreter.run(input, quantizedScores);
+            for (int row = 0; row < batchSize; row++) {
+                TensorNormalizer.dequantize(quantizedScores[row], outputScale, outputZeroPoint, outputSigned, outputScores[row]);
+            }
+        } else {
+            interpreter.run(input, outputScores);
+        }
+    }
+
+    private void setBatchSize(int size) {
+        if (size == batchSize) return;
+        int[] shape = inputShape.clone();
+        shape[0] = size;
+        interpreter.resizeInput(0, shape);
+        interpreter.allocateTensors();
+        batchSize = size;
+        int classes = probabilityScratch.length;
+        outputScores = new float[size][classes];
+        if (quantizedScores != null) {
+            quantizedScores = new byte[size][classes];
+        }
+    }
+
+    private boolean trySetBatchSize(int size) throws IOException {
+        try {
+            setBatchSize(size);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Models exported with a fixed batch dimension reject the resize
+            Log.w(TAG, "Model does not accept batched input; using a single view", e);
+            batchingSupported = false;
+            interpreter.close();
+            interpreter = null;
+            ensureInterpreter();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mittimitra.ml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of soil classifier probabilities keyed by the photo's {@link PerceptualHash}.
+ *
+ * A lookup matches only when both the grayscale hash and the mean colour are close, since
+ * different soils can share a texture. Entries belong to one model build (the
+ * {@code modelTag}); asking with a different tag drops everything, so a model update never
+ * serves stale results. The cache is written to a small JSON file on every put and read back
+ * lazily, so it survives restarts; hits only reorder it in memory, and that order is saved
+ * with the next put.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class SoilResultCache {
+
+    // Re-encoded copies of the same photo land within a couple of bits
+    static final int MATCH_DISTANCE = 2;
+    // Largest per-channel step in mean colour still treated as the same photo
+    static final int COLOR_TOLERANCE = 8;
+
+    private static final class Entry {
+        final int color;
+        final float[] probabilities;
+
+        Entry(int color, float[] probabilities) {
+            this.color = color;
+            this.probabilities = probabilities;
+        }
+    }
+
+    private final File file;
+    private final int capacity;
+    private final LinkedHashMap<Long, Entry> entries;
+    private String modelTag;
+    private boolean loaded;
+
+    public SoilResultCache(File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > SoilResultCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Probabilities recorded for the same or a near-identical photo under {@code modelTag},
+     * or null on a miss. {@code color} is the photo's {@link PerceptualHash#meanColor}.
+     * The returned array is a copy.
+     */
+    public synchronized float[] get(String modelTag, long hash, int color) {
+        ensureLoaded(modelTag);
+        Long nearest = null;
+        int best = MATCH_DISTANCE + 1;
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            int distance = PerceptualHash.distance(entry.getKey(), hash);
+            if (distance < best
+                    && PerceptualHash.colorDistance(entry.getValue().color, color) <= COLOR_TOLERANCE) {
+                best = distance;
+                nearest = entry.getKey();
+                if (distance == 0) break;
+            }
+        }
+        if (nearest == null) return null;
+        // Moves the hit to the most recently used end; saved with the next put
+        return entries.get(nearest).probabilities.clone();
+    }
+
+    /**
+     * Records {@code probabilities} for {@code hash} and {@code color}, evicting the least
+     * recently used entry when full, and persists the cache.
+     */
+    public synchronized void put(String modelTag, long hash, int color, float[] probabilities) throws IOException {
+        ensureLoaded(modelTag);
+        entries.put(hash, new Entry(color, probabilities.clone()));
+        save();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void ensureLoaded(String tag) {
+        if (!loaded) {
+            loaded = true;
+            load();
+        }
+        if (!tag.equals(modelTag)) {
+            entries.clear();
+            modelTag = tag;
+        }
+    }
+
+    private void load() {
+        if (!file.isFile()) return;
+        try {
+            String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+            modelTag = root.get("model").getAsString();
+            // Stored least recently used first, so re-inserting restores the order
+            for (JsonElement element : root.getAsJsonArray("entries")) {
+                JsonObject entry = element.getAsJsonObject();
+                JsonArray values = entry.getAsJsonArray("p");
+                float[] probabilities = new float[values.size()];
+                for (int i = 0; i < probabilities.length; i++) {
+                    probabilities[i] = values.get(i).getAsFloat();
+                }
+                entries.put(Long.parseUnsignedLong(entry.get("hash").getAsString(), 16),
+                        new Entry(entry.get("c").getAsInt(), probabilities));
+            }
+        } catch (IOException | RuntimeException e) {
+            // A corrupt or pre-colour cache only costs a re-run of the classifier
+            entries.clear();
+            modelTag = null;
+        }
+    }
+
+    private void save() throws IOException {
+        JsonArray list = new JsonArray();
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            JsonObject item = new JsonObject();
+            item.addProperty("hash", Long.toHexString(entry.getKey()));
+            item.addProperty("c", entry.getValue().color);
+            JsonArray values = new JsonArray();
+            for (float value : entry.getValue().probabilities) values.add(value);
+            item.add("p", values);
+            list.add(item);
+        }
+        JsonObject root = new JsonObject();
+        root.addProperty("model", modelTag);
+        root.add("entries", list);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            out.write(root.toString());
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+}
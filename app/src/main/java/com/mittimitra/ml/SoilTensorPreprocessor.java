@@ -0,0 +1,176 @@
+package com.mittimitra.ml;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.config.AppConstants;
+import com.mittimitra.utils.ImagePipeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Turns a soil photo into the classifier input tensor without per-scan heap allocations.
+ *
+ * The scaled bitmap, its canvas, the pixel scratch array and the value scratch array are
+ * allocated once. Direct input buffers are pooled and handed out as {@link InputTensor}s,
+ * which cache their {@link FloatBuffer} view so it is not recreated on every scan.
+ * Float models get normalized float32 input; quantized models get uint8/int8 input built
+ * from a lookup table. {@link #acquireBatch} packs several views of one photo into a single
+ * batched tensor for test-time augmentation. {@link #decodeSource} decodes a photo straight
+ * to the smallest size those views need.
+ */
+public final class SoilTensorPreprocessor {
+
+    public static final int INPUT_SIZE = AppConstants.IMAGE_CLASSIFICATION_SIZE;
+
+    private static final int PIXEL_COUNT = INPUT_SIZE * INPUT_SIZE;
+    private static final int VALUE_COUNT = TensorNormalizer.valueCount(PIXEL_COUNT);
+    private static final int MAX_POOLED_BUFFERS = 2;
+
+    /**
+     * A pooled direct buffer holding one or more input images.
+     */
+    public static final class InputTensor {
+        public final ByteBuffer buffer;
+        public final int images;
+        final FloatBuffer floats; // null for quantized input
+
+        InputTensor(boolean quantized, int images) {
+            this.images = images;
+            int values = images * VALUE_COUNT;
+            buffer = ByteBuffer.allocateDirect(quantized ? values : 4 * values)
+                    .order(ByteOrder.nativeOrder());
+            floats = quantized ? null : buffer.asFloatBuffer();
+        }
+    }
+
+    private final Bitmap scaledBitmap;
+    private final Canvas scaledCanvas;
+    private final Rect sourceRect = new Rect();
+    private final Rect targetRect = new Rect(0, 0, INPUT_SIZE, INPUT_SIZE);
+    private final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final int[] pixels = new int[PIXEL_COUNT];
+    private final byte[] quantizationTable;
+    private final float[] normalized;
+    private final byte[] quantized;
+    private final ArrayDeque<InputTensor> pool = new ArrayDeque<>(MAX_POOLED_BUFFERS);
+    // TFLite requires the buffer to match the tensor size exactly, so one per batch size
+    private InputTensor batchTensor;
+
+    /**
+     * Creates a preprocessor for a float32 input tensor.
+     */
+    public SoilTensorPreprocessor() {
+        this(null);
+    }
+
+    /**
+     * @param quantizationTable table from {@link TensorNormalizer#quantizationTable} for
+     *                          uint8/int8 models, or null for float32 input
+     */
+    public SoilTensorPreprocessor(@Nullable byte[] quantizationTable) {
+        this.quantizationTable = quantizationTable;
+        this.normalized = quantizationTable == null ? new float[VALUE_COUNT] : null;
+        this.quantized = quantizationTable != null ? new byte[VALUE_COUNT] : null;
+        scaledBitmap = Bitmap.createBitmap(INPUT_SIZE, INPUT_SIZE, Bitmap.Config.ARGB_8888);
+        scaledCanvas = new Canvas(scaledBitmap);
+    }
+
+    /**
+     * Decodes a photo at the smallest size the classifier can use without upscaling any
+     * augmentation view (short side {@link AugmentationPlan#minSourceSide}), so a camera JPEG
+     * never passes through a large intermediate bitmap. Hand the result back with
+     * {@link ImagePipeline#release(Bitmap)} when done.
+     */
+    @NonNull
+    public static Bitmap decodeSource(@NonNull Context context, @NonNull Uri uri) throws IOException {
+        int side = AugmentationPlan.minSourceSide(INPUT_SIZE);
+        return ImagePipeline.decodeCovering(context, uri, side, side, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Scales {@code source} to the model input size and writes the input tensor into a
+     * pooled buffer. Return the tensor with {@link #recycle(InputTensor)} once inference is done.
+     */
+    @NonNull
+    public synchronized InputTensor acquire(@NonNull Bitmap source) {
+        scaledCanvas.drawBitmap(source, null, targetRect, scalePaint);
+        scaledBitmap.getPixels(pixels, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+
+        InputTensor tensor = pool.poll();
+        if (tensor == null) {
+            tensor = new InputTensor(quantizationTable != null, 1);
+        }
+        if (quantizationTable != null) {
+            TensorNormalizer.writeQuantizedRgb(pixels, PIXEL_COUNT, quantizationTable, quantized, tensor.buffer);
+        } else {
+            TensorNormalizer.writeRgb(pixels, PIXEL_COUNT, normalized, tensor.floats);
+        }
+        tensor.buffer.rewind();
+        return tensor;
+    }
+
+    /**
+     * Renders each view of {@code source} at the model input size and packs them, in order,
+     * into one batched tensor. The tensor is owned by the preprocessor and reused by the next
+     * batch call, so it must not be recycled.
+     */
+    @NonNull
+    public synchronized InputTensor acquireBatch(@NonNull Bitmap source, @NonNull List<AugmentationPlan.View> views) {
+        int count = views.size();
+        if (batchTensor == null || batchTensor.images != count) {
+            batchTensor = new InputTensor(quantizationTable != null, count);
+        }
+        batchTensor.buffer.clear();
+        if (batchTensor.floats != null) {
+            batchTensor.floats.clear();
+        }
+        for (AugmentationPlan.View view : views) {
+            sourceRect.set(view.left, view.top, view.right, view.bottom);
+            scaledCanvas.save();
+            if (view.mirrored) {
+                scaledCanvas.scale(-1f, 1f, INPUT_SIZE / 2f, INPUT_SIZE / 2f);
+            }
+            scaledCanvas.drawBitmap(source, sourceRect, targetRect, scalePaint);
+            scaledCanvas.restore();
+            scaledBitmap.getPixels(pixels, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+
+            if (quantizationTable != null) {
+                TensorNormalizer.putQuantizedRgb(pixels, PIXEL_COUNT, quantizationTable, quantized, batchTensor.buffer);
+            } else {
+                TensorNormalizer.putRgb(pixels, PIXEL_COUNT, normalized, batchTensor.floats);
+            }
+        }
+        batchTensor.buffer.rewind();
+        return batchTensor;
+    }
+
+    public synchronized void recycle(@NonNull InputTensor tensor) {
+        if (pool.size() < MAX_POOLED_BUFFERS) {
+            pool.offer(tensor);
+        }
+    }
+
+    /**
+     * Frees the scaled bitmap and pooled buffers. The instance must not be used afterwards.
+     */
+    public synchronized void close() {
+        pool.clear();
+        batchTensor = null;
+        if (!scaledBitmap.isRecycled()) {
+            scaledBitmap.recycle();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.mittimitra.ml;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Pure-Java conversion of packed ARGB pixels into the normalized RGB tensor layout the soil
+ * classifier expects (HWC, channel values in [0, 1]), plus the uint8/int8 equivalents used by
+ * the quantized model variant.
+ * Kept free of Android types so it can be unit-tested and benchmarked on the JVM.
+ */
+public final class TensorNormalizer {
+
+    public static final int CHANNELS = 3;
+
+    // Same values as "channel / 255.0f", looked up instead of divided per channel
+    private static final float[] UNIT_SCALE = new float[256];
+
+    static {
+        for (int i = 0; i < UNIT_SCALE.length; i++) {
+            UNIT_SCALE[i] = i / 255.0f;
+        }
+    }
+
+    private TensorNormalizer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Number of tensor values needed to hold {@code pixelCount} pixels in RGB layout.
+     */
+    public static int valueCount(int pixelCount) {
+        return pixelCount * CHANNELS;
+    }
+
+    /**
+     * Writes normalized RGB values for the first {@code pixelCount} pixels into {@code scratch}.
+     *
+     * @param argb       packed ARGB pixels, as returned by {@code Bitmap.getPixels}
+     * @param pixelCount number of pixels to convert
+     * @param scratch    destination, at least {@link #valueCount(int)} long
+     */
+    public static void normalizeRgb(int[] argb, int pixelCount, float[] scratch) {
+        if (argb.length < pixelCount || scratch.length < valueCount(pixelCount)) {
+            throw new IllegalArgumentException("Buffers too small for " + pixelCount + " pixels");
+        }
+        int out = 0;
+        for (int i = 0; i < pixelCount; i++) {
+            int val = argb[i];
+            scratch[out++] = UNIT_SCALE[(val >> 16) & 0xFF];
+            scratch[out++] = UNIT_SCALE[(val >> 8) & 0xFF];
+            scratch[out++] = UNIT_SCALE[val & 0xFF];
+        }
+    }
+
+    /**
+     * Normalizes into {@code scratch} and copies the result into {@code out} with a single bulk put.
+     * {@code out} is cleared first and left positioned after the written values.
+     */
+    public static void writeRgb(int[] argb, int pixelCount, float[] scratch, FloatBuffer out) {
+        out.clear();
+        putRgb(argb, pixelCount, scratch, out);
+    }
+
+    /**
+     * Like {@link #writeRgb} but appends at the buffer's current position, for filling one
+     * image of a batch.
+     */
+    public static void putRgb(int[] argb, int pixelCount, float[] scratch, FloatBuffer out) {
+        normalizeRgb(argb, pixelCount, scratch);
+        out.put(scratch, 0, valueCount(pixelCount));
+    }
+
+    /**
+     * Builds a 256-entry table mapping a raw channel value to its quantized representation,
+     * i.e. {@code round((channel / 255) / scale) + zeroPoint}, clamped to the integer range.
+     *
+     * @param signed true for int8 tensors, false for uint8
+     */
+    public static byte[] quantizationTable(float scale, int zeroPoint, boolean signed) {
+        if (!(scale > 0f)) {
+            throw new IllegalArgumentException("Quantization scale must be positive: " + scale);
+        }
+        int min = signed ? -128 : 0;
+        int max = signed ? 127 : 255;
+        byte[] table = new byte[256];
+        for (int i = 0; i < table.length; i++) {
+            int q = Math.round(UNIT_SCALE[i] / scale) + zeroPoint;
+            table[i] = (byte) Math.max(min, Math.min(max, q));
+        }
+        return table;
+    }
+
+    /**
+     * Writes quantized RGB values for the first {@code pixelCount} pixels into {@code scratch}
+     * using a table from {@link #quantizationTable(float, int, boolean)}.
+     */
+    public static void quantizeRgb(int[] argb, int pixelCount, byte[] table, byte[] scratch) {
+        if (argb.length < pixelCount || scratch.length < valueCount(pixelCount)) {
+            throw new IllegalArgumentException("Buffers too small for " + pixelCount + " pixels");
+        }
+        int out = 0;
+        for (int i = 0; i < pixelCount; i++) {
+            int val = argb[i];
+            scratch[out++] = table[(val >> 16) & 0xFF];
+            scratch[out++] = table[(val >> 8) & 0xFF];
+            scratch[out++] = table[val & 0xFF];
+        }
+    }
+
+    /**
+     * Quantizes into {@code scratch} and copies the result into {@code out} with a single bulk put.
+     * {@code out} is cleared first and left positioned after the written values.
+     */
+    public static void writeQuantizedRgb(int[] argb, int pixelCount, byte[] table, byte[] scratch, ByteBuffer out) {
+        out.clear();
+        putQuantizedRgb(argb, pixelCount, table, scratch, out);
+    }
+
+    /**
+     * Like {@link #writeQuantizedRgb} but appends at the buffer's current position, for filling
+     * one image of a batch.
+     */
+    public static void putQuantizedRgb(int[] argb, int pixelCount, byte[] table, byte[] scratch, ByteBuffer out) {
+        quantizeRgb(argb, pixelCount, table, scratch);
+        out.put(scratch, 0, valueCount(pixelCount));
+    }
+
+    /**
+     * Converts quantized output scores back to floats: {@code scale * (q - zeroPoint)}.
+     * A zero scale (tensor without quantization parameters) is treated as 1/255.
+     *
+     * @param signed true for int8 tensors, false for uint8
+     */
+    public static void dequantize(byte[] raw, float scale, int zeroPoint, boolean signed, float[] out) {
+        if (out.length < raw.length) {
+            throw new IllegalArgumentException("Output too small for " + raw.length + " values");
+        }
+        float effectiveScale = scale > 0f ? scale : 1f / 255f;
+        int effectiveZeroPoint = scale > 0f ? zeroPoint : 0;
+        for (int i = 0; i < raw.length; i++) {
+            int q = signed ? raw[i] : raw[i] & 0xFF;
+            out[i] = effectiveScale * (q - effectiveZeroPoint);
+        }
+    }
+}
@@ -11,10 +11,14 @@ import com.mittimitra.database.MittiMitraDatabase;
 import com.mittimitra.database.entity.FarmTask;
 import com.mittimitra.database.entity.TaskReminder;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public final class TaskSuggestionEngine {
 
+    // Schedule reminders go out this long before the task is due
+    private static final long SCHEDULE_REMINDER_LEAD_MS = 6L * 60L * 60L * 1000L;
+
     private TaskSuggestionEngine() {
     }
 
@@ -25,34 +29,42 @@ public final class TaskSuggestionEngine {
         RoomTaskRepository repo = new RoomTaskRepository(MittiMitraDatabase.getDatabase(context));
         long now = System.currentTimeMillis();
 
+        // The whole plan is written in one transaction; regenerating it skips tasks still open
         if (scheduleData != null && scheduleData.schedule != null && !scheduleData.schedule.isEmpty()) {
-            for (AiModels.ScheduleItem item : scheduleData.schedule) {
-                if (item == null || item.activity == null || item.activity.trim().isEmpty()) continue;
-                FarmTask task = new FarmTask();
-                task.userId = userId;
-                task.cropName = cropName;
-                task.title = item.activity;
-                task.description = item.tips != null ? item.tips : "";
-                task.stage = "schedule";
-                task.source = "crop_schedule";
-                long dueAt = now + (Math.max(1, item.week != null ? item.week : 1) * 7L * 24L * 60L * 60L * 1000L);
-                task.dueAt = dueAt;
-                task.status = "PENDING";
-                task.priority = 2;
-                task.confidence = scheduleData.confidence;
-                task.createdAt = now;
-
-                long taskId = repo.createTask(task);
-                createReminder(repo, userId, taskId, dueAt - (6L * 60L * 60L * 1000L));
-            }
+            repo.createTasksWithReminders(schedulePlan(userId, cropName, scheduleData, now), SCHEDULE_REMINDER_LEAD_MS);
             return;
         }
 
-        List<FarmTask> defaults = FarmTaskTemplates.forCrop(userId, cropName, now);
-        for (FarmTask task : defaults) {
-            long taskId = repo.createTask(task);
-            createReminder(repo, userId, taskId, task.dueAt - (6L * 60L * 60L * 1000L));
+        repo.createTasksWithReminders(FarmTaskTemplates.forCrop(userId, cropName, now), SCHEDULE_REMINDER_LEAD_MS);
+    }
+
+    /**
+     * One task per schedule item, due {@code week} weeks after {@code now}. The week is kept in
+     * the stage, e.g. {@code "schedule-week-3"}, so a recurring activity is a separate task each
+     * week while the same plan generated on another day repeats the same crop, stage and title.
+     */
+    @NonNull
+    public static List<FarmTask> schedulePlan(@NonNull String userId, @NonNull String cropName,
+                                              @NonNull AiModels.CropScheduleData scheduleData, long now) {
+        List<FarmTask> plan = new ArrayList<>(scheduleData.schedule.size());
+        for (AiModels.ScheduleItem item : scheduleData.schedule) {
+            if (item == null || item.activity == null || item.activity.trim().isEmpty()) continue;
+            int week = Math.max(1, item.week != null ? item.week : 1);
+            FarmTask task = new FarmTask();
+            task.userId = userId;
+            task.cropName = cropName;
+            task.title = item.activity;
+            task.description = item.tips != null ? item.tips : "";
+            task.stage = "schedule-week-" + week;
+            task.source = "crop_schedule";
+            task.dueAt = now + (week * 7L * 24L * 60L * 60L * 1000L);
+            task.status = "PENDING";
+            task.priority = 2;
+            task.confidence = scheduleData.confidence;
+            task.createdAt = now;
+            plan.add(task);
         }
+        return plan;
     }
 
     public static void suggestFromPlantDiagnosis(@NonNull Context context,
@@ -68,6 +68,24 @@ public class CropHistoryAdapter extends RecyclerView.Adapter<CropHistoryAdapter.
         });
     }
 
+    /**
+     * Replace the list with the first page of a fresh load.
+     */
+    public void replaceItems(List<CropSchedule> page) {
+        list.clear();
+        list.addAll(page);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Append the next page of history.
+     */
+    public void appendItems(List<CropSchedule> page) {
+        int start = list.size();
+        list.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
     @Override
     public int getItemCount() { return list.size(); }
 
@@ -7,6 +7,7 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
@@ -17,6 +18,7 @@ import java.util.ArrayList;
 import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class FarmTaskAdapter extends RecyclerView.Adapter<FarmTaskAdapter.TaskViewHolder> {
 
@@ -33,9 +35,44 @@ public class FarmTaskAdapter extends RecyclerView.Adapter<FarmTaskAdapter.TaskVi
         this.listener = listener;
     }
 
+    /**
+     * Show {@code newTasks}, rebinding only the rows that were added, removed or changed.
+     */
     public void update(List<FarmTask> newTasks) {
-        this.tasks = newTasks != null ? newTasks : new ArrayList<>();
-        notifyDataSetChanged();
+        List<FarmTask> oldTasks = tasks;
+        List<FarmTask> updated = newTasks != null ? newTasks : new ArrayList<>();
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldTasks.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return updated.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return oldTasks.get(oldPosition).id == updated.get(newPosition).id;
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return sameContent(oldTasks.get(oldPosition), updated.get(newPosition));
+            }
+        });
+        this.tasks = updated;
+        diff.dispatchUpdatesTo(this);
+    }
+
+    // Compares the fields a row displays
+    private static boolean sameContent(FarmTask a, FarmTask b) {
+        return a.dueAt == b.dueAt
+                && Objects.equals(a.title, b.title)
+                && Objects.equals(a.description, b.description)
+                && Objects.equals(a.cropName, b.cropName)
+                && Objects.equals(a.status, b.status);
     }
 
     @NonNull
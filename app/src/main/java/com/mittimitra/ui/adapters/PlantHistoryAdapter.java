@@ -10,8 +10,10 @@ import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.mittimitra.R;
 import com.mittimitra.database.entity.PlantHealth;
+import com.mittimitra.utils.HistoryThumbnails;
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -34,9 +36,6 @@ public class PlantHistoryAdapter extends RecyclerView.Adapter<PlantHistoryAdapte
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // We can reuse a similar layout or create a new one. Let's try to reuse item_report_card but add an image if possible.
-        // Or better, let's assume we might edit the layout to support an image icon. 
-        // For now, we'll use the textual one, but maybe set a compound drawable or just rely on text.
         View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_report_card, parent, false);
         return new ViewHolder(v);
     }
@@ -56,8 +55,35 @@ public class PlantHistoryAdapter extends RecyclerView.Adapter<PlantHistoryAdapte
 
         holder.tvSummary.setText("Issues: " + item.diagnosis);
 
-        // Optional: Load image if we had an ImageView in the layout
-        // For now, simple text list.
+        // Thumbnails are small and already on disk, so Glide's own disk cache would only
+        // duplicate them. A missing one leaves the placeholder icon underneath visible.
+        if (item.imagePath != null && !item.imagePath.trim().isEmpty()) {
+            Glide.with(context)
+                    .load(HistoryThumbnails.fileFor(item.imagePath))
+                    .diskCacheStrategy(DiskCacheStrategy.NONE)
+                    .circleCrop()
+                    .into(holder.ivThumbnail);
+        } else {
+            Glide.with(context).clear(holder.ivThumbnail);
+        }
+    }
+
+    /**
+     * Replace the list with the first page of a fresh load.
+     */
+    public void replaceItems(List<PlantHealth> page) {
+        list.clear();
+        list.addAll(page);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Append the next page of history.
+     */
+    public void appendItems(List<PlantHealth> page) {
+        int start = list.size();
+        list.addAll(page);
+        notifyItemRangeInserted(start, page.size());
     }
 
     @Override
@@ -65,11 +91,13 @@ public class PlantHistoryAdapter extends RecyclerView.Adapter<PlantHistoryAdapte
 
     static class ViewHolder extends RecyclerView.ViewHolder {
         TextView tvLocation, tvDate, tvSummary;
+        ImageView ivThumbnail;
         ViewHolder(View v) {
             super(v);
             tvLocation = v.findViewById(R.id.tv_card_location); // We use this for Title
             tvDate = v.findViewById(R.id.tv_card_date);
             tvSummary = v.findViewById(R.id.tv_card_summary);
+            ivThumbnail = v.findViewById(R.id.iv_card_thumbnail);
         }
     }
 }
@@ -0,0 +1,127 @@
+package com.mittimitra.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.mittimitra.config.AppConstants;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Encodes photos for upload within a payload budget chosen from the current connection.
+ *
+ * Wi-Fi gets {@link AppConstants#UPLOAD_BUDGET_WIFI_BYTES}, mobile data a tighter budget and a
+ * weak link the tightest. {@link EncodeSearch} then picks the highest quality and resolution
+ * that fit, in WebP (smaller than JPEG at the same quality and accepted by the backend), never
+ * going below {@link AppConstants#UPLOAD_MIN_DIMENSION} on the long side. The chosen settings
+ * are logged to analytics. Call off the main thread; a search can take several encodes.
+ */
+public final class AdaptiveImageEncoder {
+
+    private static final String TAG = "AdaptiveImageEncoder";
+
+    /** Connection classes with their own upload budget. */
+    public enum Network {
+        WIFI(AppConstants.UPLOAD_BUDGET_WIFI_BYTES),
+        CELLULAR(AppConstants.UPLOAD_BUDGET_CELLULAR_BYTES),
+        WEAK(AppConstants.UPLOAD_BUDGET_WEAK_BYTES);
+
+        public final int budgetBytes;
+
+        Network(int budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+    }
+
+    private AdaptiveImageEncoder() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encodes {@code bitmap} for the current connection. The bitmap is not modified or recycled.
+     */
+    @NonNull
+    public static EncodeSearch.Result encodeForUpload(@NonNull Context context, @NonNull Bitmap bitmap) {
+        return encode(bitmap, currentNetwork(context));
+    }
+
+    @NonNull
+    public static EncodeSearch.Result encode(@NonNull Bitmap bitmap, @NonNull Network network) {
+        int sourceLongSide = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        EncodeSearch search = new EncodeSearch(AppConstants.UPLOAD_MIN_QUALITY, AppConstants.JPEG_QUALITY_HIGH);
+        BitmapEncoder encoder = new BitmapEncoder(bitmap);
+        EncodeSearch.Result result;
+        try {
+            result = search.search(EncodeSearch.Format.WEBP, sourceLongSide, network.budgetBytes,
+                    AppConstants.UPLOAD_MIN_DIMENSION, encoder);
+        } finally {
+            encoder.close();
+        }
+
+        Log.i(TAG, network + ": " + result.format + " " + result.longSide + "px q" + result.quality
+                + ", " + result.bytes.length / 1024 + " KB of " + network.budgetBytes / 1024
+                + " KB budget in " + result.attempts + " encodes");
+        AnalyticsHelper.logImageEncoded(network.name(), result.format.name(), result.longSide,
+                result.quality, result.bytes.length, result.attempts, result.withinBudget);
+        return result;
+    }
+
+    @NonNull
+    public static Network currentNetwork(@NonNull Context context) {
+        if (NetworkUtils.isWeakConnection(context)) return Network.WEAK;
+        if (NetworkUtils.isWifiConnected(context)) return Network.WIFI;
+        // Unknown transports (ethernet, VPN) are treated like mobile data to be safe
+        return Network.CELLULAR;
+    }
+
+    /**
+     * Encodes from the source bitmap, keeping one scaled copy per resolution rung and one
+     * output buffer for the whole search.
+     */
+    private static final class BitmapEncoder implements EncodeSearch.Encoder {
+        private final Bitmap source;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private Bitmap scaled;
+        private int scaledLongSide;
+
+        BitmapEncoder(Bitmap source) {
+            this.source = source;
+        }
+
+        @NonNull
+        @Override
+        public byte[] encode(@NonNull EncodeSearch.Format format, int longSide, int quality) {
+            out.reset();
+            bitmapFor(longSide).compress(compressFormat(format), quality, out);
+            return out.toByteArray();
+        }
+
+        private Bitmap bitmapFor(int longSide) {
+            int sourceLongSide = Math.max(source.getWidth(), source.getHeight());
+            if (longSide >= sourceLongSide) return source;
+            if (scaled == null || scaledLongSide != longSide) {
+                close();
+                int[] size = ImageSizing.fit(source.getWidth(), source.getHeight(), longSide, longSide);
+                scaled = Bitmap.createScaledBitmap(source, size[0], size[1], true);
+                scaledLongSide = longSide;
+            }
+            return scaled;
+        }
+
+        void close() {
+            if (scaled != null && scaled != source) {
+                scaled.recycle();
+            }
+            scaled = null;
+        }
+
+        private static Bitmap.CompressFormat compressFormat(EncodeSearch.Format format) {
+            return format == EncodeSearch.Format.JPEG
+                    ? Bitmap.CompressFormat.JPEG
+                    : BitmapUtils.lossyWebpFormat();
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class AnalyticsHelper {
     public static final String EVENT_SCHEME_VIEWED = "scheme_viewed";
     public static final String EVENT_WEATHER_CHECKED = "weather_checked";
     public static final String EVENT_LANGUAGE_CHANGED = "language_changed";
+    public static final String EVENT_SOIL_CASCADE_ROUTED = "soil_cascade_routed";
+    public static final String EVENT_IMAGE_ENCODED = "image_encoded";
 
     // ========== PARAMETER NAMES ==========
     public static final String PARAM_SOIL_TYPE = "soil_type";
@@ -34,6 +36,15 @@ public class AnalyticsHelper {
     public static final String PARAM_LANGUAGE = "language";
     public static final String PARAM_SCHEME_NAME = "scheme_name";
     public static final String PARAM_SOURCE = "source";
+    public static final String PARAM_LOCAL_MS = "local_ms";
+    public static final String PARAM_CLOUD_MS = "cloud_ms";
+    public static final String PARAM_NETWORK = "network";
+    public static final String PARAM_FORMAT = "format";
+    public static final String PARAM_LONG_SIDE = "long_side";
+    public static final String PARAM_QUALITY = "quality";
+    public static final String PARAM_BYTES = "bytes";
+    public static final String PARAM_ATTEMPTS = "attempts";
+    public static final String PARAM_WITHIN_BUDGET = "within_budget";
 
     private AnalyticsHelper() {
         // Prevent instantiation
@@ -82,6 +93,33 @@ public class AnalyticsHelper {
         logEvent(EVENT_PLANT_SCAN_COMPLETED, params);
     }
 
+    /**
+     * Log which soil classification path was taken and how long each stage took.
+     */
+    public static void logSoilCascadeRouted(@NonNull String path, long localMs, long cloudMs) {
+        Bundle params = new Bundle();
+        params.putString(PARAM_SOURCE, path);
+        params.putLong(PARAM_LOCAL_MS, localMs);
+        params.putLong(PARAM_CLOUD_MS, cloudMs);
+        logEvent(EVENT_SOIL_CASCADE_ROUTED, params);
+    }
+
+    /**
+     * Log the settings the adaptive upload encoder chose for a photo.
+     */
+    public static void logImageEncoded(@NonNull String network, @NonNull String format, int longSide,
+                                       int quality, int bytes, int attempts, boolean withinBudget) {
+        Bundle params = new Bundle();
+        params.putString(PARAM_NETWORK, network);
+        params.putString(PARAM_FORMAT, format);
+        params.putLong(PARAM_LONG_SIDE, longSide);
+        params.putLong(PARAM_QUALITY, quality);
+        params.putLong(PARAM_BYTES, bytes);
+        params.putLong(PARAM_ATTEMPTS, attempts);
+        params.putLong(PARAM_WITHIN_BUDGET, withinBudget ? 1 : 0);
+        logEvent(EVENT_IMAGE_ENCODED, params);
+    }
+
     /**
      * Log a language change event.
      */
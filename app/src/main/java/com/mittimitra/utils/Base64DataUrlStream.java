@@ -0,0 +1,125 @@
+package com.mittimitra.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output stream that Base64-encodes everything written to it straight into a data URL.
+ *
+ * Compressing an image into it means the JPEG never exists as its own byte array, and there is
+ * no separate Base64 string or prefix concatenation: the only allocations are the ASCII output
+ * buffer (sized from the caller's estimate) and the final String.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class Base64DataUrlStream extends OutputStream {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+                    .getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int count;
+    private final byte[] pending = new byte[3];
+    private int pendingCount;
+    private String result;
+
+    /**
+     * @param mimeType      media type for the data URL, e.g. {@code image/jpeg}
+     * @param expectedBytes estimate of the raw bytes that will be written; the buffer grows if
+     *                      it is exceeded
+     */
+    public Base64DataUrlStream(@NonNull String mimeType, int expectedBytes) {
+        byte[] prefix = ("data:" + mimeType + ";base64,").getBytes(StandardCharsets.US_ASCII);
+        buffer = new byte[prefix.length + encodedLength(Math.max(0, expectedBytes))];
+        System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+        count = prefix.length;
+    }
+
+    /**
+     * Length of the Base64 encoding of {@code bytes} raw bytes, including padding.
+     */
+    public static int encodedLength(int bytes) {
+        return (bytes + 2) / 3 * 4;
+    }
+
+    @Override
+    public void write(int b) {
+        checkOpen();
+        pending[pendingCount++] = (byte) b;
+        if (pendingCount == 3) {
+            ensureCapacity(4);
+            encodeGroup(pending, 0);
+            pendingCount = 0;
+        }
+    }
+
+    @Override
+    public void write(@NonNull byte[] bytes, int offset, int length) {
+        checkOpen();
+        if ((offset | length) < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        int end = offset + length;
+        while (pendingCount > 0 && offset < end) {
+            write(bytes[offset++]);
+        }
+        int groups = (end - offset) / 3;
+        ensureCapacity(groups * 4);
+        for (int i = 0; i < groups; i++, offset += 3) {
+            encodeGroup(bytes, offset);
+        }
+        while (offset < end) {
+            pending[pendingCount++] = bytes[offset++];
+        }
+    }
+
+    /**
+     * Pads the final group and returns the data URL. The stream accepts no more writes after
+     * this; later calls return the same String.
+     */
+    @NonNull
+    public String toDataUrl() {
+        if (result == null) {
+            if (pendingCount > 0) {
+                ensureCapacity(4);
+                int b0 = pending[0] & 0xFF;
+                int b1 = pendingCount > 1 ? pending[1] & 0xFF : 0;
+                buffer[count++] = ALPHABET[b0 >>> 2];
+                buffer[count++] = ALPHABET[((b0 & 0x03) << 4) | (b1 >>> 4)];
+                buffer[count++] = pendingCount > 1 ? ALPHABET[(b1 & 0x0F) << 2] : (byte) '=';
+                buffer[count++] = '=';
+                pendingCount = 0;
+            }
+            result = new String(buffer, 0, count, StandardCharsets.US_ASCII);
+            buffer = null;
+        }
+        return result;
+    }
+
+    private void encodeGroup(byte[] source, int offset) {
+        int bits = (source[offset] & 0xFF) << 16
+                | (source[offset + 1] & 0xFF) << 8
+                | (source[offset + 2] & 0xFF);
+        buffer[count++] = ALPHABET[bits >>> 18];
+        buffer[count++] = ALPHABET[(bits >>> 12) & 0x3F];
+        buffer[count++] = ALPHABET[(bits >>> 6) & 0x3F];
+        buffer[count++] = ALPHABET[bits & 0x3F];
+    }
+
+    private void ensureCapacity(int extra) {
+        int needed = count + extra;
+        if (needed > buffer.length) {
+            byte[] grown = new byte[Math.max(needed, buffer.length + (buffer.length >> 1))];
+            System.arraycopy(buffer, 0, grown, 0, count);
+            buffer = grown;
+        }
+    }
+
+    private void checkOpen() {
+        if (result != null) {
+            throw new IllegalStateException("Data URL already produced");
+        }
+    }
+}
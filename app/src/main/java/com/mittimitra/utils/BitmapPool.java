@@ -0,0 +1,86 @@
+package com.mittimitra.utils;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Small byte-bounded pool of mutable bitmaps for {@code BitmapFactory.Options.inBitmap} reuse.
+ * Any pooled bitmap with the right config and a large enough allocation can be reused, so a
+ * retaken photo decodes into the previous photo's memory instead of a fresh allocation.
+ */
+public final class BitmapPool {
+
+    private static final class Entry {
+        final Bitmap bitmap;
+        final long bytes; // recorded on entry; a recycled bitmap no longer reports it
+
+        Entry(Bitmap bitmap) {
+            this.bitmap = bitmap;
+            this.bytes = bitmap.getAllocationByteCount();
+        }
+    }
+
+    private final long maxBytes;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private long currentBytes;
+
+    public BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Removes and returns a bitmap that can hold {@code byteCount} bytes in {@code config},
+     * or null if none is pooled.
+     */
+    @Nullable
+    public synchronized Bitmap get(long byteCount, @NonNull Bitmap.Config config) {
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.bitmap.isRecycled()) {
+                iterator.remove();
+                currentBytes -= entry.bytes;
+                continue;
+            }
+            if (entry.bitmap.getConfig() == config && entry.bytes >= byteCount) {
+                iterator.remove();
+                currentBytes -= entry.bytes;
+                return entry.bitmap;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Offers a bitmap the caller no longer uses. Immutable bitmaps are recycled instead, and the
+     * oldest entries are recycled when the pool grows past its byte limit.
+     */
+    public synchronized void put(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) return;
+        if (!bitmap.isMutable() || bitmap.getAllocationByteCount() > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        Entry added = new Entry(bitmap);
+        entries.addLast(added);
+        currentBytes += added.bytes;
+        while (currentBytes > maxBytes && !entries.isEmpty()) {
+            Entry evicted = entries.removeFirst();
+            currentBytes -= evicted.bytes;
+            evicted.bitmap.recycle();
+        }
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries) {
+            entry.bitmap.recycle();
+        }
+        entries.clear();
+        currentBytes = 0;
+    }
+}
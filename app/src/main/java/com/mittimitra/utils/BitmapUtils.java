@@ -4,14 +4,13 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
-import android.util.Base64;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * Utility class for memory-safe bitmap operations.
@@ -51,42 +50,26 @@ public final class BitmapUtils {
 
     /**
      * Convert bitmap to Base64 data URL for API requests.
+     * The JPEG is encoded straight into the URL buffer without intermediate copies.
      */
     @NonNull
     public static String bitmapToBase64DataUrl(@NonNull Bitmap bitmap, int quality) {
-        byte[] bytes = bitmapToJpegBytes(bitmap, quality);
-        String base64 = Base64.encodeToString(bytes, Base64.NO_WRAP);
-        return "data:image/jpeg;base64," + base64;
+        // Photo JPEGs are usually well under a byte per pixel; the buffer grows if not
+        Base64DataUrlStream out = new Base64DataUrlStream("image/jpeg", bitmap.getWidth() * bitmap.getHeight() / 4);
+        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+        return out.toDataUrl();
     }
 
     /**
      * Load bitmap from URI with memory-efficient sampling.
      * Prevents loading full-resolution images that could cause OOM.
+     * Decodes through {@link ImagePipeline}, so the result is upright and fits the bounds exactly.
      */
     @Nullable
     public static Bitmap loadBitmapFromUri(@NonNull Context context, @NonNull Uri uri, 
                                             int maxWidth, int maxHeight) {
         try {
-            // First, decode bounds only
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            
-            InputStream inputStream = context.getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            BitmapFactory.decodeStream(inputStream, null, options);
-            inputStream.close();
-
-            // Calculate sample size
-            options.inSampleSize = calculateInSampleSize(options, maxWidth, maxHeight);
-            options.inJustDecodeBounds = false;
-
-            // Decode with sample size
-            inputStream = context.getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream, null, options);
-            inputStream.close();
-
-            return bitmap;
+            return ImagePipeline.decode(context, uri, maxWidth, maxHeight, Bitmap.Config.ARGB_8888);
         } catch (IOException e) {
             ErrorHandler.logError(TAG, "Failed to load bitmap from URI", e);
             return null;
@@ -115,6 +98,18 @@ public final class BitmapUtils {
         return inSampleSize;
     }
 
+    /**
+     * Lossy WebP on every supported API level. Before API 30 plain WEBP is lossy for any
+     * quality below 100.
+     */
+    @NonNull
+    @SuppressWarnings("deprecation")
+    public static Bitmap.CompressFormat lossyWebpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
     /**
      * Safely recycle a bitmap if it's not null and not already recycled.
      */
@@ -132,15 +127,16 @@ public final class BitmapUtils {
         return scaleBitmap(source, size, size, false);
     }
     /**
-     * Save a bitmap to internal storage and return the absolute path.
+     * Save a bitmap as a JPEG in the {@link BlobStore} and return the absolute path. Saving the
+     * same photo again returns the path of the existing copy.
      */
     @Nullable
-    public static String saveBitmapToInternalStorage(@NonNull Context context, @NonNull Bitmap bitmap, @NonNull String fileName) {
-        java.io.File file = new java.io.File(context.getFilesDir(), fileName);
-        try (java.io.FileOutputStream outputStream = new java.io.FileOutputStream(file)) {
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 90, outputStream);
-            outputStream.flush();
-            return file.getAbsolutePath();
+    public static String saveBitmapToBlobStore(@NonNull Context context, @NonNull Bitmap bitmap) {
+        try (BlobStore.Writer writer = BlobStore.getInstance(context).newWriter()) {
+            if (!bitmap.compress(Bitmap.CompressFormat.JPEG, 90, writer)) {
+                throw new IOException("JPEG encode failed");
+            }
+            return writer.commit().file.getAbsolutePath();
         } catch (IOException e) {
             ErrorHandler.logError(TAG, "Failed to save bitmap locally", e);
             return null;
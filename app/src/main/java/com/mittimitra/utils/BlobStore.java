@@ -0,0 +1,298 @@
+package com.mittimitra.utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Content-addressed storage for plant photos and user documents.
+ *
+ * Each file is named by the SHA-256 of its bytes, computed while it is copied in, so adding the
+ * same land record or re-saving the same photo stores it once. The rows that point at a blob
+ * ({@code documents}, {@code plant_health}) are its references: whoever deletes a row counts the
+ * remaining ones and passes the count to {@link #release}.
+ *
+ * A row is usually inserted some time after its blob is stored (the document screen asks for an
+ * expiry date first), so a blob stored or re-used within {@link #GRACE_MILLIS} is never deleted.
+ * {@link #collectGarbage} removes blobs that stayed unreferenced beyond that.
+ *
+ * Files derived from a blob are stored next to it under the blob's name plus {@code _} and a
+ * suffix (the history thumbnail is {@code <hash>_thumb.webp}), and are deleted with it.
+ */
+public final class BlobStore {
+
+    private static final String DIRECTORY = "blobs";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HASH_LENGTH = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    static final long GRACE_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static volatile BlobStore INSTANCE;
+
+    private final File directory;
+    // Serialises the exists/rename/delete steps so a release cannot remove a blob being re-used
+    private final Object lock = new Object();
+
+    public static BlobStore getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (BlobStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new BlobStore(new File(context.getApplicationContext().getFilesDir(), DIRECTORY));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    BlobStore(@NonNull File directory) {
+        this.directory = directory;
+    }
+
+    /** A stored file. */
+    public static final class Blob {
+        public final File file;
+        public final String hash;
+        public final long size;
+        /** True if identical bytes were already stored and the new copy was dropped. */
+        public final boolean deduplicated;
+
+        Blob(File file, String hash, long size, boolean deduplicated) {
+            this.file = file;
+            this.hash = hash;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+    }
+
+    /**
+     * Copies {@code in} into the store. The stream is read to the end but not closed.
+     */
+    @NonNull
+    public Blob put(@NonNull InputStream in) throws IOException {
+        try (Writer writer = newWriter()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                writer.write(buffer, 0, read);
+            }
+            return writer.commit();
+        }
+    }
+
+    /**
+     * Stream for producing a blob in place, e.g. by compressing a bitmap into it. Call
+     * {@link Writer#commit()} when done; closing without committing discards what was written.
+     */
+    @NonNull
+    public Writer newWriter() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create blob directory");
+        }
+        return new Writer(File.createTempFile("blob", TEMP_SUFFIX, directory));
+    }
+
+    /**
+     * Deletes the file at {@code path} if nothing references it any more. Files saved before the
+     * store existed are deleted straight away; blobs only once they are past the grace period.
+     *
+     * @param references rows still pointing at {@code path}, counted after the caller's delete
+     * @return true if the file was deleted
+     */
+    public boolean release(@Nullable String path, int references) {
+        if (path == null || path.trim().isEmpty() || references > 0) return false;
+        File file = new File(path);
+        synchronized (lock) {
+            boolean blob = contains(file);
+            if (blob && System.currentTimeMillis() - file.lastModified() < GRACE_MILLIS) {
+                return false;
+            }
+            if (!file.delete()) return false;
+            if (blob) deleteDerived(file.getName());
+            return true;
+        }
+    }
+
+    /**
+     * Deletes blobs that are not in {@code referencedPaths} and are past the grace period, along
+     * with files derived from blobs that are gone and temp files left by interrupted writes.
+     * Other files in the directory are left alone.
+     *
+     * @return number of files deleted
+     */
+    public int collectGarbage(@NonNull Collection<String> referencedPaths) {
+        Set<String> referenced = new HashSet<>();
+        for (String path : referencedPaths) {
+            if (path == null) continue;
+            File file = new File(path);
+            if (contains(file)) referenced.add(file.getName());
+        }
+
+        File[] files = directory.listFiles();
+        if (files == null) return 0;
+        int deleted = 0;
+        synchronized (lock) {
+            long cutoff = System.currentTimeMillis() - GRACE_MILLIS;
+            for (File file : files) {
+                String name = file.getName();
+                boolean orphan = isHash(name) ? !referenced.contains(name) : name.endsWith(TEMP_SUFFIX);
+                if (orphan && file.lastModified() < cutoff && file.delete()) {
+                    deleted++;
+                }
+            }
+            // Second pass so derived files go with the blobs just deleted
+            for (File file : files) {
+                String name = file.getName();
+                if (isDerived(name) && !new File(directory, name.substring(0, HASH_LENGTH)).exists()
+                        && file.delete()) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * True if {@code file} is a blob in this store rather than a file saved before it existed.
+     */
+    public boolean contains(@NonNull File file) {
+        return directory.getAbsoluteFile().equals(file.getAbsoluteFile().getParentFile())
+                && isHash(file.getName());
+    }
+
+    private Blob install(File temp, String hash, long size) throws IOException {
+        synchronized (lock) {
+            File target = new File(directory, hash);
+            if (target.exists()) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                // Restart the grace period for the row about to reference it
+                //noinspection ResultOfMethodCallIgnored
+                target.setLastModified(System.currentTimeMillis());
+                return new Blob(target, hash, size, true);
+            }
+            if (!temp.renameTo(target)) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                throw new IOException("Could not move blob into place: " + hash);
+            }
+            return new Blob(target, hash, size, false);
+        }
+    }
+
+    private void deleteDerived(String hash) {
+        File[] derived = directory.listFiles((dir, name) -> isDerived(name) && name.startsWith(hash));
+        if (derived == null) return;
+        for (File file : derived) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private static boolean isDerived(String name) {
+        return name.length() > HASH_LENGTH + 1 && name.charAt(HASH_LENGTH) == '_'
+                && isHash(name.substring(0, HASH_LENGTH));
+    }
+
+    private static boolean isHash(String name) {
+        if (name.length() != HASH_LENGTH) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Hashes bytes on their way to a temp file in the store directory.
+     */
+    public final class Writer extends OutputStream {
+        private final File temp;
+        private final OutputStream out;
+        private final MessageDigest digest;
+        private long size;
+        private boolean finished;
+
+        private Writer(File temp) throws IOException {
+            this.temp = temp;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                throw new IOException("SHA-256 unavailable", e);
+            }
+            this.out = new BufferedOutputStream(new FileOutputStream(temp), BUFFER_SIZE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            digest.update((byte) b);
+            size++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            digest.update(bytes, offset, length);
+            size += length;
+        }
+
+        /**
+         * Finishes the write and stores the blob, or re-uses the stored copy of the same bytes.
+         */
+        @NonNull
+        public Blob commit() throws IOException {
+            if (finished) throw new IllegalStateException("Writer already finished");
+            finished = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                throw e;
+            }
+            return install(temp, hex(digest.digest()), size);
+        }
+
+        /**
+         * Discards the write unless it was committed.
+         */
+        @Override
+        public void close() {
+            if (finished) return;
+            finished = true;
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // The temp file is deleted either way
+            }
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+        }
+    }
+}
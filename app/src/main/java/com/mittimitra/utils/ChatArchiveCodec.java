@@ -0,0 +1,112 @@
+package com.mittimitra.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.database.entity.ChatMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Packs a run of chat messages into one gzip block for the chat archive, and back.
+ *
+ * A block holds each message's id, time, sender and text; the user id is stored once on the
+ * block row instead. {@link #keywords} gives the block's distinct words, which is all the
+ * full-text index needs to find the block again without keeping the text uncompressed.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class ChatArchiveCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private ChatArchiveCodec() {
+        // Prevent instantiation
+    }
+
+    @NonNull
+    public static byte[] encode(@NonNull List<ChatMessage> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(messages.size());
+            for (ChatMessage message : messages) {
+                out.writeLong(message.messageId);
+                out.writeLong(message.timestamp);
+                out.writeBoolean(message.isUser);
+                // Length-prefixed rather than writeUTF, which stops at 64 KB
+                if (message.content == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] content = message.content.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(content.length);
+                    out.write(content);
+                }
+            }
+        } catch (IOException e) {
+            // Only in-memory streams are involved
+            throw new IllegalStateException("Failed to encode chat block", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Messages of a block in the order they were encoded, with {@code userId} filled in.
+     *
+     * @throws IOException if the block is truncated, corrupt or of an unknown format
+     */
+    @NonNull
+    public static List<ChatMessage> decode(@NonNull byte[] payload, @Nullable String userId) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown chat block format: " + version);
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Bad message count: " + count);
+            }
+            List<ChatMessage> messages = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                ChatMessage message = new ChatMessage();
+                message.messageId = in.readLong();
+                message.timestamp = in.readLong();
+                message.isUser = in.readBoolean();
+                message.userId = userId;
+                int length = in.readInt();
+                if (length >= 0) {
+                    byte[] content = new byte[length];
+                    in.readFully(content);
+                    message.content = new String(content, StandardCharsets.UTF_8);
+                }
+                messages.add(message);
+            }
+            return messages;
+        }
+    }
+
+    /**
+     * Distinct lower-cased words of all the messages, space separated, in order of first use.
+     */
+    @NonNull
+    public static String keywords(@NonNull List<ChatMessage> messages) {
+        Set<String> words = new LinkedHashSet<>();
+        for (ChatMessage message : messages) {
+            for (String word : FtsQuery.words(message.content, Integer.MAX_VALUE)) {
+                words.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        return String.join(" ", words);
+    }
+}
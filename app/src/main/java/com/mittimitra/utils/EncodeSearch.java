@@ -0,0 +1,160 @@
+package com.mittimitra.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the best image encoding that fits a byte budget.
+ *
+ * Resolution is given up before quality only when even the lowest quality does not fit: each
+ * rung of a shrinking resolution ladder is tried from the full size down, and on the first rung
+ * where the lowest quality fits, the highest fitting quality is found by binary search. The
+ * ladder never goes below the minimum long side; if nothing fits there, the smallest encoding
+ * at that size is returned and marked as over budget rather than losing diagnostic detail.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class EncodeSearch {
+
+    public enum Format {
+        JPEG("image/jpeg"),
+        WEBP("image/webp");
+
+        public final String mimeType;
+
+        Format(String mimeType) {
+            this.mimeType = mimeType;
+        }
+    }
+
+    /**
+     * Produces one encoding of the source image.
+     */
+    public interface Encoder {
+        /**
+         * @param longSide target length of the longer edge, never above the source's
+         * @param quality  0-100 compression quality
+         */
+        @NonNull
+        byte[] encode(@NonNull Format format, int longSide, int quality);
+    }
+
+    public static final class Result {
+        public final byte[] bytes;
+        public final Format format;
+        public final int longSide;
+        public final int quality;
+        /** Number of encodes the search performed. */
+        public final int attempts;
+        public final boolean withinBudget;
+
+        Result(byte[] bytes, Format format, int longSide, int quality, int attempts, boolean withinBudget) {
+            this.bytes = bytes;
+            this.format = format;
+            this.longSide = longSide;
+            this.quality = quality;
+            this.attempts = attempts;
+            this.withinBudget = withinBudget;
+        }
+
+        /**
+         * The encoding as a Base64 data URL for API requests.
+         */
+        @NonNull
+        public String toDataUrl() {
+            Base64DataUrlStream out = new Base64DataUrlStream(format.mimeType, bytes.length);
+            out.write(bytes, 0, bytes.length);
+            return out.toDataUrl();
+        }
+    }
+
+    // Each resolution rung is this fraction of the previous one
+    private static final double LADDER_STEP = 0.8;
+    private static final int QUALITY_STEP = 5;
+
+    private final int minQuality;
+    private final int maxQuality;
+
+    /**
+     * @param minQuality lowest quality worth sending
+     * @param maxQuality quality used when the budget allows
+     */
+    public EncodeSearch(int minQuality, int maxQuality) {
+        if (minQuality < 0 || maxQuality > 100 || minQuality > maxQuality) {
+            throw new IllegalArgumentException("Invalid quality range " + minQuality + "-" + maxQuality);
+        }
+        this.minQuality = minQuality;
+        this.maxQuality = maxQuality;
+    }
+
+    /**
+     * @param sourceLongSide longer edge of the source image
+     * @param budgetBytes    largest acceptable encoding
+     * @param minLongSide    smallest long side that still carries the detail the backend needs
+     */
+    @NonNull
+    public Result search(@NonNull Format format, int sourceLongSide, long budgetBytes,
+                         int minLongSide, @NonNull Encoder encoder) {
+        int[] qualities = qualitySteps();
+        int attempts = 0;
+        Result smallest = null;
+        for (int longSide : ladder(sourceLongSide, minLongSide)) {
+            // Most photos fit at full quality on a good connection, so try that first
+            byte[] top = encoder.encode(format, longSide, maxQuality);
+            attempts++;
+            if (top.length <= budgetBytes) {
+                return new Result(top, format, longSide, maxQuality, attempts, true);
+            }
+            byte[] bottom = qualities.length > 1 ? encoder.encode(format, longSide, minQuality) : top;
+            if (qualities.length > 1) attempts++;
+            if (bottom.length > budgetBytes) {
+                smallest = new Result(bottom, format, longSide, minQuality, attempts, false);
+                continue;
+            }
+
+            // Invariant: qualities[low] fits, qualities[high] does not
+            int low = 0;
+            int high = qualities.length - 1;
+            byte[] best = bottom;
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                byte[] candidate = encoder.encode(format, longSide, qualities[mid]);
+                attempts++;
+                if (candidate.length <= budgetBytes) {
+                    low = mid;
+                    best = candidate;
+                } else {
+                    high = mid;
+                }
+            }
+            return new Result(best, format, longSide, qualities[low], attempts, true);
+        }
+        return new Result(smallest.bytes, format, smallest.longSide, smallest.quality, attempts, false);
+    }
+
+    /**
+     * Long sides to try, largest first: the source size, then {@link #LADDER_STEP} smaller each
+     * time, ending exactly at {@code minLongSide} (or at the source size if that is smaller).
+     */
+    static List<Integer> ladder(int sourceLongSide, int minLongSide) {
+        List<Integer> rungs = new ArrayList<>();
+        int longSide = sourceLongSide;
+        while (longSide > minLongSide) {
+            rungs.add(longSide);
+            longSide = Math.max(minLongSide, (int) Math.round(longSide * LADDER_STEP));
+        }
+        rungs.add(Math.min(sourceLongSide, Math.max(1, minLongSide)));
+        return rungs;
+    }
+
+    private int[] qualitySteps() {
+        int count = (maxQuality - minQuality + QUALITY_STEP - 1) / QUALITY_STEP + 1;
+        int[] steps = new int[count];
+        for (int i = 0; i < count - 1; i++) {
+            steps[i] = minQuality + i * QUALITY_STEP;
+        }
+        steps[count - 1] = maxQuality;
+        return steps;
+    }
+}
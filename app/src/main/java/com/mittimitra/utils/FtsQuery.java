@@ -0,0 +1,165 @@
+package com.mittimitra.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.database.entity.SearchMatch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds full-text queries from what the user typed and ranks their matches.
+ *
+ * Every word becomes a quoted prefix term, so "red so" finds "Red Soil" while typing and nothing
+ * the user types can be read as an FTS operator. Matches are ranked with Okapi BM25 computed
+ * from SQLite's {@code matchinfo(..., 'pcnalx')}, since FTS4 has no ranking function of its own;
+ * equal scores go to the newer row. Pure Java so it can be unit-tested off-device.
+ */
+public final class FtsQuery {
+
+    // Longer input adds little and only slows the query down
+    private static final int MAX_TERMS = 8;
+    // Usual BM25 constants: term frequency saturation and length normalisation
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private FtsQuery() {
+        // Prevent instantiation
+    }
+
+    /**
+     * MATCH expression requiring every word of {@code text} as a prefix, or null if the text has
+     * no searchable words.
+     */
+    @Nullable
+    public static String prefixMatch(@Nullable String text) {
+        List<String> words = words(text, MAX_TERMS);
+        if (words.isEmpty()) return null;
+        StringBuilder match = new StringBuilder();
+        for (String word : words) {
+            if (match.length() > 0) match.append(' ');
+            match.append('"').append(word).append("*\"");
+        }
+        return match.toString();
+    }
+
+    /**
+     * Whether {@code text} would be found by {@link #prefixMatch}{@code (query)}: every word of the
+     * query starts some word of the text, ignoring case. For rows that are not in an index.
+     */
+    public static boolean matchesPrefixes(@Nullable String text, @Nullable String query) {
+        List<String> prefixes = words(query, MAX_TERMS);
+        if (prefixes.isEmpty()) return false;
+        List<String> words = words(text, Integer.MAX_VALUE);
+        for (int i = 0; i < words.size(); i++) {
+            words.set(i, words.get(i).toLowerCase(Locale.ROOT));
+        }
+        for (String prefix : prefixes) {
+            String lower = prefix.toLowerCase(Locale.ROOT);
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(lower)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The first {@code max} words of {@code text}, split the way the index tokenizer splits them.
+     */
+    @NonNull
+    static List<String> words(@Nullable String text, int max) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        int i = 0;
+        while (i < text.length() && words.size() < max) {
+            int start = i;
+            while (i < text.length() && isTokenChar(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            if (i > start) {
+                words.add(text.substring(start, i));
+            } else {
+                i += Character.charCount(text.codePointAt(i));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Ids of the best {@code limit} matches, best first.
+     */
+    @NonNull
+    public static List<Long> rank(@NonNull List<SearchMatch> matches, int limit) {
+        int count = matches.size();
+        double[] scores = new double[count];
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            scores[i] = bm25(matches.get(i).matchInfo);
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore
+                    : Long.compare(matches.get(b).timestamp, matches.get(a).timestamp);
+        });
+
+        List<Long> ids = new ArrayList<>(Math.min(count, limit));
+        for (int i = 0; i < count && ids.size() < limit; i++) {
+            ids.add(matches.get(order.get(i)).id);
+        }
+        return ids;
+    }
+
+    /**
+     * BM25 score of one row from its {@code 'pcnalx'} match info; 0 for a missing or short blob.
+     */
+    static double bm25(@Nullable byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 12) return 0;
+        IntBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        int rows = info.get(2);
+        int averageLengths = 3;
+        int lengths = averageLengths + columns;
+        int hits = lengths + columns;
+        if (info.limit() < hits + 3 * phrases * columns) return 0;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = hits + 3 * (phrase * columns + column);
+                int termFrequency = info.get(cell);
+                if (termFrequency == 0) continue;
+                int rowsWithHits = info.get(cell + 2);
+                double idf = Math.log(1 + (rows - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                double averageLength = Math.max(1, info.get(averageLengths + column));
+                double length = info.get(lengths + column);
+                score += idf * termFrequency * (K1 + 1)
+                        / (termFrequency + K1 * (1 - B + B * length / averageLength));
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Same word characters as SQLite's unicode61 tokenizer: letters, digits and the combining
+     * marks that Indic scripts write vowel signs with.
+     */
+    private static boolean isTokenChar(int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) return true;
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
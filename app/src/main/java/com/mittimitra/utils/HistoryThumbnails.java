@@ -0,0 +1,171 @@
+package com.mittimitra.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mittimitra.config.AppConstants;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Small square WebP thumbnails of saved diagnosis photos, so history lists never decode the
+ * full-size originals.
+ *
+ * A thumbnail lives next to its original ({@code plant_123.jpg} gets {@code plant_123_thumb.webp})
+ * and is written when the diagnosis is saved. Thumbnails are derived data: together they are kept
+ * under {@link AppConstants#HISTORY_THUMBNAIL_MAX_BYTES}, least recently used first out, and
+ * {@link #ensure} recreates any that are missing from the originals. A thumbnail counts as used
+ * when a list that shows it calls {@link #ensure}, which also never trims the thumbnails it was
+ * asked for, so a page is not evicted and rebuilt on every load.
+ */
+public final class HistoryThumbnails {
+
+    private static final String TAG = "HistoryThumbnails";
+    private static final String SUFFIX = "_thumb.webp";
+    private static final int QUALITY = 80;
+
+    private HistoryThumbnails() {
+        // Prevent instantiation
+    }
+
+    /**
+     * The thumbnail file for the original at {@code imagePath}. It may not exist yet.
+     */
+    @NonNull
+    public static File fileFor(@NonNull String imagePath) {
+        File original = new File(imagePath);
+        String name = original.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(original.getParentFile(), base + SUFFIX);
+    }
+
+    /**
+     * Writes the thumbnail for a just-saved original from the bitmap already in memory.
+     *
+     * @return false if it could not be written; the list then shows its placeholder icon
+     */
+    public static boolean save(@NonNull Bitmap source, @NonNull String imagePath) {
+        Bitmap thumbnail = render(source);
+        try {
+            File target = fileFor(imagePath);
+            write(thumbnail, target);
+            trim(new File(imagePath).getParentFile(), Collections.singleton(target));
+            return true;
+        } catch (IOException e) {
+            ErrorHandler.logError(TAG, "Failed to save thumbnail", e);
+            return false;
+        } finally {
+            thumbnail.recycle();
+        }
+    }
+
+    /**
+     * Marks the thumbnails for {@code imagePaths} as used and creates any missing ones from their
+     * originals, decoding each original at thumbnail size. Covers diagnoses saved before
+     * thumbnails existed and ones trimmed since. Call off the main thread.
+     */
+    public static void ensure(@NonNull Context context, @NonNull List<String> imagePaths) {
+        File directory = null;
+        Set<File> requested = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (String imagePath : imagePaths) {
+            if (imagePath == null || imagePath.trim().isEmpty()) continue;
+            File original = new File(imagePath);
+            File thumbnail = fileFor(imagePath);
+            requested.add(thumbnail);
+            if (thumbnail.exists()) {
+                // The modification time doubles as the last-use time for trimming
+                //noinspection ResultOfMethodCallIgnored
+                thumbnail.setLastModified(now);
+                continue;
+            }
+            if (!original.exists()) continue;
+
+            Bitmap decoded = null;
+            try {
+                int size = AppConstants.HISTORY_THUMBNAIL_PX;
+                decoded = ImagePipeline.decodeCovering(context, Uri.fromFile(original), size, size,
+                        Bitmap.Config.ARGB_8888);
+                Bitmap rendered = render(decoded);
+                try {
+                    write(rendered, thumbnail);
+                } finally {
+                    rendered.recycle();
+                }
+                directory = original.getParentFile();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not create thumbnail for " + original.getName(), e);
+            } finally {
+                ImagePipeline.release(decoded);
+            }
+        }
+        if (directory != null) {
+            trim(directory, requested);
+        }
+    }
+
+    /**
+     * Centre square of {@code source}, scaled to {@link AppConstants#HISTORY_THUMBNAIL_PX}.
+     */
+    private static Bitmap render(Bitmap source) {
+        int size = AppConstants.HISTORY_THUMBNAIL_PX;
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int left = (source.getWidth() - side) / 2;
+        int top = (source.getHeight() - side) / 2;
+        Bitmap thumbnail = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        new Canvas(thumbnail).drawBitmap(source, new Rect(left, top, left + side, top + side),
+                new Rect(0, 0, size, size), new Paint(Paint.FILTER_BITMAP_FLAG));
+        return thumbnail;
+    }
+
+    private static void write(Bitmap thumbnail, File target) throws IOException {
+        File temp = new File(target.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            if (!thumbnail.compress(BitmapUtils.lossyWebpFormat(), QUALITY, out)) {
+                throw new IOException("WebP encode failed");
+            }
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Could not move thumbnail into place: " + target.getName());
+        }
+    }
+
+    /**
+     * Deletes the least recently used thumbnails in {@code directory}, other than {@code keep},
+     * until they fit the byte limit or only {@code keep} is left.
+     */
+    private static void trim(@Nullable File directory, @NonNull Set<File> keep) {
+        File[] files = directory != null ? directory.listFiles((dir, name) -> name.endsWith(SUFFIX)) : null;
+        if (files == null) return;
+        long total = 0;
+        for (File file : files) total += file.length();
+        if (total <= AppConstants.HISTORY_THUMBNAIL_MAX_BYTES) return;
+
+        List<File> oldestFirst = new ArrayList<>(Arrays.asList(files));
+        oldestFirst.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : oldestFirst) {
+            if (total <= AppConstants.HISTORY_THUMBNAIL_MAX_BYTES) break;
+            if (keep.contains(file)) continue;
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.mittimitra.utils;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 
 import androidx.annotation.NonNull;
@@ -10,7 +9,6 @@ import androidx.annotation.Nullable;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * Utility class for compressing images before network upload.
@@ -59,39 +57,14 @@ public class ImageCompressor {
     public static byte[] compressFromUri(@NonNull Context context, @NonNull Uri imageUri,
                                           int maxDimension, int quality) {
         try {
-            // 1. Decode bounds only first
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
+            // Only re-encoded, so decode at 16 bits per pixel straight to the target size
+            Bitmap bitmap = ImagePipeline.decode(context, imageUri, maxDimension, Bitmap.Config.RGB_565);
 
-            try (InputStream is = context.getContentResolver().openInputStream(imageUri)) {
-                if (is == null) return null;
-                BitmapFactory.decodeStream(is, null, options);
-            }
-
-            // 2. Calculate sample size
-            options.inSampleSize = calculateInSampleSize(options, maxDimension, maxDimension);
-            options.inJustDecodeBounds = false;
-
-            // 3. Decode with sampling
-            Bitmap bitmap;
-            try (InputStream is = context.getContentResolver().openInputStream(imageUri)) {
-                if (is == null) return null;
-                bitmap = BitmapFactory.decodeStream(is, null, options);
-            }
-
-            if (bitmap == null) return null;
-
-            // 4. Scale to exact max dimension if needed
-            bitmap = scaleBitmapToMaxDimension(bitmap, maxDimension);
-
-            // 5. Compress to JPEG
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
-            
-            byte[] result = baos.toByteArray();
-            bitmap.recycle();
-            
-            return result;
+            ImagePipeline.release(bitmap);
+
+            return baos.toByteArray();
 
         } catch (IOException e) {
             ErrorHandler.logError(TAG, "Failed to compress image", e);
@@ -120,23 +93,6 @@ public class ImageCompressor {
         return compressedData.length / 1024;
     }
 
-    private static int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
-        final int height = options.outHeight;
-        final int width = options.outWidth;
-        int inSampleSize = 1;
-
-        if (height > reqHeight || width > reqWidth) {
-            final int halfHeight = height / 2;
-            final int halfWidth = width / 2;
-
-            while ((halfHeight / inSampleSize) >= reqHeight
-                    && (halfWidth / inSampleSize) >= reqWidth) {
-                inSampleSize *= 2;
-            }
-        }
-        return inSampleSize;
-    }
-
     private static Bitmap scaleBitmapToMaxDimension(Bitmap bitmap, int maxDimension) {
         int width = bitmap.getWidth();
         int height = bitmap.getHeight();
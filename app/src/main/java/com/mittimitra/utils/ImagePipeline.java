@@ -0,0 +1,234 @@
+package com.mittimitra.utils;
+
+import android.content.ComponentCallbacks2;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The single path for turning an image URI into a downsampled, upright bitmap.
+ *
+ * Bounds and EXIF orientation are read from one pass over the file header; the pixel decode
+ * then samples by a power of two and scales to the exact fit inside the decoder, so no
+ * full-size or intermediate bitmap is created. Decodes reuse memory from a small
+ * {@link BitmapPool}: hand bitmaps back with {@link #release(Bitmap)} once nothing draws them.
+ *
+ * Pick the config by consumer: {@link Bitmap.Config#ARGB_8888} for anything analysed
+ * (classifiers, diagnosis uploads) and {@link Bitmap.Config#RGB_565} for images that are only
+ * re-encoded or shown small, which halves their memory.
+ */
+public final class ImagePipeline {
+
+    private static final String TAG = "ImagePipeline";
+
+    // EXIF and the JPEG frame header sit at the start of the file; this covers large APP segments
+    private static final int HEADER_MARK_LIMIT = 256 * 1024;
+    private static final long POOL_MAX_BYTES =
+            Math.min(Runtime.getRuntime().maxMemory() / 8, 16L * 1024 * 1024);
+    private static final BitmapPool POOL = new BitmapPool(POOL_MAX_BYTES);
+
+    private ImagePipeline() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Decodes {@code uri} so that its upright image fits within {@code maxDimension} on both sides.
+     */
+    @NonNull
+    public static Bitmap decode(@NonNull Context context, @NonNull Uri uri, int maxDimension,
+                                @NonNull Bitmap.Config config) throws IOException {
+        return decode(context, uri, maxDimension, maxDimension, config);
+    }
+
+    /**
+     * Decodes {@code uri} so that its upright image fits within {@code maxWidth} x {@code maxHeight},
+     * keeping the aspect ratio. The result is mutable and may reuse a pooled bitmap's memory.
+     *
+     * @throws IOException if the URI cannot be read or is not a decodable image
+     */
+    @NonNull
+    public static Bitmap decode(@NonNull Context context, @NonNull Uri uri, int maxWidth, int maxHeight,
+                                @NonNull Bitmap.Config config) throws IOException {
+        return decode(context, uri, maxWidth, maxHeight, false, config);
+    }
+
+    /**
+     * Decodes {@code uri} at the smallest size whose upright image still covers
+     * {@code minWidth} x {@code minHeight}, keeping the aspect ratio. Use this when the consumer
+     * crops or scales to a known size (a model input, a centre-cropped view) so nothing larger
+     * than it needs is ever decoded. Images smaller than the bounds are decoded at full size.
+     *
+     * @throws IOException if the URI cannot be read or is not a decodable image
+     */
+    @NonNull
+    public static Bitmap decodeCovering(@NonNull Context context, @NonNull Uri uri, int minWidth, int minHeight,
+                                        @NonNull Bitmap.Config config) throws IOException {
+        return decode(context, uri, minWidth, minHeight, true, config);
+    }
+
+    private static Bitmap decode(Context context, Uri uri, int width, int height, boolean cover,
+                                 Bitmap.Config config) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        int orientation;
+        try (InputStream in = new BufferedInputStream(open(resolver, uri))) {
+            in.mark(HEADER_MARK_LIMIT);
+            BitmapFactory.decodeStream(in, null, bounds);
+            orientation = readOrientation(in);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image: " + uri);
+        }
+
+        // The bounds apply to the upright image, so swap them for sideways photos
+        boolean sideways = isSideways(orientation);
+        int boundWidth = sideways ? height : width;
+        int boundHeight = sideways ? width : height;
+        double scale = cover
+                ? ImageSizing.coverScale(bounds.outWidth, bounds.outHeight, boundWidth, boundHeight)
+                : ImageSizing.fitScale(bounds.outWidth, bounds.outHeight, boundWidth, boundHeight);
+        int[] target = cover
+                ? ImageSizing.cover(bounds.outWidth, bounds.outHeight, boundWidth, boundHeight)
+                : ImageSizing.fit(bounds.outWidth, bounds.outHeight, boundWidth, boundHeight);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = ImageSizing.sampleSizeForScale(bounds.outWidth, bounds.outHeight, scale);
+        options.inPreferredConfig = config;
+        options.inMutable = true;
+        int sampledWidth = (bounds.outWidth + options.inSampleSize - 1) / options.inSampleSize;
+        if (sampledWidth > target[0]) {
+            // Finish the downscale inside the decoder instead of with a second bitmap
+            options.inScaled = true;
+            options.inDensity = sampledWidth;
+            options.inTargetDensity = target[0];
+        }
+        // One extra row and column covers the decoder's rounding
+        options.inBitmap = POOL.get(byteCount(target[0] + 1, target[1] + 1, config), config);
+
+        Bitmap decoded = decodePixels(resolver, uri, options);
+        if (decoded == null) {
+            throw new IOException("Failed to decode image: " + uri);
+        }
+        return applyOrientation(decoded, orientation);
+    }
+
+    /**
+     * Returns a bitmap from {@link #decode} to the pool. Only call once no view, canvas or
+     * background task can still read it.
+     */
+    public static void release(@Nullable Bitmap bitmap) {
+        POOL.put(bitmap);
+    }
+
+    public static void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            POOL.clear();
+        }
+    }
+
+    private static Bitmap decodePixels(ContentResolver resolver, Uri uri, BitmapFactory.Options options) throws IOException {
+        Bitmap reuse = options.inBitmap;
+        try (InputStream in = open(resolver, uri)) {
+            return BitmapFactory.decodeStream(in, null, options);
+        } catch (IllegalArgumentException e) {
+            if (reuse == null) throw e;
+            // The decoder picked a different config or size than the pooled bitmap
+            Log.d(TAG, "Pooled bitmap not reusable for " + uri + ", decoding fresh");
+            release(reuse);
+            options.inBitmap = null;
+            try (InputStream in = open(resolver, uri)) {
+                return BitmapFactory.decodeStream(in, null, options);
+            }
+        }
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("No content for " + uri);
+        }
+        return in;
+    }
+
+    private static int readOrientation(InputStream in) {
+        try {
+            in.reset();
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            // No EXIF, or a header larger than the mark limit: treat as upright
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    private static boolean isSideways(int orientation) {
+        return orientation == ExifInterface.ORIENTATION_ROTATE_90
+                || orientation == ExifInterface.ORIENTATION_ROTATE_270
+                || orientation == ExifInterface.ORIENTATION_TRANSPOSE
+                || orientation == ExifInterface.ORIENTATION_TRANSVERSE;
+    }
+
+    private static Bitmap applyOrientation(Bitmap source, int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180); break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setRotate(180); matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90); matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90); break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90); matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90); break;
+            default:
+                return source;
+        }
+        RectF mapped = new RectF(0, 0, source.getWidth(), source.getHeight());
+        matrix.mapRect(mapped);
+        matrix.postTranslate(-mapped.left, -mapped.top);
+
+        Bitmap.Config config = source.getConfig() != null ? source.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap upright = obtain(Math.round(mapped.width()), Math.round(mapped.height()), config);
+        new Canvas(upright).drawBitmap(source, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+        release(source);
+        return upright;
+    }
+
+    private static Bitmap obtain(int width, int height, Bitmap.Config config) {
+        Bitmap pooled = POOL.get(byteCount(width, height, config), config);
+        if (pooled != null) {
+            pooled.reconfigure(width, height, config);
+            pooled.eraseColor(0);
+            return pooled;
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    private static long byteCount(int width, int height, Bitmap.Config config) {
+        int bytesPerPixel = config == Bitmap.Config.RGB_565 ? 2 : 4;
+        return (long) width * height * bytesPerPixel;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mittimitra.utils;
+
+/**
+ * Size arithmetic for downsampling decodes, kept free of Android types so it can be
+ * unit-tested on the JVM.
+ */
+public final class ImageSizing {
+
+    private ImageSizing() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Largest power-of-two sample size that keeps the decoded image at least as large as the
+     * target fit, so the final scale step only ever shrinks.
+     */
+    public static int sampleSize(int width, int height, int maxWidth, int maxHeight) {
+        return sampleSizeForScale(width, height, fitScale(width, height, maxWidth, maxHeight));
+    }
+
+    /**
+     * Largest power-of-two sample size that keeps the decoded image at least {@code scale}
+     * times its original size.
+     */
+    public static int sampleSizeForScale(int width, int height, double scale) {
+        int sample = 1;
+        while (sample * 2 * scale <= 1.0 && width / (sample * 2) > 0 && height / (sample * 2) > 0) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /**
+     * Scale factor (at most 1) that fits {@code width} x {@code height} inside the bounds while
+     * keeping the aspect ratio. Non-positive bounds are treated as unbounded.
+     */
+    public static double fitScale(int width, int height, int maxWidth, int maxHeight) {
+        double scale = 1.0;
+        if (maxWidth > 0 && width > maxWidth) scale = Math.min(scale, (double) maxWidth / width);
+        if (maxHeight > 0 && height > maxHeight) scale = Math.min(scale, (double) maxHeight / height);
+        return scale;
+    }
+
+    /**
+     * Scale factor (at most 1) that shrinks {@code width} x {@code height} as far as possible
+     * while both sides stay at least {@code minWidth} x {@code minHeight}, keeping the aspect
+     * ratio. Images already smaller than a bound are left at full size.
+     */
+    public static double coverScale(int width, int height, int minWidth, int minHeight) {
+        double scale = 0.0;
+        if (minWidth > 0) scale = Math.max(scale, (double) minWidth / width);
+        if (minHeight > 0) scale = Math.max(scale, (double) minHeight / height);
+        return scale > 0.0 ? Math.min(1.0, scale) : 1.0;
+    }
+
+    /**
+     * Dimensions after fitting inside the bounds, each at least 1 pixel.
+     */
+    public static int[] fit(int width, int height, int maxWidth, int maxHeight) {
+        return scaled(width, height, fitScale(width, height, maxWidth, maxHeight));
+    }
+
+    /**
+     * Dimensions after shrinking to just cover the minimum bounds, each at least 1 pixel.
+     */
+    public static int[] cover(int width, int height, int minWidth, int minHeight) {
+        return scaled(width, height, coverScale(width, height, minWidth, minHeight));
+    }
+
+    private static int[] scaled(int width, int height, double scale) {
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+}
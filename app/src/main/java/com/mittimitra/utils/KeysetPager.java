@@ -0,0 +1,127 @@
+package com.mittimitra.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads a list one page at a time using keyset pagination.
+ *
+ * Each page asks the source for rows that sort after the last row of the previous page, so every
+ * page is the same index seek however far the user has scrolled, and only the pages actually
+ * shown are ever held in memory. Pages are loaded on the background executor and delivered on
+ * the main one; all other calls must come from the main thread.
+ * Pure Java so it can be unit-tested off-device.
+ */
+public final class KeysetPager<T> {
+
+    /**
+     * Runs one page query. Called on the background executor.
+     */
+    public interface PageSource<T> {
+        /**
+         * @param after last row of the previous page, or null for the first page
+         * @param limit maximum rows to return
+         */
+        @NonNull
+        List<T> loadPage(@Nullable T after, int limit);
+    }
+
+    public interface Callback<T> {
+        /**
+         * Called on the main executor with each page in order.
+         *
+         * @param firstPage true when the page starts a fresh list after {@link #refresh()}
+         * @param hasMore   false once the source has no rows left
+         */
+        void onPageLoaded(@NonNull List<T> page, boolean firstPage, boolean hasMore);
+    }
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final Executor background;
+    private final Executor main;
+    private final Callback<T> callback;
+
+    private T lastRow;
+    // Rows delivered since the last refresh or reload
+    private int loadedCount;
+    private boolean loading;
+    private boolean hasMore;
+    // Bumped by refresh() so a page still in flight for the old list is dropped
+    private int generation;
+
+    public KeysetPager(@NonNull PageSource<T> source, int pageSize, @NonNull Executor background,
+                       @NonNull Executor main, @NonNull Callback<T> callback) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.background = background;
+        this.main = main;
+        this.callback = callback;
+    }
+
+    /**
+     * Discards the loaded position and loads the first page again.
+     */
+    public void refresh() {
+        generation++;
+        lastRow = null;
+        hasMore = true;
+        load(pageSize);
+    }
+
+    /**
+     * Reads every row loaded so far again in one query, e.g. after the table was written to, and
+     * delivers them as a first page. Unlike {@link #refresh()} the list keeps its length, so a
+     * user who has scrolled several pages down stays where they are.
+     */
+    public void reload() {
+        generation++;
+        lastRow = null;
+        hasMore = true;
+        load(Math.max(pageSize, loadedCount));
+    }
+
+    /**
+     * Loads the next page unless one is already loading or the end has been reached.
+     * Does nothing before the first {@link #refresh()}.
+     */
+    public void loadMore() {
+        if (loading || !hasMore) return;
+        load(pageSize);
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    private void load(int limit) {
+        loading = true;
+        final int requestGeneration = generation;
+        final T after = lastRow;
+        background.execute(() -> {
+            List<T> page = source.loadPage(after, limit);
+            main.execute(() -> deliver(requestGeneration, after == null, limit, page));
+        });
+    }
+
+    private void deliver(int requestGeneration, boolean firstPage, int limit, List<T> page) {
+        if (requestGeneration != generation) return;
+        loading = false;
+        hasMore = page.size() >= limit;
+        loadedCount = firstPage ? page.size() : loadedCount + page.size();
+        if (!page.isEmpty()) {
+            lastRow = page.get(page.size() - 1);
+        }
+        callback.onPageLoaded(page, firstPage, hasMore);
+    }
+}
@@ -6,6 +6,7 @@ import android.net.Network;
 import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
 import android.os.Build;
+import android.telephony.TelephonyManager;
 
 /**
  * Utility class for checking network connectivity.
@@ -13,6 +14,9 @@ import android.os.Build;
  */
 public class NetworkUtils {
 
+    // Below this reported downstream bandwidth, uploads are treated as being on a weak link
+    private static final int WEAK_BANDWIDTH_KBPS = 1000;
+
     /**
      * Check if device has active internet connection.
      * @param context Application context
@@ -88,6 +92,42 @@ public class NetworkUtils {
         }
     }
 
+    /**
+     * Check if the active connection is too slow for full-size uploads: a reported downstream
+     * bandwidth under 1 Mbps, or a 2G radio on older devices.
+     */
+    public static boolean isWeakConnection(Context context) {
+        if (context == null) return false;
+
+        ConnectivityManager cm = (ConnectivityManager)
+            context.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        if (cm == null) return false;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            Network network = cm.getActiveNetwork();
+            if (network == null) return false;
+
+            NetworkCapabilities caps = cm.getNetworkCapabilities(network);
+            if (caps == null) return false;
+            int kbps = caps.getLinkDownstreamBandwidthKbps();
+            return kbps > 0 && kbps < WEAK_BANDWIDTH_KBPS;
+        } else {
+            NetworkInfo networkInfo = cm.getActiveNetworkInfo();
+            if (networkInfo == null || networkInfo.getType() != ConnectivityManager.TYPE_MOBILE) return false;
+            switch (networkInfo.getSubtype()) {
+                case TelephonyManager.NETWORK_TYPE_GPRS:
+                case TelephonyManager.NETWORK_TYPE_EDGE:
+                case TelephonyManager.NETWORK_TYPE_CDMA:
+                case TelephonyManager.NETWORK_TYPE_1xRTT:
+                case TelephonyManager.NETWORK_TYPE_IDEN:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
     /**
      * Get a user-friendly network status message.
      */
@@ -0,0 +1,54 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AugmentationBudget.
+ * Tests when test-time augmentation falls back to a single view.
+ */
+public class AugmentationBudgetTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void viewsFor_nothingMeasured_triesRequestedViews() {
+        AugmentationBudget budget = new AugmentationBudget(800 * MS);
+        assertEquals(6, budget.viewsFor(6));
+    }
+
+    @Test
+    public void viewsFor_fastSingleView_keepsAugmentation() {
+        AugmentationBudget budget = new AugmentationBudget(800 * MS);
+        budget.recordSingle(50 * MS);
+        assertEquals(6, budget.viewsFor(6));
+    }
+
+    @Test
+    public void viewsFor_slowSingleView_fallsBackBeforeTryingBatch() {
+        AugmentationBudget budget = new AugmentationBudget(800 * MS);
+        budget.recordSingle(400 * MS);
+        assertEquals(1, budget.viewsFor(6));
+    }
+
+    @Test
+    public void viewsFor_measuredBatchOverridesLinearEstimate() {
+        AugmentationBudget budget = new AugmentationBudget(800 * MS);
+        budget.recordSingle(200 * MS);
+        budget.recordBatch(6, 500 * MS);
+        assertEquals(6, budget.viewsFor(6));
+    }
+
+    @Test
+    public void viewsFor_slowBatch_fallsBack() {
+        AugmentationBudget budget = new AugmentationBudget(800 * MS);
+        budget.recordBatch(6, 1200 * MS);
+        assertEquals(1, budget.viewsFor(6));
+    }
+
+    @Test
+    public void viewsFor_singleRequested_returnsOne() {
+        assertEquals(1, new AugmentationBudget(800 * MS).viewsFor(1));
+    }
+}
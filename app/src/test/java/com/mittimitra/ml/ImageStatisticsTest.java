@@ -0,0 +1,105 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ImageStatistics and PhotoQuality.
+ * Tests histogram and sharpness values, tiled/serial equivalence and quality verdicts.
+ */
+public class ImageStatisticsTest {
+
+    @Test
+    public void compute_uniformImage_hasFlatStatistics() {
+        int[] pixels = filled(16, 16, 0xFF804020);
+        ImageStatistics stats = ImageStatistics.compute(pixels, 16, 16);
+        assertEquals(256, stats.pixelCount);
+        assertEquals(0, stats.sharpness, 1e-9);
+        int luma = ImageStatistics.luma(0xFF804020);
+        assertEquals(256, stats.lumaHistogram[luma]);
+        assertEquals(luma, stats.meanLuma, 1e-9);
+    }
+
+    @Test
+    public void compute_checkerboard_isSharperThanSmoothRamp() {
+        int size = 32;
+        int[] checker = new int[size * size];
+        int[] ramp = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int c = (x + y) % 2 == 0 ? 40 : 200;
+                checker[y * size + x] = grey(c);
+                ramp[y * size + x] = grey(x * 4);
+            }
+        }
+        ImageStatistics sharp = ImageStatistics.compute(checker, size, size);
+        ImageStatistics smooth = ImageStatistics.compute(ramp, size, size);
+        assertTrue(sharp.sharpness > 1000);
+        assertEquals(0, smooth.sharpness, 1e-9);
+    }
+
+    @Test
+    public void compute_tiled_matchesSerial() throws InterruptedException {
+        int width = 53, height = 37;
+        int[] pixels = new int[width * height];
+        Random random = new Random(3);
+        for (int i = 0; i < pixels.length; i++) pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+
+        ImageStatistics serial = ImageStatistics.compute(pixels, width, height);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int tiles : new int[]{2, 3, 7, height, height + 5}) {
+                ImageStatistics tiled = ImageStatistics.compute(pixels, width, height, executor, tiles);
+                assertArrayEquals(serial.lumaHistogram, tiled.lumaHistogram);
+                assertEquals(serial.meanLuma, tiled.meanLuma, 1e-9);
+                assertEquals(serial.sharpness, tiled.sharpness, 1e-6);
+                assertEquals(serial.pixelCount, tiled.pixelCount);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void fractionBelowAndAbove_useHistogram() {
+        int[] pixels = {grey(0), grey(10), grey(250), grey(128)};
+        ImageStatistics stats = ImageStatistics.compute(pixels, 2, 2);
+        assertEquals(0.5, stats.fractionBelow(20), 1e-9);
+        assertEquals(0.25, stats.fractionAbove(245), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compute_pixelsTooShort_throws() {
+        ImageStatistics.compute(new int[3], 2, 2);
+    }
+
+    @Test
+    public void assess_detectsExposureAndBlur() {
+        assertEquals(PhotoQuality.Verdict.TOO_DARK,
+                PhotoQuality.assess(ImageStatistics.compute(filled(8, 8, grey(5)), 8, 8)));
+        assertEquals(PhotoQuality.Verdict.TOO_BRIGHT,
+                PhotoQuality.assess(ImageStatistics.compute(filled(8, 8, grey(252)), 8, 8)));
+        assertEquals(PhotoQuality.Verdict.BLURRY,
+                PhotoQuality.assess(ImageStatistics.compute(filled(8, 8, grey(120)), 8, 8)));
+
+        int[] textured = new int[64 * 64];
+        Random random = new Random(11);
+        for (int i = 0; i < textured.length; i++) textured[i] = grey(80 + random.nextInt(60));
+        assertEquals(PhotoQuality.Verdict.OK, PhotoQuality.assess(ImageStatistics.compute(textured, 64, 64)));
+    }
+
+    private static int[] filled(int width, int height, int argb) {
+        int[] pixels = new int[width * height];
+        java.util.Arrays.fill(pixels, argb);
+        return pixels;
+    }
+
+    private static int grey(int value) {
+        return 0xFF000000 | value << 16 | value << 8 | value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for LatencyStats.
+ * Tests nearest-rank percentiles and the ordering used by the inference auto-tuner.
+ */
+public class LatencyStatsTest {
+
+    @Test
+    public void of_twentySamples_reportsNearestRankPercentiles() {
+        long[] samples = new long[20];
+        for (int i = 0; i < samples.length; i++) samples[i] = (20 - i) * 1_000_000L;
+        LatencyStats stats = LatencyStats.of(samples);
+        assertEquals(10_000_000L, stats.p50Nanos);
+        assertEquals(19_000_000L, stats.p95Nanos);
+        assertEquals(20, stats.sampleCount);
+    }
+
+    @Test
+    public void of_singleSample_usesItForEveryPercentile() {
+        LatencyStats stats = LatencyStats.of(new long[]{42});
+        assertEquals(42, stats.p50Nanos);
+        assertEquals(42, stats.p95Nanos);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_noSamples_throws() {
+        LatencyStats.of(new long[0]);
+    }
+
+    @Test
+    public void isBetterThan_prefersLowerTailLatency() {
+        LatencyStats steady = LatencyStats.of(new long[]{30, 30, 30, 30});
+        LatencyStats spiky = LatencyStats.of(new long[]{10, 10, 10, 90});
+        assertTrue(steady.isBetterThan(spiky));
+        assertFalse(spiky.isBetterThan(steady));
+    }
+
+    @Test
+    public void isBetterThan_equalTail_prefersLowerMedian() {
+        LatencyStats fast = LatencyStats.of(new long[]{10, 10, 50, 50});
+        LatencyStats slow = LatencyStats.of(new long[]{40, 40, 50, 50});
+        assertTrue(fast.isBetterThan(slow));
+    }
+
+    @Test
+    public void isBetterThan_nothingMeasuredYet_returnsTrue() {
+        assertTrue(LatencyStats.of(new long[]{5}).isBetterThan(null));
+    }
+}
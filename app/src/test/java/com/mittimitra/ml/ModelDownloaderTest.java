@@ -0,0 +1,198 @@
+package com.mittimitra.ml;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ModelDownloader and ModelStore.
+ * Tests version checks, checksum verification, manifest name checks and activation against a
+ * local stand-in server.
+ */
+public class ModelDownloaderTest {
+
+    private HttpServer server;
+    private final Map<String, byte[]> routes = new HashMap<>();
+    private final AtomicInteger modelRequests = new AtomicInteger();
+    private File root;
+    private ModelStore store;
+    private ModelDownloader downloader;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = routes.get(path);
+            if (path.endsWith(".tflite")) modelRequests.incrementAndGet();
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        root = Files.createTempDirectory("models").toFile();
+        store = new ModelStore(root);
+        String manifestUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/models/manifest.json";
+        downloader = new ModelDownloader(new OkHttpClient(), manifestUrl);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        deleteRecursively(root);
+    }
+
+    @Test
+    public void update_newerVersion_downloadsAndActivates() throws Exception {
+        byte[] model = "float-model-v2".getBytes(StandardCharsets.UTF_8);
+        publish("FLOAT", 2, model, sha256Hex(model));
+
+        List<String> updated = downloader.update(store);
+
+        assertEquals(1, updated.size());
+        assertEquals("FLOAT", updated.get(0));
+        assertEquals(2, store.activeVersion("FLOAT"));
+        assertArrayEquals(model, Files.readAllBytes(store.activeFile("FLOAT").toPath()));
+    }
+
+    @Test
+    public void update_replacesOlderVersionOnDisk() throws Exception {
+        byte[] v1 = "model-v1".getBytes(StandardCharsets.UTF_8);
+        publish("FLOAT", 1, v1, sha256Hex(v1));
+        downloader.update(store);
+        File first = store.activeFile("FLOAT");
+
+        byte[] v2 = "model-v2".getBytes(StandardCharsets.UTF_8);
+        publish("FLOAT", 2, v2, sha256Hex(v2));
+        downloader.update(store);
+
+        assertEquals(2, store.activeVersion("FLOAT"));
+        assertFalse(first.exists());
+    }
+
+    @Test
+    public void update_checksumMismatch_keepsPreviousModel() throws Exception {
+        byte[] good = "good-model".getBytes(StandardCharsets.UTF_8);
+        publish("FLOAT", 1, good, sha256Hex(good));
+        downloader.update(store);
+
+        byte[] tampered = "tampered".getBytes(StandardCharsets.UTF_8);
+        publish("FLOAT", 2, tampered, sha256Hex(good));
+        try {
+            downloader.update(store);
+            fail("Expected checksum mismatch");
+        } catch (IOException expected) {
+            // Rejected
+        }
+
+        assertEquals(1, store.activeVersion("FLOAT"));
+        assertArrayEquals(good, Files.readAllBytes(store.activeFile("FLOAT").toPath()));
+        assertFalse(store.stagingFile("FLOAT", 2).exists());
+    }
+
+    @Test
+    public void update_sameVersion_skipsDownload() throws Exception {
+        byte[] model = "model".getBytes(StandardCharsets.UTF_8);
+        publish("QUANTIZED", 3, model, sha256Hex(model));
+        downloader.update(store);
+        modelRequests.set(0);
+
+        List<String> updated = downloader.update(store);
+
+        assertTrue(updated.isEmpty());
+        assertEquals(0, modelRequests.get());
+    }
+
+    @Test(expected = IOException.class)
+    public void update_serverUnavailable_throws() throws Exception {
+        downloader.update(store); // No manifest published
+    }
+
+    @Test(expected = IOException.class)
+    public void parseManifest_httpsManifestWithHttpModel_throws() throws Exception {
+        ModelDownloader secure = new ModelDownloader(new OkHttpClient(), "https://example.com/models/manifest.json");
+        secure.parseManifest("{\"models\":[{\"name\":\"FLOAT\",\"version\":1,"
+                + "\"url\":\"http://example.com/models/float-1.tflite\",\"sha256\":\"00\"}]}");
+    }
+
+    @Test
+    public void parseManifest_traversalName_isSkipped() throws Exception {
+        ModelDownloader secure = new ModelDownloader(new OkHttpClient(), "https://example.com/models/manifest.json");
+        List<ModelDownloader.Entry> entries = secure.parseManifest("{\"models\":["
+                + "{\"name\":\"../..\",\"version\":1,\"url\":\"evil-1.tflite\",\"sha256\":\"00\"},"
+                + "{\"name\":\"FLOAT\",\"version\":2,\"url\":\"float-2.tflite\",\"sha256\":\"00\"}]}");
+
+        assertEquals(1, entries.size());
+        assertEquals("FLOAT", entries.get(0).name);
+    }
+
+    @Test
+    public void update_unknownName_isNotDownloaded() throws Exception {
+        byte[] model = "model".getBytes(StandardCharsets.UTF_8);
+        publish("UNKNOWN", 1, model, sha256Hex(model));
+
+        List<String> updated = downloader.update(store);
+
+        assertTrue(updated.isEmpty());
+        assertEquals(0, modelRequests.get());
+        assertFalse(new File(root, "UNKNOWN").exists());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stagingFile_pathInName_throws() throws Exception {
+        store.stagingFile("a/b", 1);
+    }
+
+    @Test
+    public void activeFile_nothingDownloaded_isNull() {
+        assertNull(store.activeFile("FLOAT"));
+        assertEquals(-1, store.activeVersion("FLOAT"));
+    }
+
+    private void publish(String name, int version, byte[] model, String sha256) {
+        String file = name.toLowerCase() + "-" + version + ".tflite";
+        routes.put("/models/" + file, model);
+        String manifest = "{\"models\":[{\"name\":\"" + name + "\",\"version\":" + version
+                + ",\"url\":\"" + file + "\",\"sha256\":\"" + sha256 + "\",\"size\":" + model.length + "}]}";
+        routes.put("/models/manifest.json", manifest.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256Hex(byte[] data) throws Exception {
+        return ModelDownloader.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) deleteRecursively(child);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
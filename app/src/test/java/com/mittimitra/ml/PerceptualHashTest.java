@@ -0,0 +1,94 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PerceptualHash.
+ * Tests that repeat photos hash alike and different photos do not, and the colour signature.
+ */
+public class PerceptualHashTest {
+
+    private static final int WIDTH = 90;
+    private static final int HEIGHT = 80;
+
+    @Test
+    public void dHash_sameImage_isStable() {
+        int[] image = gradient(false);
+        assertEquals(PerceptualHash.dHash(image, WIDTH, HEIGHT), PerceptualHash.dHash(image.clone(), WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void dHash_slightNoise_staysWithinMatchDistance() {
+        int[] image = gradient(false);
+        int[] noisy = image.clone();
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < noisy.length; i++) {
+            int grey = Math.max(0, Math.min(255, (noisy[i] & 0xFF) + random.nextInt(5) - 2));
+            noisy[i] = 0xFF000000 | grey << 16 | grey << 8 | grey;
+        }
+        int distance = PerceptualHash.distance(
+                PerceptualHash.dHash(image, WIDTH, HEIGHT), PerceptualHash.dHash(noisy, WIDTH, HEIGHT));
+        assertTrue("distance " + distance, distance <= SoilResultCache.MATCH_DISTANCE);
+    }
+
+    @Test
+    public void dHash_mirroredImage_differsWidely() {
+        long original = PerceptualHash.dHash(gradient(false), WIDTH, HEIGHT);
+        long mirrored = PerceptualHash.dHash(gradient(true), WIDTH, HEIGHT);
+        assertTrue(PerceptualHash.distance(original, mirrored) > 32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dHash_imageSmallerThanGrid_throws() {
+        PerceptualHash.dHash(new int[16], 4, 4);
+    }
+
+    @Test
+    public void distance_countsDifferingBits() {
+        assertEquals(0, PerceptualHash.distance(0x5L, 0x5L));
+        assertEquals(2, PerceptualHash.distance(0x5L, 0x0L));
+        assertEquals(64, PerceptualHash.distance(0L, -1L));
+    }
+
+    @Test
+    public void meanColor_averagesEachChannel() {
+        int[] pixels = {0xFF100000, 0xFF300000, 0xFF002040, 0xFF000060};
+        assertEquals(0x100828, PerceptualHash.meanColor(pixels, 2, 2));
+    }
+
+    @Test
+    public void meanColor_sameTextureDifferentHue_differsBeyondTolerance() {
+        int[] grey = gradient(false);
+        int[] tinted = grey.clone();
+        for (int i = 0; i < tinted.length; i++) {
+            int value = tinted[i] & 0xFF;
+            tinted[i] = 0xFF000000 | Math.min(255, value + 40) << 16 | value << 8 | value * 3 / 4;
+        }
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(grey, WIDTH, HEIGHT),
+                PerceptualHash.dHash(tinted, WIDTH, HEIGHT)) <= SoilResultCache.MATCH_DISTANCE);
+        int distance = PerceptualHash.colorDistance(
+                PerceptualHash.meanColor(grey, WIDTH, HEIGHT), PerceptualHash.meanColor(tinted, WIDTH, HEIGHT));
+        assertTrue("distance " + distance, distance > SoilResultCache.COLOR_TOLERANCE);
+    }
+
+    @Test
+    public void colorDistance_takesLargestChannelStep() {
+        assertEquals(0, PerceptualHash.colorDistance(0x123456, 0x123456));
+        assertEquals(9, PerceptualHash.colorDistance(0x102030, 0x132927));
+    }
+
+    // Horizontal ramp with a bump so rows are not all identical
+    private static int[] gradient(boolean mirrored) {
+        int[] pixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int column = mirrored ? WIDTH - 1 - x : x;
+                int grey = Math.min(255, column * 2 + (y % 20 < 10 ? 40 : 0));
+                pixels[y * WIDTH + x] = 0xFF000000 | grey << 16 | grey << 8 | grey;
+            }
+        }
+        return pixels;
+    }
+}
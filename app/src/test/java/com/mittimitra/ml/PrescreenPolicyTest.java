@@ -0,0 +1,38 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PrescreenPolicy.
+ * Tests which pre-screen results are answered on device and which go to the backend.
+ */
+public class PrescreenPolicyTest {
+
+    @Test
+    public void decide_confidentHealthy_answersLocally() {
+        assertEquals(PrescreenPolicy.Outcome.HEALTHY, PrescreenPolicy.decide(new float[]{0.92f, 0.05f, 0.03f}));
+    }
+
+    @Test
+    public void decide_confidentNotAPlant_answersLocally() {
+        assertEquals(PrescreenPolicy.Outcome.NOT_A_PLANT, PrescreenPolicy.decide(new float[]{0.02f, 0.03f, 0.95f}));
+    }
+
+    @Test
+    public void decide_unhealthy_escalates() {
+        assertEquals(PrescreenPolicy.Outcome.ESCALATE, PrescreenPolicy.decide(new float[]{0.05f, 0.9f, 0.05f}));
+    }
+
+    @Test
+    public void decide_uncertainHealthy_escalates() {
+        assertEquals(PrescreenPolicy.Outcome.ESCALATE, PrescreenPolicy.decide(new float[]{0.7f, 0.25f, 0.05f}));
+    }
+
+    @Test
+    public void decide_noModelOutput_escalates() {
+        assertEquals(PrescreenPolicy.Outcome.ESCALATE, PrescreenPolicy.decide(null));
+        assertEquals(PrescreenPolicy.Outcome.ESCALATE, PrescreenPolicy.decide(new float[]{1f}));
+    }
+}
@@ -0,0 +1,67 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ScoreMath.
+ * Tests softmax handling and probability averaging used by test-time augmentation.
+ */
+public class ScoreMathTest {
+
+    @Test
+    public void toProbabilities_distribution_isCopiedUnchanged() {
+        float[] scores = {0.1f, 0.7f, 0.2f};
+        float[] out = new float[3];
+        ScoreMath.toProbabilities(scores, out);
+        assertArrayEquals(scores, out, 0f);
+    }
+
+    @Test
+    public void toProbabilities_logits_areSoftmaxed() {
+        float[] out = new float[2];
+        ScoreMath.toProbabilities(new float[]{2f, 0f}, out);
+        float expected = (float) (Math.exp(2) / (Math.exp(2) + 1));
+        assertEquals(expected, out[0], 1e-6f);
+        assertEquals(1f, out[0] + out[1], 1e-6f);
+    }
+
+    @Test
+    public void toProbabilities_largeLogits_doNotOverflow() {
+        float[] out = new float[2];
+        ScoreMath.toProbabilities(new float[]{1000f, 999f}, out);
+        assertFalse(Float.isNaN(out[0]));
+        assertTrue(out[0] > out[1]);
+    }
+
+    @Test
+    public void averageProbabilities_averagesRequestedRowsOnly() {
+        float[][] batch = {
+                {1f, 0f},
+                {0f, 1f},
+                {0f, 1f}
+        };
+        float[] out = new float[2];
+        ScoreMath.averageProbabilities(batch, 2, new float[2], out);
+        assertEquals(0.5f, out[0], 1e-6f);
+        assertEquals(0.5f, out[1], 1e-6f);
+    }
+
+    @Test
+    public void averageProbabilities_outvotesSingleBadView() {
+        float[][] batch = {
+                {0.9f, 0.1f},
+                {0.8f, 0.2f},
+                {0.05f, 0.95f}
+        };
+        float[] out = new float[2];
+        ScoreMath.averageProbabilities(batch, 3, new float[2], out);
+        assertEquals(0, ScoreMath.argMax(out));
+    }
+
+    @Test
+    public void argMax_tieReturnsFirstIndex() {
+        assertEquals(1, ScoreMath.argMax(new float[]{0.1f, 0.45f, 0.45f}));
+    }
+}
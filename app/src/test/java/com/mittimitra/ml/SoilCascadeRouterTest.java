@@ -0,0 +1,95 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SoilCascadeRouter.
+ * Tests confidence calibration and when the backend is or is not consulted.
+ */
+public class SoilCascadeRouterTest {
+
+    private static final String[] LABELS = {"Alluvial", "Black", "Red"};
+    private static final long MS = 1_000_000L;
+    private static final float[] CONFIDENT = {0.02f, 0.96f, 0.02f};
+    private static final float[] UNCERTAIN = {0.3f, 0.45f, 0.25f};
+
+    private final SoilCascadeRouter router = new SoilCascadeRouter(1.5f, 0.7f, 8000 * MS, 1500 * MS);
+
+    @Test
+    public void calibratedConfidence_temperatureOne_isMaxProbability() {
+        assertEquals(0.45f, SoilCascadeRouter.calibratedConfidence(UNCERTAIN, 1f), 1e-6f);
+    }
+
+    @Test
+    public void calibratedConfidence_higherTemperature_softensPeak() {
+        float sharp = SoilCascadeRouter.calibratedConfidence(CONFIDENT, 1f);
+        float softened = SoilCascadeRouter.calibratedConfidence(CONFIDENT, 2f);
+        assertTrue(softened < sharp);
+        assertTrue(softened > 1f / 3f);
+    }
+
+    @Test
+    public void route_confidentLocal_neverCallsCloud() {
+        SoilCascadeRouter.Decision decision = router.route(CONFIDENT, LABELS, 50 * MS, true,
+                timeout -> { throw new AssertionError("cloud called"); });
+        assertEquals(SoilCascadeRouter.Path.LOCAL, decision.path);
+        assertEquals("Black", decision.label);
+        assertEquals(0, decision.cloudNanos);
+    }
+
+    @Test
+    public void route_uncertainOnline_usesCloudLabelWithinRemainingBudget() {
+        AtomicLong timeout = new AtomicLong();
+        SoilCascadeRouter.Decision decision = router.route(UNCERTAIN, LABELS, 500 * MS, true,
+                millis -> { timeout.set(millis); return "Red Soil"; });
+        assertEquals(SoilCascadeRouter.Path.CLOUD, decision.path);
+        assertEquals("Red", decision.label);
+        assertEquals(7500, timeout.get());
+    }
+
+    @Test
+    public void route_uncertainOffline_keepsLocal() {
+        SoilCascadeRouter.Decision decision = router.route(UNCERTAIN, LABELS, 50 * MS, false,
+                timeout -> { throw new AssertionError("cloud called"); });
+        assertEquals(SoilCascadeRouter.Path.LOCAL_OFFLINE, decision.path);
+        assertEquals("Black", decision.label);
+    }
+
+    @Test
+    public void route_uncertainCloudDisabled_keepsLocal() {
+        SoilCascadeRouter.Decision decision = router.route(UNCERTAIN, LABELS, 50 * MS, true, null);
+        assertEquals(SoilCascadeRouter.Path.LOCAL_CLOUD_DISABLED, decision.path);
+        assertEquals("Black", decision.label);
+        assertEquals(0, decision.cloudNanos);
+    }
+
+    @Test
+    public void route_budgetSpent_keepsLocal() {
+        SoilCascadeRouter.Decision decision = router.route(UNCERTAIN, LABELS, 7000 * MS, true,
+                timeout -> { throw new AssertionError("cloud called"); });
+        assertEquals(SoilCascadeRouter.Path.LOCAL_NO_BUDGET, decision.path);
+    }
+
+    @Test
+    public void route_cloudFailsOrUnknownLabel_fallsBackToLocal() {
+        SoilCascadeRouter.Decision failed = router.route(UNCERTAIN, LABELS, 50 * MS, true,
+                timeout -> { throw new RuntimeException("offline"); });
+        assertEquals(SoilCascadeRouter.Path.LOCAL_CLOUD_FAILED, failed.path);
+        assertEquals("Black", failed.label);
+
+        SoilCascadeRouter.Decision unknown = router.route(UNCERTAIN, LABELS, 50 * MS, true, timeout -> "Volcanic");
+        assertEquals(SoilCascadeRouter.Path.LOCAL_CLOUD_FAILED, unknown.path);
+
+        SoilCascadeRouter.Decision timedOut = router.route(UNCERTAIN, LABELS, 50 * MS, true, timeout -> null);
+        assertEquals(SoilCascadeRouter.Path.LOCAL_CLOUD_FAILED, timedOut.path);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_nonPositiveTemperature_throws() {
+        new SoilCascadeRouter(0f, 0.7f, 1, 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.mittimitra.ml;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SoilResultCache.
+ * Tests hash and colour matching, LRU eviction, model invalidation and persistence.
+ */
+public class SoilResultCacheTest {
+
+    private static final String MODEL = "5#FLOAT:bundled";
+    private static final float[] BLACK = {0.9f, 0.1f};
+    private static final float[] RED = {0.2f, 0.8f};
+    private static final int DARK = 0x302820;
+    private static final int REDDISH = 0x8A4A30;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("soil_cache", ".json");
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void get_exactAndNearHash_returnsStoredProbabilities() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        cache.put(MODEL, 0xF0F0L, DARK, BLACK);
+        assertArrayEquals(BLACK, cache.get(MODEL, 0xF0F0L, DARK), 0f);
+        assertArrayEquals(BLACK, cache.get(MODEL, 0xF0F3L, DARK), 0f);
+        assertNull(cache.get(MODEL, 0x0F0FL, DARK));
+    }
+
+    @Test
+    public void get_sameHashDifferentColor_misses() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        cache.put(MODEL, 0xF0F0L, DARK, BLACK);
+        assertNull(cache.get(MODEL, 0xF0F0L, REDDISH));
+        assertArrayEquals(BLACK, cache.get(MODEL, 0xF0F0L, DARK + 0x030203), 0f);
+    }
+
+    @Test
+    public void get_returnsCopy() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        cache.put(MODEL, 1L, DARK, BLACK);
+        cache.get(MODEL, 1L, DARK)[0] = 0f;
+        assertEquals(0.9f, cache.get(MODEL, 1L, DARK)[0], 0f);
+    }
+
+    @Test
+    public void put_overCapacity_evictsLeastRecentlyUsed() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 2);
+        cache.put(MODEL, 0L, DARK, BLACK);
+        cache.put(MODEL, -1L, DARK, RED);
+        cache.get(MODEL, 0L, DARK);
+        cache.put(MODEL, 0xFFFFFFFFL, DARK, RED);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(MODEL, 0L, DARK));
+        assertNull(cache.get(MODEL, -1L, DARK));
+    }
+
+    @Test
+    public void get_differentModel_dropsEntries() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        cache.put(MODEL, 1L, DARK, BLACK);
+        assertNull(cache.get("5#FLOAT:2", 1L, DARK));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void get_hit_doesNotRewriteFile() throws IOException {
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        cache.put(MODEL, 1L, DARK, BLACK);
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        assertNotNull(cache.get(MODEL, 1L, DARK));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void newInstance_readsPersistedEntriesInLruOrder() throws IOException {
+        SoilResultCache first = new SoilResultCache(file, 3);
+        first.put(MODEL, -1L, DARK, BLACK);
+        first.put(MODEL, 0L, DARK, RED);
+        first.get(MODEL, -1L, DARK);
+        first.put(MODEL, 0xFFFFL, DARK, RED); // Saves the order the hit left behind
+
+        SoilResultCache reopened = new SoilResultCache(file, 3);
+        reopened.put(MODEL, 0xFFFFFFFFL, DARK, RED);
+        assertArrayEquals(BLACK, reopened.get(MODEL, -1L, DARK), 0f);
+        assertNull(reopened.get(MODEL, 0L, DARK));
+    }
+
+    @Test
+    public void newInstance_corruptFile_startsEmpty() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("{not json".getBytes(StandardCharsets.UTF_8));
+        }
+        SoilResultCache cache = new SoilResultCache(file, 4);
+        assertNull(cache.get(MODEL, 1L, DARK));
+    }
+}
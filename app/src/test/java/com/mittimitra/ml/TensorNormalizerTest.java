@@ -0,0 +1,126 @@
+package com.mittimitra.ml;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TensorNormalizer.
+ * Verifies channel order, scaling, the bulk FloatBuffer write and the uint8/int8 quantization
+ * used by the soil classifier.
+ */
+public class TensorNormalizerTest {
+
+    @Test
+    public void normalizeRgb_extractsChannelsInRgbOrder() {
+        int[] pixels = {0xFF336699};
+        float[] scratch = new float[3];
+        TensorNormalizer.normalizeRgb(pixels, 1, scratch);
+        assertEquals(0x33 / 255.0f, scratch[0], 0f);
+        assertEquals(0x66 / 255.0f, scratch[1], 0f);
+        assertEquals(0x99 / 255.0f, scratch[2], 0f);
+    }
+
+    @Test
+    public void normalizeRgb_ignoresAlpha() {
+        float[] opaque = new float[3];
+        float[] transparent = new float[3];
+        TensorNormalizer.normalizeRgb(new int[]{0xFF102030}, 1, opaque);
+        TensorNormalizer.normalizeRgb(new int[]{0x00102030}, 1, transparent);
+        assertArrayEquals(opaque, transparent, 0f);
+    }
+
+    @Test
+    public void normalizeRgb_extremesMapToUnitRange() {
+        float[] scratch = new float[6];
+        TensorNormalizer.normalizeRgb(new int[]{0xFF000000, 0xFFFFFFFF}, 2, scratch);
+        assertEquals(0f, scratch[0], 0f);
+        assertEquals(1f, scratch[5], 0f);
+    }
+
+    @Test
+    public void writeRgb_bulkWriteMatchesPerValuePut() {
+        int[] pixels = new int[16];
+        for (int i = 0; i < pixels.length; i++) pixels[i] = 0xFF000000 | (i * 0x0F0B07);
+
+        ByteBuffer expected = ByteBuffer.allocateDirect(4 * 48).order(ByteOrder.nativeOrder());
+        for (int val : pixels) {
+            expected.putFloat(((val >> 16) & 0xFF) / 255.0f);
+            expected.putFloat(((val >> 8) & 0xFF) / 255.0f);
+            expected.putFloat((val & 0xFF) / 255.0f);
+        }
+
+        ByteBuffer actual = ByteBuffer.allocateDirect(4 * 48).order(ByteOrder.nativeOrder());
+        FloatBuffer view = actual.asFloatBuffer();
+        TensorNormalizer.writeRgb(pixels, pixels.length, new float[48], view);
+
+        expected.rewind();
+        assertEquals(48, view.position());
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void normalizeRgb_scratchTooSmall_throws() {
+        TensorNormalizer.normalizeRgb(new int[4], 4, new float[11]);
+    }
+
+    @Test
+    public void quantizationTable_uint8UnitScale_isIdentity() {
+        byte[] table = TensorNormalizer.quantizationTable(1f / 255f, 0, false);
+        for (int i = 0; i < 256; i++) {
+            assertEquals(i, table[i] & 0xFF);
+        }
+    }
+
+    @Test
+    public void quantizationTable_int8_shiftsByZeroPoint() {
+        byte[] table = TensorNormalizer.quantizationTable(1f / 255f, -128, true);
+        assertEquals(-128, table[0]);
+        assertEquals(127, table[255]);
+    }
+
+    @Test
+    public void quantizationTable_clampsOutOfRangeValues() {
+        // Scale too small for the input range: upper values saturate at 255
+        byte[] table = TensorNormalizer.quantizationTable(1f / 510f, 0, false);
+        assertEquals(255, table[255] & 0xFF);
+        assertEquals(255, table[200] & 0xFF);
+    }
+
+    @Test
+    public void writeQuantizedRgb_writesRgbBytesInOrder() {
+        byte[] table = TensorNormalizer.quantizationTable(1f / 255f, 0, false);
+        ByteBuffer out = ByteBuffer.allocateDirect(3);
+        TensorNormalizer.writeQuantizedRgb(new int[]{0xFF336699}, 1, table, new byte[3], out);
+        assertEquals(3, out.position());
+        assertEquals(0x33, out.get(0) & 0xFF);
+        assertEquals(0x66, out.get(1) & 0xFF);
+        assertEquals(0x99, out.get(2) & 0xFF);
+    }
+
+    @Test
+    public void dequantize_uint8_appliesScaleAndZeroPoint() {
+        float[] out = new float[2];
+        TensorNormalizer.dequantize(new byte[]{(byte) 255, 0}, 1f / 256f, 0, false, out);
+        assertEquals(255f / 256f, out[0], 1e-6f);
+        assertEquals(0f, out[1], 0f);
+    }
+
+    @Test
+    public void dequantize_int8_appliesZeroPoint() {
+        float[] out = new float[1];
+        TensorNormalizer.dequantize(new byte[]{-28}, 0.5f, -128, true, out);
+        assertEquals(50f, out[0], 0f);
+    }
+
+    @Test
+    public void dequantize_missingScale_fallsBackToUnitRange() {
+        float[] out = new float[1];
+        TensorNormalizer.dequantize(new byte[]{(byte) 255}, 0f, 17, false, out);
+        assertEquals(1f, out[0], 1e-6f);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mittimitra.utils;
+
+import org.junit.Test;
+
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Base64DataUrlStream.
+ * Tests that streamed output matches a one-shot Base64 encoding for every padding case and write pattern.
+ */
+public class Base64DataUrlStreamTest {
+
+    private static final String PREFIX = "data:image/jpeg;base64,";
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void toDataUrl_noBytes_returnsPrefixOnly() {
+        assertEquals(PREFIX, new Base64DataUrlStream("image/jpeg", 0).toDataUrl());
+    }
+
+    @Test
+    public void write_allPaddingCases_matchesJdkEncoder() {
+        for (int length = 1; length <= 7; length++) {
+            byte[] bytes = randomBytes(length);
+            Base64DataUrlStream out = new Base64DataUrlStream("image/jpeg", length);
+            out.write(bytes, 0, bytes.length);
+            assertEquals(PREFIX + Base64.getEncoder().encodeToString(bytes), out.toDataUrl());
+        }
+    }
+
+    @Test
+    public void write_oddChunksAndSingleBytes_matchesJdkEncoder() {
+        byte[] bytes = randomBytes(10_000);
+        Base64DataUrlStream out = new Base64DataUrlStream("image/jpeg", 100);
+        int offset = 0;
+        int chunk = 1;
+        while (offset < bytes.length) {
+            int length = Math.min(chunk, bytes.length - offset);
+            if (length == 1) {
+                out.write(bytes[offset]);
+            } else {
+                out.write(bytes, offset, length);
+            }
+            offset += length;
+            chunk = chunk % 7 + 1;
+        }
+        assertEquals(PREFIX + Base64.getEncoder().encodeToString(bytes), out.toDataUrl());
+    }
+
+    @Test
+    public void write_underestimatedSize_growsBuffer() {
+        byte[] bytes = randomBytes(4096);
+        Base64DataUrlStream out = new Base64DataUrlStream("image/webp", 1);
+        out.write(bytes, 0, bytes.length);
+        assertEquals("data:image/webp;base64," + Base64.getEncoder().encodeToString(bytes), out.toDataUrl());
+    }
+
+    @Test
+    public void toDataUrl_calledTwice_returnsSameString() {
+        Base64DataUrlStream out = new Base64DataUrlStream("image/jpeg", 2);
+        out.write(1);
+        out.write(2);
+        assertSame(out.toDataUrl(), out.toDataUrl());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void write_afterToDataUrl_throws() {
+        Base64DataUrlStream out = new Base64DataUrlStream("image/jpeg", 1);
+        out.toDataUrl();
+        out.write(1);
+    }
+
+    @Test
+    public void encodedLength_roundsUpToWholeGroups() {
+        assertEquals(0, Base64DataUrlStream.encodedLength(0));
+        assertEquals(4, Base64DataUrlStream.encodedLength(1));
+        assertEquals(4, Base64DataUrlStream.encodedLength(3));
+        assertEquals(8, Base64DataUrlStream.encodedLength(4));
+    }
+}
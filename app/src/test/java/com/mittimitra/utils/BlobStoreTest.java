@@ -0,0 +1,170 @@
+package com.mittimitra.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for BlobStore.
+ * Tests content hashing, deduplication, discarded writes, release and garbage collection.
+ */
+public class BlobStoreTest {
+
+    private static final String ABC_SHA256 =
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private File directory;
+    private BlobStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("blobs").toFile();
+        store = new BlobStore(directory);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    @Test
+    public void put_namesFileBySha256() throws IOException {
+        BlobStore.Blob blob = store.put(stream("abc"));
+        assertEquals(ABC_SHA256, blob.hash);
+        assertEquals(ABC_SHA256, blob.file.getName());
+        assertEquals(3, blob.size);
+        assertFalse(blob.deduplicated);
+        assertEquals("abc", read(blob.file));
+    }
+
+    @Test
+    public void put_sameContentTwice_storesOneFile() throws IOException {
+        BlobStore.Blob first = store.put(stream("land record"));
+        BlobStore.Blob second = store.put(stream("land record"));
+        assertEquals(first.file, second.file);
+        assertTrue(second.deduplicated);
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void put_differentContent_storesSeparately() throws IOException {
+        BlobStore.Blob first = store.put(stream("one"));
+        BlobStore.Blob second = store.put(stream("two"));
+        assertNotEquals(first.file, second.file);
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    @Test
+    public void writer_closedWithoutCommit_leavesNothing() throws IOException {
+        try (BlobStore.Writer writer = store.newWriter()) {
+            writer.write("partial".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void release_referencedBlob_isKept() throws IOException {
+        File file = store.put(stream("abc")).file;
+        age(file);
+        assertFalse(store.release(file.getPath(), 1));
+        assertTrue(file.exists());
+    }
+
+    @Test
+    public void release_recentlyStoredBlob_waitsForGracePeriod() throws IOException {
+        File file = store.put(stream("abc")).file;
+        assertFalse(store.release(file.getPath(), 0));
+        assertTrue(file.exists());
+
+        age(file);
+        assertTrue(store.release(file.getPath(), 0));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void release_blob_deletesItsThumbnail() throws IOException {
+        File file = store.put(stream("abc")).file;
+        File thumbnail = new File(directory, file.getName() + "_thumb.webp");
+        Files.write(thumbnail.toPath(), new byte[]{1});
+        age(file);
+
+        assertTrue(store.release(file.getPath(), 0));
+        assertFalse(thumbnail.exists());
+    }
+
+    @Test
+    public void release_legacyFile_isDeletedImmediately() throws IOException {
+        File legacy = new File(directory, "1700000000000_deed.pdf");
+        Files.write(legacy.toPath(), new byte[]{1, 2, 3});
+        assertFalse(store.contains(legacy));
+        assertTrue(store.release(legacy.getPath(), 0));
+        assertFalse(legacy.exists());
+    }
+
+    @Test
+    public void collectGarbage_deletesOnlyOldUnreferencedBlobs() throws IOException {
+        File referenced = store.put(stream("kept")).file;
+        File orphan = store.put(stream("orphan")).file;
+        File recent = store.put(stream("recent")).file;
+        File orphanThumbnail = new File(directory, orphan.getName() + "_thumb.webp");
+        File keptThumbnail = new File(directory, referenced.getName() + "_thumb.webp");
+        File other = new File(directory, "notes_thumb.webp");
+        Files.write(orphanThumbnail.toPath(), new byte[]{1});
+        Files.write(keptThumbnail.toPath(), new byte[]{1});
+        Files.write(other.toPath(), new byte[]{1});
+        age(referenced);
+        age(orphan);
+        age(orphanThumbnail);
+        age(keptThumbnail);
+        age(other);
+
+        int deleted = store.collectGarbage(Arrays.asList(referenced.getAbsolutePath(), null));
+
+        assertEquals(2, deleted);
+        assertTrue(referenced.exists());
+        assertFalse(orphan.exists());
+        assertTrue(recent.exists());
+        assertFalse(orphanThumbnail.exists());
+        assertTrue(keptThumbnail.exists());
+        assertTrue(other.exists());
+    }
+
+    @Test
+    public void put_reusedOldBlob_restartsGracePeriod() throws IOException {
+        File file = store.put(stream("abc")).file;
+        age(file);
+        store.put(stream("abc"));
+        assertEquals(0, store.collectGarbage(Collections.emptyList()));
+        assertTrue(file.exists());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void age(File file) {
+        assertTrue(file.setLastModified(System.currentTimeMillis() - BlobStore.GRACE_MILLIS - 60_000));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mittimitra.utils;
+
+import com.mittimitra.database.entity.ChatMessage;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ChatArchiveCodec.
+ * Tests that blocks round-trip every message field, that bad payloads are rejected,
+ * and that keywords hold each distinct word once.
+ */
+public class ChatArchiveCodecTest {
+
+    // ========== ENCODE / DECODE TESTS ==========
+
+    @Test
+    public void decode_encodedBlock_returnsSameMessages() throws IOException {
+        List<ChatMessage> messages = Arrays.asList(
+                message(1, 100, true, "How much urea for wheat?"),
+                message(2, 200, false, "गेहूं के लिए 120 किलो यूरिया प्रति हेक्टेयर"),
+                message(3, 300, false, null));
+
+        List<ChatMessage> decoded = ChatArchiveCodec.decode(ChatArchiveCodec.encode(messages), "user-1");
+
+        assertEquals(3, decoded.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(messages.get(i).messageId, decoded.get(i).messageId);
+            assertEquals(messages.get(i).timestamp, decoded.get(i).timestamp);
+            assertEquals(messages.get(i).isUser, decoded.get(i).isUser);
+            assertEquals(messages.get(i).content, decoded.get(i).content);
+            assertEquals("user-1", decoded.get(i).userId);
+        }
+    }
+
+    @Test
+    public void decode_emptyBlock_returnsEmpty() throws IOException {
+        assertTrue(ChatArchiveCodec.decode(ChatArchiveCodec.encode(Collections.emptyList()), "user-1").isEmpty());
+    }
+
+    @Test
+    public void decode_longMessage_isNotTruncated() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 100_000) {
+            text.append("Irrigate every third day. ");
+        }
+        List<ChatMessage> decoded = ChatArchiveCodec.decode(
+                ChatArchiveCodec.encode(Collections.singletonList(message(1, 100, false, text.toString()))), null);
+
+        assertEquals(text.toString(), decoded.get(0).content);
+    }
+
+    @Test
+    public void encode_repetitiveConversation_isSmallerThanText() {
+        List<ChatMessage> messages = new ArrayList<>();
+        int textBytes = 0;
+        for (int i = 0; i < 100; i++) {
+            String content = "Apply neem oil spray in the evening to control aphids on the cotton crop.";
+            messages.add(message(i, 1_700_000_000_000L + i * 1000L, i % 2 == 0, content));
+            textBytes += content.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        assertTrue(ChatArchiveCodec.encode(messages).length < textBytes / 4);
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_notGzip_throws() throws IOException {
+        ChatArchiveCodec.decode(new byte[]{1, 2, 3, 4}, null);
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_truncatedBlock_throws() throws IOException {
+        byte[] payload = ChatArchiveCodec.encode(Collections.singletonList(message(1, 100, true, "Hello")));
+
+        ChatArchiveCodec.decode(Arrays.copyOf(payload, payload.length / 2), null);
+    }
+
+    // ========== KEYWORD TESTS ==========
+
+    @Test
+    public void keywords_repeatedWords_listedOnceLowerCase() {
+        String keywords = ChatArchiveCodec.keywords(Arrays.asList(
+                message(1, 100, true, "Red soil, red SOIL!"),
+                message(2, 200, false, "Add lime to red soil.")));
+
+        assertEquals("red soil add lime to", keywords);
+    }
+
+    @Test
+    public void keywords_nullContent_isSkipped() {
+        assertEquals("", ChatArchiveCodec.keywords(Collections.singletonList(message(1, 100, true, null))));
+    }
+
+    private static ChatMessage message(long id, long timestamp, boolean isUser, String content) {
+        ChatMessage message = new ChatMessage();
+        message.messageId = id;
+        message.timestamp = timestamp;
+        message.isUser = isUser;
+        message.content = content;
+        return message;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mittimitra.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for EncodeSearch.
+ * Tests the resolution ladder and the quality/resolution search against a synthetic encoder.
+ */
+public class EncodeSearchTest {
+
+    /** Fake encoder whose output size grows with pixel count and quality. */
+    private static final class SizeModel implements EncodeSearch.Encoder {
+        int calls;
+
+        @Override
+        public byte[] encode(EncodeSearch.Format format, int longSide, int quality) {
+            calls++;
+            long pixels = (long) longSide * longSide * 3 / 4;
+            return new byte[(int) (pixels * quality / 400)];
+        }
+
+        static int size(int longSide, int quality) {
+            long pixels = (long) longSide * longSide * 3 / 4;
+            return (int) (pixels * quality / 400);
+        }
+    }
+
+    private final EncodeSearch search = new EncodeSearch(50, 90);
+
+    @Test
+    public void ladder_shrinksByStepsAndEndsAtMinimum() {
+        assertEquals(Arrays.asList(1024, 819, 655, 640), EncodeSearch.ladder(1024, 640));
+    }
+
+    @Test
+    public void ladder_sourceBelowMinimum_keepsSourceSize() {
+        assertEquals(Arrays.asList(500), EncodeSearch.ladder(500, 640));
+    }
+
+    @Test
+    public void search_generousBudget_usesMaxQualityInOneEncode() {
+        SizeModel encoder = new SizeModel();
+        EncodeSearch.Result result = search.search(EncodeSearch.Format.WEBP, 1024, 10_000_000, 640, encoder);
+        assertEquals(1024, result.longSide);
+        assertEquals(90, result.quality);
+        assertEquals(1, result.attempts);
+        assertTrue(result.withinBudget);
+    }
+
+    @Test
+    public void search_tightBudget_findsHighestFittingQualityAtFullSize() {
+        // Full size fits at quality 70 but not 75
+        long budget = SizeModel.size(1024, 72);
+        SizeModel encoder = new SizeModel();
+        EncodeSearch.Result result = search.search(EncodeSearch.Format.JPEG, 1024, budget, 640, encoder);
+        assertEquals(1024, result.longSide);
+        assertEquals(70, result.quality);
+        assertTrue(result.withinBudget);
+        assertTrue(result.bytes.length <= budget);
+        assertEquals(encoder.calls, result.attempts);
+    }
+
+    @Test
+    public void search_budgetBelowMinQuality_dropsResolution() {
+        long budget = SizeModel.size(819, 60);
+        EncodeSearch.Result result = search.search(EncodeSearch.Format.WEBP, 1024, budget, 640, new SizeModel());
+        assertEquals(819, result.longSide);
+        assertEquals(60, result.quality);
+        assertTrue(result.withinBudget);
+    }
+
+    @Test
+    public void search_impossibleBudget_keepsMinimumResolution() {
+        EncodeSearch.Result result = search.search(EncodeSearch.Format.WEBP, 1024, 10, 640, new SizeModel());
+        assertEquals(640, result.longSide);
+        assertEquals(50, result.quality);
+        assertFalse(result.withinBudget);
+    }
+
+    @Test
+    public void toDataUrl_usesFormatMimeType() {
+        EncodeSearch.Result result = search.search(EncodeSearch.Format.WEBP, 16, 10_000, 8,
+                (format, longSide, quality) -> new byte[]{1, 2, 3});
+        assertEquals("data:image/webp;base64,AQID", result.toDataUrl());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_invertedQualityRange_throws() {
+        new EncodeSearch(90, 50);
+    }
+}
@@ -0,0 +1,120 @@
+package com.mittimitra.utils;
+
+import com.mittimitra.database.entity.SearchMatch;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FtsQuery.
+ * Tests MATCH expression building from typed text and BM25 ranking from matchinfo blobs.
+ */
+public class FtsQueryTest {
+
+    // ========== QUERY BUILDING TESTS ==========
+
+    @Test
+    public void prefixMatch_words_quotesEachAsPrefix() {
+        assertEquals("\"red*\" \"so*\"", FtsQuery.prefixMatch("  red so "));
+    }
+
+    @Test
+    public void prefixMatch_operatorsAndQuotes_areTreatedAsText() {
+        assertEquals("\"nashik*\" \"OR*\" \"pune*\"", FtsQuery.prefixMatch("\"nashik\" OR -pune*"));
+    }
+
+    @Test
+    public void prefixMatch_devanagariWithVowelSigns_keepsWordWhole() {
+        assertEquals("\"मिट्टी*\"", FtsQuery.prefixMatch("मिट्टी"));
+    }
+
+    @Test
+    public void prefixMatch_noWords_returnsNull() {
+        assertNull(FtsQuery.prefixMatch(" .,;\"* "));
+        assertNull(FtsQuery.prefixMatch(null));
+    }
+
+    @Test
+    public void prefixMatch_manyWords_isCapped() {
+        String match = FtsQuery.prefixMatch("a b c d e f g h i j");
+        assertEquals(8, match.split(" ").length);
+    }
+
+    @Test
+    public void matchesPrefixes_everyWordPrefixesSomeWord_ignoringCase() {
+        assertTrue(FtsQuery.matchesPrefixes("Apply UREA before sowing wheat", "ure whe"));
+        assertTrue(FtsQuery.matchesPrefixes("मिट्टी की जांच", "मिट्"));
+    }
+
+    @Test
+    public void matchesPrefixes_missingWordOrInfix_isFalse() {
+        assertFalse(FtsQuery.matchesPrefixes("Apply urea before sowing", "urea rice"));
+        assertFalse(FtsQuery.matchesPrefixes("Apply urea", "rea"));
+    }
+
+    @Test
+    public void matchesPrefixes_blankQueryOrText_isFalse() {
+        assertFalse(FtsQuery.matchesPrefixes("Apply urea", " ,. "));
+        assertFalse(FtsQuery.matchesPrefixes(null, "urea"));
+    }
+
+    // ========== RANKING TESTS ==========
+
+    @Test
+    public void bm25_missingOrShortBlob_returnsZero() {
+        assertEquals(0, FtsQuery.bm25(null), 0);
+        assertEquals(0, FtsQuery.bm25(new byte[8]), 0);
+    }
+
+    @Test
+    public void bm25_moreHits_scoresHigher() {
+        assertTrue(FtsQuery.bm25(matchInfo(10, 4, 3, 2)) > FtsQuery.bm25(matchInfo(10, 4, 1, 2)));
+    }
+
+    @Test
+    public void bm25_rarerTerm_scoresHigher() {
+        assertTrue(FtsQuery.bm25(matchInfo(100, 4, 1, 2)) > FtsQuery.bm25(matchInfo(100, 4, 1, 60)));
+    }
+
+    @Test
+    public void bm25_shorterField_scoresHigher() {
+        assertTrue(FtsQuery.bm25(matchInfo(10, 2, 1, 2)) > FtsQuery.bm25(matchInfo(10, 12, 1, 2)));
+    }
+
+    @Test
+    public void rank_ordersByScoreThenNewest_andAppliesLimit() {
+        List<SearchMatch> matches = Arrays.asList(
+                match(1, 100, matchInfo(10, 4, 1, 2)),
+                match(2, 200, matchInfo(10, 4, 3, 2)),
+                match(3, 300, matchInfo(10, 4, 1, 2)),
+                match(4, 400, null));
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), FtsQuery.rank(matches, 3));
+    }
+
+    // ========== HELPERS ==========
+
+    /**
+     * 'pcnalx' blob for one phrase in one column.
+     */
+    private static byte[] matchInfo(int rows, int rowLength, int hits, int rowsWithHits) {
+        int[] ints = {1, 1, rows, 4, rowLength, hits, hits * 2, rowsWithHits};
+        ByteBuffer buffer = ByteBuffer.allocate(ints.length * 4).order(ByteOrder.nativeOrder());
+        for (int value : ints) buffer.putInt(value);
+        return buffer.array();
+    }
+
+    private static SearchMatch match(long id, long timestamp, byte[] matchInfo) {
+        SearchMatch match = new SearchMatch();
+        match.id = id;
+        match.timestamp = timestamp;
+        match.matchInfo = matchInfo;
+        return match;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mittimitra.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ImageSizing.
+ * Tests power-of-two sample sizes and aspect-preserving fit and cover sizes used by the decode pipeline.
+ */
+public class ImageSizingTest {
+
+    @Test
+    public void sampleSize_cameraPhoto_keepsDecodeAtLeastTargetSize() {
+        // 4000x3000 into 1024: sample 2 gives 2000x1500, sample 4 would undershoot at 1000x750
+        assertEquals(2, ImageSizing.sampleSize(4000, 3000, 1024, 1024));
+    }
+
+    @Test
+    public void sampleSize_exactPowerOfTwo_usesFullSample() {
+        assertEquals(4, ImageSizing.sampleSize(4096, 4096, 1024, 1024));
+    }
+
+    @Test
+    public void sampleSize_smallImage_returnsOne() {
+        assertEquals(1, ImageSizing.sampleSize(800, 600, 1024, 1024));
+    }
+
+    @Test
+    public void fit_landscape_capsLongestSide() {
+        int[] size = ImageSizing.fit(4000, 3000, 1024, 1024);
+        assertEquals(1024, size[0]);
+        assertEquals(768, size[1]);
+    }
+
+    @Test
+    public void fit_portraitWithWideBounds_capsHeight() {
+        int[] size = ImageSizing.fit(3000, 4000, 2000, 1000);
+        assertEquals(750, size[0]);
+        assertEquals(1000, size[1]);
+    }
+
+    @Test
+    public void fit_smallImage_isUnchanged() {
+        int[] size = ImageSizing.fit(640, 480, 1024, 1024);
+        assertEquals(640, size[0]);
+        assertEquals(480, size[1]);
+    }
+
+    @Test
+    public void fit_extremeAspect_keepsAtLeastOnePixel() {
+        int[] size = ImageSizing.fit(10000, 2, 100, 100);
+        assertEquals(100, size[0]);
+        assertEquals(1, size[1]);
+    }
+
+    @Test
+    public void fitScale_nonPositiveBounds_areUnbounded() {
+        assertEquals(1.0, ImageSizing.fitScale(5000, 5000, 0, 0), 1e-9);
+        assertEquals(0.5, ImageSizing.fitScale(2000, 5000, 1000, 0), 1e-9);
+    }
+
+    @Test
+    public void cover_cameraPhoto_shrinksShortSideToMinimum() {
+        int[] size = ImageSizing.cover(4000, 3000, 280, 280);
+        assertEquals(373, size[0]);
+        assertEquals(280, size[1]);
+    }
+
+    @Test
+    public void cover_wideView_coversBothSides() {
+        // A 1080x600 centre-cropped view of a portrait photo is limited by width
+        int[] size = ImageSizing.cover(3000, 4000, 1080, 600);
+        assertEquals(1080, size[0]);
+        assertEquals(1440, size[1]);
+    }
+
+    @Test
+    public void cover_smallImage_isNeverUpscaled() {
+        int[] size = ImageSizing.cover(200, 150, 280, 280);
+        assertEquals(200, size[0]);
+        assertEquals(150, size[1]);
+    }
+
+    @Test
+    public void sampleSizeForScale_coverScale_keepsDecodeAboveMinimum() {
+        double scale = ImageSizing.coverScale(4000, 3000, 280, 280);
+        // 3000 / 8 = 375 still covers 280; 3000 / 16 would not
+        assertEquals(8, ImageSizing.sampleSizeForScale(4000, 3000, scale));
+    }
+}
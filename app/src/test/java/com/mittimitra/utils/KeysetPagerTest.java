@@ -0,0 +1,154 @@
+package com.mittimitra.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for KeysetPager.
+ * Tests page-by-page loading from the last row, end detection, duplicate-load suppression,
+ * dropping of pages that belong to a list replaced by refresh, and reloading every loaded row.
+ */
+public class KeysetPagerTest {
+
+    private final List<Integer> rows = new ArrayList<>();
+    private final List<Integer> afterKeys = new ArrayList<>();
+    private final List<Integer> received = new ArrayList<>();
+    private final List<Boolean> firstPages = new ArrayList<>();
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private boolean lastHasMore;
+    private KeysetPager<Integer> pager;
+
+    @Before
+    public void setUp() {
+        for (int i = 1; i <= 45; i++) rows.add(i);
+        pager = new KeysetPager<>((after, limit) -> {
+            afterKeys.add(after);
+            List<Integer> page = new ArrayList<>();
+            for (Integer row : rows) {
+                if ((after == null || row > after) && page.size() < limit) page.add(row);
+            }
+            return page;
+        }, 20, background::add, Runnable::run, (page, firstPage, hasMore) -> {
+            if (firstPage) received.clear();
+            received.addAll(page);
+            firstPages.add(firstPage);
+            lastHasMore = hasMore;
+        });
+    }
+
+    @Test
+    public void refresh_loadsFirstPageOnly() {
+        pager.refresh();
+        runBackground();
+        assertEquals(20, received.size());
+        assertEquals(Integer.valueOf(20), received.get(19));
+        assertTrue(lastHasMore);
+        assertEquals(Boolean.TRUE, firstPages.get(0));
+    }
+
+    @Test
+    public void loadMore_continuesAfterLastRowUntilEnd() {
+        pager.refresh();
+        runBackground();
+        pager.loadMore();
+        runBackground();
+        pager.loadMore();
+        runBackground();
+
+        assertEquals(rows, received);
+        assertNull(afterKeys.get(0));
+        assertEquals(Integer.valueOf(20), afterKeys.get(1));
+        assertEquals(Integer.valueOf(40), afterKeys.get(2));
+        assertFalse(lastHasMore);
+        assertFalse(pager.hasMore());
+
+        pager.loadMore();
+        assertTrue(background.isEmpty());
+    }
+
+    @Test
+    public void loadMore_whileLoading_isIgnored() {
+        pager.refresh();
+        pager.loadMore();
+        assertEquals(1, background.size());
+        assertTrue(pager.isLoading());
+    }
+
+    @Test
+    public void loadMore_beforeRefresh_doesNothing() {
+        pager.loadMore();
+        assertTrue(background.isEmpty());
+    }
+
+    @Test
+    public void refresh_whileLoading_dropsStalePage() {
+        pager.refresh();
+        runBackground();
+        pager.loadMore();
+        rows.clear();
+        rows.add(100);
+        pager.refresh();
+        runBackground();
+
+        // Only the two first pages were delivered, never the stale second page
+        assertEquals(2, firstPages.size());
+        assertEquals(1, received.size());
+        assertEquals(Integer.valueOf(100), received.get(0));
+        assertFalse(lastHasMore);
+        assertFalse(pager.isLoading());
+    }
+
+    @Test
+    public void reload_afterDelete_keepsLoadedRangeAndPaging() {
+        pager.refresh();
+        runBackground();
+        pager.loadMore();
+        runBackground();
+        rows.remove(Integer.valueOf(5));
+
+        pager.reload();
+        runBackground();
+
+        assertEquals(40, received.size());
+        assertFalse(received.contains(5));
+        assertEquals(Integer.valueOf(41), received.get(39));
+        assertTrue(pager.hasMore());
+
+        pager.loadMore();
+        runBackground();
+        assertEquals(44, received.size());
+        assertFalse(pager.hasMore());
+    }
+
+    @Test
+    public void reload_beforeFullPage_readsOnePage() {
+        pager.refresh();
+        runBackground();
+        rows.remove(Integer.valueOf(1));
+
+        pager.reload();
+        runBackground();
+
+        assertEquals(20, received.size());
+        assertEquals(Integer.valueOf(2), received.get(0));
+        assertEquals(Boolean.TRUE, firstPages.get(firstPages.size() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_nonPositivePageSize_throws() {
+        new KeysetPager<Integer>((after, limit) -> new ArrayList<>(), 0, Runnable::run, Runnable::run,
+                (page, firstPage, hasMore) -> { });
+    }
+
+    private void runBackground() {
+        Runnable task;
+        while ((task = background.poll()) != null) task.run();
+    }
+}
@@ -81,6 +81,13 @@ function validateNumber(value, field, min = -1e6, max = 1e6) {
   return value;
 }
 
+function validateLabels(value, field) {
+  if (!Array.isArray(value) || value.length < 1 || value.length > 20) {
+    throw new HttpsError("invalid-argument", `${field} must be a non-empty array`);
+  }
+  return value.map((label, i) => validateString(label, `${field}[${i}]`, 1, 60));
+}
+
 function maskPhone(phone) {
   if (!phone || phone.length < 6) return phone || "";
   return `${phone.slice(0, 3)}****${phone.slice(-3)}`;
@@ -203,6 +210,14 @@ function normalizeConfidence(value, fallback = 55) {
   return normalized;
 }
 
+// Maps a model answer such as "Black Soil" or "black" onto one of the caller's labels, or null
+function matchSoilLabel(answer, labels) {
+  if (typeof answer !== "string") return null;
+  const normalize = (label) => label.trim().toLowerCase().replace(/\s+soil$/, "");
+  const wanted = normalize(answer);
+  return labels.find((label) => normalize(label) === wanted) || null;
+}
+
 function fallbackSoilAdvisory(data) {
   const actions = [];
   if (data.nitrogen < 200) actions.push("Nitrogen is low. Apply split urea doses with irrigation.");
@@ -547,6 +562,66 @@ ${schemaInstruction}`;
   }
 });
 
+exports.getSoilClassification = onCall({region: REGION, timeoutSeconds: 30, secrets: [GROQ_API_KEY, GEMINI_API_KEY]}, async (request) => {
+  const t = traceId();
+  try {
+    const uid = requireAuth(request);
+    await enforceRateLimit(uid, "getSoilClassification", t);
+
+    const image = validateString(request.data?.imageBase64DataUrl || "", "imageBase64DataUrl", 100, 8_000_000);
+    const labels = validateLabels(request.data?.labels, "labels");
+    const localLabel = request.data?.localLabel ? validateString(request.data.localLabel, "localLabel", 0, 60) : "";
+    const localConfidence = request.data?.localConfidence != null
+      ? validateNumber(request.data.localConfidence, "localConfidence", 0, 1)
+      : null;
+    const location = request.data?.location ? validateString(request.data.location, "location", 0, 120) : "";
+
+    const systemPrompt = `You are a soil scientist classifying Indian soils from field photos.
+Pick exactly one soil type from this list: ${labels.join(", ")}.
+Judge from visible colour, texture, moisture and structure. If the photo does not show soil, pick the closest type and set confidence below 20.
+Return ONLY valid JSON, no markdown. Schema:
+{
+  "soilType": "one of the listed soil types, spelled exactly as given",
+  "confidence": number (0-100)
+}`;
+    const hint = localLabel && localConfidence != null
+      ? ` An on-device model guessed ${localLabel} with ${Math.round(localConfidence * 100)}% confidence; it is often wrong when unsure.`
+      : "";
+    const userText = `Classify the soil in this photo.${location ? " Farm location: " + location + "." : ""}${hint}`;
+
+    let content;
+    try {
+      content = await callGeminiVision(image, systemPrompt, userText);
+    } catch (geminiErr) {
+      console.warn("[getSoilClassification][gemini-fallback]", geminiErr.message);
+      content = await callGroqChat([
+        {role: "system", content: systemPrompt},
+        {
+          role: "user",
+          content: [
+            {type: "text", text: userText},
+            {type: "image_url", image_url: {url: image}},
+          ],
+        },
+      ], {model: "meta-llama/llama-4-scout-17b-16e-instruct", temperature: 0.1, maxTokens: 200});
+    }
+
+    const parsed = parseFirstJson(content);
+    const soilType = matchSoilLabel(parsed.soilType, labels);
+    if (!soilType) {
+      // The app keeps its local answer rather than showing a class it does not know
+      return failure("SOIL_LABEL_UNKNOWN", "Model answered with a soil type outside the requested labels", t);
+    }
+    return success({
+      soilType,
+      confidence: normalizeConfidence(parsed.confidence, 50),
+    }, "Soil classified", "SOIL_CLASSIFICATION_OK", t);
+  } catch (err) {
+    console.error("[getSoilClassification]", err);
+    return failure("SOIL_CLASSIFICATION_FAILED", err.message || "Soil classification failed", t);
+  }
+});
+
 exports.getFarmerChatResponse = onCall({region: REGION, timeoutSeconds: 45, secrets: [GROQ_API_KEY]}, async (request) => {
   const t = traceId();
   try {